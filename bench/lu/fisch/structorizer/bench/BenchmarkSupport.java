@@ -0,0 +1,214 @@
+/*
+    Structorizer
+    A little tool which you can use to create Nassi-Schneiderman Diagrams (NSD)
+
+    Copyright (C) 2009  Bob Fisch
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or any
+    later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+
+package lu.fisch.structorizer.bench;
+
+/******************************************************************************************************
+ *
+ *      Description:    Common helpers of the benchmarks and checkers (source root "bench").
+ *
+ ******************************************************************************************************
+ *
+ *      Comment:
+ *      2026-10-19 (KGU#907)
+ *      - The bench classes are not part of the distribution. They are compiled against a build of the
+ *        application classes and run by the ant target "bench" (see build.xml).
+ *      - There is no benchmark framework among the libraries, so the timing follows the JMH scheme in
+ *        a simple way: a number of warmup iterations is discarded, the measured iterations are
+ *        reported as mean and standard deviation, and all results are consumed by a sink such
+ *        that the JIT compiler can't eliminate the work.
+ *      - The corpus consists of the diagrams of the sample arrangements (samples/arrz by default,
+ *        may be changed via system property "bench.samples").
+ *      - Only classes and methods that already existed before the optimisations are used here, such
+ *        that a benchmark can also be compiled and run against a build of the previous revision.
+ *
+ ******************************************************************************************************///
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import lu.fisch.structorizer.archivar.Archivar;
+import lu.fisch.structorizer.archivar.ArchivePool;
+import lu.fisch.structorizer.elements.Element;
+import lu.fisch.structorizer.elements.IElementVisitor;
+import lu.fisch.structorizer.elements.Root;
+import lu.fisch.structorizer.io.ArrFilter;
+import lu.fisch.structorizer.io.ArrZipFilter;
+import lu.fisch.structorizer.io.StructogramFilter;
+import lu.fisch.structorizer.parsers.NSDParser;
+
+/**
+ * Timing, heap measurement and corpus retrieval for the benchmark and checker classes.
+ */
+public final class BenchmarkSupport {
+
+	/** A unit of work to be timed. The result is consumed in order to keep the work alive. */
+	public interface Workload {
+		Object run() throws Exception;
+	}
+
+	/** Number of discarded warmup iterations (system property "bench.warmups") */
+	public static final int WARMUPS = Integer.getInteger("bench.warmups", 5);
+	/** Number of measured iterations (system property "bench.iterations") */
+	public static final int ITERATIONS = Integer.getInteger("bench.iterations", 10);
+
+	private static volatile int sink = 0;
+
+	private BenchmarkSupport() {}
+
+	/**
+	 * Runs {@code _workload} {@link #WARMUPS} times unmeasured and then {@link #ITERATIONS}
+	 * times measured, and prints the mean time per run.
+	 * @param _label - the name of the workload for the report
+	 * @param _workload - the work to be timed
+	 * @return the mean time per run in milliseconds
+	 * @throws Exception if the workload fails
+	 */
+	public static double measure(String _label, Workload _workload) throws Exception
+	{
+		for (int i = 0; i < WARMUPS; i++) {
+			consume(_workload.run());
+		}
+		double[] times = new double[ITERATIONS];
+		double sum = 0.0;
+		for (int i = 0; i < ITERATIONS; i++) {
+			long start = System.nanoTime();
+			consume(_workload.run());
+			times[i] = (System.nanoTime() - start) / 1e6;
+			sum += times[i];
+		}
+		double mean = sum / ITERATIONS;
+		double var = 0.0;
+		for (double time: times) {
+			var += (time - mean) * (time - mean);
+		}
+		double dev = ITERATIONS > 1 ? Math.sqrt(var / (ITERATIONS - 1)) : 0.0;
+		System.out.println(String.format("%-48s %12.3f +- %9.3f ms/op", _label, mean, dev));
+		return mean;
+	}
+
+	/** Keeps the given result alive (in the sense of a JMH blackhole) */
+	public static void consume(Object _result)
+	{
+		if (_result != null) {
+			sink += System.identityHashCode(_result);
+		}
+	}
+
+	/**
+	 * @return the heap memory in use after some garbage collection attempts
+	 */
+	public static long usedHeap()
+	{
+		Runtime rt = Runtime.getRuntime();
+		long used = Long.MAX_VALUE;
+		for (int i = 0; i < 5; i++) {
+			System.gc();
+			try {
+				Thread.sleep(50);
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+			used = Math.min(used, rt.totalMemory() - rt.freeMemory());
+		}
+		return used;
+	}
+
+	/**
+	 * Loads all diagrams from the arrangement files (and diagram files) in the sample
+	 * directory (system property "bench.samples", default "samples/arrz").
+	 * @return the diagrams in a reproducible order
+	 * @throws Exception if the directory or a file can't be read
+	 */
+	public static List<Root> loadSampleDiagrams() throws Exception
+	{
+		File dir = new File(System.getProperty("bench.samples", "samples/arrz"));
+		File[] files = dir.listFiles();
+		if (files == null) {
+			throw new IllegalArgumentException("No sample directory " + dir.getAbsolutePath());
+		}
+		Arrays.sort(files);
+		Archivar archivar = new Archivar();
+		List<Root> roots = new ArrayList<Root>();
+		for (File file: files) {
+			String name = file.getName();
+			if (ArrZipFilter.isArr(name)) {
+				roots.addAll(sorted(new ArchivePool(archivar.unzipArrangementArchive(file, null)).getAllRoots()));
+			}
+			else if (ArrFilter.isArr(name)) {
+				roots.addAll(sorted(new ArchivePool(archivar.makeNewIndexFor(file)).getAllRoots()));
+			}
+			else if (StructogramFilter.isNSD(name)) {
+				roots.add(new NSDParser().parse(file));
+			}
+		}
+		return roots;
+	}
+
+	private static List<Root> sorted(Collection<Root> _roots)
+	{
+		List<Root> roots = new ArrayList<Root>(_roots);
+		Collections.sort(roots, new Comparator<Root>() {
+			@Override
+			public int compare(Root root1, Root root2) {
+				return root1.getSignatureString(false).compareTo(root2.getSignatureString(false));
+			}
+		});
+		return roots;
+	}
+
+	/**
+	 * Collects the texts of all elements of the given diagrams: every text and comment
+	 * line as well as the complete (multi-line) text and comment of each element.
+	 * @param _roots - the diagrams
+	 * @return the list of texts (in traversal order, with duplicates)
+	 */
+	public static List<String> collectTexts(List<Root> _roots)
+	{
+		final List<String> texts = new ArrayList<String>();
+		for (Root root: _roots) {
+			root.traverse(new IElementVisitor() {
+				@Override
+				public boolean visitPreOrder(Element _ele) {
+					for (int i = 0; i < _ele.getText().count(); i++) {
+						texts.add(_ele.getText().get(i));
+					}
+					for (int i = 0; i < _ele.getComment().count(); i++) {
+						texts.add(_ele.getComment().get(i));
+					}
+					texts.add(_ele.getText().getText());
+					texts.add(_ele.getComment().getText());
+					return true;
+				}
+				@Override
+				public boolean visitPostOrder(Element _ele) {
+					return true;
+				}
+			});
+		}
+		return texts;
+	}
+}
@@ -0,0 +1,176 @@
+/*
+    Structorizer
+    A little tool which you can use to create Nassi-Schneiderman Diagrams (NSD)
+
+    Copyright (C) 2009  Bob Fisch
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or any
+    later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+
+package lu.fisch.structorizer.bench;
+
+/******************************************************************************************************
+ *
+ *      Description:    Heap footprint of the elements of imported diagrams.
+ *
+ ******************************************************************************************************
+ *
+ *      Comment:
+ *      2026-10-19 (KGU#918)
+ *      - Imports the largest C source file below the sample directory (system property
+ *        "bench.sources", default "samples") repeatedly ("bench.imports", default 60) and reports the
+ *        retained heap per element, once after the import and once after all diagrams have been drawn
+ *        (with variable highlighting, i.e. with populated highlight caches).
+ *      - The sample sources are code exports. Their placeholders "???" for unknown types and the type
+ *        bool from stdbool.h are not accepted by the C99 grammar, so the file is imported from a copy
+ *        with "int" and "_Bool" instead. A file that still yields no diagram is passed over in favour
+ *        of the next smaller one. (The exported Pascal samples are rejected by the Pascal grammar.)
+ *      - Uses only APIs of the revision before the footprint reduction, such that it can also be run
+ *        against a build of the previous revision (see StringListThroughputBenchmark).
+ *
+ ******************************************************************************************************///
+
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import lu.fisch.structorizer.elements.Element;
+import lu.fisch.structorizer.elements.IElementVisitor;
+import lu.fisch.structorizer.elements.Root;
+import lu.fisch.structorizer.parsers.C99Parser;
+
+/**
+ * Measures the retained heap per element of diagrams imported from the largest sample C source
+ * file, undrawn and drawn.<br/>
+ * Run with {@code ant bench -Dbench.class=lu.fisch.structorizer.bench.ImportFootprintBenchmark}.
+ */
+public class ImportFootprintBenchmark {
+
+	private static final int N_IMPORTS = Integer.getInteger("bench.imports", 60);
+	private static final String ENCODING = System.getProperty("bench.encoding", "UTF-8");
+
+	/** Recursively collects the files below {@code _dir} the C parser accepts */
+	private static void collectSources(File _dir, String[] _extensions, List<File> _sources)
+	{
+		File[] files = _dir.listFiles();
+		if (files != null) {
+			Arrays.sort(files);
+			for (File file: files) {
+				if (file.isDirectory()) {
+					collectSources(file, _extensions, _sources);
+				}
+				else {
+					for (String ext: _extensions) {
+						if (file.getName().toLowerCase().endsWith("." + ext.toLowerCase())) {
+							_sources.add(file);
+							break;
+						}
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Writes a copy of the exported C source {@code _source} with placeholder types and
+	 * {@code bool} replaced such that the C99 grammar accepts it.
+	 * @return the temporary file (to be deleted on exit)
+	 */
+	private static File prepareSource(File _source) throws IOException
+	{
+		String code = new String(Files.readAllBytes(_source.toPath()), ENCODING);
+		code = code.replace("???", "int").replaceAll("\\bbool\\b", "_Bool");
+		File copy = File.createTempFile("bench", ".c");
+		copy.deleteOnExit();
+		Files.write(copy.toPath(), code.getBytes(ENCODING));
+		return copy;
+	}
+
+	public static void main(String[] args) throws Exception
+	{
+		// The parser logs every unsupported construct
+		Logger.getLogger("").setLevel(Level.SEVERE);
+		File dir = new File(System.getProperty("bench.sources", "samples"));
+		List<File> sources = new ArrayList<File>();
+		collectSources(dir, new C99Parser().getFileExtensions(), sources);
+		Collections.sort(sources, new Comparator<File>() {
+			@Override
+			public int compare(File file1, File file2) {
+				return Long.compare(file2.length(), file1.length());
+			}
+		});
+		// Find the largest importable file, this also warms up the parser (grammar tables etc.)
+		File source = null;
+		String path = null;
+		for (int i = 0; i < sources.size() && source == null; i++) {
+			path = prepareSource(sources.get(i)).getPath();
+			if (!new C99Parser().parse(path, ENCODING, null).isEmpty()) {
+				source = sources.get(i);
+			}
+		}
+		if (source == null) {
+			throw new IllegalArgumentException("No importable C source file below " + dir.getAbsolutePath());
+		}
+
+		long before = BenchmarkSupport.usedHeap();
+		List<Root> roots = new ArrayList<Root>();
+		for (int i = 0; i < N_IMPORTS; i++) {
+			roots.addAll(new C99Parser().parse(path, ENCODING, null));
+		}
+		long undrawn = BenchmarkSupport.usedHeap() - before;
+
+		final int[] nElements = {0};
+		for (Root root: roots) {
+			root.traverse(new IElementVisitor() {
+				@Override
+				public boolean visitPreOrder(Element _ele) {
+					nElements[0]++;
+					return true;
+				}
+				@Override
+				public boolean visitPostOrder(Element _ele) {
+					return true;
+				}
+			});
+		}
+
+		Element.E_VARHIGHLIGHT = true;
+		BufferedImage image = new BufferedImage(10, 10, BufferedImage.TYPE_INT_RGB);
+		for (Root root: roots) {
+			Graphics2D g = image.createGraphics();
+			root.prepareDraw(g);
+			root.draw(g, new Rectangle(0, 0, Integer.MAX_VALUE / 2, Integer.MAX_VALUE / 2));
+			g.dispose();
+		}
+		long drawn = BenchmarkSupport.usedHeap() - before;
+		BenchmarkSupport.consume(roots);
+
+		System.out.println(String.format("%s (%d bytes) imported %d times: %d diagrams, %d elements",
+				source.getPath(), source.length(), N_IMPORTS, roots.size(), nElements[0]));
+		System.out.println(String.format("%-48s %12d bytes (%.0f bytes/element)",
+				"retained heap undrawn", undrawn, (double)undrawn / nElements[0]));
+		System.out.println(String.format("%-48s %12d bytes (%.0f bytes/element)",
+				"retained heap drawn", drawn, (double)drawn / nElements[0]));
+	}
+}
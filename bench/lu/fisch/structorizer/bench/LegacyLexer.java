@@ -0,0 +1,463 @@
+/*
+    Structorizer
+    A little tool which you can use to create Nassi-Schneiderman Diagrams (NSD)
+
+    Copyright (C) 2009  Bob Fisch
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or any
+    later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+
+package lu.fisch.structorizer.bench;
+
+/******************************************************************************************************
+ *
+ *      Description:    Reference copy of the former (multi-pass) lexical splitter.
+ *
+ ******************************************************************************************************
+ *
+ *      Comment:
+ *      2026-10-19 (KGU#907)
+ *      - Element.splitLexically() and StringList.explodeWithDelimiter() as of the revision before the
+ *        single-pass scanner was introduced, copied unchanged except for the class context. Serves as
+ *        oracle for SplitLexicallyEquivalence and as baseline for SplitLexicallyBenchmark.
+ *      - Must not be "optimised" - it is the definition of the expected token sequences.
+ *
+ ******************************************************************************************************///
+
+import java.util.regex.Pattern;
+
+import lu.fisch.utils.StringList;
+
+/**
+ * The lexical splitter as it was before the single-pass scanner (reference implementation).
+ * @see lu.fisch.structorizer.elements.Element#splitLexically(String, boolean)
+ */
+public final class LegacyLexer {
+
+	private static final Pattern FLOAT_PATTERN1 = Pattern.compile("[0-9]+([eE][0-9]+)?");
+	private static final Pattern FLOAT_PATTERN2 = Pattern.compile("[0-9]+[eE]");
+	private static final Pattern INT_PATTERN = Pattern.compile("[0-9]+");
+	private static final Pattern SIGN_PATTERN = Pattern.compile("[+-]");
+
+	private static final String[] LEXICAL_DELIMITERS = new String[] {
+			" ",
+			"\t",
+			"\n",
+			".",
+			",",
+			";",
+			"(",
+			")",
+			"[",
+			"]",
+			// START KGU#100 2016-01-14: We must also catch the initialiser delimiters
+			"{",
+			"}",
+			// END KGU#100 2016-01-14
+			"-",
+			"+",
+			"/",
+			"*",
+			">",
+			"<",
+			"=",
+			":",
+			"!",
+			"'",
+			"\"",
+			"\\",
+			"%",
+			// START KGU#331 2017-01-13: Enh. #333 Precaution against unicode comparison operators
+			"\u2260",
+			"\u2264",
+			"\u2265"
+			// END KGU#331 2017-01-13
+	};
+
+	private LegacyLexer() {}
+
+	/**
+	 * Splits the given _text into lexical morphemes (lexemes). This will possibly overdo
+	 * somewhat (e. g. signs of number literals will be separated, but floating-point literals
+	 * like 123.45 or .09e-8 will properly be preserved as contiguous tokens).<br>
+	 * By setting {@code _restoreStrings} true, string literals will be re-assembled, too, consuming
+	 * a little more time, of course.<br>
+	 * Note that inter-lexeme whitespace will NOT be eliminated but forms elements of the result,
+	 * more precisely: a sequence of whitespace characters (like {@code "    "}) will form a series of
+	 * 1-character whitespace strings (here: " ", " ", " ", " "). So they can easily be removed
+	 * with removeAll(" ").
+	 * @param _text - String to be exploded into lexical units
+	 * @param _restoreLiterals - if true then accidently split numeric and string literals will be reassembled 
+	 * @return StringList consisting of the separated lexemes including isolated spaces etc.
+	 */
+	public static StringList splitLexically(String _text, boolean _restoreStrings)
+	{
+		StringList parts = new StringList();
+		parts.add(_text);
+		
+		// split
+		// START KGU#425 2017-09-29: Code revision
+		//parts=StringList.explodeWithDelimiter(parts," ");
+		//parts=StringList.explodeWithDelimiter(parts,"\t");
+		//parts=StringList.explodeWithDelimiter(parts,"\n");
+		//parts=StringList.explodeWithDelimiter(parts,".");
+		//parts=StringList.explodeWithDelimiter(parts,",");
+		//parts=StringList.explodeWithDelimiter(parts,";");
+		//parts=StringList.explodeWithDelimiter(parts,"(");
+		//parts=StringList.explodeWithDelimiter(parts,")");
+		//parts=StringList.explodeWithDelimiter(parts,"[");
+		//parts=StringList.explodeWithDelimiter(parts,"]");
+		//parts=StringList.explodeWithDelimiter(parts,"{");
+		//parts=StringList.explodeWithDelimiter(parts,"}");
+		//parts=StringList.explodeWithDelimiter(parts,"-");
+		//parts=StringList.explodeWithDelimiter(parts,"+");
+		//parts=StringList.explodeWithDelimiter(parts,"/");
+		//parts=StringList.explodeWithDelimiter(parts,"*");
+		//parts=StringList.explodeWithDelimiter(parts,">");
+		//parts=StringList.explodeWithDelimiter(parts,"<");
+		//parts=StringList.explodeWithDelimiter(parts,"=");
+		//parts=StringList.explodeWithDelimiter(parts,":");
+		//parts=StringList.explodeWithDelimiter(parts,"!");
+		//parts=StringList.explodeWithDelimiter(parts,"'");
+		//parts=StringList.explodeWithDelimiter(parts,"\"");
+		//parts=StringList.explodeWithDelimiter(parts,"\\");
+		//parts=StringList.explodeWithDelimiter(parts,"%");
+		//parts=StringList.explodeWithDelimiter(parts,"\u2260");
+		//parts=StringList.explodeWithDelimiter(parts,"\u2264");
+		//parts=StringList.explodeWithDelimiter(parts,"\u2265");
+		for (int i = 0; i < LEXICAL_DELIMITERS.length; i++) {
+			parts = explodeWithDelimiter(parts, LEXICAL_DELIMITERS[i]);
+		}
+		// END KGU#425 2017-09-29
+
+		// reassemble symbols
+		int i = 0;
+		while (i < parts.count())
+		{
+			String thisPart = parts.get(i);
+			if (i < parts.count()-1)
+			{
+				String nextPart = parts.get(i+1);
+				boolean isInt = false;
+				boolean isSign = false;
+				boolean isEllipse = false;
+				if (thisPart.equals("<") && nextPart.equals("-"))
+				{
+					parts.set(i,"<-");
+					parts.delete(i+1);
+					// START KGU 2014-10-18 potential three-character assignment symbol?
+					if (i < parts.count()-1 && parts.get(i+1).equals("-"))
+					{
+						parts.delete(i+1);
+					}
+					// END KGU 2014-10-18
+				}
+				else if (thisPart.equals(":") && nextPart.equals("="))
+				{
+					parts.set(i,":=");
+					parts.delete(i+1);
+				}
+				else if (thisPart.equals("!") && nextPart.equals("="))
+				{
+					parts.set(i,"!=");
+					parts.delete(i+1);
+				}
+				// START KGU 2015-11-04
+				else if (thisPart.equals("=") && nextPart.equals("="))
+				{
+					parts.set(i,"==");
+					parts.delete(i+1);
+				}
+				// END KGU 2015-11-04
+				else if (thisPart.equals("<"))
+				{
+					if (nextPart.equals(">"))
+					{
+						parts.set(i,"<>");
+						parts.delete(i+1);
+					}
+					else if (nextPart.equals("="))
+					{
+						parts.set(i,"<=");
+						parts.delete(i+1);
+					}
+					// START KGU#92 2015-12-01: Bugfix #41
+					else if (nextPart.equals("<"))
+					{
+						parts.set(i,"<<");
+						parts.delete(i+1);
+					}					
+					// END KGU#92 2015-12-01
+				}
+				else if (thisPart.equals(">"))
+				{
+					if (nextPart.equals("="))
+					{
+						parts.set(i,">=");
+						parts.delete(i+1);
+					}
+					// START KGU#92 2015-12-01: Bugfix #41
+					else if (nextPart.equals(">"))
+					{
+						parts.set(i,">>");
+						parts.delete(i+1);
+					}					
+					// END KGU#92 2015-12-01
+				}
+				// START KGU#24 2014-10-18: Logical two-character operators should be detected, too ...
+				else if (thisPart.equals("&") && nextPart.equals("&"))
+				{
+					parts.set(i,"&&");
+					parts.delete(i+1);
+				}
+				else if (thisPart.equals("|") && nextPart.equals("|"))
+				{
+					parts.set(i,"||");
+					parts.delete(i+1);
+				}
+				// END KGU#24 2014-10-18
+				// START KGU#26 2015-11-04: Find escaped quotes
+				else if (thisPart.equals("\\"))
+				{
+					if (nextPart.equals("\""))
+					{
+						parts.set(i, "\\\"");
+						parts.delete(i+1);
+					}
+					// START KGU#344 201702-08: Issue #341 - Precaution against string/character delimiter replacement
+					else if (nextPart.equals("'"))
+					{
+						parts.set(i, "\\'");
+						parts.delete(i+1);
+					}
+					// END KGU#344 2017-02-08
+					else if (nextPart.equals("\\"))
+					{
+						parts.set(i, "\\\\");
+						parts.delete(i+1);
+					}
+				}
+				// END KGU#26 2015-11-04
+				// START KGU#331 2017-01-13: Enh. #333 Precaution against unicode comparison operators
+				else if (thisPart.equals("\u2260")) {
+					parts.set(i, "<>");
+				}
+				else if (thisPart.equals("\u2264")) {
+					parts.set(i, "<=");
+				}
+				else if (thisPart.equals("\u2265")) {
+					parts.set(i, ">=");
+				}
+				// END KGU#331 2017-01-13
+				// START KGU#335/KGU#425 2017-09-29: Re-compose floating-point literals (including those starting or ending with ".")
+				// These are legal cases ($ = line end, ? = don't care):
+				// i             i+1             i+2           i+3        comment
+				// .              .               ?             ?         two-dot-ellipse (Pascal range)
+				// .              .               .             ?         three-dot-ellipse (rarely used)
+				// .            FLOAT1            ?             ?         float literal
+				// .            FLOAT2           [+-]        [0-9]+       float literal
+				// [+-]           .            FLOAT1           ?         float literal - reduce this case the the one -2
+				// [+-]           .            FLOAT2         [+-] [0-9]+ float literal - reduce this case the the one -2
+				// [0-9]+         .            FLOAT1           ?         float literal - reduce this case the the one -4
+				// [0-9]+         .            FLOAT2         [+-] [0-9]+ float literal - reduce this case the the one -4
+				// These are the illegal cases:
+				// [+-]           .               $
+				// [+-]           .               ?
+				// [0-9]+         .               .
+				// So we will first do the necessary lookahead before we manipulate parts
+				else if ( (isEllipse = thisPart.equals("."))	// a single dot might merge with another one or a float pattern
+						|| (	// Otherwise a digit sequence might melt with a dot
+								(isInt = INT_PATTERN.matcher(thisPart).matches())
+								|| (isSign = (thisPart.equals("+") || thisPart.equals("-"))	// a sign with a dot requires more...
+										&& i+2 < parts.count())
+								&& nextPart.equals(".")) 
+						) {
+					int nDelete = 0;
+					// Glue the two together - the only pathologic case would be 
+					if (nextPart.equals(".")) {
+						thisPart += nextPart;
+						nDelete = 1;
+						// Is there anything left at all?
+						if (i+2 < parts.count()) {
+							nextPart = parts.get(i+2);
+						}
+						if (isEllipse && nextPart.equals(".")) {
+							// Okay, then be it a three-point ellipse "..."
+							thisPart += nextPart;
+							nDelete++;
+						}
+						// In case of an ellipse we are done here
+					}
+					else {
+						isEllipse = false;
+					}
+					// nextPart.matches("[0-9]+([eE][0-9]+)?")
+					if (!isEllipse && FLOAT_PATTERN1.matcher(nextPart).matches()) {
+						thisPart += nextPart;
+						nDelete++;
+					}
+					// nextPart.matches("[0-9]+[eE]")
+					else if (!isEllipse && FLOAT_PATTERN2.matcher(nextPart).matches()
+							&& i+nDelete+3 < parts.count()
+							&& SIGN_PATTERN.matcher(parts.get(i+nDelete+2)).matches()
+							&& INT_PATTERN.matcher(parts.get(i+nDelete+3)).matches()) {
+						for (int j = 1; j <= 3; j++) {
+							nDelete++;
+							thisPart += parts.get(i+nDelete);
+						}
+					}
+					else if (isSign || isInt && i+2 < parts.count() && parts.get(i+2).equals(".")) {
+						// In this case the amalgamation may not take place
+						nDelete = 0;
+					}
+					// Now carry out the amalgamation if sensible
+					if (nDelete > 0) {
+						parts.set(i, thisPart);
+						parts.remove(i+1, i+nDelete+1);
+					}
+				}
+				// END KGU#335/KGU#425 2017-09-29
+			}
+			i++;
+		}
+		
+		if (_restoreStrings)
+		{
+			// START KGU#344 2017-02-07: Bugfix #341 Wrong loop inclusion
+			//String[] delimiters = {"\"", "'"};
+			final String delimiters = "\"'";
+			// END KGU#344 2017-02-07
+			// START KGU#139 2016-01-12: Bugfix #105 - apparently incomplete strings got lost
+			// We mustn't eat seemingly incomplete strings, instead we re-feed them
+			StringList parkedTokens = new StringList();
+			// END KGU#139 2016-01-12
+			// START #344 2017-02-07: Bugfix #341: Wrong strategy - the token must select the start delimiter
+			//for (int d = 0; d < delimiters.length; d++)
+			//{
+			int ixDelim = -1;	// delimiter index in delimiters
+			String delim = "";	// starting delimiter for matching the closing delimiter
+			// END KGU#344 2017-02-07
+				boolean withinString = false;
+				String composed = "";
+				i = 0;
+				while (i < parts.count())
+				{
+					String lexeme = parts.get(i);
+					if (withinString)
+					{
+						composed = composed + lexeme;
+						// START KGU#344 2017-02-07: Bugfix #341
+						//if (lexeme.equals(delimiters[d]))
+						if (lexeme.equals(delim))
+						// END KGU#344 2017-02-07
+						{
+							// START KGU#139 2016-01-12: Bugfix #105
+							parkedTokens.clear();
+							// END KGU#139 2016-01-12
+							parts.set(i, composed+"");
+							composed = "";
+							withinString = false;
+							i++;
+						}
+						else
+						{
+							// START KGU#139 2016-01-12: Bugfix #105
+							parkedTokens.add(lexeme);
+							// END KGU#139 2016-01-12
+							parts.delete(i);
+						}
+					}
+					// START KGU#344 2017-02-07: Bugfix #341
+					//else if (lexeme.equals(delimiters[d]))
+					else if (lexeme.length() == 1 && (ixDelim = delimiters.indexOf(lexeme)) >= 0)
+					// END KGU#344 2017-02-27
+					{
+						// START KGU#139 2016-01-12: Bugfix #105
+						parkedTokens.add(lexeme);
+						// END KGU#139 2016-01-12
+						withinString = true;
+						// START KGU#344 2017-02-07: Bugfix #341
+						delim = delimiters.substring(ixDelim, ixDelim+1);
+						// END KGU#344 2017-02-07
+						composed = lexeme+"";
+						parts.delete(i);
+					}
+					else
+					{
+						i++;
+					}
+				}
+			// START KGU#344 2017-02-07: Bugfix #341 No outer loop anymore
+			//}
+			// END KGU#344 2017-02-07
+			// START KGU#139 2916-01-12: Bugfix #105
+			if (parkedTokens.count() > 0)
+			{
+				parts.add(parkedTokens);
+			}
+			// END KGU#139 2016-01-12
+		}
+		return parts;
+	}
+
+	/**
+	 * Splits the elements of StringList {@code _source} around occurrences of delimiter string {@code _by}
+	 * and returns a new StringList consisting of all the split parts and the separating
+	 * delimiters in order of occurrence (former StringList.explodeWithDelimiter(StringList, String)).
+	 * @param _source - the string to be split
+	 * @param _by - the separating string (plain string, no regex!)
+	 * @return the split result
+	 */
+	private static StringList explodeWithDelimiter(StringList _source, String _by)
+	{
+		StringList sl = new StringList();
+
+		for (int s = 0; s < _source.count(); s++)
+		{
+			sl.add(explodeWithDelimiter(_source.get(s), _by));
+		}
+
+		return sl;
+	}
+
+	/**
+	 * Splits the string {@code _source} around occurrences of delimiter string {@code _by}
+	 * and returns a new StringList consisting of the split parts and the separating
+	 * delimiters in order of occurrence (former StringList.explodeWithDelimiter(String, String)).
+	 * @param _source - the string to be split
+	 * @param _by - the separating string (plain string, no regex!)
+	 * @return the split result
+	 */
+	private static StringList explodeWithDelimiter(String _source, String _by)
+	{
+		StringList sl = new StringList();
+		int lenBy = _by.length();
+		while (!_source.isEmpty())
+		{
+			int pos = _source.indexOf(_by);
+			if (pos >= 0)
+			{
+				sl.add(_source.substring(0, pos));
+				sl.add(_by);
+				_source = _source.substring(pos + lenBy, _source.length());
+			}
+			else
+			{
+				sl.add(_source);
+				_source = "";
+			}
+		}
+		return sl;
+	}
+}
@@ -0,0 +1,77 @@
+/*
+    Structorizer
+    A little tool which you can use to create Nassi-Schneiderman Diagrams (NSD)
+
+    Copyright (C) 2009  Bob Fisch
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or any
+    later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+
+package lu.fisch.structorizer.bench;
+
+/******************************************************************************************************
+ *
+ *      Description:    Throughput of the lexical splitter, former versus current implementation.
+ *
+ ******************************************************************************************************
+ *
+ *      Comment:
+ *      2026-10-19 (KGU#907)
+ *      - One operation splits all texts of the sample arrangements once (see
+ *        BenchmarkSupport.collectTexts()), with and without restoration of string literals.
+ *
+ ******************************************************************************************************///
+
+import java.util.List;
+
+import lu.fisch.structorizer.elements.Element;
+
+/**
+ * Compares the time {@link LegacyLexer#splitLexically(String, boolean)} and
+ * {@link Element#splitLexically(String, boolean)} need to split the sample texts.<br/>
+ * Run with {@code ant bench -Dbench.class=lu.fisch.structorizer.bench.SplitLexicallyBenchmark}.
+ */
+public class SplitLexicallyBenchmark {
+
+	public static void main(String[] args) throws Exception
+	{
+		final List<String> texts = BenchmarkSupport.collectTexts(BenchmarkSupport.loadSampleDiagrams());
+		System.out.println("Corpus: " + texts.size() + " texts");
+		for (final boolean restoreStrings: new boolean[]{false, true}) {
+			double legacy = BenchmarkSupport.measure("legacy splitLexically(restore=" + restoreStrings + ")",
+					new BenchmarkSupport.Workload() {
+						@Override
+						public Object run() {
+							int nTokens = 0;
+							for (String text: texts) {
+								nTokens += LegacyLexer.splitLexically(text, restoreStrings).count();
+							}
+							return nTokens;
+						}
+					});
+			double current = BenchmarkSupport.measure("current splitLexically(restore=" + restoreStrings + ")",
+					new BenchmarkSupport.Workload() {
+						@Override
+						public Object run() {
+							int nTokens = 0;
+							for (String text: texts) {
+								nTokens += Element.splitLexically(text, restoreStrings).count();
+							}
+							return nTokens;
+						}
+					});
+			System.out.println(String.format("%-48s %12.2f", "speedup", legacy / current));
+		}
+	}
+}
@@ -0,0 +1,153 @@
+/*
+    Structorizer
+    A little tool which you can use to create Nassi-Schneiderman Diagrams (NSD)
+
+    Copyright (C) 2009  Bob Fisch
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or any
+    later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+
+package lu.fisch.structorizer.bench;
+
+/******************************************************************************************************
+ *
+ *      Description:    Equivalence check of the single-pass lexer against the former splitter.
+ *
+ ******************************************************************************************************
+ *
+ *      Comment:
+ *      2026-10-19 (KGU#907)
+ *      - Compares Element.splitLexically() with LegacyLexer.splitLexically() (both values of the
+ *        restoreStrings flag) on
+ *        a) all text and comment lines as well as the complete texts and comments of all elements
+ *           of the sample arrangements,
+ *        b) a set of handwritten corner cases (operators, literals, unicode comparison symbols),
+ *        c) random strings over an alphabet of delimiters, digits, exponent letters and quotes
+ *           (reproducible: system property "bench.seed", number via "bench.random", default 300000).
+ *      - Exits with status 1 if any token sequence differs, so it can serve as regression test.
+ *
+ ******************************************************************************************************///
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import lu.fisch.structorizer.elements.Element;
+import lu.fisch.utils.StringList;
+
+/**
+ * Checks that {@link Element#splitLexically(String, boolean)} yields exactly the token
+ * sequences of the former implementation ({@link LegacyLexer}).<br/>
+ * Run with {@code ant bench -Dbench.class=lu.fisch.structorizer.bench.SplitLexicallyEquivalence}.
+ */
+public class SplitLexicallyEquivalence {
+
+	/** Characters the random texts are composed of (all lexer-relevant character classes) */
+	private static final String ALPHABET = " \t\n.,;()[]{}-+/*><=:!'\"\\%\u2260\u2264\u2265&|0123456789eEax_";
+
+	/** Handwritten corner cases */
+	private static final String[] CASES = {
+			"",
+			" ",
+			"x <- 5",
+			"x <-- 5",
+			"a := b + c",
+			"if a <> b and c <= d or e >= f then",
+			"a \u2260 b \u2264 c \u2265 d",
+			"\u2265x",
+			"(\u2265)",
+			"a<<b>>c",
+			"p && q || !r",
+			"s <- \"Hello \\\"World\\\"!\"",
+			"c <- 'x' + '\\''",
+			"unterminated \"string",
+			"1.5e-3 + .09e+8 - 3. * 2.e4",
+			"-.5 + +.25",
+			"1..10",
+			"x...",
+			"12.34.56",
+			"a[i] <- {1, 2, 3}",
+			"y <- x % 3 == 0",
+			"output \"%d\", n",
+	};
+
+	public static void main(String[] args) throws Exception
+	{
+		List<String> texts = BenchmarkSupport.collectTexts(BenchmarkSupport.loadSampleDiagrams());
+		int nSamples = texts.size();
+		for (String text: CASES) {
+			texts.add(text);
+		}
+		Random random = new Random(Long.getLong("bench.seed", 4711L));
+		int nRandom = Integer.getInteger("bench.random", 300000);
+		for (int i = 0; i < nRandom; i++) {
+			int len = random.nextInt(24);
+			StringBuilder sb = new StringBuilder(len);
+			for (int j = 0; j < len; j++) {
+				sb.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+			}
+			texts.add(sb.toString());
+		}
+
+		List<String> failures = new ArrayList<String>();
+		int nChecks = 0;
+		for (String text: texts) {
+			for (boolean restoreStrings: new boolean[]{false, true}) {
+				StringList expected = LegacyLexer.splitLexically(text, restoreStrings);
+				StringList actual = Element.splitLexically(text, restoreStrings);
+				nChecks++;
+				if (!sameTokens(expected, actual)) {
+					failures.add(String.format("%s (restoreStrings = %b)%n\texpected: %s%n\tactual:   %s",
+							quote(text), restoreStrings, quote(expected), quote(actual)));
+				}
+			}
+		}
+		System.out.println(String.format("%d sample texts, %d corner cases, %d random texts: %d checks, %d differences",
+				nSamples, CASES.length, nRandom, nChecks, failures.size()));
+		for (int i = 0; i < Math.min(failures.size(), 20); i++) {
+			System.out.println(failures.get(i));
+		}
+		System.exit(failures.isEmpty() ? 0 : 1);
+	}
+
+	private static boolean sameTokens(StringList _tokens1, StringList _tokens2)
+	{
+		if (_tokens1.count() != _tokens2.count()) {
+			return false;
+		}
+		for (int i = 0; i < _tokens1.count(); i++) {
+			if (!_tokens1.get(i).equals(_tokens2.get(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static String quote(StringList _tokens)
+	{
+		StringBuilder sb = new StringBuilder("[");
+		for (int i = 0; i < _tokens.count(); i++) {
+			if (i > 0) {
+				sb.append(", ");
+			}
+			sb.append(quote(_tokens.get(i)));
+		}
+		return sb.append("]").toString();
+	}
+
+	private static String quote(String _text)
+	{
+		return "\"" + _text.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n").replace("\t", "\\t") + "\"";
+	}
+}
@@ -0,0 +1,165 @@
+/*
+    Structorizer
+    A little tool which you can use to create Nassi-Schneiderman Diagrams (NSD)
+
+    Copyright (C) 2009  Bob Fisch
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or any
+    later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+
+package lu.fisch.structorizer.bench;
+
+/******************************************************************************************************
+ *
+ *      Description:    Export, analyse and execute throughput (suite for the StringList revision).
+ *
+ ******************************************************************************************************
+ *
+ *      Comment:
+ *      2026-10-19 (KGU#909)
+ *      - Three workloads, all of them StringList-intensive:
+ *        a) export: code generation for every sample diagram by several generators (no file output),
+ *        b) analyse: Analyser run on every sample diagram,
+ *        c) execute: run of a synthetic bubble sort diagram (no I/O, size via "bench.sortSize",
+ *           default 100) with zero delay. The Executor needs its Control window, so this part is
+ *           skipped in a headless environment.
+ *      - Uses only APIs of the revision before the StringList change. For the comparison, run it
+ *        once against the current build and once against a build of the previous revision:
+ *            ant bench -Dbench.class=lu.fisch.structorizer.bench.StringListThroughputBenchmark
+ *                -Dbench.target.classes=<previous build classes>
+ *                -Dbench.includes=lu/fisch/structorizer/bench/BenchmarkSupport.java,lu/fisch/structorizer/bench/StringListThroughputBenchmark.java
+ *
+ ******************************************************************************************************///
+
+import java.awt.GraphicsEnvironment;
+import java.util.List;
+import java.util.Vector;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import lu.fisch.structorizer.elements.Alternative;
+import lu.fisch.structorizer.elements.Instruction;
+import lu.fisch.structorizer.elements.Root;
+import lu.fisch.structorizer.elements.While;
+import lu.fisch.structorizer.executor.Executor;
+import lu.fisch.structorizer.generators.BASHGenerator;
+import lu.fisch.structorizer.generators.CGenerator;
+import lu.fisch.structorizer.generators.Generator;
+import lu.fisch.structorizer.generators.JavaGenerator;
+import lu.fisch.structorizer.generators.PasGenerator;
+import lu.fisch.structorizer.generators.PythonGenerator;
+import lu.fisch.structorizer.gui.Diagram;
+
+/**
+ * Measures the export, analyse and execute throughput on the sample arrangements, intended
+ * to compare the {@link lu.fisch.utils.StringList} implementations before and after.<br/>
+ * Run with {@code ant bench -Dbench.class=lu.fisch.structorizer.bench.StringListThroughputBenchmark}.
+ */
+public class StringListThroughputBenchmark {
+
+	private static final int SORT_SIZE = Integer.getInteger("bench.sortSize", 100);
+
+	public static void main(String[] args) throws Exception
+	{
+		// The generators log warnings about incomplete type information in some samples
+		Logger.getLogger("").setLevel(Level.SEVERE);
+		final List<Root> roots = BenchmarkSupport.loadSampleDiagrams();
+		System.out.println("Corpus: " + roots.size() + " diagrams");
+
+		final Generator[] generators = {
+				new JavaGenerator(), new CGenerator(), new PasGenerator(),
+				new PythonGenerator(), new BASHGenerator()
+		};
+		for (final Generator generator: generators) {
+			BenchmarkSupport.measure("export " + generator.getClass().getSimpleName(),
+					new BenchmarkSupport.Workload() {
+						@Override
+						public Object run() {
+							for (Root root: roots) {
+								Vector<Root> exportRoots = new Vector<Root>();
+								exportRoots.add(root);
+								generator.exportCode(exportRoots, null, "", "UTF-8", false, null);
+							}
+							return generator;
+						}
+					});
+		}
+
+		BenchmarkSupport.measure("analyse", new BenchmarkSupport.Workload() {
+			@Override
+			public Object run() {
+				int nErrors = 0;
+				for (Root root: roots) {
+					nErrors += root.analyse().size();
+				}
+				return nErrors;
+			}
+		});
+
+		if (GraphicsEnvironment.isHeadless()) {
+			System.out.println("execute: skipped (the Executor requires a display)");
+		}
+		else {
+			final Diagram diagram = new Diagram(null, "bench");
+			diagram.setRootForce(makeSortDiagram(SORT_SIZE));
+			final Executor executor = Executor.getInstance(diagram, null);
+			BenchmarkSupport.measure("execute bubble sort (" + SORT_SIZE + " elements)",
+					new BenchmarkSupport.Workload() {
+						@Override
+						public Object run() throws InterruptedException {
+							executor.setDelay(0);
+							executor.start(false);
+							while (executor.isRunning()) {
+								Thread.sleep(1);
+							}
+							return executor;
+						}
+					});
+		}
+		// The Executor leaves its Control window open
+		System.exit(0);
+	}
+
+	/**
+	 * Builds a program that fills an array of {@code _size} numbers in scrambled order and
+	 * sorts it by bubble sort, without any input or output.
+	 */
+	private static Root makeSortDiagram(int _size)
+	{
+		Root root = new Root();
+		root.setText("BenchSort");
+		root.setProgram(true);
+		root.children.addElement(new Instruction("n <- " + _size));
+		root.children.addElement(new Instruction("values <- {}"));
+		root.children.addElement(new Instruction("i <- 0"));
+		While fill = new While("i < n");
+		fill.q.addElement(new Instruction("values[i] <- (i * 7919) % n"));
+		fill.q.addElement(new Instruction("i <- i + 1"));
+		root.children.addElement(fill);
+		root.children.addElement(new Instruction("i <- 0"));
+		While outer = new While("i < n - 1");
+		outer.q.addElement(new Instruction("j <- 0"));
+		While inner = new While("j < n - 1 - i");
+		Alternative swap = new Alternative("values[j] > values[j+1]");
+		swap.qTrue.addElement(new Instruction("t <- values[j]"));
+		swap.qTrue.addElement(new Instruction("values[j] <- values[j+1]"));
+		swap.qTrue.addElement(new Instruction("values[j+1] <- t"));
+		inner.q.addElement(swap);
+		inner.q.addElement(new Instruction("j <- j + 1"));
+		outer.q.addElement(inner);
+		outer.q.addElement(new Instruction("i <- i + 1"));
+		root.children.addElement(outer);
+		return root;
+	}
+}
@@ -0,0 +1,167 @@
+/*
+    Structorizer
+    A little tool which you can use to create Nassi-Schneiderman Diagrams (NSD)
+
+    Copyright (C) 2009  Bob Fisch
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or any
+    later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+
+package lu.fisch.structorizer.bench;
+
+/******************************************************************************************************
+ *
+ *      Description:    Memory and time of Turtleizer segment storage, Line objects versus SegmentStore.
+ *
+ ******************************************************************************************************
+ *
+ *      Comment:
+ *      2026-10-19 (KGU#904)
+ *      - Emulates a turtle walk of 10^6 drawn segments (system property "bench.segments") in a few
+ *        colours and stores it
+ *        a) as the former TurtleBox did: a Vector of Line objects, each new end point a new Point
+ *           (shared as start point with the following line),
+ *        b) in a SegmentStore.
+ *      - Reports the retained heap per segment (difference of the used heap after garbage collection),
+ *        the time to append all segments, and the time to paint them onto a 1000 x 1000 image.
+ *      - Run with a sufficient heap, e.g. -Dbench.jvmargs="-Xmx1g", the heap figures are only
+ *        meaningful with a single (not concurrently running) benchmark.
+ *
+ ******************************************************************************************************///
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Point;
+import java.awt.image.BufferedImage;
+import java.util.Vector;
+
+import lu.fisch.turtle.elements.Element;
+import lu.fisch.turtle.elements.Line;
+import lu.fisch.turtle.elements.SegmentStore;
+
+/**
+ * Compares the memory footprint and the append and paint times of 10^6 turtle segments
+ * held as {@link Line} objects and in a {@link SegmentStore}.<br/>
+ * Run with {@code ant bench -Dbench.class=lu.fisch.structorizer.bench.TurtleSegmentBenchmark}.
+ */
+public class TurtleSegmentBenchmark {
+
+	private static final int N_SEGMENTS = Integer.getInteger("bench.segments", 1000000);
+	private static final Color[] COLORS = {Color.BLACK, Color.RED, Color.BLUE, Color.GREEN};
+
+	/** @return the x coordinate of the {@code i}-th point of the walk (a spiral within 1000 x 1000) */
+	private static double walkX(int i)
+	{
+		return 500 + (i % 4800) / 10.0 * Math.cos(i * 0.01);
+	}
+
+	/** @return the y coordinate of the {@code i}-th point of the walk */
+	private static double walkY(int i)
+	{
+		return 500 + (i % 4800) / 10.0 * Math.sin(i * 0.01);
+	}
+
+	private static Color walkColor(int i)
+	{
+		return COLORS[(i / 1000) % COLORS.length];
+	}
+
+	/** Fills a Vector of Line objects the way the former TurtleBox.fd() did */
+	private static Vector<Element> makeLines()
+	{
+		Vector<Element> elements = new Vector<Element>();
+		Point pos = new Point((int)Math.round(walkX(0)), (int)Math.round(walkY(0)));
+		for (int i = 1; i <= N_SEGMENTS; i++) {
+			Point newPos = new Point((int)Math.round(walkX(i)), (int)Math.round(walkY(i)));
+			elements.add(new Line(pos, newPos, walkColor(i)));
+			pos = newPos;
+		}
+		return elements;
+	}
+
+	/** Fills a SegmentStore the way TurtleBox.forward() does now */
+	private static SegmentStore makeStore()
+	{
+		SegmentStore store = new SegmentStore();
+		double x = walkX(0), y = walkY(0);
+		for (int i = 1; i <= N_SEGMENTS; i++) {
+			double newX = walkX(i), newY = walkY(i);
+			store.add((float)x, (float)y, (float)newX, (float)newY, walkColor(i));
+			x = newX;
+			y = newY;
+		}
+		return store;
+	}
+
+	public static void main(String[] args) throws Exception
+	{
+		// Memory
+		long before = BenchmarkSupport.usedHeap();
+		Vector<Element> lines = makeLines();
+		long linesBytes = BenchmarkSupport.usedHeap() - before;
+		BenchmarkSupport.consume(lines);
+		lines = null;
+
+		before = BenchmarkSupport.usedHeap();
+		SegmentStore store = makeStore();
+		long storeBytes = BenchmarkSupport.usedHeap() - before;
+		BenchmarkSupport.consume(store);
+		store = null;
+
+		System.out.println(String.format("%d segments", N_SEGMENTS));
+		System.out.println(String.format("%-48s %12d bytes (%.1f bytes/segment)",
+				"Vector<Line> retained heap", linesBytes, (double)linesBytes / N_SEGMENTS));
+		System.out.println(String.format("%-48s %12d bytes (%.1f bytes/segment)",
+				"SegmentStore retained heap", storeBytes, (double)storeBytes / N_SEGMENTS));
+
+		// Append time
+		BenchmarkSupport.measure("Vector<Line> append", new BenchmarkSupport.Workload() {
+			@Override
+			public Object run() {
+				return makeLines();
+			}
+		});
+		BenchmarkSupport.measure("SegmentStore append", new BenchmarkSupport.Workload() {
+			@Override
+			public Object run() {
+				return makeStore();
+			}
+		});
+
+		// Paint time
+		final BufferedImage image = new BufferedImage(1000, 1000, BufferedImage.TYPE_INT_RGB);
+		final Vector<Element> paintLines = makeLines();
+		BenchmarkSupport.measure("Vector<Line> paint", new BenchmarkSupport.Workload() {
+			@Override
+			public Object run() {
+				Graphics2D g = image.createGraphics();
+				for (Element ele: paintLines) {
+					ele.draw(g);
+				}
+				g.dispose();
+				return image;
+			}
+		});
+		final SegmentStore paintStore = makeStore();
+		BenchmarkSupport.measure("SegmentStore paint", new BenchmarkSupport.Workload() {
+			@Override
+			public Object run() {
+				Graphics2D g = image.createGraphics();
+				paintStore.draw(g, 0, paintStore.size());
+				g.dispose();
+				return image;
+			}
+		});
+	}
+}
@@ -84,6 +84,12 @@
  ******************************************************************************************************
  *
  *      Comment:
+ *      2026-10-19 (KGU#916)
+ *      - New batch mode -analyse: analyses all diagrams of the given files and arrangements in parallel
+ *        and writes a collective Analyser report (see AnalysisReport).
+ *      2026-10-19 (KGU#922)
+ *      - New batch mode -img: renders all diagrams of the given files and arrangements headless and in
+ *        parallel into PNG or SVG files (see ImageBatchExport), -o specifies the target directory.
  *
  ******************************************************************************************************///
 
@@ -99,17 +105,20 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
 import java.io.Writer;
 import java.lang.reflect.InvocationTargetException;
 import java.net.URISyntaxException;
 import java.security.CodeSource;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map.Entry;
 import java.util.Scanner;
+import java.util.Set;
 import java.util.Vector;
 import java.util.logging.Level;
 import java.util.logging.LogManager;
@@ -124,10 +133,12 @@ import lu.fisch.structorizer.archivar.Archivar.ArchiveIndex;
 import lu.fisch.structorizer.archivar.Archivar.ArchiveIndexEntry;
 import lu.fisch.structorizer.archivar.ArchivarException;
 import lu.fisch.structorizer.archivar.ArchivePool;
+import lu.fisch.structorizer.elements.AnalysisReport;
 import lu.fisch.structorizer.elements.Element;
 import lu.fisch.structorizer.elements.Root;
 import lu.fisch.structorizer.generators.Generator;
 import lu.fisch.structorizer.generators.XmlGenerator;
+import lu.fisch.structorizer.gui.ImageBatchExport;
 import lu.fisch.structorizer.gui.Mainform;
 import lu.fisch.structorizer.helpers.GENPlugin;
 import lu.fisch.structorizer.io.ArrFilter;
@@ -176,6 +187,12 @@ public class Structorizer
 		// START BOB 2020-05-25
 		boolean restricted = false;	// switch "-restricted" found
 		// END BOB 2020-05-25
+		// START KGU#916 2026-10-19: Batch analysis
+		boolean analyse = false;	// switch "-analyse" found as first argument
+		// END KGU#916 2026-10-19
+		// START KGU#922 2026-10-19: Batch image export
+		String imageFormat = null;	// format given with switch "-img" as first argument
+		// END KGU#922 2026-10-19
 		for (int i = 0; i < args.length; i++)
 		{
 			//System.out.println("arg " + i + ": " + args[i]);
@@ -201,6 +218,18 @@ public class Structorizer
 				}
 				// END KGU#538 2018-07-01
 			}
+			// START KGU#916 2026-10-19: Batch analysis
+			else if (i == 0 && args[i].equals("-analyse") && args.length > 1)
+			{
+				analyse = true;
+			}
+			// END KGU#916 2026-10-19
+			// START KGU#922 2026-10-19: Batch image export
+			else if (i == 0 && args[i].equals("-img") && args.length > 2)
+			{
+				imageFormat = args[++i];
+			}
+			// END KGU#922 2026-10-19
 			// START BOB 2020-05-25
 			else if (args[i].equals("-restricted")) {
 				restricted = true;
@@ -222,7 +251,10 @@ public class Structorizer
 			{
 				// Output file name
 				// START KGU#722 2019-08-07: Enh. #741
-				if (openFound || generator == null && parser == null) {
+				// START KGU#916/KGU#922 2026-10-19
+				//if (openFound || generator == null && parser == null) {
+				if (openFound || generator == null && parser == null && !analyse && imageFormat == null) {
+				// END KGU#916/KGU#922 2026-10-19
 					// Mark this as an illegal option
 					switches.add(args[i]);
 				}
@@ -234,7 +266,10 @@ public class Structorizer
 			{
 				// Encoding
 				// START KGU#722 2019-08-07: Enh. #741
-				if (openFound || generator == null && parser == null) {
+				// START KGU#916 2026-10-19
+				//if (openFound || generator == null && parser == null) {
+				if (openFound || generator == null && parser == null && !analyse) {
+				// END KGU#916 2026-10-19
 					// Mark this as an illegal option
 					switches.add(args[i]);
 				}
@@ -328,9 +363,15 @@ public class Structorizer
 		}
 		// START KGU#722 2019-08-06: Enh. #741
 		if (settings != null) {
-			if (generator != null || parser != null) {
+			// START KGU#916/KGU#922 2026-10-19
+			//if (generator != null || parser != null) {
+			if (generator != null || parser != null || analyse || imageFormat != null) {
+			// END KGU#916/KGU#922 2026-10-19
 				try {
-					Ini.getInstance().redirect(settings.getAbsolutePath(), generator != null || parser != null);
+					// START KGU#916/KGU#922 2026-10-19
+					//Ini.getInstance().redirect(settings.getAbsolutePath(), generator != null || parser != null);
+					Ini.getInstance().redirect(settings.getAbsolutePath(), generator != null || parser != null || analyse || imageFormat != null);
+					// END KGU#916/KGU#922 2026-10-19
 				} catch (IOException ex) {
 					System.err.println("*** Failing to redirect settings file: " + ex.getMessage());
 					Logger.getLogger(Structorizer.class.getName()).log(Level.WARNING, "Option -s " + settings.getPath(), ex);
@@ -357,6 +398,20 @@ public class Structorizer
 			// END KGU#354 2017-04-27
 			return;
 		}
+		// START KGU#916 2026-10-19: Batch analysis
+		else if (analyse)
+		{
+			Structorizer.analyse(fileNames, options);
+			return;
+		}
+		// END KGU#916 2026-10-19
+		// START KGU#922 2026-10-19: Batch image export
+		else if (imageFormat != null)
+		{
+			Structorizer.exportImages(imageFormat, fileNames, options);
+			return;
+		}
+		// END KGU#922 2026-10-19
 		// END KGU#187 2016-04-28
 		
 		// START KGU#521 2018-06-12: Workaround for #536 (corrupted rendering on certain machines) 
@@ -574,6 +629,8 @@ public class Structorizer
 		"Structorizer [-s SETTINGSFILE] [-open] [NSDFILE|ARRFILE|ARRZFILE]...",
 		"Structorizer -x GENERATOR [-a] [-b] [-c] [-f] [-l] [-t] [-e CHARSET] [-s SETTINGSFILE] [-] [-o OUTFILE] (NSDFILE|ARRSPEC|ARRZSPEC)...",
 		"Structorizer -p [PARSER] [-f] [-z] [-v [LOGPATH]] [-l MAXLINELEN] [-e CHARSET] [-s SETTINGSFILE] [-o OUTFILE] SOURCEFILE...",
+		"Structorizer -analyse [-e CHARSET] [-s SETTINGSFILE] [-o OUTFILE] (NSDFILE|ARRFILE|ARRZFILE)...",
+		"Structorizer -img FORMAT [-s SETTINGSFILE] [-o OUTDIR] (NSDFILE|ARRFILE|ARRZFILE)...",
 		"Structorizer -h",
 		"(See " + Element.E_HELP_PAGE + "?menu=96 or " + Element.E_HELP_PAGE + "?menu=136 for details.)"
 	};
@@ -843,6 +900,229 @@ public class Structorizer
 		return done;
 	}
 	
+	// START KGU#916 2026-10-19: Batch analysis of diagram files and arrangements
+	/*****************************************
+	 * batch analysis method
+	 * @param _filenames - names of the diagram or arrangement files to be analysed
+	 * @param _options - map of non-binary command line options
+	 *****************************************/
+	public static void analyse(Vector<String> _filenames, HashMap<String, String> _options)
+	{
+		String outFileName = _options.get("outFileName");
+		// the encoding to be used for the report
+		String charSet = _options.getOrDefault("charSet", "UTF-8");
+		// Parser keywords and Analyser checks as configured (see Mainform.loadFromIni())
+		CodeParser.loadFromINI();
+		try {
+			Ini ini = Ini.getInstance();
+			ini.load();
+			for (int i = 1; i <= Root.numberOfChecks(); i++)
+			{
+				Root.setCheck(i, ini.getProperty("check" + i, Root.check(i) ? "1" : "0").equals("1"));
+			}
+		}
+		catch (IOException ex) {
+			System.err.println("*** Analyser preferences couldn't be loaded: " + ex.getMessage());
+		}
+		Archivar archivar = new Archivar();
+		// Diagrams specified as single files may refer to each other, so they share a pool
+		ArchivePool filePool = new ArchivePool("");
+		Vector<Root> fileRoots = new Vector<Root>();
+		Vector<AnalysisReport> reports = new Vector<AnalysisReport>();
+		for (String fName : _filenames)
+		{
+			try
+			{
+				File f = new File(fName);
+				boolean isArrz = false;
+				if (f.exists() && StructogramFilter.isNSD(fName))
+				{
+					Root root = new NSDParser().parse(f);
+					root.filename = f.getAbsolutePath();
+					// START KGU#917 2026-10-19: Includables are analysed in their own context
+					root.specialRoutinePool = filePool;
+					// END KGU#917 2026-10-19
+					fileRoots.add(root);
+					filePool.addDiagram(root);
+				}
+				else if (f.exists() && (ArrFilter.isArr(fName) || (isArrz = ArrZipFilter.isArr(fName)))) {
+					ArchiveIndex index = null;
+					if (isArrz) {
+						index = archivar.unzipArrangementArchive(f, null);
+					}
+					else {
+						if (!f.isAbsolute()) {
+							f = f.getAbsoluteFile();
+						}
+						index = archivar.makeNewIndexFor(f);
+					}
+					ArchivePool pool = new ArchivePool(index);
+					// The pool must have loaded all its diagrams before they are analysed concurrently
+					reports.add(new AnalysisReport(pool.getAllRoots(), pool));
+				}
+				else
+				{
+					System.err.println("*** File " + fName + " not found or inappropriate. Skipped.");
+				}
+			}
+			catch (Exception e)
+			{
+				System.err.println("*** Error while trying to load " + fName + ": " + e.getMessage());
+			}
+		}
+		if (!fileRoots.isEmpty()) {
+			reports.add(0, new AnalysisReport(fileRoots, filePool));
+		}
+		if (reports.isEmpty()) {
+			System.err.println("*** No diagrams to analyse.");
+			System.exit(2);
+		}
+		PrintWriter out = null;
+		try {
+			if (outFileName != null) {
+				out = new PrintWriter(new OutputStreamWriter(new FileOutputStream(outFileName), charSet));
+			}
+			else {
+				out = new PrintWriter(new OutputStreamWriter(System.out, charSet));
+			}
+			for (AnalysisReport report: reports) {
+				report.run();
+				report.write(out);
+			}
+		}
+		catch (IOException ex) {
+			System.err.println("*** Error on writing the analysis report: " + ex.getMessage());
+			System.exit(4);
+		}
+		finally {
+			if (out != null && outFileName != null) {
+				out.close();
+			}
+		}
+	}
+	// END KGU#916 2026-10-19
+
+	// START KGU#922 2026-10-19: Headless batch image export of diagram files and arrangements
+	/*****************************************
+	 * batch image export method
+	 * @param _format - the image format (see {@link ImageBatchExport#FORMATS})
+	 * @param _filenames - names of the diagram or arrangement files to be rendered
+	 * @param _options - map of non-binary command line options
+	 *****************************************/
+	public static void exportImages(String _format, Vector<String> _filenames, HashMap<String, String> _options)
+	{
+		System.setProperty("java.awt.headless", "true");
+		if (!ImageBatchExport.isSupported(_format)) {
+			System.err.println("*** Unsupported image format " + _format + ". Use one of: "
+					+ String.join(", ", ImageBatchExport.FORMATS));
+			System.exit(1);
+		}
+		String outDirName = _options.get("outFileName");
+		File outDir = null;
+		if (outDirName != null) {
+			outDir = new File(outDirName);
+			if (!outDir.isDirectory() && !outDir.mkdirs()) {
+				System.err.println("*** Output directory " + outDirName + " couldn't be created.");
+				System.exit(1);
+			}
+		}
+		// Drawing settings as configured (see Mainform.loadFromIni())
+		try {
+			Ini ini = Ini.getInstance();
+			ini.load();
+			Mainform.loadDrawingPreferences(ini, null);
+			Element.E_FILENAME_WITH_ARGNUMBERS = !ini.getProperty("filenameWithArgNos", "1").equals("0");
+		}
+		catch (IOException ex) {
+			System.err.println("*** Drawing preferences couldn't be loaded: " + ex.getMessage());
+		}
+		Element.loadFromINI();
+		CodeParser.loadFromINI();
+
+		// The diagrams are loaded sequentially, only the rendering is done in parallel
+		ImageBatchExport batch = new ImageBatchExport(_format);
+		Archivar archivar = new Archivar();
+		// Diagrams specified as single files may refer to each other, so they share a pool
+		ArchivePool filePool = new ArchivePool("");
+		Set<String> targetPaths = new HashSet<String>();
+		for (String fName : _filenames)
+		{
+			try
+			{
+				File f = new File(fName).getAbsoluteFile();
+				boolean isArrz = false;
+				File targetDir = outDir != null ? outDir : f.getParentFile();
+				if (f.exists() && StructogramFilter.isNSD(fName))
+				{
+					Root root = new NSDParser().parse(f);
+					root.filename = f.getAbsolutePath();
+					root.specialRoutinePool = filePool;
+					filePool.addDiagram(root);
+					batch.add(root, makeImageFile(targetDir, root.proposeFileName(), _format, targetPaths));
+				}
+				else if (f.exists() && (ArrFilter.isArr(fName) || (isArrz = ArrZipFilter.isArr(fName)))) {
+					ArchiveIndex index = null;
+					if (isArrz) {
+						index = archivar.unzipArrangementArchive(f, null);
+					}
+					else {
+						index = archivar.makeNewIndexFor(f);
+					}
+					ArchivePool pool = new ArchivePool(index);
+					for (Root root: pool.getAllRoots()) {
+						root.specialRoutinePool = pool;
+						batch.add(root, makeImageFile(targetDir, root.proposeFileName(), _format, targetPaths));
+					}
+				}
+				else
+				{
+					System.err.println("*** File " + fName + " not found or inappropriate. Skipped.");
+				}
+			}
+			catch (Exception e)
+			{
+				System.err.println("*** Error while trying to load " + fName + ": " + e.getMessage());
+			}
+		}
+		if (batch.getDiagramCount() == 0) {
+			System.err.println("*** No diagrams to export.");
+			System.exit(2);
+		}
+		try {
+			Vector<String> failures = batch.run();
+			for (String failure: failures) {
+				System.err.println("*** Export failed: " + failure);
+			}
+			if (!failures.isEmpty()) {
+				System.exit(4);
+			}
+		}
+		catch (InterruptedException ex) {
+			System.err.println("*** Image export interrupted.");
+			System.exit(4);
+		}
+	}
+
+	/**
+	 * Composes a target file for the image of a diagram, unique among the {@code _usedPaths}
+	 * (several diagrams of an arrangement may propose the same file name).
+	 * @param _dir - the target directory
+	 * @param _name - the proposed file name (without extension)
+	 * @param _ext - the file extension
+	 * @param _usedPaths - the paths of the target files composed so far (will be extended)
+	 * @return the target file
+	 */
+	private static File makeImageFile(File _dir, String _name, String _ext, Set<String> _usedPaths)
+	{
+		_ext = _ext.toLowerCase();
+		File file = new File(_dir, _name + "." + _ext);
+		for (int i = 2; !_usedPaths.add(file.getAbsolutePath()); i++) {
+			file = new File(_dir, _name + "_" + i + "." + _ext);
+		}
+		return file;
+	}
+	// END KGU#922 2026-10-19
+
 	// START KGU#187 2016-04-29: Enh. #179 - for symmetry reasons also allow a parsing in batch mode, 2019-03-05 made public
 	/*****************************************
 	 * batch code import method
@@ -1390,6 +1670,9 @@ public class Structorizer
 			}
 		}
 		System.out.println("\n\tARRSPEC = (ARRFILE|ARRZFILE)!SIGNATURE...");
+		// START KGU#922 2026-10-19: Batch image export
+		System.out.println("\tFORMAT = " + String.join(" | ", ImageBatchExport.FORMATS));
+		// END KGU#922 2026-10-19
 		System.out.print("\n\tPARSER = ");
 		// Again we (ab)use some class residing in package gui to fetch the plugin configuration 
 		buff = new BufferedInputStream(lu.fisch.structorizer.gui.EditData.class.getResourceAsStream("parsers.xml"));
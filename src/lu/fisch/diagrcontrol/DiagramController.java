@@ -52,8 +52,13 @@ package lu.fisch.diagrcontrol;
  ******************************************************************************************************///
 
 import java.awt.Color;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -96,6 +101,62 @@ public interface DiagramController
 		}
 	}
 
+	// START KGU#902 2026-10-19: Avoid reflective invocation on every controller call
+	/**
+	 * Global cache of {@link MethodHandle}s for the {@link Method}s of the procedure and
+	 * function maps of all controllers. The handles are adapted to the generic signature
+	 * {@code (Object, Object[])Object} such that they can be invoked exactly, which is
+	 * considerably cheaper than {@link Method#invoke(Object, Object...)}.
+	 */
+	public static final class MethodHandleCache {
+		private static final ConcurrentHashMap<Method, MethodHandle> handles = new ConcurrentHashMap<Method, MethodHandle>();
+		private static final MethodType GENERIC_TYPE = MethodType.methodType(Object.class, Object.class, Object[].class);
+
+		private MethodHandleCache() {}
+
+		/**
+		 * Returns the (cached) generic method handle for {@code method}
+		 * @param method - a public method of a {@link DiagramController} class
+		 * @return a method handle of type {@code (Object, Object[])Object}
+		 * @throws IllegalAccessException if the method is not accessible
+		 */
+		public static MethodHandle get(Method method) throws IllegalAccessException
+		{
+			MethodHandle handle = handles.get(method);
+			if (handle == null) {
+				handle = MethodHandles.publicLookup().unreflect(method)
+						.asSpreader(Object[].class, method.getParameterCount())
+						.asType(GENERIC_TYPE);
+				handles.put(method, handle);
+			}
+			return handle;
+		}
+
+		/**
+		 * Invokes {@code method} on {@code target} via its cached method handle
+		 * @param method - a public method of a {@link DiagramController} class
+		 * @param target - the controller instance
+		 * @param arguments - the arguments for {@code method}
+		 * @return the result of the method (null for procedures)
+		 * @throws Exception if the method is not accessible or throws an exception itself
+		 */
+		public static Object invoke(Method method, Object target, Object[] arguments) throws Exception
+		{
+			MethodHandle handle = get(method);
+			try {
+				return (Object)handle.invokeExact(target, arguments);
+			}
+			catch (Exception | Error ex) {
+				throw ex;
+			}
+			catch (Throwable ex) {
+				// Neither exception nor error - hardly conceivable
+				throw new InvocationTargetException(ex);
+			}
+		}
+	}
+	// END KGU#902 2026-10-19
+
 	/**
 	 * Returns a title for this controller
 	 * (The default implementation just returns the simple class name. Override this if needed) 
@@ -252,7 +313,10 @@ public interface DiagramController
 					logger.config("Executing " + name + "(" + argStrings.concatenate(",") + ")");
 				}
 				// END KGU#597 2018-10-12
-				result = method.invoke(this, arguments);
+				// START KGU#902 2026-10-19: Use a cached method handle instead of reflection
+				//result = method.invoke(this, arguments);
+				result = MethodHandleCache.invoke(method, this, arguments);
+				// END KGU#902 2026-10-19
 			} catch (Exception e) {
 				// START KGU#484 2018-03-21: Issue #463
 				//System.err.println("Defective DiagramControl class " + method + ": " + e.toString());
@@ -55,7 +55,9 @@ import java.awt.Paint;
 import java.awt.Polygon;
 import java.awt.Rectangle;
 import java.awt.RenderingHints;
+import java.awt.Shape;
 import java.awt.geom.AffineTransform;
+import java.awt.geom.Line2D;
 import java.awt.geom.Rectangle2D;
 import java.awt.image.BufferedImage;
 
@@ -150,6 +152,26 @@ public class Canvas  {
 	
 	public void hatchRect(Rect _rect, int deltaX, int deltaY, Color color)
 	{
+		// START KGU#922 2026-10-19: Vector graphics (no device configuration) get genuine lines
+		// (the freehep graphics fail to export texture paints on recent Java versions)
+		if (canvas.getDeviceConfiguration() == null) {
+			Shape oldClip = canvas.getClip();
+			Color oldColor = canvas.getColor();
+			canvas.clip(_rect.getRectangle());
+			canvas.setColor(color);
+			// The lines x/deltaX + y/deltaY = n, i.e. the same as those of the texture tiles
+			int n0 = (int)Math.floor((double)_rect.left / deltaX + (double)_rect.top / deltaY);
+			int n1 = (int)Math.ceil((double)_rect.right / deltaX + (double)_rect.bottom / deltaY);
+			for (int n = n0; n <= n1; n++) {
+				canvas.draw(new Line2D.Double(
+						(n - (double)_rect.top / deltaY) * deltaX, _rect.top,
+						(n - (double)_rect.bottom / deltaY) * deltaX, _rect.bottom));
+			}
+			canvas.setColor(oldColor);
+			canvas.setClip(oldClip);
+			return;
+		}
+		// END KGU#922 2026-10-19
 		BufferedImage bufferedImage =
 		        new BufferedImage(deltaX, deltaY, BufferedImage.TYPE_INT_ARGB);
 
@@ -0,0 +1,1011 @@
+/*
+    Structorizer
+    A little tool which you can use to create Nassi-Schneiderman Diagrams (NSD)
+
+    Copyright (C) 2009  Bob Fisch
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or any
+    later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+
+package lu.fisch.graphics;
+
+/******************************************************************************************************
+ *
+ *      Description:    Graphics2D writing SVG elements to a stream while being drawn on.
+ *
+ ******************************************************************************************************
+ *
+ *      Comment:
+ *      2026-10-19 (KGU#924)
+ *      - Every drawing primitive is written immediately as an SVG element, nothing of the document is
+ *        held in memory (in contrast to the FreeHEP SVGGraphics2D, which wraps every primitive in a group
+ *        with a complete style specification and renders text as glyph outlines).
+ *      - Strokes, fills, and fonts are defined as CSS classes when used first (in a style element written
+ *        ahead of the using element) and merely referred to afterwards. Images are defined once as well.
+ *      - Text is written as text elements, such that it remains searchable; the logical Java font names
+ *        are mapped to the generic CSS families.
+ *      - Shapes are written in device coordinates. The clip is applied to runs of primitives sharing it
+ *        by a group element. Transforms other than translations are only written for text and images.
+ *      - Like the FreeHEP graphics, it has no device configuration (see Canvas.hatchRect()).
+ *
+ ******************************************************************************************************///
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Composite;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Image;
+import java.awt.Paint;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.Shape;
+import java.awt.Stroke;
+import java.awt.AlphaComposite;
+import java.awt.font.FontRenderContext;
+import java.awt.font.GlyphVector;
+import java.awt.font.TextAttribute;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Arc2D;
+import java.awt.geom.Area;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Line2D;
+import java.awt.geom.NoninvertibleTransformException;
+import java.awt.geom.PathIterator;
+import java.awt.geom.Rectangle2D;
+import java.awt.geom.RoundRectangle2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.BufferedImageOp;
+import java.awt.image.ImageObserver;
+import java.awt.image.RenderedImage;
+import java.awt.image.renderable.RenderableImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.Writer;
+import java.text.AttributedCharacterIterator;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import javax.imageio.ImageIO;
+
+/**
+ * {@link Graphics2D} implementation streaming the drawn primitives as SVG elements to a
+ * {@link Writer}. Call {@link #startExport()} before and {@link #endExport()} after drawing.
+ * Graphics derived via {@link #create()} write to the same document.
+ */
+public class SVGStreamGraphics extends Graphics2D {
+
+	/** The document state shared by all graphics derived from the same root graphics */
+	private static final class Document {
+		final Writer out;
+		final int width, height;
+		/** CSS class names by style specification */
+		final HashMap<String, String> classes = new HashMap<String, String>();
+		/** Defined image ids */
+		final IdentityHashMap<Image, String> images = new IdentityHashMap<Image, String>();
+		/** Graphics for font metrics */
+		final Graphics2D metrics = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB).createGraphics();
+		/** The clip of the currently open group (device space), or null */
+		Shape groupClip = null;
+		int nClips = 0;
+		/** The first write error (drawing methods cannot throw) */
+		IOException error = null;
+		/** Reused buffer for the composition of elements */
+		final StringBuilder sb = new StringBuilder(256);
+
+		Document(Writer _out, int _width, int _height)
+		{
+			out = _out;
+			width = _width;
+			height = _height;
+		}
+
+		void write(CharSequence _text)
+		{
+			if (error == null) {
+				try {
+					out.append(_text);
+				}
+				catch (IOException ex) {
+					error = ex;
+				}
+			}
+		}
+
+		/**
+		 * Retrieves the CSS class for the given style, defining it if new
+		 * @param _prefix - class name prefix (kind of style)
+		 * @param _style - the CSS declarations
+		 * @return the class name
+		 */
+		String getClass(char _prefix, String _style)
+		{
+			String name = classes.get(_style);
+			if (name == null) {
+				name = _prefix + Integer.toString(classes.size());
+				classes.put(_style, name);
+				write("<style>." + name + "{" + _style + "}</style>\n");
+			}
+			return name;
+		}
+
+		/**
+		 * Opens a clip group for the given clip unless the current group has the same clip
+		 * @param _clip - the clip in device space or null
+		 */
+		void useClip(Shape _clip)
+		{
+			if (_clip == groupClip || _clip instanceof Rectangle2D && _clip.equals(groupClip)) {
+				return;
+			}
+			if (groupClip != null) {
+				write("</g>\n");
+			}
+			groupClip = _clip;
+			if (_clip != null) {
+				String id = "c" + (nClips++);
+				StringBuilder def = new StringBuilder("<clipPath id=\"").append(id).append("\"><path d=\"");
+				appendPath(def, _clip.getPathIterator(null));
+				def.append("\"/></clipPath>\n<g clip-path=\"url(#").append(id).append(")\">\n");
+				write(def);
+			}
+		}
+	}
+
+	private final Document doc;
+	private Color color = Color.BLACK;
+	private Paint paint = Color.BLACK;
+	private Color background = Color.WHITE;
+	private Font font = new Font("Dialog", Font.PLAIN, 12);
+	private Stroke stroke = new BasicStroke();
+	private Composite composite = AlphaComposite.SrcOver;
+	private AffineTransform transform = new AffineTransform();
+	/** The clip in device space (null = unclipped) */
+	private Shape clip = null;
+	private final RenderingHints hints = new RenderingHints(null);
+
+	/**
+	 * Creates the root graphics for an SVG document of the given size
+	 * @param _out - the target writer (should be buffered, is not closed)
+	 * @param _width - document width (px)
+	 * @param _height - document height (px)
+	 */
+	public SVGStreamGraphics(Writer _out, int _width, int _height)
+	{
+		doc = new Document(_out, _width, _height);
+	}
+
+	private SVGStreamGraphics(SVGStreamGraphics _parent)
+	{
+		doc = _parent.doc;
+		color = _parent.color;
+		paint = _parent.paint;
+		background = _parent.background;
+		font = _parent.font;
+		stroke = _parent.stroke;
+		composite = _parent.composite;
+		transform = new AffineTransform(_parent.transform);
+		clip = _parent.clip;
+		hints.putAll(_parent.hints);
+	}
+
+	/**
+	 * Writes the document header
+	 * @throws IOException
+	 */
+	public void startExport() throws IOException
+	{
+		doc.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+				+ "<svg xmlns=\"http://www.w3.org/2000/svg\" xmlns:xlink=\"http://www.w3.org/1999/xlink\" version=\"1.1\""
+				+ " width=\"" + doc.width + "\" height=\"" + doc.height + "\" viewBox=\"0 0 " + doc.width + " " + doc.height + "\""
+				+ " xml:space=\"preserve\">\n");
+		checkError();
+	}
+
+	/**
+	 * Completes the document and flushes the writer
+	 * @throws IOException if writing failed at any point
+	 */
+	public void endExport() throws IOException
+	{
+		doc.useClip(null);
+		doc.write("</svg>\n");
+		checkError();
+		doc.out.flush();
+	}
+
+	private void checkError() throws IOException
+	{
+		if (doc.error != null) {
+			throw doc.error;
+		}
+	}
+
+	/*======== Element output ========*/
+
+	/** @return the number formatted with at most 3 decimals */
+	private static StringBuilder appendNum(StringBuilder _sb, double _val)
+	{
+		long milli = Math.round(_val * 1000);
+		if (milli % 1000 == 0) {
+			return _sb.append(milli / 1000);
+		}
+		if (milli < 0) {
+			_sb.append('-');
+			milli = -milli;
+		}
+		_sb.append(milli / 1000).append('.');
+		int frac = (int)(milli % 1000);
+		if (frac < 100) _sb.append('0');
+		if (frac < 10) _sb.append('0');
+		while (frac % 10 == 0) frac /= 10;
+		return _sb.append(frac);
+	}
+
+	private static void appendPath(StringBuilder _sb, PathIterator _iter)
+	{
+		double[] coords = new double[6];
+		char[] cmds = {'M', 'L', 'Q', 'C'};
+		int[] nCoords = {2, 2, 4, 6};
+		while (!_iter.isDone()) {
+			int type = _iter.currentSegment(coords);
+			if (type == PathIterator.SEG_CLOSE) {
+				_sb.append('Z');
+			}
+			else {
+				_sb.append(cmds[type]);
+				for (int i = 0; i < nCoords[type]; i++) {
+					if (i > 0) _sb.append(' ');
+					appendNum(_sb, coords[i]);
+				}
+			}
+			_iter.next();
+		}
+	}
+
+	private static String colorSpec(Color _color, String _property)
+	{
+		String spec = _property + ":#" + String.format("%06x", _color.getRGB() & 0xFFFFFF);
+		if (_color.getAlpha() < 255) {
+			spec += ";" + _property + "-opacity:" + appendNum(new StringBuilder(), _color.getAlpha() / 255.0);
+		}
+		return spec;
+	}
+
+	/** @return the effective drawing colour (null if nothing is to be drawn) */
+	private Color getDrawColor()
+	{
+		Color col = paint instanceof Color ? (Color)paint : color;
+		if (composite instanceof AlphaComposite) {
+			float alpha = ((AlphaComposite)composite).getAlpha();
+			if (alpha < 1.0f) {
+				col = new Color(col.getRed(), col.getGreen(), col.getBlue(), Math.round(col.getAlpha() * alpha));
+			}
+		}
+		return col.getAlpha() == 0 ? null : col;
+	}
+
+	/** @return the CSS class for the current stroke and colour (null if nothing is to be drawn) */
+	private String getStrokeClass()
+	{
+		Color col = getDrawColor();
+		if (col == null) {
+			return null;
+		}
+		StringBuilder style = new StringBuilder("fill:none;").append(colorSpec(col, "stroke"));
+		if (stroke instanceof BasicStroke) {
+			BasicStroke bs = (BasicStroke)stroke;
+			double scale = Math.sqrt(Math.abs(transform.getDeterminant()));
+			style.append(";stroke-width:");
+			appendNum(style, Math.max(bs.getLineWidth(), 1.0f) * scale);
+			style.append(";stroke-linecap:").append(new String[]{"butt", "round", "square"}[bs.getEndCap()]);
+			style.append(";stroke-linejoin:").append(new String[]{"miter", "round", "bevel"}[bs.getLineJoin()]);
+			float[] dash = bs.getDashArray();
+			if (dash != null) {
+				style.append(";stroke-dasharray:");
+				for (int i = 0; i < dash.length; i++) {
+					if (i > 0) style.append(',');
+					appendNum(style, dash[i] * scale);
+				}
+			}
+		}
+		return doc.getClass('s', style.toString());
+	}
+
+	/** @return the CSS class for filling with the current colour (null if nothing is to be drawn) */
+	private String getFillClass()
+	{
+		Color col = getDrawColor();
+		if (col == null) {
+			return null;
+		}
+		return doc.getClass('f', colorSpec(col, "fill") + ";stroke:none");
+	}
+
+	/** @return the CSS class for text in the current font and colour (null if nothing is to be drawn) */
+	private String getTextClass()
+	{
+		Color col = getDrawColor();
+		if (col == null) {
+			return null;
+		}
+		StringBuilder style = new StringBuilder("font-family:");
+		String family = font.getFamily();
+		if (family.equals(Font.DIALOG) || family.equals(Font.SANS_SERIF)) {
+			style.append("sans-serif");
+		}
+		else if (family.equals(Font.SERIF)) {
+			style.append("serif");
+		}
+		else if (family.equals(Font.MONOSPACED) || family.equals(Font.DIALOG_INPUT)) {
+			style.append("monospace");
+		}
+		else {
+			style.append('\'').append(family.replace("'", "")).append("',sans-serif");
+		}
+		style.append(";font-size:");
+		appendNum(style, font.getSize2D());
+		style.append("px");
+		if (font.isBold()) {
+			style.append(";font-weight:bold");
+		}
+		if (font.isItalic()) {
+			style.append(";font-style:italic");
+		}
+		if (TextAttribute.UNDERLINE_ON.equals(font.getAttributes().get(TextAttribute.UNDERLINE))) {
+			style.append(";text-decoration:underline");
+		}
+		style.append(';').append(colorSpec(col, "fill")).append(";stroke:none");
+		return doc.getClass('t', style.toString());
+	}
+
+	/** @return true if the transform is a mere translation */
+	private boolean isTranslation()
+	{
+		return transform.getType() == AffineTransform.TYPE_TRANSLATION || transform.isIdentity();
+	}
+
+	private void appendTransform(StringBuilder _sb, AffineTransform _trans)
+	{
+		double[] matrix = new double[6];
+		_trans.getMatrix(matrix);
+		_sb.append(" transform=\"matrix(");
+		for (int i = 0; i < 6; i++) {
+			if (i > 0) _sb.append(' ');
+			appendNum(_sb, matrix[i]);
+		}
+		_sb.append(")\"");
+	}
+
+	/**
+	 * Writes the given shape in device coordinates with the given class
+	 * @param _shape - the shape in user space
+	 * @param _class - the CSS class
+	 */
+	private void writeShape(Shape _shape, String _class)
+	{
+		if (_class == null) {
+			return;
+		}
+		doc.useClip(clip);
+		StringBuilder sb = doc.sb;
+		sb.setLength(0);
+		if (_shape instanceof Rectangle2D && isTranslation()) {
+			Rectangle2D rect = (Rectangle2D)_shape;
+			sb.append("<rect class=\"").append(_class).append("\" x=\"");
+			appendNum(sb, rect.getX() + transform.getTranslateX()).append("\" y=\"");
+			appendNum(sb, rect.getY() + transform.getTranslateY()).append("\" width=\"");
+			appendNum(sb, rect.getWidth()).append("\" height=\"");
+			appendNum(sb, rect.getHeight()).append("\"/>\n");
+		}
+		else if (_shape instanceof Line2D && isTranslation()) {
+			Line2D line = (Line2D)_shape;
+			sb.append("<line class=\"").append(_class).append("\" x1=\"");
+			appendNum(sb, line.getX1() + transform.getTranslateX()).append("\" y1=\"");
+			appendNum(sb, line.getY1() + transform.getTranslateY()).append("\" x2=\"");
+			appendNum(sb, line.getX2() + transform.getTranslateX()).append("\" y2=\"");
+			appendNum(sb, line.getY2() + transform.getTranslateY()).append("\"/>\n");
+		}
+		else {
+			sb.append("<path class=\"").append(_class).append("\" d=\"");
+			appendPath(sb, _shape.getPathIterator(transform));
+			sb.append("\"/>\n");
+		}
+		doc.write(sb);
+	}
+
+	private static void appendEscaped(StringBuilder _sb, String _text)
+	{
+		for (int i = 0; i < _text.length(); i++) {
+			char ch = _text.charAt(i);
+			switch (ch) {
+			case '&': _sb.append("&amp;"); break;
+			case '<': _sb.append("&lt;"); break;
+			case '>': _sb.append("&gt;"); break;
+			default:
+				// Control characters are not allowed in XML
+				if (ch >= ' ' || ch == '\t') {
+					_sb.append(ch);
+				}
+			}
+		}
+	}
+
+	/*======== Graphics2D ========*/
+
+	@Override
+	public void draw(Shape _shape)
+	{
+		writeShape(_shape, getStrokeClass());
+	}
+
+	@Override
+	public void fill(Shape _shape)
+	{
+		writeShape(_shape, getFillClass());
+	}
+
+	@Override
+	public void drawString(String _str, float _x, float _y)
+	{
+		String cls = getTextClass();
+		if (cls == null || _str.isEmpty()) {
+			return;
+		}
+		doc.useClip(clip);
+		StringBuilder sb = doc.sb;
+		sb.setLength(0);
+		sb.append("<text class=\"").append(cls).append("\" x=\"");
+		if (isTranslation()) {
+			appendNum(sb, _x + transform.getTranslateX()).append("\" y=\"");
+			appendNum(sb, _y + transform.getTranslateY()).append('"');
+		}
+		else {
+			appendNum(sb, _x).append("\" y=\"");
+			appendNum(sb, _y).append('"');
+			appendTransform(sb, transform);
+		}
+		sb.append('>');
+		appendEscaped(sb, _str);
+		sb.append("</text>\n");
+		doc.write(sb);
+	}
+
+	@Override
+	public void drawString(String _str, int _x, int _y)
+	{
+		drawString(_str, (float)_x, (float)_y);
+	}
+
+	@Override
+	public void drawString(AttributedCharacterIterator _iterator, int _x, int _y)
+	{
+		drawString(_iterator, (float)_x, (float)_y);
+	}
+
+	@Override
+	public void drawString(AttributedCharacterIterator _iterator, float _x, float _y)
+	{
+		StringBuilder text = new StringBuilder();
+		for (char ch = _iterator.first(); ch != AttributedCharacterIterator.DONE; ch = _iterator.next()) {
+			text.append(ch);
+		}
+		drawString(text.toString(), _x, _y);
+	}
+
+	@Override
+	public void drawGlyphVector(GlyphVector _glyphs, float _x, float _y)
+	{
+		fill(_glyphs.getOutline(_x, _y));
+	}
+
+	@Override
+	public boolean drawImage(Image _img, AffineTransform _xform, ImageObserver _observer)
+	{
+		int width = _img.getWidth(_observer);
+		int height = _img.getHeight(_observer);
+		if (width <= 0 || height <= 0) {
+			return false;
+		}
+		String id = doc.images.get(_img);
+		if (id == null) {
+			BufferedImage bi = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+			Graphics2D g2d = bi.createGraphics();
+			boolean complete = g2d.drawImage(_img, 0, 0, _observer);
+			g2d.dispose();
+			if (!complete) {
+				return false;
+			}
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			try {
+				ImageIO.write(bi, "png", bytes);
+			}
+			catch (IOException ex) {
+				doc.error = ex;
+				return false;
+			}
+			id = "i" + doc.images.size();
+			doc.images.put(_img, id);
+			doc.write("<defs><image id=\"" + id + "\" width=\"" + width + "\" height=\"" + height
+					+ "\" xlink:href=\"data:image/png;base64," + Base64.getEncoder().encodeToString(bytes.toByteArray())
+					+ "\"/></defs>\n");
+		}
+		doc.useClip(clip);
+		StringBuilder sb = doc.sb;
+		sb.setLength(0);
+		sb.append("<use xlink:href=\"#").append(id).append('"');
+		AffineTransform trans = new AffineTransform(transform);
+		if (_xform != null) {
+			trans.concatenate(_xform);
+		}
+		appendTransform(sb, trans);
+		sb.append("/>\n");
+		doc.write(sb);
+		return true;
+	}
+
+	@Override
+	public void drawImage(BufferedImage _img, BufferedImageOp _op, int _x, int _y)
+	{
+		BufferedImage img = _op == null ? _img : _op.filter(_img, null);
+		drawImage(img, AffineTransform.getTranslateInstance(_x, _y), null);
+	}
+
+	@Override
+	public void drawRenderedImage(RenderedImage _img, AffineTransform _xform)
+	{
+		if (_img instanceof BufferedImage) {
+			drawImage((BufferedImage)_img, _xform, null);
+		}
+	}
+
+	@Override
+	public void drawRenderableImage(RenderableImage _img, AffineTransform _xform)
+	{
+		drawRenderedImage(_img.createDefaultRendering(), _xform);
+	}
+
+	@Override
+	public boolean hit(Rectangle _rect, Shape _shape, boolean _onStroke)
+	{
+		if (_onStroke) {
+			_shape = stroke.createStrokedShape(_shape);
+		}
+		return transform.createTransformedShape(_shape).intersects(_rect);
+	}
+
+	@Override
+	public GraphicsConfiguration getDeviceConfiguration()
+	{
+		return null;
+	}
+
+	@Override
+	public void setComposite(Composite _comp)
+	{
+		composite = _comp;
+	}
+
+	@Override
+	public Composite getComposite()
+	{
+		return composite;
+	}
+
+	@Override
+	public void setPaint(Paint _paint)
+	{
+		if (_paint != null) {
+			paint = _paint;
+			if (_paint instanceof Color) {
+				color = (Color)_paint;
+			}
+		}
+	}
+
+	@Override
+	public Paint getPaint()
+	{
+		return paint;
+	}
+
+	@Override
+	public void setStroke(Stroke _stroke)
+	{
+		stroke = _stroke;
+	}
+
+	@Override
+	public Stroke getStroke()
+	{
+		return stroke;
+	}
+
+	@Override
+	public void setRenderingHint(RenderingHints.Key _hintKey, Object _hintValue)
+	{
+		hints.put(_hintKey, _hintValue);
+	}
+
+	@Override
+	public Object getRenderingHint(RenderingHints.Key _hintKey)
+	{
+		return hints.get(_hintKey);
+	}
+
+	@Override
+	public void setRenderingHints(Map<?, ?> _hints)
+	{
+		hints.clear();
+		hints.putAll(_hints);
+	}
+
+	@Override
+	public void addRenderingHints(Map<?, ?> _hints)
+	{
+		hints.putAll(_hints);
+	}
+
+	@Override
+	public RenderingHints getRenderingHints()
+	{
+		return (RenderingHints)hints.clone();
+	}
+
+	@Override
+	public void translate(int _x, int _y)
+	{
+		transform.translate(_x, _y);
+	}
+
+	@Override
+	public void translate(double _tx, double _ty)
+	{
+		transform.translate(_tx, _ty);
+	}
+
+	@Override
+	public void rotate(double _theta)
+	{
+		transform.rotate(_theta);
+	}
+
+	@Override
+	public void rotate(double _theta, double _x, double _y)
+	{
+		transform.rotate(_theta, _x, _y);
+	}
+
+	@Override
+	public void scale(double _sx, double _sy)
+	{
+		transform.scale(_sx, _sy);
+	}
+
+	@Override
+	public void shear(double _shx, double _shy)
+	{
+		transform.shear(_shx, _shy);
+	}
+
+	@Override
+	public void transform(AffineTransform _tx)
+	{
+		transform.concatenate(_tx);
+	}
+
+	@Override
+	public void setTransform(AffineTransform _tx)
+	{
+		transform = new AffineTransform(_tx);
+	}
+
+	@Override
+	public AffineTransform getTransform()
+	{
+		return new AffineTransform(transform);
+	}
+
+	@Override
+	public void setBackground(Color _color)
+	{
+		background = _color;
+	}
+
+	@Override
+	public Color getBackground()
+	{
+		return background;
+	}
+
+	@Override
+	public void clip(Shape _shape)
+	{
+		if (_shape == null) {
+			clip = null;
+			return;
+		}
+		Area area = new Area(transform.createTransformedShape(_shape));
+		if (clip != null) {
+			area.intersect(new Area(clip));
+		}
+		clip = area.isRectangular() ? area.getBounds2D() : area;
+	}
+
+	@Override
+	public FontRenderContext getFontRenderContext()
+	{
+		doc.metrics.setRenderingHints(hints);
+		doc.metrics.setTransform(transform);
+		return doc.metrics.getFontRenderContext();
+	}
+
+	/*======== Graphics ========*/
+
+	@Override
+	public Graphics create()
+	{
+		return new SVGStreamGraphics(this);
+	}
+
+	@Override
+	public Color getColor()
+	{
+		return color;
+	}
+
+	@Override
+	public void setColor(Color _color)
+	{
+		if (_color != null) {
+			color = _color;
+			paint = _color;
+		}
+	}
+
+	@Override
+	public void setPaintMode()
+	{
+		composite = AlphaComposite.SrcOver;
+	}
+
+	@Override
+	public void setXORMode(Color _color)
+	{
+		// Not supported in SVG
+	}
+
+	@Override
+	public Font getFont()
+	{
+		return font;
+	}
+
+	@Override
+	public void setFont(Font _font)
+	{
+		if (_font != null) {
+			font = _font;
+		}
+	}
+
+	@Override
+	public FontMetrics getFontMetrics(Font _font)
+	{
+		doc.metrics.setRenderingHints(hints);
+		doc.metrics.setTransform(new AffineTransform());
+		return doc.metrics.getFontMetrics(_font);
+	}
+
+	@Override
+	public Rectangle getClipBounds()
+	{
+		Shape userClip = getClip();
+		return userClip == null ? null : userClip.getBounds();
+	}
+
+	@Override
+	public void clipRect(int _x, int _y, int _width, int _height)
+	{
+		clip(new Rectangle(_x, _y, _width, _height));
+	}
+
+	@Override
+	public void setClip(int _x, int _y, int _width, int _height)
+	{
+		setClip(new Rectangle(_x, _y, _width, _height));
+	}
+
+	@Override
+	public Shape getClip()
+	{
+		if (clip == null) {
+			return null;
+		}
+		try {
+			return transform.createInverse().createTransformedShape(clip);
+		}
+		catch (NoninvertibleTransformException ex) {
+			return null;
+		}
+	}
+
+	@Override
+	public void setClip(Shape _clip)
+	{
+		clip = null;
+		if (_clip != null) {
+			clip(_clip);
+		}
+	}
+
+	@Override
+	public void copyArea(int _x, int _y, int _width, int _height, int _dx, int _dy)
+	{
+		// Not supported in SVG
+	}
+
+	@Override
+	public void drawLine(int _x1, int _y1, int _x2, int _y2)
+	{
+		draw(new Line2D.Float(_x1, _y1, _x2, _y2));
+	}
+
+	@Override
+	public void drawRect(int _x, int _y, int _width, int _height)
+	{
+		draw(new Rectangle(_x, _y, _width, _height));
+	}
+
+	@Override
+	public void fillRect(int _x, int _y, int _width, int _height)
+	{
+		fill(new Rectangle(_x, _y, _width, _height));
+	}
+
+	@Override
+	public void clearRect(int _x, int _y, int _width, int _height)
+	{
+		Paint oldPaint = paint;
+		Color oldColor = color;
+		setColor(background);
+		fillRect(_x, _y, _width, _height);
+		color = oldColor;
+		paint = oldPaint;
+	}
+
+	@Override
+	public void drawRoundRect(int _x, int _y, int _width, int _height, int _arcWidth, int _arcHeight)
+	{
+		draw(new RoundRectangle2D.Float(_x, _y, _width, _height, _arcWidth, _arcHeight));
+	}
+
+	@Override
+	public void fillRoundRect(int _x, int _y, int _width, int _height, int _arcWidth, int _arcHeight)
+	{
+		fill(new RoundRectangle2D.Float(_x, _y, _width, _height, _arcWidth, _arcHeight));
+	}
+
+	@Override
+	public void drawOval(int _x, int _y, int _width, int _height)
+	{
+		draw(new Ellipse2D.Float(_x, _y, _width, _height));
+	}
+
+	@Override
+	public void fillOval(int _x, int _y, int _width, int _height)
+	{
+		fill(new Ellipse2D.Float(_x, _y, _width, _height));
+	}
+
+	@Override
+	public void drawArc(int _x, int _y, int _width, int _height, int _startAngle, int _arcAngle)
+	{
+		draw(new Arc2D.Float(_x, _y, _width, _height, _startAngle, _arcAngle, Arc2D.OPEN));
+	}
+
+	@Override
+	public void fillArc(int _x, int _y, int _width, int _height, int _startAngle, int _arcAngle)
+	{
+		fill(new Arc2D.Float(_x, _y, _width, _height, _startAngle, _arcAngle, Arc2D.PIE));
+	}
+
+	@Override
+	public void drawPolyline(int[] _xPoints, int[] _yPoints, int _nPoints)
+	{
+		if (_nPoints > 0) {
+			java.awt.geom.Path2D.Float path = new java.awt.geom.Path2D.Float();
+			path.moveTo(_xPoints[0], _yPoints[0]);
+			for (int i = 1; i < _nPoints; i++) {
+				path.lineTo(_xPoints[i], _yPoints[i]);
+			}
+			draw(path);
+		}
+	}
+
+	@Override
+	public void drawPolygon(int[] _xPoints, int[] _yPoints, int _nPoints)
+	{
+		draw(new java.awt.Polygon(_xPoints, _yPoints, _nPoints));
+	}
+
+	@Override
+	public void fillPolygon(int[] _xPoints, int[] _yPoints, int _nPoints)
+	{
+		fill(new java.awt.Polygon(_xPoints, _yPoints, _nPoints));
+	}
+
+	@Override
+	public boolean drawImage(Image _img, int _x, int _y, ImageObserver _observer)
+	{
+		return drawImage(_img, AffineTransform.getTranslateInstance(_x, _y), _observer);
+	}
+
+	@Override
+	public boolean drawImage(Image _img, int _x, int _y, int _width, int _height, ImageObserver _observer)
+	{
+		int width = _img.getWidth(_observer), height = _img.getHeight(_observer);
+		if (width <= 0 || height <= 0) {
+			return false;
+		}
+		AffineTransform xform = AffineTransform.getTranslateInstance(_x, _y);
+		xform.scale((double)_width / width, (double)_height / height);
+		return drawImage(_img, xform, _observer);
+	}
+
+	@Override
+	public boolean drawImage(Image _img, int _x, int _y, Color _bgcolor, ImageObserver _observer)
+	{
+		return drawImage(_img, _x, _y, _observer);
+	}
+
+	@Override
+	public boolean drawImage(Image _img, int _x, int _y, int _width, int _height, Color _bgcolor, ImageObserver _observer)
+	{
+		return drawImage(_img, _x, _y, _width, _height, _observer);
+	}
+
+	@Override
+	public boolean drawImage(Image _img, int _dx1, int _dy1, int _dx2, int _dy2, int _sx1, int _sy1, int _sx2, int _sy2,
+			ImageObserver _observer)
+	{
+		if (_sx2 <= _sx1 || _sy2 <= _sy1) {
+			return true;
+		}
+		BufferedImage part = new BufferedImage(_sx2 - _sx1, _sy2 - _sy1, BufferedImage.TYPE_INT_ARGB);
+		Graphics2D g2d = part.createGraphics();
+		boolean complete = g2d.drawImage(_img, 0, 0, _sx2 - _sx1, _sy2 - _sy1, _sx1, _sy1, _sx2, _sy2, _observer);
+		g2d.dispose();
+		return complete && drawImage(part, _dx1, _dy1, _dx2 - _dx1, _dy2 - _dy1, _observer);
+	}
+
+	@Override
+	public boolean drawImage(Image _img, int _dx1, int _dy1, int _dx2, int _dy2, int _sx1, int _sy1, int _sx2, int _sy2,
+			Color _bgcolor, ImageObserver _observer)
+	{
+		return drawImage(_img, _dx1, _dy1, _dx2, _dy2, _sx1, _sy1, _sx2, _sy2, _observer);
+	}
+
+	@Override
+	public void dispose()
+	{
+		// The document is completed by endExport()
+	}
+
+}
@@ -0,0 +1,242 @@
+/*
+    Structorizer
+    A little tool which you can use to create Nassi-Schneiderman Diagrams (NSD)
+
+    Copyright (C) 2009  Bob Fisch
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or any
+    later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+
+package lu.fisch.structorizer.arranger;
+
+/******************************************************************************************************
+ *
+ *      Description:    Dialog presenting a collective Analyser report for several diagrams.
+ *
+ ******************************************************************************************************
+ *
+ *      Comment:
+ *      2026-10-19 (KGU#916)
+ *      - The analysis runs in a SwingWorker (the report itself distributes it on a fork-join pool),
+ *        closing the dialog before completion cancels it. The table is sortable by any column.
+ *      - Double-clicking a row summons the diagram into the Structorizer editor and selects the
+ *        element the complaint refers to (if it still exists).
+ *
+ ******************************************************************************************************///
+
+import java.awt.BorderLayout;
+import java.awt.FlowLayout;
+import java.awt.Frame;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.util.Vector;
+
+import javax.swing.JButton;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTable;
+import javax.swing.SwingWorker;
+import javax.swing.border.EmptyBorder;
+import javax.swing.table.AbstractTableModel;
+
+import lu.fisch.structorizer.elements.AnalysisReport;
+import lu.fisch.structorizer.elements.Element;
+import lu.fisch.structorizer.gui.Diagram;
+import lu.fisch.structorizer.gui.GUIScaler;
+import lu.fisch.structorizer.io.Ini;
+import lu.fisch.structorizer.locales.LangDialog;
+import lu.fisch.structorizer.locales.LangTextHolder;
+import lu.fisch.structorizer.locales.Locales;
+
+/**
+ * Non-modal dialog running an {@link AnalysisReport} in the background and presenting
+ * its entries in a sortable table.
+ */
+@SuppressWarnings("serial")
+public class AnalysisReportView extends LangDialog {
+
+	public static final LangTextHolder ttlReport = new LangTextHolder("Analyser report");
+	public static final LangTextHolder msgAnalysing = new LangTextHolder("Analysing % diagrams ...");
+	public static final LangTextHolder msgResult = new LangTextHolder("%1 complaints about %2 diagrams");
+	public static final LangTextHolder msgInterrupted = new LangTextHolder("Interrupted!");
+	public static final LangTextHolder colDiagram = new LangTextHolder("Diagram");
+	public static final LangTextHolder colElement = new LangTextHolder("Element");
+	public static final LangTextHolder colMessage = new LangTextHolder("Message");
+
+	private final AnalysisReport report;
+	private final Diagram diagram;
+	private final ReportTableModel model = new ReportTableModel();
+	private JTable tblReport;
+	private JLabel lblStatus;
+	protected JButton btnClose;
+	private SwingWorker<Boolean, Void> worker = null;
+
+	/** Table model presenting the (final) report entries */
+	private class ReportTableModel extends AbstractTableModel {
+		private Vector<AnalysisReport.Entry> entries = new Vector<AnalysisReport.Entry>();
+
+		@Override
+		public int getRowCount() {
+			return entries.size();
+		}
+
+		@Override
+		public int getColumnCount() {
+			return 3;
+		}
+
+		@Override
+		public String getColumnName(int column) {
+			switch (column) {
+			case 0: return colDiagram.getText();
+			case 1: return colElement.getText();
+			default: return colMessage.getText();
+			}
+		}
+
+		@Override
+		public Object getValueAt(int row, int column) {
+			AnalysisReport.Entry entry = entries.get(row);
+			switch (column) {
+			case 0: return entry.getDiagram();
+			case 1: return entry.getElementText();
+			default: return entry.getMessage();
+			}
+		}
+	}
+
+	/**
+	 * Creates and shows the report dialog and starts the analysis in the background
+	 * @param _owner - the owning frame
+	 * @param _report - the prepared report (snapshots taken but not run)
+	 * @param _diagram - the editor diagram to summon the reported diagrams into (may be null)
+	 */
+	public AnalysisReportView(Frame _owner, AnalysisReport _report, Diagram _diagram)
+	{
+		super(_owner, false);
+		this.report = _report;
+		this.diagram = _diagram;
+		initComponents();
+		Locales.getInstance().setLocale(this);
+		this.setTitle(ttlReport.getText());
+		lblStatus.setText(msgAnalysing.getText().replace("%", Integer.toString(report.getDiagramCount())));
+		this.setLocationRelativeTo(_owner);
+		this.setVisible(true);
+		startAnalysis();
+	}
+
+	private void initComponents()
+	{
+		JPanel contentPane = new JPanel(new BorderLayout());
+		contentPane.setBorder(new EmptyBorder(5, 5, 5, 5));
+
+		tblReport = new JTable(model);
+		tblReport.setAutoCreateRowSorter(true);
+		tblReport.setFillsViewportHeight(true);
+		tblReport.getColumnModel().getColumn(0).setPreferredWidth(150);
+		tblReport.getColumnModel().getColumn(1).setPreferredWidth(200);
+		tblReport.getColumnModel().getColumn(2).setPreferredWidth(400);
+		tblReport.addMouseListener(new MouseAdapter() {
+			@Override
+			public void mouseClicked(MouseEvent evt) {
+				if (evt.getClickCount() == 2) {
+					showSelectedEntry();
+				}
+			}
+		});
+		contentPane.add(new JScrollPane(tblReport), BorderLayout.CENTER);
+
+		JPanel statusPane = new JPanel(new BorderLayout());
+		lblStatus = new JLabel("");
+		statusPane.add(lblStatus, BorderLayout.CENTER);
+		JPanel buttonBar = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+		btnClose = new JButton("Close");
+		btnClose.addActionListener(new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent evt) {
+				dispose();
+			}
+		});
+		buttonBar.add(btnClose);
+		statusPane.add(buttonBar, BorderLayout.EAST);
+		contentPane.add(statusPane, BorderLayout.SOUTH);
+
+		this.addWindowListener(new WindowAdapter() {
+			@Override
+			public void windowClosed(WindowEvent evt) {
+				if (worker != null) {
+					worker.cancel(true);
+				}
+			}
+		});
+		this.setDefaultCloseOperation(DISPOSE_ON_CLOSE);
+		this.setContentPane(contentPane);
+		GUIScaler.rescaleComponents(this);
+		double scaleFactor = Double.valueOf(Ini.getInstance().getProperty("scaleFactor", "1"));
+		this.setSize((int)(800 * scaleFactor), (int)(400 * scaleFactor));
+	}
+
+	private void startAnalysis()
+	{
+		worker = new SwingWorker<Boolean, Void>() {
+			@Override
+			protected Boolean doInBackground() {
+				return report.run();
+			}
+			@Override
+			protected void done() {
+				worker = null;
+				boolean completed = false;
+				try {
+					completed = !isCancelled() && get();
+				}
+				catch (Exception ex) {}
+				if (completed) {
+					model.entries = report.getEntries();
+					model.fireTableDataChanged();
+					lblStatus.setText(msgResult.getText()
+							.replace("%1", Integer.toString(model.entries.size()))
+							.replace("%2", Integer.toString(report.getDiagramCount())));
+				}
+				else {
+					lblStatus.setText(msgInterrupted.getText());
+				}
+			}
+		};
+		worker.execute();
+	}
+
+	/** Summons the diagram of the selected report entry and selects the concerned element */
+	private void showSelectedEntry()
+	{
+		int row = tblReport.getSelectedRow();
+		if (diagram == null || row < 0) {
+			return;
+		}
+		AnalysisReport.Entry entry = model.entries.get(tblReport.convertRowIndexToModel(row));
+		if (entry.getRoot() != diagram.getRoot() && !diagram.setRootIfNotRunning(entry.getRoot())) {
+			return;
+		}
+		Element ele = entry.getElement();
+		if (ele != null) {
+			diagram.selectElement(ele);
+		}
+	}
+
+}
@@ -49,6 +49,9 @@ package lu.fisch.structorizer.arranger;
  *      - This class comprises the different Arranger-related aspects that had slowly invaded the
  *        lu.fisch.structorizer.gui.Editor class. It is a kind of bridge between the Mainform/Editor/Diagram
  *        and the Arranger/Surface worlds. 
+ *      2026-10-19 (KGU#916)
+ *      - New context menu item to analyse all selected diagrams and group members at once, the result
+ *        being presented as a collective report (see AnalysisReportView).
  *
  ******************************************************************************************************///
 
@@ -102,6 +105,7 @@ import javax.swing.tree.TreePath;
 import javax.swing.tree.TreeSelectionModel;
 
 import lu.fisch.structorizer.archivar.IRoutinePoolListener;
+import lu.fisch.structorizer.elements.AnalysisReport;
 import lu.fisch.structorizer.elements.Call;
 import lu.fisch.structorizer.elements.Element;
 import lu.fisch.structorizer.elements.Root;
@@ -164,6 +168,9 @@ public class ArrangerIndex extends LangTree implements MouseListener, LangEventL
 	protected final JMenuItem popupIndexDetach = new JMenuItem("Detach from group", IconLoader.getIcon(98));
 	protected final JMenuItem popupIndexAttach = new JMenuItem("Add/move to group ...", IconLoader.getIcon(116));
 	protected final JMenuItem popupIndexInfo = new JMenuItem("Diagram/group info ...", IconLoader.getIcon(118));
+	// START KGU#916 2026-10-19: Collective analysis
+	protected final JMenuItem popupIndexAnalyse = new JMenuItem("Analyse diagrams/groups ...", IconLoader.getIcon(83));
+	// END KGU#916 2026-10-19
 	protected final JCheckBoxMenuItem popupIndexDrawGroup = new JCheckBoxMenuItem("Show group bounds", IconLoader.getIcon(17));
 	// START KGU#669 2019-03-01: Enh. #691
 	protected final JMenuItem popupIndexRenameGroup = new JMenuItem("Rename group ...");
@@ -646,6 +653,11 @@ public class ArrangerIndex extends LangTree implements MouseListener, LangEventL
 		popupIndex.addSeparator();
 		// END KGU#626 2019-01-01
 		
+		// START KGU#916 2026-10-19: Collective analysis of the selected diagrams and groups
+		popupIndex.add(popupIndexAnalyse);
+		popupIndexAnalyse.addActionListener(new ActionListener() { public void actionPerformed(ActionEvent event) { arrangerIndexAnalyse(); } });
+		// END KGU#916 2026-10-19
+		
 		popupIndex.add(popupIndexGroup);
 		popupIndexGroup.addActionListener(new ActionListener() { public void actionPerformed(ActionEvent event) { arrangerIndexMakeGroup(false); } });
 		popupIndexGroup.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_G, KeyEvent.CTRL_DOWN_MASK));
@@ -810,6 +822,9 @@ public class ArrangerIndex extends LangTree implements MouseListener, LangEventL
 		popupIndexInfo.setEnabled(indexSelected &&
 				(selectedRoot != null || selectedGroup != null));
 		popupIndexGroup.setEnabled(selectedRoots.size() > 0);
+		// START KGU#916 2026-10-19
+		popupIndexAnalyse.setEnabled(!selectedRoots.isEmpty() || !this.arrangerIndexGetSelectedGroups(false).isEmpty());
+		// END KGU#916 2026-10-19
 		popupIndexExpandGroup.setEnabled(!selectedRoots.isEmpty()
 				|| selectedGroup != null);
 		popupIndexDissolve.setEnabled(selectedGroup != null);
@@ -1126,6 +1141,20 @@ public class ArrangerIndex extends LangTree implements MouseListener, LangEventL
 	}
 	// END KGU#396/KGU#815 2020-04-01
 
+	// START KGU#916 2026-10-19
+	/**
+	 * Action method for {@link #popupIndexAnalyse}, analyses all selected diagrams and the
+	 * members of all selected groups in parallel and presents the collected results
+	 */
+	protected void arrangerIndexAnalyse() {
+		Collection<Root> roots = this.arrangerIndexGetSelectedRoots(true);
+		if (!roots.isEmpty()) {
+			// Snapshots are taken here (on the event dispatch thread), the analysis runs in background
+			new AnalysisReportView(JOptionPane.getFrameForComponent(this), new AnalysisReport(roots, null), diagram);
+		}
+	}
+	// END KGU#916 2026-10-19
+
 	// START KGU#626 2019-01-05: Enh. #657
 	protected void arrangerIndexInfo() {
 		// Let's see what is is
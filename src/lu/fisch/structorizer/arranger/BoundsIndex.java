@@ -0,0 +1,341 @@
+/*
+    Structorizer :: Arranger
+    A little tool which you can use to arrange Nassi-Shneiderman Diagrams (NSD)
+
+    Copyright (C) 2009  Bob Fisch
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or any
+    later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+
+package lu.fisch.structorizer.arranger;
+
+/******************************************************************************************************
+ *
+ *      Description:    Spatial index (uniform grid) of the bounds of Arranger diagrams or groups.
+ *
+ ******************************************************************************************************
+ *
+ *      Comment:
+ *      2026-10-19 (KGU#921)
+ *      - The bounds of the indexed items are registered in all grid cells they overlap, such that an
+ *        area query only has to inspect the items of the cells covering the area.
+ *      - The index also keeps the stacking order of the items (in the order of their addition), so
+ *        query results are ordered bottom-up, like the diagram vector of the Surface.
+ *      - Bounds are retrieved lazily: items reported as moved or resized are only re-registered with
+ *        the next query, which avoids repeated work e.g. while dragging.
+ *      - Bounds are inclusive (like Rect), i.e. they cover x ... x + width and y ... y + height.
+ *
+ ******************************************************************************************************///
+
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Uniform grid of item bounds for fast hit tests and area queries. The bounds of the
+ * items are provided by {@link #getBounds(Object)}.
+ * @param <T> - the type of the indexed items ({@link Diagram} or {@link Group})
+ */
+abstract class BoundsIndex<T> {
+
+	/** Edge length of the grid cells (in true diagram coordinates) */
+	private static final int CELL_SIZE = 512;
+
+	/** Registration of an item */
+	private final class Entry {
+		final T item;
+		final long order;
+		/** The registered bounds (null if not registered in the grid) */
+		Rectangle bounds = null;
+		/** Whether the bounds are to be retrieved anew */
+		boolean pending = true;
+		/** Number of the last query that found this entry (to avoid duplicates) */
+		int lastQuery = 0;
+
+		Entry(T _item, long _order)
+		{
+			item = _item;
+			order = _order;
+		}
+	}
+
+	private final IdentityHashMap<T, Entry> entries = new IdentityHashMap<T, Entry>();
+	private final HashMap<Long, ArrayList<Entry>> cells = new HashMap<Long, ArrayList<Entry>>();
+	private final ArrayList<Entry> pending = new ArrayList<Entry>();
+	/** Stacking counter */
+	private long topOrder = 0;
+	/** Query counter */
+	private int queryCount = 0;
+	/** Cached union of all registered bounds (null if to be recomputed) */
+	private Rectangle extent = null;
+
+	/**
+	 * Retrieves the current bounds of the given item
+	 * @param _item - an indexed item
+	 * @return the bounds in true diagram coordinates, or null if the item has no extension
+	 */
+	protected abstract Rectangle getBounds(T _item);
+
+	/**
+	 * Adds the given item on top of all indexed items (a previous registration is replaced).
+	 * @param _item - the item to be indexed
+	 */
+	void add(T _item)
+	{
+		remove(_item);
+		Entry entry = new Entry(_item, ++topOrder);
+		entries.put(_item, entry);
+		pending.add(entry);
+	}
+
+	/**
+	 * Reports that the given item may have been moved or resized. Adds the item
+	 * on top if it hadn't been indexed.
+	 * @param _item - the moved or resized item
+	 */
+	void update(T _item)
+	{
+		Entry entry = entries.get(_item);
+		if (entry == null) {
+			add(_item);
+		}
+		else if (!entry.pending) {
+			entry.pending = true;
+			pending.add(entry);
+		}
+	}
+
+	/**
+	 * Reports that all indexed items may have been resized.
+	 */
+	void updateAll()
+	{
+		for (Entry entry: entries.values()) {
+			if (!entry.pending) {
+				entry.pending = true;
+				pending.add(entry);
+			}
+		}
+	}
+
+	/**
+	 * Sets the bounds of the given item directly (e.g. as obtained by drawing it),
+	 * unless the item isn't indexed.
+	 * @param _item - an indexed item
+	 * @param _bounds - the current bounds of the item
+	 */
+	void put(T _item, Rectangle _bounds)
+	{
+		Entry entry = entries.get(_item);
+		if (entry != null && !entry.pending && !_bounds.equals(entry.bounds)) {
+			unlink(entry);
+			link(entry, new Rectangle(_bounds));
+		}
+	}
+
+	/**
+	 * Removes the given item from the index
+	 * @param _item - the item to be removed
+	 */
+	void remove(T _item)
+	{
+		Entry entry = entries.remove(_item);
+		if (entry != null) {
+			unlink(entry);
+		}
+	}
+
+	/**
+	 * Removes all items not contained in the given collection from the index
+	 * @param _items - the items to be retained
+	 */
+	void retain(Collection<T> _items)
+	{
+		Set<T> retained = Collections.newSetFromMap(new IdentityHashMap<T, Boolean>());
+		retained.addAll(_items);
+		Iterator<Map.Entry<T, Entry>> iter = entries.entrySet().iterator();
+		while (iter.hasNext()) {
+			Map.Entry<T, Entry> mapEntry = iter.next();
+			if (!retained.contains(mapEntry.getKey())) {
+				unlink(mapEntry.getValue());
+				iter.remove();
+			}
+		}
+	}
+
+	/**
+	 * Removes all items from the index
+	 */
+	void clear()
+	{
+		entries.clear();
+		cells.clear();
+		pending.clear();
+		extent = null;
+	}
+
+	/**
+	 * Retrieves all items the bounds of which intersect (or touch) the given area
+	 * @param _area - the area of interest (inclusive bounds)
+	 * @return the found items in stacking order (bottom-up)
+	 */
+	List<T> query(Rectangle _area)
+	{
+		resolve();
+		ArrayList<Entry> found = new ArrayList<Entry>();
+		int query = ++queryCount;
+		int col1 = Math.floorDiv(_area.x + _area.width, CELL_SIZE);
+		int row1 = Math.floorDiv(_area.y + _area.height, CELL_SIZE);
+		for (int row = Math.floorDiv(_area.y, CELL_SIZE); row <= row1; row++) {
+			for (int col = Math.floorDiv(_area.x, CELL_SIZE); col <= col1; col++) {
+				ArrayList<Entry> cell = cells.get(cellKey(col, row));
+				if (cell != null) {
+					for (Entry entry: cell) {
+						if (entry.lastQuery != query && intersect(entry.bounds, _area)) {
+							entry.lastQuery = query;
+							found.add(entry);
+						}
+					}
+				}
+			}
+		}
+		Collections.sort(found, new Comparator<Entry>() {
+			@Override
+			public int compare(Entry entry1, Entry entry2) {
+				return Long.compare(entry1.order, entry2.order);
+			}
+		});
+		List<T> items = new ArrayList<T>(found.size());
+		for (Entry entry: found) {
+			items.add(entry.item);
+		}
+		return items;
+	}
+
+	/**
+	 * Retrieves all items the bounds of which contain the given point
+	 * @param _x - the true X coordinate
+	 * @param _y - the true Y coordinate
+	 * @return the found items in stacking order (bottom-up)
+	 */
+	List<T> query(int _x, int _y)
+	{
+		return query(new Rectangle(_x, _y, 0, 0));
+	}
+
+	/**
+	 * @return the union of the bounds of all indexed items (null if there aren't any)
+	 */
+	Rectangle getExtent()
+	{
+		resolve();
+		if (extent == null) {
+			for (Entry entry: entries.values()) {
+				if (entry.bounds != null) {
+					if (extent == null) {
+						extent = new Rectangle(entry.bounds);
+					}
+					else {
+						extent.add(entry.bounds);
+					}
+				}
+			}
+		}
+		return extent == null ? null : new Rectangle(extent);
+	}
+
+	/** Retrieves the bounds of all items reported as moved or resized */
+	private void resolve()
+	{
+		for (Entry entry: pending) {
+			if (entries.get(entry.item) == entry) {
+				Rectangle bounds = getBounds(entry.item);
+				if (bounds == null || !bounds.equals(entry.bounds)) {
+					unlink(entry);
+					link(entry, bounds);
+				}
+			}
+			entry.pending = false;
+		}
+		pending.clear();
+	}
+
+	private void link(Entry _entry, Rectangle _bounds)
+	{
+		_entry.bounds = _bounds;
+		if (_bounds == null) {
+			return;
+		}
+		int col1 = Math.floorDiv(_bounds.x + _bounds.width, CELL_SIZE);
+		int row1 = Math.floorDiv(_bounds.y + _bounds.height, CELL_SIZE);
+		for (int row = Math.floorDiv(_bounds.y, CELL_SIZE); row <= row1; row++) {
+			for (int col = Math.floorDiv(_bounds.x, CELL_SIZE); col <= col1; col++) {
+				Long key = cellKey(col, row);
+				ArrayList<Entry> cell = cells.get(key);
+				if (cell == null) {
+					cells.put(key, cell = new ArrayList<Entry>());
+				}
+				cell.add(_entry);
+			}
+		}
+		if (extent != null) {
+			extent.add(_bounds);
+		}
+	}
+
+	private void unlink(Entry _entry)
+	{
+		Rectangle bounds = _entry.bounds;
+		if (bounds == null) {
+			return;
+		}
+		int col1 = Math.floorDiv(bounds.x + bounds.width, CELL_SIZE);
+		int row1 = Math.floorDiv(bounds.y + bounds.height, CELL_SIZE);
+		for (int row = Math.floorDiv(bounds.y, CELL_SIZE); row <= row1; row++) {
+			for (int col = Math.floorDiv(bounds.x, CELL_SIZE); col <= col1; col++) {
+				Long key = cellKey(col, row);
+				ArrayList<Entry> cell = cells.get(key);
+				if (cell != null) {
+					cell.remove(_entry);
+					if (cell.isEmpty()) {
+						cells.remove(key);
+					}
+				}
+			}
+		}
+		_entry.bounds = null;
+		// The extent may shrink
+		extent = null;
+	}
+
+	private static boolean intersect(Rectangle _bounds, Rectangle _area)
+	{
+		return _bounds.x <= _area.x + _area.width && _area.x <= _bounds.x + _bounds.width
+				&& _bounds.y <= _area.y + _area.height && _area.y <= _bounds.y + _bounds.height;
+	}
+
+	private static Long cellKey(int _col, int _row)
+	{
+		return ((long)_row << 32) | (_col & 0xFFFFFFFFL);
+	}
+
+}
@@ -0,0 +1,241 @@
+/*
+    Structorizer :: Arranger
+    A little tool which you can use to arrange Nassi-Shneiderman Diagrams (NSD)
+
+    Copyright (C) 2009  Bob Fisch
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or any
+    later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+
+package lu.fisch.structorizer.arranger;
+
+/******************************************************************************************************
+ *
+ *      Description:    Cache of rendered diagram images for the Arranger surface.
+ *
+ ******************************************************************************************************
+ *
+ *      Comment:
+ *      2026-10-19 (KGU#920)
+ *      - Every diagram is rendered entirely into an image with the device scale of the surface (i.e.
+ *        per zoom level), which is blitted on repaint as long as it is valid. Images of diagrams
+ *        outside the painted area are neither rendered nor blitted.
+ *      - An image is discarded when the Root reports a change (Updater.update(), which is also called
+ *        whenever the diagram is drawn in a Structorizer editor, i.e. on all selection or execution
+ *        highlighting there), when the drawing info is reset, or when the modification stamp, the
+ *        Arranger selection, the contention state, the global drawing settings, the device scale, or
+ *        the sub-pixel offset of the diagram change.
+ *      - The total number of cached pixels is bounded (LRU). Diagrams whose image would be too large
+ *        (high zoom) are to be drawn directly by the caller, as are diagrams with an unsuited transform.
+ *      - Images are transparent beyond the diagram, so groups drawn below remain visible at the corners.
+ *
+ ******************************************************************************************************///
+
+import java.awt.Graphics2D;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import lu.fisch.graphics.Rect;
+import lu.fisch.structorizer.elements.Element;
+import lu.fisch.structorizer.elements.Root;
+import lu.fisch.structorizer.elements.Updater;
+
+/**
+ * Holds rendered images of the diagrams placed on the Arranger {@link Surface} and paints
+ * the diagrams from them, rendering only diagrams without valid image.
+ */
+class DiagramImageCache {
+
+	/** Maximum number of pixels of a single cached image */
+	private static final int IMAGE_PIXEL_LIMIT = 2 * 1024 * 1024;
+	/** Maximum number of pixels of all cached images together */
+	private static final long CACHE_PIXEL_LIMIT = 12 * 1024 * 1024;
+
+	/** A rendered diagram with the conditions it is valid for */
+	private static final class DiagramImage {
+		final BufferedImage image;
+		final double scale;
+		final double offsetX, offsetY;
+		final int stamp;
+		final int rootHash;
+		final boolean selected;
+		final boolean contended;
+
+		DiagramImage(BufferedImage _image, double _scale, double _offsetX, double _offsetY,
+				int _stamp, int _rootHash, boolean _selected, boolean _contended)
+		{
+			image = _image;
+			scale = _scale;
+			offsetX = _offsetX;
+			offsetY = _offsetY;
+			stamp = _stamp;
+			rootHash = _rootHash;
+			selected = _selected;
+			contended = _contended;
+		}
+
+		/** @return the number of pixels of the image */
+		long getPixels()
+		{
+			return (long)image.getWidth() * image.getHeight();
+		}
+	}
+
+	/** The rendered images per diagram, in access order */
+	private final LinkedHashMap<Root, DiagramImage> images = new LinkedHashMap<Root, DiagramImage>(16, 0.75f, true);
+	/** The total number of pixels of {@link #images} */
+	private long pixels = 0;
+	/** The global drawing settings the images are valid for */
+	private int settingsHash = 0;
+
+	/**
+	 * Discards all images
+	 */
+	void clear()
+	{
+		images.clear();
+		pixels = 0;
+	}
+
+	/**
+	 * Discards the image of the given diagram (if cached)
+	 * @param _root - the modified diagram
+	 */
+	void invalidate(Root _root)
+	{
+		DiagramImage image = images.remove(_root);
+		if (image != null) {
+			pixels -= image.getPixels();
+		}
+	}
+
+	/**
+	 * Discards the images of all diagrams no longer contained in the given map
+	 * @param _diagrams - the diagrams currently placed on the surface
+	 */
+	void retain(Map<Root, ?> _diagrams)
+	{
+		Iterator<Map.Entry<Root, DiagramImage>> iter = images.entrySet().iterator();
+		while (iter.hasNext()) {
+			Map.Entry<Root, DiagramImage> entry = iter.next();
+			if (!_diagrams.containsKey(entry.getKey())) {
+				pixels -= entry.getValue().getPixels();
+				iter.remove();
+			}
+		}
+	}
+
+	/**
+	 * Paints the given (prepared) diagram at position {@code _point} from its cached image,
+	 * rendering it via {@link Root#draw(java.awt.Graphics, Point, Rectangle, Updater, Element.DrawingContext, boolean)}
+	 * first if necessary.
+	 * @param _g - the target graphics (scaled by the zoom factor)
+	 * @param _root - the diagram
+	 * @param _point - the position of the diagram
+	 * @param _rect - the area occupied by the diagram (at {@code _point})
+	 * @param _clip - the area to be painted (in diagram coordinates) or null
+	 * @param _prohibitedUpdater - the updater not to be informed on rendering
+	 * @param _inContention - whether the drawing is under contention
+	 * @return false if the image isn't applicable (transform not suited or image too large),
+	 * in which case nothing was painted
+	 */
+	boolean paint(Graphics2D _g, Root _root, Point _point, Rect _rect, Rectangle _clip,
+			Updater _prohibitedUpdater, boolean _inContention)
+	{
+		AffineTransform transform = _g.getTransform();
+		double scl = transform.getScaleX();
+		if (transform.getShearX() != 0 || transform.getShearY() != 0 || transform.getScaleY() != scl
+				|| scl <= 0) {
+			return false;
+		}
+		int width = (int)Math.ceil((_rect.right - _rect.left) * scl) + 2;
+		int height = (int)Math.ceil((_rect.bottom - _rect.top) * scl) + 2;
+		if ((long)width * height > IMAGE_PIXEL_LIMIT) {
+			invalidate(_root);
+			return false;
+		}
+		if (_clip != null && !_clip.intersects(_rect.left, _rect.top, _rect.right - _rect.left + 1, _rect.bottom - _rect.top + 1)) {
+			// Not visible - keep a possible image for later
+			_root.setDrawPoint(_point);
+			return true;
+		}
+		int settings = Element.getSettingsAppearanceHash();
+		if (settings != settingsHash) {
+			clear();
+			settingsHash = settings;
+		}
+		// Device position of the diagram, split into integral pixel and sub-pixel offset
+		double devX = transform.getTranslateX() + scl * _rect.left;
+		double devY = transform.getTranslateY() + scl * _rect.top;
+		int pixX = (int)Math.floor(devX);
+		int pixY = (int)Math.floor(devY);
+		double offsetX = devX - pixX;
+		double offsetY = devY - pixY;
+		int stamp = _root.getModificationStamp();
+		int rootHash = _root.getAppearanceHash();
+		boolean selected = _root.getSelected(Element.DrawingContext.DC_ARRANGER);
+
+		DiagramImage image = images.get(_root);
+		if (image == null || image.scale != scl || image.offsetX != offsetX || image.offsetY != offsetY
+				|| image.stamp != stamp || image.rootHash != rootHash || image.selected != selected
+				|| image.contended != _inContention) {
+			invalidate(_root);
+			BufferedImage img = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+			Graphics2D g2d = img.createGraphics();
+			try {
+				g2d.setRenderingHints(_g.getRenderingHints());
+				g2d.setFont(_g.getFont());
+				g2d.translate(offsetX, offsetY);
+				g2d.scale(scl, scl);
+				g2d.translate(-_rect.left, -_rect.top);
+				_root.draw(g2d, _point, null, _prohibitedUpdater, Element.DrawingContext.DC_ARRANGER, _inContention);
+			}
+			finally {
+				g2d.dispose();
+			}
+			// The stamp and hash are retrieved again since drawing may have "repaired" the text
+			image = new DiagramImage(img, scl, offsetX, offsetY,
+					_root.getModificationStamp(), _root.getAppearanceHash(), selected, _inContention);
+			images.put(_root, image);
+			pixels += image.getPixels();
+			Iterator<DiagramImage> iter = images.values().iterator();
+			while (pixels > CACHE_PIXEL_LIMIT && iter.hasNext()) {
+				DiagramImage eldest = iter.next();
+				if (eldest != image) {
+					pixels -= eldest.getPixels();
+					iter.remove();
+				}
+			}
+		}
+		else {
+			_root.setDrawPoint(_point);
+		}
+
+		// Blit the image 1:1 in device space
+		_g.setTransform(new AffineTransform());
+		try {
+			_g.drawImage(image.image, pixX, pixY, null);
+		}
+		finally {
+			_g.setTransform(transform);
+		}
+		return true;
+	}
+
+}
@@ -335,6 +335,32 @@ public class Surface extends LangPanel implements MouseListener, MouseMotionList
 	private JLabel lblPop = new JLabel("",SwingConstants.CENTER);
 	// END KGU#630 2019-01-09
 	private boolean wasContented = false;
+	// START KGU#920 2026-10-19: Rendered diagram images for on-screen painting
+	/** Rendered images of the diagrams, blitted on repaint while valid */
+	private final DiagramImageCache imageCache = new DiagramImageCache();
+	/** Font size (in device pixels) below which only simplified diagram shapes are drawn */
+	private static final double LOW_DETAIL_FONT_SIZE = 4.0;
+	// END KGU#920 2026-10-19
+	// START KGU#921 2026-10-19: Spatial indices for hit tests and culling
+	/** Spatial index of the {@link #diagrams} (same stacking order) */
+	private final BoundsIndex<Diagram> diagramIndex = new BoundsIndex<Diagram>() {
+		@Override
+		protected Rectangle getBounds(Diagram diagr)
+		{
+			return getDiagramBounds(diagr);
+		}
+	};
+	/** Spatial index of the {@link #groups} (as far as their bounds are known) */
+	private final BoundsIndex<Group> groupIndex = new BoundsIndex<Group>() {
+		@Override
+		protected Rectangle getBounds(Group group)
+		{
+			return group.bounds == null ? null : new Rectangle(group.bounds);
+		}
+	};
+	/** Margin by which the pin icon may protrude a diagram (in true coordinates) */
+	private static final int PIN_MARGIN = 50;
+	// END KGU#921 2026-10-19
 	
 	// START KGU#202 2016-07-03
 	public final LangTextHolder msgFileLoadError = new LangTextHolder("File Load Error:");
@@ -460,12 +486,36 @@ public class Surface extends LangPanel implements MouseListener, MouseMotionList
 		{
 			// START KGU#497 2018-02-17: Enh. #512
 			Graphics2D g2d = (Graphics2D) g;
+			// START KGU#920/KGU#921 2026-10-19: On screen, diagrams are painted from images or simplified
+			// and only the diagrams intersecting the clip area are considered at all
+			boolean useImages = !compensateZoom && !onlySelected && offsetX == 0 && offsetY == 0
+					&& !this.isPaintingForPrint();
+			List<Diagram> diagramsToDraw = diagrams;
+			Rectangle clipArea = g2d.getClipBounds();
+			if (useImages && clipArea != null) {
+				// Clip area in true coordinates, enlarged by the possible protrusion of the pin icon
+				clipArea = new Rectangle((int)Math.floor(clipArea.x * zoomFactor) - PIN_MARGIN,
+						(int)Math.floor(clipArea.y * zoomFactor) - PIN_MARGIN,
+						(int)Math.ceil(clipArea.width * zoomFactor) + 2 * PIN_MARGIN,
+						(int)Math.ceil(clipArea.height * zoomFactor) + 2 * PIN_MARGIN);
+				diagramsToDraw = diagramIndex.query(clipArea);
+			}
+			else {
+				clipArea = null;
+			}
+			// END KGU#920/KGU#921 2026-10-19
 			// START KGU#572 2018-09-09: Bugfix #508/#512 - ensure all diagrams have shape without rounding defects
-			for(int d = 0; d < diagrams.size(); d++)
+			// START KGU#921 2026-10-19
+			//for(int d = 0; d < diagrams.size(); d++)
+			for(int d = 0; d < diagramsToDraw.size(); d++)
+			// END KGU#921 2026-10-19
 			{
 				// START KGU#624 2018-12.24: Enh. #655
 				//diagrams.get(d).root.prepareDraw(g2d);
-				Diagram diagr = diagrams.get(d);
+				// START KGU#921 2026-10-19
+				//Diagram diagr = diagrams.get(d);
+				Diagram diagr = diagramsToDraw.get(d);
+				// END KGU#921 2026-10-19
 				if ((!onlySelected || this.diagramsSelected.contains(diagr)) && diagr.root != null) {
 					// If the diagram had already been drawn or prepared this will return immediately
 					diagr.root.prepareDraw(g2d);
@@ -519,16 +569,37 @@ public class Surface extends LangPanel implements MouseListener, MouseMotionList
 				
 			// START KGU#630 2019-01-09: Enh. #662/2 - preparations for group drawing
 			if (drawGroups) {
+				// START KGU#921 2026-10-19: Group bounds are updated on drawing
+				groupIndex.retain(groups.values());
+				// END KGU#921 2026-10-19
 				for (Group group: groups.values()) {
 					group.draw(g2d, null);
+					// START KGU#921 2026-10-19
+					groupIndex.update(group);
+					// END KGU#921 2026-10-19
 				}
 			}
 			// END KGU#630 2019-01-19
 			
+			// START KGU#920 2026-10-19: On screen, diagrams are painted from images or simplified
+			boolean lowDetail = false;
+			Rectangle clipBounds = g2d.getClipBounds();
+			if (useImages) {
+				imageCache.retain(rootMap);
+				lowDetail = Element.getFont().getSize2D() * g2d.getTransform().getScaleX() < LOW_DETAIL_FONT_SIZE;
+			}
+			// END KGU#920 2026-10-19
+
 //			System.out.println("Surface.paintComponent()");
-			for(int d=0; d<diagrams.size(); d++)
+			// START KGU#921 2026-10-19
+			//for(int d=0; d<diagrams.size(); d++)
+			for(int d=0; d<diagramsToDraw.size(); d++)
+			// END KGU#921 2026-10-19
 			{
-				Diagram diagram = diagrams.get(d);
+				// START KGU#921 2026-10-19
+				//Diagram diagram = diagrams.get(d);
+				Diagram diagram = diagramsToDraw.get(d);
+				// END KGU#921 2026-10-19
 				// START KGU#624 2018-12-24: Enh. #655
 				if (onlySelected && !this.diagramsSelected.contains(diagram)) {
 					continue;
@@ -545,7 +616,28 @@ public class Surface extends LangPanel implements MouseListener, MouseMotionList
 				// END KGU#624 2018-12-24
 				// START KGU#88 2015-11-24
 				//root.draw(g, point, this);
-				Rect rect = root.draw(g2d, point, visibleRect, this, Element.DrawingContext.DC_ARRANGER, wasContented);
+				// START KGU#920 2026-10-19
+				//Rect rect = root.draw(g2d, point, visibleRect, this, Element.DrawingContext.DC_ARRANGER, wasContented);
+				Rect rect = null;
+				if (useImages) {
+					rect = root.prepareDraw(g2d);
+					rect = new Rect(rect.left + point.x, rect.top + point.y, rect.right + point.x, rect.bottom + point.y);
+					if (lowDetail) {
+						drawSimplified(g2d, root, point, rect);
+					}
+					else if (!imageCache.paint(g2d, root, point, rect, clipBounds, this, wasContented)) {
+						rect = null;
+					}
+				}
+				if (rect == null) {
+					rect = root.draw(g2d, point, visibleRect, this, Element.DrawingContext.DC_ARRANGER, wasContented);
+				}
+				// END KGU#920 2026-10-19
+				// START KGU#921 2026-10-19: Drawing may have revealed a change of size
+				if (clipArea != null) {
+					diagramIndex.put(diagram, rect.getRectangle());
+				}
+				// END KGU#921 2026-10-19
 				if (diagram.isPinned)
 				{
 					if (pinIcon == null)
@@ -570,6 +662,15 @@ public class Surface extends LangPanel implements MouseListener, MouseMotionList
 				if (rect.bottom > area.height) area.height = rect.bottom;
 				// END KGU#85 2017-10-23
 			}
+			// START KGU#921 2026-10-19: Not all diagrams were drawn, so the index has to tell the extension
+			if (clipArea != null) {
+				Rectangle extent = diagramIndex.getExtent();
+				if (extent != null) {
+					area.width = Math.max(extent.x + extent.width, area.width);
+					area.height = Math.max(extent.y + extent.height, area.height);
+				}
+			}
+			// END KGU#921 2026-10-19
 			// START KGU#624 2018-12-23: Enh. #655 - draw the dragArea
 			if (dragArea != null) {
 				g2d.drawRect(dragArea.x, dragArea.y, dragArea.width, dragArea.height);
@@ -597,6 +698,64 @@ public class Surface extends LangPanel implements MouseListener, MouseMotionList
 		// END KGU#85 2017-10-23
 	}
 
+	// START KGU#921 2026-10-19
+	/**
+	 * Determines the current bounds of the given diagram for the spatial index
+	 * @param diagr - the {@link Diagram}
+	 * @return the bounds in true coordinates
+	 */
+	private Rectangle getDiagramBounds(Diagram diagr)
+	{
+		Rect rect = null;
+		Graphics graphics = this.getGraphics();
+		if (graphics != null) {
+			// If the diagram had already been drawn or prepared this will return immediately
+			rect = diagr.root.prepareDraw(graphics);
+			graphics.dispose();
+		}
+		else {
+			rect = diagr.root.getRect();
+		}
+		rect.add(diagr.point);
+		return rect.getRectangle();
+	}
+	// END KGU#921 2026-10-19
+
+	// START KGU#920 2026-10-19: Level of detail for zoomed-out painting
+	/**
+	 * Draws a simplified shape of the given diagram (a box with the boxes of the top-level
+	 * elements) for zoom levels where the text wouldn't be legible anyway.
+	 * @param g2d - the target graphics (scaled by the zoom factor)
+	 * @param root - the diagram
+	 * @param point - the position of the diagram
+	 * @param rect - the area occupied by the diagram (at {@code point})
+	 */
+	private void drawSimplified(Graphics2D g2d, Root root, Point point, Rect rect)
+	{
+		root.setDrawPoint(point);
+		int width = rect.right - rect.left;
+		int height = rect.bottom - rect.top;
+		if (root.getSelected(Element.DrawingContext.DC_ARRANGER)) {
+			g2d.setColor(Element.E_DRAWCOLOR);
+		}
+		else {
+			g2d.setColor(root.getColor());
+		}
+		g2d.fillRect(rect.left, rect.top, width, height);
+		g2d.setColor(Color.GRAY);
+		for (int i = 0; i < root.children.getSize(); i++) {
+			// The element rectangles are only available after a first complete drawing
+			Rect eleRect = root.children.getElement(i).getRectOffDrawPoint();
+			if (eleRect.bottom > eleRect.top) {
+				g2d.drawRect(eleRect.left + point.x, eleRect.top + point.y,
+						eleRect.right - eleRect.left, eleRect.bottom - eleRect.top);
+			}
+		}
+		g2d.setColor(Color.BLACK);
+		g2d.drawRect(rect.left, rect.top, width, height);
+	}
+	// END KGU#920 2026-10-19
+
 	private void create()
 	{
 		new FileDrop(this, new FileDrop.Listener()
@@ -1221,6 +1380,9 @@ public class Surface extends LangPanel implements MouseListener, MouseMotionList
 						Diagram diagram = new Diagram(copiedRoot, new Point(diagr.point));
 						// END KGU#718 2019-07-31
 						diagrams.add(diagram);
+						// START KGU#921 2026-10-19
+						diagramIndex.add(diagram);
+						// END KGU#921 2026-10-19
 						rootMap.put(copiedRoot, diagram);
 						String rootName = copiedRoot.getMethodName();
 						addToNameMap(rootName, diagram);
@@ -2497,6 +2659,9 @@ public class Surface extends LangPanel implements MouseListener, MouseMotionList
 			// END KGU 2016-03-14
 			/*Diagram*/ diagram = new Diagram(root,point);
 			diagrams.add(diagram);
+			// START KGU#921 2026-10-19
+			diagramIndex.add(diagram);
+			// END KGU#921 2026-10-19
 			// START KGU#624 2018-12-26: Enh. #655 Attempt to make search faster
 			rootMap.put(root, diagram);
 			String rootName = root.getMethodName();
@@ -2526,6 +2691,9 @@ public class Surface extends LangPanel implements MouseListener, MouseMotionList
 			if (!pointGiven) {
 				point = findPreferredLocation(silhouette, rec.getRectangle());
 				diagram.point = point;
+				// START KGU#921 2026-10-19
+				diagramIndex.update(diagram);
+				// END KGU#921 2026-10-19
 				// START KGU 2019-03-11
 				rec = root.getRect(point);
 				//if (draftRec != null) {
@@ -2577,6 +2745,9 @@ public class Surface extends LangPanel implements MouseListener, MouseMotionList
 		else if (point != null)
 		{
 			diagram.setLocation(point.x, point.y);
+			// START KGU#921 2026-10-19
+			diagramIndex.update(diagram);
+			// END KGU#921 2026-10-19
 			// START KGU#626 2019-01-01 Enh. #657 Moved after the alternative (to be done in both branches)
 //			// START KGU 2016-12-12: First unselect the selected diagram (if any)
 //			// START KGU#624 2018-12-21: Enh. #655 Multiple selection - just add the diagram
@@ -2819,6 +2990,9 @@ public class Surface extends LangPanel implements MouseListener, MouseMotionList
 		}
 		// END KGU#626 2018-12-30
 		diagrams.remove(diagr);
+		// START KGU#921 2026-10-19
+		diagramIndex.remove(diagr);
+		// END KGU#921 2026-10-19
 		// START KGU#701 2019-03-30: Issue #718
 		if (diagr.root.isInclude()) {
 			for (Root ref: this.findIncludingRoots(diagr.root.getMethodName(), true)) {
@@ -3299,6 +3473,9 @@ public class Surface extends LangPanel implements MouseListener, MouseMotionList
 					this.removeFromNameMap(diagr.root.getMethodName(), diagr);
 					// END KGU#624 2018-12-26
 					diagrams.remove(diagr);
+					// START KGU#921 2026-10-19
+					diagramIndex.remove(diagr);
+					// END KGU#921 2026-10-19
 				}
 				// START KGU#626 2018-12-31: Enh. #657
 				groups.clear();
@@ -3357,6 +3534,9 @@ public class Surface extends LangPanel implements MouseListener, MouseMotionList
 
 		// First remove all diagrams from the vector (they should all be held by the groups as well)
 		diagrams.clear();
+		// START KGU#921 2026-10-19
+		diagramIndex.clear();
+		// END KGU#921 2026-10-19
 
 		// Now traverse the groups and start a new level for every group
 		int groupOffsetY = 0;	// height offset of the current group
@@ -3401,6 +3581,9 @@ public class Surface extends LangPanel implements MouseListener, MouseMotionList
 			Point newPoint = this.findPreferredLocation(silhouette, rec.getRectangle());
 			diagr.setLocation(newPoint.x, newPoint.y);
 			diagrams.add(diagr);
+			// START KGU#921 2026-10-19
+			diagramIndex.add(diagr);
+			// END KGU#921 2026-10-19
 			rearrangedDiagrams.add(diagr);
 		}
 		groupOffsetY = getDrawingRect(null).bottom;
@@ -3619,6 +3802,9 @@ public class Surface extends LangPanel implements MouseListener, MouseMotionList
 			int newX = Math.max(0, diagr.point.x + deltaX);
 			int newY = Math.max(0, diagr.point.y + deltaY);
 			diagr.setLocation(newX, newY);
+			// START KGU#921 2026-10-19
+			diagramIndex.update(diagr);
+			// END KGU#921 2026-10-19
 		}
 		adaptLayout();
 		repaint();
@@ -3690,6 +3876,9 @@ public class Surface extends LangPanel implements MouseListener, MouseMotionList
 								diagramsSelected.add(diagr);
 								if (diagrams.remove(diagr)) {
 									diagrams.add(diagr);
+									// START KGU#921 2026-10-19
+									diagramIndex.add(diagr);
+									// END KGU#921 2026-10-19
 								}
 								notifyChangeListeners(IRoutinePoolListener.RPC_SELECTION_CHANGED);
 							}});
@@ -3719,6 +3908,9 @@ public class Surface extends LangPanel implements MouseListener, MouseMotionList
 									diagramsSelected.add(diagr);
 									if (diagrams.remove(diagr)) {
 										diagrams.add(diagr);
+										// START KGU#921 2026-10-19
+										diagramIndex.add(diagr);
+										// END KGU#921 2026-10-19
 									}
 								}
 								notifyChangeListeners(IRoutinePoolListener.RPC_SELECTION_CHANGED);
@@ -3745,9 +3937,16 @@ public class Surface extends LangPanel implements MouseListener, MouseMotionList
 	private Diagram getHitDiagram(int trueX, int trueY)
 	{
 		Diagram hitDiagram = null;
-		for (int d = diagrams.size()-1; d >= 0 && hitDiagram == null; d--)
+		// START KGU#921 2026-10-19: Only diagrams with matching bounds are to be examined
+		List<Diagram> candidates = diagramIndex.query(trueX, trueY);
+		//for (int d = diagrams.size()-1; d >= 0 && hitDiagram == null; d--)
+		for (int d = candidates.size()-1; d >= 0 && hitDiagram == null; d--)
+		// END KGU#921 2026-10-19
 		{
-			Diagram diagram = diagrams.get(d);
+			// START KGU#921 2026-10-19
+			//Diagram diagram = diagrams.get(d);
+			Diagram diagram = candidates.get(d);
+			// END KGU#921 2026-10-19
 			Root root = diagram.root;
 
 			Element ele = root.getElementByCoord(
@@ -3773,9 +3972,16 @@ public class Surface extends LangPanel implements MouseListener, MouseMotionList
 	private List<Diagram> getHitDiagrams(int trueX, int trueY)
 	{
 		List<Diagram> hitDiagrams = new LinkedList<Diagram>();
-		for (int d = diagrams.size()-1; d >= 0; d--)
+		// START KGU#921 2026-10-19: Only diagrams with matching bounds are to be examined
+		List<Diagram> candidates = diagramIndex.query(trueX, trueY);
+		//for (int d = diagrams.size()-1; d >= 0; d--)
+		for (int d = candidates.size()-1; d >= 0; d--)
+		// END KGU#921 2026-10-19
 		{
-			Diagram diagram = diagrams.get(d);
+			// START KGU#921 2026-10-19
+			//Diagram diagram = diagrams.get(d);
+			Diagram diagram = candidates.get(d);
+			// END KGU#921 2026-10-19
 			Root root = diagram.root;
 
 			Element ele = root.getElementByCoord(
@@ -3800,9 +4006,16 @@ public class Surface extends LangPanel implements MouseListener, MouseMotionList
 	private Set<Group> getHitGroups(int trueX, int trueY)
 	{
 		Set<Group> hitGroups = new HashSet<Group>();
-		for (Group group: this.groups.values())
+		// START KGU#921 2026-10-19: Only groups with matching bounds are to be examined
+		//for (Group group: this.groups.values())
+		for (Group group: this.groupIndex.query(trueX, trueY))
+		// END KGU#921 2026-10-19
 		{
-			if (group.bounds != null && group.bounds.contains(trueX, trueY))
+			// START KGU#921 2026-10-19: The index may still contain a removed group
+			//if (group.bounds != null && group.bounds.contains(trueX, trueY))
+			if (group.bounds != null && group.bounds.contains(trueX, trueY)
+					&& this.groups.get(group.getName()) == group)
+			// END KGU#921 2026-10-19
 			{
 				hitGroups.add(group);
 			}
@@ -3819,7 +4032,10 @@ public class Surface extends LangPanel implements MouseListener, MouseMotionList
 	{
 		Set<Diagram> containedDiagrams = new HashSet<Diagram>();
 		
-		for (Diagram diagram: diagrams) {
+		// START KGU#921 2026-10-19: Only diagrams intersecting the bounds are to be examined
+		//for (Diagram diagram: diagrams) {
+		for (Diagram diagram: diagramIndex.query(bounds)) {
+		// END KGU#921 2026-10-19
 			Root root = diagram.root;
 			if (root != null) {
 				Rectangle rect = root.getRect(diagram.point).getRectangle();
@@ -3925,6 +4141,15 @@ public class Surface extends LangPanel implements MouseListener, MouseMotionList
 	private void update(Root source, boolean replaced)
 	// END KGU#884 2020-02-17
 	{
+		// START KGU#920 2026-10-19
+		imageCache.invalidate(source);
+		// END KGU#920 2026-10-19
+		// START KGU#921 2026-10-19: The diagram may have changed its size
+		Diagram changedDiagr = rootMap.get(source);
+		if (changedDiagr != null) {
+			diagramIndex.update(changedDiagr);
+		}
+		// END KGU#921 2026-10-19
 		// START KGU#85 2015-11-18
 		adaptLayout();
 		// END KGU#85 2015-11-18
@@ -3987,6 +4212,12 @@ public class Surface extends LangPanel implements MouseListener, MouseMotionList
 	 */
 	public void resetDrawingInfo(int _exceptDiagr)
 	{
+		// START KGU#920 2026-10-19
+		imageCache.clear();
+		// END KGU#920 2026-10-19
+		// START KGU#921 2026-10-19
+		diagramIndex.updateAll();
+		// END KGU#921 2026-10-19
 		if (this.diagrams != null)
 		{
 			for (int d = 0; d < this.diagrams.size(); d++)
@@ -4489,6 +4720,9 @@ public class Surface extends LangPanel implements MouseListener, MouseMotionList
 			if (setAtTop) {
 				this.diagrams.remove(diagr);
 				this.diagrams.add(diagr);
+				// START KGU#921 2026-10-19
+				this.diagramIndex.add(diagr);
+				// END KGU#921 2026-10-19
 				// START KGU#624 2018-12-21: Enh. #655 - replace the previous selection (really?)
 				//if (mouseSelected != null && mouseSelected != diagr && mouseSelected.root != null)
 				//{
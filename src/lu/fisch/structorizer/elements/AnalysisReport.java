@@ -0,0 +1,255 @@
+/*
+    Structorizer
+    A little tool which you can use to create Nassi-Schneiderman Diagrams (NSD)
+
+    Copyright (C) 2009  Bob Fisch
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or any
+    later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+
+package lu.fisch.structorizer.elements;
+
+/******************************************************************************************************
+ *
+ *      Description:    Collective Analyser report for a set of diagrams (Arranger group or arrangement).
+ *
+ ******************************************************************************************************
+ *
+ *      Comment:
+ *      2026-10-19 (KGU#916)
+ *      - Snapshots of all diagrams are taken on construction (i.e. on the thread owning the diagrams),
+ *        the snapshots are then analysed in parallel on a fork-join pool. Diagrams referred to by
+ *        calls and includes are looked up in the given routine pool (or the Arranger if none is given)
+ *        on snapshot creation already, the includables being snapshotted as well, such that the worker
+ *        threads don't access any live diagram (see Root.copyForAnalysis(IRoutinePool)).
+ *      - Report entries refer to the elements of the analysed diagrams, which are associated to the
+ *        snapshot elements by structural position on snapshot creation (element ids aren't unique).
+ *        An element is only resolved as long as it is still part of its diagram.
+ *
+ ******************************************************************************************************///
+
+import java.io.PrintWriter;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Vector;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import lu.fisch.structorizer.archivar.IRoutinePool;
+import lu.fisch.utils.StringList;
+
+/**
+ * Analyses a set of diagrams in parallel and aggregates the detected errors in a
+ * single list of report entries.
+ * @see Root#analyse()
+ */
+public class AnalysisReport {
+
+	/** A single Analyser complaint of the report */
+	public static final class Entry {
+		private final Root root;
+		private final String diagram;
+		private final Element element;
+		private final String elementText;
+		private final String message;
+
+		/**
+		 * @param root - the analysed diagram
+		 * @param diagram - the signature of the analysed diagram
+		 * @param analysed - the element of the snapshot the complaint refers to, or null
+		 * @param original - the element of {@code root} corresponding to {@code analysed}, or null
+		 * @param message - the Analyser message
+		 */
+		private Entry(Root root, String diagram, Element analysed, Element original, String message)
+		{
+			this.root = root;
+			this.diagram = diagram;
+			this.element = original;
+			if (analysed == null) {
+				this.elementText = "";
+			}
+			else {
+				StringList text = analysed instanceof Root ? new StringList() : analysed.getText();
+				this.elementText = text.isEmpty() ? analysed.getClass().getSimpleName() : text.get(0).trim();
+			}
+			this.message = message;
+		}
+
+		/** @return the analysed diagram */
+		public Root getRoot()
+		{
+			return root;
+		}
+
+		/** @return the signature of the analysed diagram (at the time of the analysis) */
+		public String getDiagram()
+		{
+			return diagram;
+		}
+
+		/**
+		 * Retrieves the element the complaint refers to within the analysed diagram.
+		 * @return the element or null (if the complaint is a general one or the element
+		 * has been removed since the analysis)
+		 */
+		public Element getElement()
+		{
+			if (element == null || element == root) {
+				return element;
+			}
+			final boolean[] found = {false};
+			root.traverse(new IElementVisitor() {
+				@Override
+				public boolean visitPreOrder(Element _ele) {
+					found[0] = _ele == element;
+					return !found[0];
+				}
+				@Override
+				public boolean visitPostOrder(Element _ele) {
+					return true;
+				}
+			});
+			return found[0] ? element : null;
+		}
+
+		/** @return the first text line of the element (or its class name) */
+		public String getElementText()
+		{
+			return elementText;
+		}
+
+		/** @return the Analyser message */
+		public String getMessage()
+		{
+			return message;
+		}
+
+		@Override
+		public String toString()
+		{
+			return diagram + "\t" + elementText + "\t" + message;
+		}
+	}
+
+	private final Vector<Root> roots = new Vector<Root>();
+	private final Vector<Root> snapshots = new Vector<Root>();
+	/** Map the elements of the {@link #snapshots} to those of the {@link #roots} */
+	private final Vector<IdentityHashMap<Element, Element>> originals = new Vector<IdentityHashMap<Element, Element>>();
+	private final Vector<Entry> entries = new Vector<Entry>();
+
+	/**
+	 * Prepares the analysis of the given diagrams by taking snapshots of them. Must be
+	 * called on the thread modifying the diagrams (i.e. usually the event dispatch thread).
+	 * @param _roots - the diagrams to be analysed
+	 * @param _pool - the routine pool to retrieve called and included diagrams from, or
+	 * null (for the Arranger); must not load diagrams lazily
+	 */
+	public AnalysisReport(Collection<Root> _roots, IRoutinePool _pool)
+	{
+		for (Root root: _roots) {
+			Root snapshot = root.copyForAnalysis(_pool);
+			roots.add(root);
+			snapshots.add(snapshot);
+			originals.add(root.mapSnapshotElements(snapshot));
+		}
+	}
+
+	/**
+	 * Analyses all diagrams in parallel and collects the results, ordered by diagram
+	 * signature. May be called on any thread.
+	 * @return true if the analysis was completed, false if it was interrupted
+	 */
+	public boolean run()
+	{
+		ForkJoinPool forkJoinPool = new ForkJoinPool();
+		Vector<Future<Vector<DetectedError>>> futures = new Vector<Future<Vector<DetectedError>>>(snapshots.size());
+		try {
+			for (final Root snapshot: snapshots) {
+				futures.add(forkJoinPool.submit(new Callable<Vector<DetectedError>>() {
+					@Override
+					public Vector<DetectedError> call() {
+						return snapshot.analyse();
+					}
+				}));
+			}
+			Vector<Entry> newEntries = new Vector<Entry>();
+			for (int i = 0; i < futures.size(); i++) {
+				Root snapshot = snapshots.get(i);
+				String diagram = snapshot.getSignatureString(false);
+				try {
+					for (DetectedError error: futures.get(i).get()) {
+						Element ele = error.getElement();
+						if (ele != null && Element.getRoot(ele) != snapshot) {
+							// Shouldn't happen - cannot be associated with the diagram
+							ele = null;
+						}
+						newEntries.add(new Entry(roots.get(i), diagram, ele, originals.get(i).get(ele), error.toString()));
+					}
+				}
+				catch (ExecutionException ex) {
+					Logger.getLogger(AnalysisReport.class.getName()).log(Level.WARNING, "Analysis of " + diagram + " failed", ex.getCause());
+					newEntries.add(new Entry(roots.get(i), diagram, null, null, "*** " + ex.getCause()));
+				}
+			}
+			// The sort is stable, so the entries of a diagram retain the Analyser order
+			Collections.sort(newEntries, new Comparator<Entry>() {
+				@Override
+				public int compare(Entry entry1, Entry entry2) {
+					return entry1.diagram.compareToIgnoreCase(entry2.diagram);
+				}
+			});
+			entries.clear();
+			entries.addAll(newEntries);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+		finally {
+			forkJoinPool.shutdownNow();
+		}
+		return true;
+	}
+
+	/** @return the number of analysed diagrams */
+	public int getDiagramCount()
+	{
+		return roots.size();
+	}
+
+	/** @return the report entries (empty before {@link #run()}) */
+	public Vector<Entry> getEntries()
+	{
+		return entries;
+	}
+
+	/**
+	 * Writes the report entries as tab-separated lines (diagram, element, message)
+	 * @param _out - the target writer
+	 */
+	public void write(PrintWriter _out)
+	{
+		for (Entry entry: entries) {
+			_out.println(entry);
+		}
+		_out.flush();
+	}
+
+}
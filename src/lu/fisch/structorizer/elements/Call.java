@@ -101,8 +101,6 @@ import javax.swing.ImageIcon;
 
 import lu.fisch.graphics.*;
 import lu.fisch.utils.*;
-import lu.fisch.structorizer.archivar.IRoutinePool;
-import lu.fisch.structorizer.arranger.Arranger;
 import lu.fisch.structorizer.executor.Function;
 import lu.fisch.structorizer.gui.FindAndReplace;
 import lu.fisch.structorizer.gui.IconLoader;
@@ -331,15 +329,23 @@ public class Call extends Instruction {
 			// START KGU#676 219-03-31: Issue #696 batch export
 			//else if (Arranger.hasInstance()) {
 			//	Vector<Root> routines = Arranger.getInstance().findRoutinesBySignature(called.getName(), called.paramCount(), myRoot);
-			else if (myRoot.specialRoutinePool != null || Arranger.hasInstance()) {
-				IRoutinePool pool = myRoot.specialRoutinePool;
-				if (pool == null) { pool = Arranger.getInstance(); }
-				Vector<Root> routines = pool.findRoutinesBySignature(called.getName(), called.paramCount(), myRoot);
+			// START KGU#917 2026-10-19: Analysis snapshots mustn't access the routine pool
+			//else if (myRoot.specialRoutinePool != null || Arranger.hasInstance()) {
+			//	IRoutinePool pool = myRoot.specialRoutinePool;
+			//	if (pool == null) { pool = Arranger.getInstance(); }
+			//	Vector<Root> routines = pool.findRoutinesBySignature(called.getName(), called.paramCount(), myRoot);
 			// END KGU#676 2019.03-31
-				if (routines.size() == 1) {
-					typeSpec = routines.get(0).getResultType();
+			//	if (routines.size() == 1) {
+			//		typeSpec = routines.get(0).getResultType();
+			//	}
+			//}
+			else {
+				Vector<String> resultTypes = myRoot.findRoutineResultTypes(called.getName(), called.paramCount());
+				if (resultTypes.size() == 1) {
+					typeSpec = resultTypes.get(0);
 				}
 			}
+			// END KGU#917 2026-10-19
 			if (typeSpec == null) {
 				typeSpec = "";
 			}
@@ -163,6 +163,9 @@ public class Case extends Element implements IFork
             Subqueue s = null;
 
             text = _textList;
+            // START KGU#908 2026-10-19
+            clearTokenCache();
+            // END KGU#908 2026-10-19
 
             if (qs==null)
             {
@@ -239,7 +239,10 @@ public abstract class Element {
 	/** This enumeration type distinguishes drawing contexts for selection display */
 	public enum DrawingContext {DC_STRUCTORIZER, DC_ARRANGER};
 	
-	protected class HighlightUnit {
+	// START KGU#918 2026-10-19: No reference to the owning element needed
+	//protected class HighlightUnit {
+	protected static class HighlightUnit {
+	// END KGU#918 2026-10-19
 		String textSnippet = null;
 		Color textColor = Color.BLACK;
 		boolean bold = false, underlined = false;
@@ -438,6 +441,10 @@ public abstract class Element {
 	// START KGU#699 2019-03-27: Issue #717
 	public static int E_WHEEL_SCROLL_UNIT = 0;	// dummy value for OS adaptation on first scrolling ever.
 	// END KGU#699 2019-03-27
+	// START KGU#910 2026-10-19: Memory cap for the undo history
+	/** Maximum number of element copies retained by the undo stack of a diagram (0 = unlimited) */
+	public static int E_UNDO_ELEMENT_LIMIT = 200000;
+	// END KGU#910 2026-10-19
 	// START KGU#309 2016-12-15: Enh. #310 new saving options
 	public static boolean E_AUTO_SAVE_ON_EXECUTE = false;
 	public static boolean E_AUTO_SAVE_ON_CLOSE = false;
@@ -550,7 +557,10 @@ public abstract class Element {
 	private static final Pattern HEX_PATTERN = Pattern.compile("0x[0-9A-Fa-f]+");
 	private static final Pattern SIGN_PATTERN = Pattern.compile("[+-]");
 	//private static final java.util.regex.Pattern ARRAY_PATTERN = java.util.regex.Pattern.compile("(\\w.*)(\\[.*\\])$"); // seems to have been wrong
-	private static final Matcher RECORD_MATCHER = java.util.regex.Pattern.compile("([A-Za-z]\\w*)\\s*\\{.*\\}").matcher("");
+	// START KGU#916 2026-10-19: Shared matchers aren't thread-safe (analysis may run concurrently)
+	//private static final Matcher RECORD_MATCHER = java.util.regex.Pattern.compile("([A-Za-z]\\w*)\\s*\\{.*\\}").matcher("");
+	private static final Pattern RECORD_PATTERN = Pattern.compile("([A-Za-z]\\w*)\\s*\\{.*\\}");
+	// END KGU#916 2026-10-19
 	// END KGU 2017-09-19
 	// START KGU#575 2018-09-17: Issue #594 - replace an obsolete 3rd-party Regex library
 	// Remark: It would not be a good idea to define the Matchers here because these aren't really constant but must be
@@ -597,6 +607,17 @@ public abstract class Element {
 			"\u2265"
 			// END KGU#331 2017-01-13
 	};
+	// START KGU#907 2026-10-19: Single-pass scanning in splitLexically()
+	/** The characters of {@link #LEXICAL_DELIMITERS} in the same order (all delimiters are single characters) */
+	private static final String LEXICAL_DELIMITER_CHARS;
+	static {
+		StringBuilder sb = new StringBuilder(LEXICAL_DELIMITERS.length);
+		for (String delim: LEXICAL_DELIMITERS) {
+			sb.append(delim.charAt(0));
+		}
+		LEXICAL_DELIMITER_CHARS = sb.toString();
+	}
+	// END KGU#907 2026-10-19
 	// END KGU#425 2017-09-29
 
 	// START KGU#156 2016-03-10; Enh. #124
@@ -637,8 +658,23 @@ public abstract class Element {
 
 	// START KGU#701 2019-03-29: Issue #718 Attempt to accelerate syntax highlighting by caching
 	/** Maps text lines to preprocessed highlighting units (string + colour + style flags) */
-	protected HashMap<String, Vector<HighlightUnit>> highlightCache = new HashMap<String, Vector<HighlightUnit>>();
+	// START KGU#918 2026-10-19: Created on demand and bounded (large diagrams)
+	//protected HashMap<String, Vector<HighlightUnit>> highlightCache = new HashMap<String, Vector<HighlightUnit>>();
+	protected HashMap<String, Vector<HighlightUnit>> highlightCache = null;
+	/** Maximum number of lines held in {@link #highlightCache} before it is flushed */
+	private static final int HIGHLIGHT_CACHE_LIMIT = 32;
+	// END KGU#918 2026-10-19
+	// START KGU#919 2026-10-19: Allows cached drawings to detect resets of the drawing info
+	/** Counts the drawing info resets of all elements (see {@link #getSettingsAppearanceHash()}) */
+	private static int drawingResetCount = 0;
+	// END KGU#919 2026-10-19
 	// END KGU#701 2019-03-29
+	// START KGU#908 2026-10-19: Token cache to avoid repeated lexical splitting of the same lines
+	/** Maps text lines (or strings derived from them) to their token lists, created on demand */
+	private HashMap<String, StringList> tokenCache = null;
+	/** Maximum number of lines held in {@link #tokenCache} before it is flushed */
+	private static final int TOKEN_CACHE_LIMIT = 64;
+	// END KGU#908 2026-10-19
 	
 	/** If the element is to be displayed rotated by 90° counter-clockwise (only used within CASE structures) */
 	public boolean rotated = false;
@@ -709,9 +745,15 @@ public abstract class Element {
 	/** Strings to be highlighted in the element text (lazy initialisation) */
 	// START KGU#843 2020-04-12: Bugfix #847 We should distinguish between case-indifferent and case-relevant search
 	//private static StringList specialSigns = null;
-	private static HashSet<String> specialSigns = null;
+	// START KGU#922 2026-10-19: Concurrent drawing
+	//private static HashSet<String> specialSigns = null;
+	private static volatile HashSet<String> specialSigns = null;
+	// END KGU#922 2026-10-19
 	/** Strings to be highlighted in the element text case-independently (lazy initialisation) */
-	private static StringList specialSignsCi = null;
+	// START KGU#922 2026-10-19: Concurrent drawing
+	//private static StringList specialSignsCi = null;
+	private static volatile StringList specialSignsCi = null;
+	// END KGU#922 2026-10-19
 	// END KGU#843 2020-04-12
 
 	// START KGU#261 2017-01-19: Enh. #259 prepare the variable type map
@@ -754,6 +796,9 @@ public abstract class Element {
 	protected final void resetDrawingInfo()
 	{
 		this.isRect0UpToDate = false;
+		// START KGU#919 2026-10-19: Cached drawings may depend on the reset info
+		drawingResetCount++;
+		// END KGU#919 2026-10-19
 		// START KGU#502/KGU#524/KGU#553 2019-03-14: Issues #518,#544,#557
 		this.wasDrawn = false;
 		// END KGU#502/KGU#524/KGU#553 2019-03-14
@@ -761,7 +806,10 @@ public abstract class Element {
 		this.rotated = false;
 		// END KGU#401 2017-05-17
 		// START KGU#701 2019-03-29: Issue #718
-		this.highlightCache.clear();
+		// START KGU#918 2026-10-19: Release the cache rather than keeping an empty map
+		//this.highlightCache.clear();
+		this.highlightCache = null;
+		// END KGU#918 2026-10-19
 		// END KGU#701 2019-03-29
 	}
 	/**
@@ -773,6 +821,11 @@ public abstract class Element {
 		Element ancestor = this;
 		do {
 			ancestor.resetDrawingInfo();
+			// START KGU#911 2026-10-19: Structural changes must invalidate the id index of the diagram
+			if (ancestor instanceof Root) {
+				((Root)ancestor).invalidateIdIndex();
+			}
+			// END KGU#911 2026-10-19
 		} while ((ancestor = ancestor.parent) != null);
 	}
 	/**
@@ -990,13 +1043,63 @@ public abstract class Element {
 	public void setText(String _text)
 	{
 		text.setText(_text);
+		// START KGU#908 2026-10-19
+		clearTokenCache();
+		// END KGU#908 2026-10-19
 	}
 
 	public void setText(StringList _text)
 	{
 		text = _text;
+		// START KGU#908 2026-10-19
+		clearTokenCache();
+		// END KGU#908 2026-10-19
 	}
 
+	// START KGU#908 2026-10-19: Token cache
+	/**
+	 * Returns the lexical tokens of {@code _line} exactly as {@link #splitLexically(String, boolean)}
+	 * with string restoration would, but caches them in this element, such that repeated requests
+	 * for the same line (e.g. by the Executor, the Analyser, or the generators) needn't split
+	 * it again. {@code _line} is supposed to be a text or comment line of this element or a string
+	 * derived from it; the cache is flushed on {@link #setText(String)} and {@link #setComment(String)}.<br/>
+	 * The result is a copy of the cached list, so the caller may modify it at will.
+	 * @param _line - the string to be split
+	 * @return the token list (including whitespace tokens)
+	 * @see #splitLexically(String, boolean)
+	 */
+	public StringList getLineTokens(String _line)
+	{
+		StringList tokens = null;
+		synchronized (this) {
+			if (tokenCache != null) {
+				tokens = tokenCache.get(_line);
+			}
+		}
+		if (tokens == null) {
+			tokens = splitLexically(_line, true);
+			synchronized (this) {
+				if (tokenCache == null || tokenCache.size() >= TOKEN_CACHE_LIMIT) {
+					tokenCache = new HashMap<String, StringList>();
+				}
+				tokenCache.put(_line, tokens);
+			}
+		}
+		StringList copy = new StringList();
+		copy.add(tokens);
+		return copy;
+	}
+
+	/**
+	 * Drops all cached token lists (to be called whenever text or comment are replaced).
+	 * @see #getLineTokens(String)
+	 */
+	protected final synchronized void clearTokenCache()
+	{
+		tokenCache = null;
+	}
+	// END KGU#908 2026-10-19
+
 	// START KGU#91 2015-12-01: We need a way to get the true value
 	/**
 	 * Returns the content of the text field no matter if mode isSwitchedTextAndComment
@@ -1247,8 +1350,16 @@ public abstract class Element {
 		if (!Element.E_APPLY_ALIASES) {
 			return text;
 		}
-		String aliasText = replaceControllerAliases(text.getText(), true, false);
+		// START KGU#918 2026-10-19: Don't create a copy if there is no alias in the text
+		//String aliasText = replaceControllerAliases(text.getText(), true, false);
+		//return StringList.explode(aliasText, "\n");
+		String plainText = text.getText();
+		String aliasText = replaceControllerAliases(plainText, true, false);
+		if (aliasText.equals(plainText)) {
+			return text;
+		}
 		return StringList.explode(aliasText, "\n");
+		// END KGU#918 2026-10-19
 	}
 	
 	/**
@@ -1346,11 +1457,17 @@ public abstract class Element {
 	public void setComment(String _comment)
 	{
 		comment.setText(_comment);
+		// START KGU#908 2026-10-19
+		clearTokenCache();
+		// END KGU#908 2026-10-19
 	}
 
 	public void setComment(StringList _comment)
 	{
 		comment = _comment;
+		// START KGU#908 2026-10-19
+		clearTokenCache();
+		// END KGU#908 2026-10-19
 	}
 
 	// START KGU#91 2015-12-01: We need a way to get the true value
@@ -1948,6 +2065,11 @@ public abstract class Element {
 	 */
 	public boolean triggersBreakNow()
 	{
+		// START KGU#900 2026-10-19: Avoid all map lookups on the (usual) breakpoint-free path
+		if (!this.breakpoint) {
+			return false;
+		}
+		// END KGU#900 2026-10-19
 		int trigger =  this.getBreakTriggerCount();
 		return this.breakpoint && (trigger == 0 || Element.E_COLLECTRUNTIMEDATA && trigger == this.getExecCount()+1);
 	}
@@ -2198,6 +2320,33 @@ public abstract class Element {
 		}
 	}
 	// END KGU 2015-10-09
+
+	// START KGU#912 2026-10-19: Fast hit testing on the layout offsets cached by prepareDraw()
+	/**
+	 * Binary search in the ascending list of layout offsets {@code _offsets} (as cached by
+	 * {@link #prepareDraw(Canvas)} for the children or branches of an element).
+	 * @param _offsets - ascending offsets (start coordinates) of adjacent intervals
+	 * @param _count - number of offsets to consider (from the beginning of {@code _offsets})
+	 * @param _coord - the (local) coordinate to be located
+	 * @return the index of the last interval starting at or before {@code _coord}, or -1
+	 */
+	protected static int findLastOffsetIndex(Vector<Integer> _offsets, int _count, int _coord)
+	{
+		int low = 0, high = Math.min(_count, _offsets.size()) - 1;
+		int found = -1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			if (_offsets.get(mid) <= _coord) {
+				found = mid;
+				low = mid + 1;
+			}
+			else {
+				high = mid - 1;
+			}
+		}
+		return found;
+	}
+	// END KGU#912 2026-10-19
 	
 	// START KGU 2015-10-11: Helper methods for all Element types' drawing
 	
@@ -2302,6 +2451,72 @@ public abstract class Element {
 		return getRect(this.topLeft);		
 	}
 	// END KGU#136 2016-03-01
+
+	// START KGU#919 2026-10-19: Support for the tile cache of the Diagram
+	/**
+	 * Returns a hash code over the element-specific properties affecting the appearance
+	 * of this element (except substructure and position): text, comment, state-dependent
+	 * fill colour, flags, breakpoint, execution counts, and extension. Used to detect which
+	 * parts of a cached drawing have to be redrawn.
+	 * @return the appearance hash
+	 * @see #getSettingsAppearanceHash()
+	 */
+	public int getAppearanceHash()
+	{
+		int hash = this.getFillColor().getRGB();
+		for (int i = 0; i < text.count(); i++) {
+			hash = 31 * hash + text.get(i).hashCode();
+		}
+		for (int i = 0; i < comment.count(); i++) {
+			hash = 31 * hash + comment.get(i).hashCode();
+		}
+		int flags = (selected ? 1 : 0) | (executed ? 2 : 0) | (waited ? 4 : 0)
+				| (simplyCovered ? 8 : 0) | (deeplyCovered ? 16 : 0) | (disabled ? 32 : 0)
+				| (collapsed ? 64 : 0) | (breakpoint ? 128 : 0) | (rotated ? 256 : 0);
+		hash = 31 * hash + flags;
+		hash = 31 * hash + breakTriggerCount;
+		if (E_COLLECTRUNTIMEDATA) {
+			hash = 31 * hash + this.getExecCount();
+			hash = 31 * hash + execStepCount;
+			hash = 31 * hash + execSubCount;
+		}
+		hash = 31 * hash + (rect.right - rect.left);
+		hash = 31 * hash + (rect.bottom - rect.top);
+		return hash;
+	}
+
+	/**
+	 * Returns a hash code over the global settings affecting the appearance of all
+	 * elements (font, colours, display modes, run data scale). Changes with every reset
+	 * of the drawing info of any element, too.
+	 * @return the settings hash
+	 * @see #getAppearanceHash()
+	 */
+	public static int getSettingsAppearanceHash()
+	{
+		int hash = font.hashCode();
+		hash = 31 * hash + drawingResetCount;
+		hash = 31 * hash + E_PADDING;
+		Color[] colors = {E_DRAWCOLOR, E_COLLAPSEDCOLOR, E_RUNNINGCOLOR, E_WAITCOLOR,
+				E_COMMENTCOLOR, E_BREAKPOINTCOLOR, E_TESTCOVEREDCOLOR};
+		for (Color color: colors) {
+			hash = 31 * hash + color.getRGB();
+		}
+		boolean[] modes = {E_VARHIGHLIGHT, E_SHOWCOMMENTS, E_TOGGLETC, E_COMMENTSPLUSTEXT,
+				E_HIDE_DECL, E_DIN, E_SHOW_UNICODE_OPERATORS, E_APPLY_ALIASES, E_COLLECTRUNTIMEDATA};
+		for (boolean mode: modes) {
+			hash = 2 * hash + (mode ? 1 : 0);
+		}
+		hash = 31 * hash + E_RUNTIMEDATAPRESENTMODE.ordinal();
+		if (E_COLLECTRUNTIMEDATA) {
+			hash = 31 * hash + maxExecCount;
+			hash = 31 * hash + maxExecStepCount;
+			hash = 31 * hash + maxExecTotalCount;
+			hash = 31 * hash + maxExecStepsEclCount;
+		}
+		return hash;
+	}
+	// END KGU#919 2026-10-19
 	
 	public static Font getFont()
 	{
@@ -2349,6 +2564,117 @@ public abstract class Element {
 	}
 	// END KGU#494 2018-09-11
 
+	// START KGU#922 2026-10-19: Concurrent drawing (e.g. batch image export)
+	/**
+	 * Initialises the sets of highlighted symbols and keywords if not done. The sets are
+	 * only published when complete, such that concurrent drawing threads may rely on them.
+	 */
+	private static synchronized void initSpecialSigns()
+	{
+		if (specialSigns == null)	// lazy initialisation
+		{
+			HashSet<String> signs = new HashSet<String>();
+			// START KGU#425 2017-09-29: Add the possible ellipses, too
+			signs.add("...");
+			signs.add("..");
+			// END KGU#425 2017-09-29
+			signs.add(".");
+			signs.add("[");
+			signs.add("]");
+			signs.add("\u2190");
+			signs.add(":=");
+			// START KGU#332 2017-01-27: Enh. #306 "dim" as declaration keyword
+			signs.add(":");
+			// END KGU#332 2017-01-27
+
+			signs.add("+");
+			signs.add("/");
+			// START KGU 2015-11-03: This operator had been missing
+			signs.add("%");
+			// END KGU 2015-11-03
+			signs.add("*");
+			signs.add("-");
+			signs.add("var");
+			// START KGU#332 2017-01-27: Enh. #306 "dim" as declaration keyword
+			signs.add("dim");
+			// END KGU#332 2017-01-27
+			// START KGU#375 2017-03-30: Enh. #388 "const" as declaration keyword
+			signs.add("const");
+			// END KGU#375 2017-03-30
+			// START KGU#388 2017-09-13: Enh. #423 "type", "record", and "struct" as type definition keywords
+			signs.add("type");
+			signs.add("record");
+			signs.add("struct");
+			// END KGU#388 2017-09-13
+			// START KGU#542 2019-11-17: Enh. #739 "enum" added to type definition keywords
+			signs.add("enum");
+			// END KGU#542 2019-11-17
+			// START KGU#331 2017-01-13: Enh. #333
+			//signs.add("<=");
+			//signs.add(">=");
+			//signs.add("<>");
+			//signs.add("!=");
+			signs.add("\u2260");
+			signs.add("\u2264");
+			signs.add("\u2265");
+			// END KGU#331 2017-01-13
+			signs.add("<<");
+			signs.add(">>");
+			signs.add("<");
+			signs.add(">");
+			signs.add("==");
+			signs.add("=");
+			signs.add("!");
+			// START KGU#24 2014-10-18
+			signs.add("&&");
+			signs.add("||");
+			// END KGU#24 2014-10-18
+			// START KGU#109 2016-01-15: Issues #61, #107 highlight the BASIC declarator keyword, too
+			signs.add("as");
+			// END KGU#109 2016-01-15
+
+			// START KGU#100 2016-01-16: Enh. #84: Also highlight the initialiser delimiters
+			signs.add("{");
+			signs.add("}");
+			// END KGU#100 2016-01-16
+
+			// The quotes will only occur as tokens if they are unpaired!
+			signs.add("'");
+			signs.add("\"");
+			specialSigns = signs;
+		}
+		if (specialSignsCi == null) {
+			StringList signsCi = new StringList();
+			signsCi.add("mod");
+			signsCi.add("div");
+			// START KGU#24 2014-10-18
+			signsCi.add("and");
+			signsCi.add("or");
+			signsCi.add("xor");
+			signsCi.add("not");
+			// END KGU#24 2014-10-18
+			// START KGU#115 2015-12-23: Issue #74 - These Pascal operators hadn't been supported
+			signsCi.add("shl");
+			signsCi.add("shr");
+			// END KGU#115 2015-12-23
+			specialSignsCi = signsCi;
+		}
+	}
+
+	/**
+	 * Completes the lazily initialised static drawing resources (derived fonts, highlighting
+	 * symbols), such that the static drawing settings are merely read while several diagrams
+	 * are drawn concurrently. The settings must not be changed until the drawing is done.
+	 */
+	public static void prepareConcurrentDrawing()
+	{
+		if (boldFont == null || underlinedFont == null || smallFont == null) {
+			setFont(font);
+		}
+		initSpecialSigns();
+	}
+	// END KGU#922 2026-10-19
+
 	/************************
 	 * static things
 	 ************************/
@@ -2571,8 +2897,11 @@ public abstract class Element {
 	 */
 	public static StringList splitLexically(String _text, boolean _restoreStrings)
 	{
-		StringList parts = new StringList();
-		parts.add(_text);
+		// START KGU#907 2026-10-19: Replaced by a single scanning pass (see below)
+		//StringList parts = new StringList();
+		//parts.add(_text);
+		StringList parts = scanLexically(_text);
+		// END KGU#907 2026-10-19
 		
 		// split
 		// START KGU#425 2017-09-29: Code revision
@@ -2604,9 +2933,11 @@ public abstract class Element {
 		//parts=StringList.explodeWithDelimiter(parts,"\u2260");
 		//parts=StringList.explodeWithDelimiter(parts,"\u2264");
 		//parts=StringList.explodeWithDelimiter(parts,"\u2265");
-		for (int i = 0; i < LEXICAL_DELIMITERS.length; i++) {
-			parts = StringList.explodeWithDelimiter(parts, LEXICAL_DELIMITERS[i]);
-		}
+		// START KGU#907 2026-10-19: One explosion pass per delimiter was too expensive
+		//for (int i = 0; i < LEXICAL_DELIMITERS.length; i++) {
+		//	parts = StringList.explodeWithDelimiter(parts, LEXICAL_DELIMITERS[i]);
+		//}
+		// END KGU#907 2026-10-19
 		// END KGU#425 2017-09-29
 
 		// reassemble symbols
@@ -2879,6 +3210,44 @@ public abstract class Element {
 		return parts;
 	}
 	// END KGU#18/KGU#23
+
+	// START KGU#907 2026-10-19: Single-pass replacement for the former delimiter-wise explosion
+	/**
+	 * Splits {@code _text} into the raw lexical parts in a single pass: every character
+	 * of {@link #LEXICAL_DELIMITERS} forms a part of its own, the maximal character sequences
+	 * between them form the other parts.<br/>
+	 * The result is exactly what the former successive explosion by all delimiters (in the
+	 * order of {@link #LEXICAL_DELIMITERS}) produced, including its artefact of an empty
+	 * string before every {@code "\u2265"} that isn't preceded by an ordinary character (the
+	 * last explosion pass left the empty prefixes there). The reassembly in
+	 * {@link #splitLexically(String, boolean)} relies on this.
+	 * @param _text - the string to be split
+	 * @return the list of raw parts (empty if {@code _text} is empty)
+	 */
+	private static StringList scanLexically(String _text)
+	{
+		StringList parts = new StringList();
+		int len = _text.length();
+		int start = 0;	// start of the current non-delimiter sequence
+		for (int pos = 0; pos < len; pos++) {
+			int ixDelim = LEXICAL_DELIMITER_CHARS.indexOf(_text.charAt(pos));
+			if (ixDelim >= 0) {
+				if (start < pos) {
+					parts.add(_text.substring(start, pos));
+				}
+				else if (ixDelim == LEXICAL_DELIMITERS.length - 1) {
+					parts.add("");
+				}
+				parts.add(LEXICAL_DELIMITERS[ixDelim]);
+				start = pos + 1;
+			}
+		}
+		if (start < len) {
+			parts.add(_text.substring(start));
+		}
+		return parts;
+	}
+	// END KGU#907 2026-10-19
 	
 	// START KGU#101 2015-12-11: Enhancement #54: We need to split expression lists (might go to a helper class)
 	/**
@@ -3322,6 +3691,9 @@ public abstract class Element {
 	public static String identifyExprType(HashMap<String, TypeMapEntry> typeMap, String expr, boolean canonicalizeTypeNames)
 	{
 		String typeSpec = "";	// This means no info
+		// START KGU#916 2026-10-19
+		Matcher recordMatcher = null;
+		// END KGU#916 2026-10-19
 		// 1. Check whether it's a known typed variable
 		TypeMapEntry typeEntry = null;
 		if (typeMap != null) {
@@ -3349,8 +3721,12 @@ public abstract class Element {
 			typeSpec = "String";
 		}
 		// START KGU#388 2017-09-12: Enh. #423: Record initializer support (name-prefixed!)
-		else if ((RECORD_MATCHER.reset(expr)).matches() && typeMap != null){
-			typeSpec = RECORD_MATCHER.group(1);
+		// START KGU#916 2026-10-19: Thread-safe matching
+		//else if ((RECORD_MATCHER.reset(expr)).matches() && typeMap != null){
+		//	typeSpec = RECORD_MATCHER.group(1);
+		else if ((recordMatcher = RECORD_PATTERN.matcher(expr)).matches() && typeMap != null){
+			typeSpec = recordMatcher.group(1);
+		// END KGU#916 2026-10-19
 			if (!typeMap.containsKey(":" + typeSpec)) {
 				// It's hardly a valid prefixed record initializer...
 				typeSpec = "";
@@ -3414,9 +3790,21 @@ public abstract class Element {
 				// START KGU#701 2019-03-29: Issue #718 - highlighting acceleration by caching
 				// backup the original font
 				Font backupFont = _canvas.getFont();
-				Vector<HighlightUnit> hlUnits = _this.highlightCache.get(_text);
+				// START KGU#918 2026-10-19: The cache is created on demand and bounded
+				//Vector<HighlightUnit> hlUnits = _this.highlightCache.get(_text);
+				//if (hlUnits == null) {
+				//	_this.highlightCache.put(_text, hlUnits = new Vector<HighlightUnit>());
+				HashMap<String, Vector<HighlightUnit>> hlCache = _this.highlightCache;
+				Vector<HighlightUnit> hlUnits = hlCache == null ? null : hlCache.get(_text);
 				if (hlUnits == null) {
-					_this.highlightCache.put(_text, hlUnits = new Vector<HighlightUnit>());
+					if (hlCache == null) {
+						_this.highlightCache = hlCache = new HashMap<String, Vector<HighlightUnit>>(4);
+					}
+					else if (hlCache.size() >= HIGHLIGHT_CACHE_LIMIT) {
+						hlCache.clear();
+					}
+					hlCache.put(_text, hlUnits = new Vector<HighlightUnit>());
+				// END KGU#918 2026-10-19
 				// END KGU#701 2019-03-29 part 1
 					// START KGU#686 2019-03-16: Enh. #56
 					Set<String> variableSet = _this.getVariableSetFor(_this);
@@ -3436,98 +3824,11 @@ public abstract class Element {
 
 					// START KGU#64 2015-11-03: Not to be done again and again. Private static field now!
 					//StringList specialSigns = new StringList();
-					if (specialSigns == null)	// lazy initialisation
-					{
-						// START KGU#843 2020-04-12: Bugfix #847
-						specialSigns = new HashSet<String>();
-						// START KGU#843 2020-04-12: Bugfix #847
-					// END KGU#64 2015-11-03
-						// START KGU#425 2017-09-29: Add the possible ellipses, too
-						specialSigns.add("...");
-						specialSigns.add("..");					
-						// END KGU#425 2017-09-29
-						specialSigns.add(".");
-						specialSigns.add("[");
-						specialSigns.add("]");
-						specialSigns.add("\u2190");
-						specialSigns.add(":=");
-						// START KGU#332 2017-01-27: Enh. #306 "dim" as declaration keyword
-						specialSigns.add(":");
-						// END KGU#332 2017-01-27
-
-						specialSigns.add("+");
-						specialSigns.add("/");
-						// START KGU 2015-11-03: This operator had been missing
-						specialSigns.add("%");
-						// END KGU 2015-11-03
-						specialSigns.add("*");
-						specialSigns.add("-");
-						specialSigns.add("var");
-						// START KGU#332 2017-01-27: Enh. #306 "dim" as declaration keyword
-						specialSigns.add("dim");
-						// END KGU#332 2017-01-27
-						// START KGU#375 2017-03-30: Enh. #388 "const" as declaration keyword
-						specialSigns.add("const");
-						// END KGU#375 2017-03-30
-						// START KGU#388 2017-09-13: Enh. #423 "type", "record", and "struct" as type definition keywords
-						specialSigns.add("type");
-						specialSigns.add("record");
-						specialSigns.add("struct");
-						// END KGU#388 2017-09-13
-						// START KGU#542 2019-11-17: Enh. #739 "enum" added to type definition keywords
-						specialSigns.add("enum");
-						// END KGU#542 2019-11-17
-						// START KGU#331 2017-01-13: Enh. #333
-						//specialSigns.add("<=");
-						//specialSigns.add(">=");
-						//specialSigns.add("<>");
-						//specialSigns.add("!=");
-						specialSigns.add("\u2260");
-						specialSigns.add("\u2264");
-						specialSigns.add("\u2265");
-						// END KGU#331 2017-01-13
-						specialSigns.add("<<");
-						specialSigns.add(">>");
-						specialSigns.add("<");
-						specialSigns.add(">");
-						specialSigns.add("==");
-						specialSigns.add("=");
-						specialSigns.add("!");
-						// START KGU#24 2014-10-18
-						specialSigns.add("&&");
-						specialSigns.add("||");
-						// END KGU#24 2014-10-18
-						// START KGU#109 2016-01-15: Issues #61, #107 highlight the BASIC declarator keyword, too
-						specialSigns.add("as");
-						// END KGU#109 2016-01-15
-
-						// START KGU#100 2016-01-16: Enh. #84: Also highlight the initialiser delimiters
-						specialSigns.add("{");
-						specialSigns.add("}");
-						// END KGU#100 2016-01-16
-
-						// The quotes will only occur as tokens if they are unpaired!
-						specialSigns.add("'");
-						specialSigns.add("\"");
-						// START KGU#64 2015-11-03: See above
-					}
-					// START KGU#611/KGU843 2020-04-12: Issue #643, bugfix #847
-					if (specialSignsCi == null) {
-						specialSignsCi = new StringList();
-						specialSignsCi.add("mod");
-						specialSignsCi.add("div");
-						// START KGU#24 2014-10-18
-						specialSignsCi.add("and");
-						specialSignsCi.add("or");
-						specialSignsCi.add("xor");
-						specialSignsCi.add("not");
-						// END KGU#24 2014-10-18
-						// START KGU#115 2015-12-23: Issue #74 - These Pascal operators hadn't been supported
-						specialSignsCi.add("shl");
-						specialSignsCi.add("shr");
-						// END KGU#115 2015-12-23						
+					// START KGU#922 2026-10-19: Concurrent drawing - initialisation moved to a synchronized method
+					if (specialSigns == null || specialSignsCi == null) {
+						initSpecialSigns();
 					}
-					// END KGU#611/KGU#843 2020-04-12
+					// END KGU#922 2026-10-19
 					// END KGU#64 2015-11-03
 
 					// These markers might have changed by configuration, so don't cache them
@@ -3716,6 +4017,9 @@ public abstract class Element {
 					if (lastWasNormal) {
 						hlUnits.add(_this.makeHighlightUnit(normalText.toString()));
 					}
+					// START KGU#918 2026-10-19: Most lines consist of a few units only
+					hlUnits.trimToSize();
+					// END KGU#918 2026-10-19
 				}
 				// This is now the pure drawing
 				for (HighlightUnit unit: hlUnits) {
@@ -4346,6 +4650,15 @@ public abstract class Element {
 	// END KGU 2017-10-21
 	
 	// START KGU#261 2017-01-19: Enh. #259 (type map)
+	// START KGU#911 2026-10-19: Javadoc added (Root overrides this with an indexed lookup)
+	/**
+	 * Searches the substructure of this element (including this) for an element with
+	 * the given id (see {@link #getId()}) by traversal.
+	 * @param _id - the element id
+	 * @return the first element with id {@code _id} in pre-order, or null
+	 * @see Root#findElementWithId(long)
+	 */
+	// END KGU#911 2026-10-19
 	public Element findElementWithId(long _id)
 	{
 		final class ElementFinder implements IElementVisitor {
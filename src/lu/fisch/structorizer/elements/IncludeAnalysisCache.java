@@ -0,0 +1,314 @@
+/*
+    Structorizer
+    A little tool which you can use to create Nassi-Schneiderman Diagrams (NSD)
+
+    Copyright (C) 2009  Bob Fisch
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or any
+    later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+
+package lu.fisch.structorizer.elements;
+
+/******************************************************************************************************
+ *
+ *      Description:    Shared cache of the Analyser results for includable diagrams (check #23).
+ *
+ ******************************************************************************************************
+ *
+ *      Comment:
+ *      2026-10-19 (KGU#917)
+ *      - There is one cache per routine pool (i.e. per arrangement or archive), shared by all including
+ *        diagrams. The results are held per includable (by identity) and import context, the latter
+ *        consisting of the import path, the imports done before, and the constants defined so far.
+ *      - A result is valid while the modification stamps of the includable and of all includables
+ *        imported by it remain unchanged (see Root.getModificationStamp()). The results are held for the
+ *        original diagrams, though they are computed on analysis snapshots (see Root.copyForAnalysis()),
+ *        which carry the stamps of their originals as of the time of snapshot creation.
+ *      - The entire cache is discarded if the Analyser checks, the locale, or the parser keywords change
+ *        (checked on snapshot creation), or whenever the routine pool notifies a pool change (diagram set,
+ *        signatures, groups), because this may alter the retrieval of includables and subroutines and the
+ *        result types of calls. Results of analyses based on snapshots from before are refused then.
+ *      - Results are immutable. Since the including analysis extends the imported type map entries,
+ *        these are handed out as copies.
+ *
+ ******************************************************************************************************///
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Vector;
+import java.util.WeakHashMap;
+
+import lu.fisch.structorizer.archivar.IRoutinePool;
+import lu.fisch.structorizer.archivar.IRoutinePoolListener;
+import lu.fisch.structorizer.locales.Locales;
+import lu.fisch.structorizer.parsers.CodeParser;
+import lu.fisch.utils.StringList;
+
+/**
+ * Holds the analysis results of includable diagrams for a routine pool, such that
+ * diagrams including the same includable needn't analyse it again.
+ * @see Root#analyse()
+ */
+final class IncludeAnalysisCache implements IRoutinePoolListener {
+
+	/** Maximum number of import contexts held per includable */
+	private static final int CONTEXT_LIMIT = 16;
+
+	/** The analysis results of an includable diagram within a certain import context */
+	static final class Result {
+		/** The analysed includables (the includable itself and those imported by it) with their stamps */
+		final IdentityHashMap<Root, Integer> dependencies;
+		/** Messages of the errors detected within the includable */
+		final String[] messages;
+		/** Whether the includable makes use of return mechanisms */
+		final boolean usesReturn;
+		/** Variables introduced (with certainty) by the includable */
+		final StringList vars;
+		/** Variables introduced in some branch of the includable only */
+		final StringList uncertainVars;
+		private final HashMap<String, TypeMapEntry> types;
+		private final LinkedHashMap<String, String> constants;
+		private final HashMap<String, StringList> analysedImports;
+
+		/**
+		 * Composes a result from the state after the analysis of an includable.
+		 * @param _dependencies - the analysed includables with their stamps as of the start of the analysis
+		 * @param _errors - the detected errors
+		 * @param _usesReturn - whether the includable makes use of return mechanisms
+		 * @param _vars - variables with certain initialisation
+		 * @param _uncertainVars - variables with uncertain initialisation
+		 * @param _types - the type definitions and declarations
+		 * @param _constants - the incremental constant definition map
+		 * @param _analysedImports - the map of analysed imports
+		 */
+		Result(IdentityHashMap<Root, Integer> _dependencies, Vector<DetectedError> _errors, boolean _usesReturn,
+				StringList _vars, StringList _uncertainVars, HashMap<String, TypeMapEntry> _types,
+				HashMap<String, String> _constants, HashMap<String, StringList> _analysedImports)
+		{
+			dependencies = _dependencies;
+			messages = new String[_errors.size()];
+			for (int i = 0; i < messages.length; i++) {
+				messages[i] = _errors.get(i).getError();
+			}
+			usesReturn = _usesReturn;
+			vars = _vars;
+			uncertainVars = _uncertainVars;
+			types = copyTypes(_types);
+			constants = new LinkedHashMap<String, String>(_constants);
+			analysedImports = copyImports(_analysedImports);
+		}
+
+		/** @return a copy of the type map of the includable (may be modified) */
+		HashMap<String, TypeMapEntry> getTypes()
+		{
+			return copyTypes(types);
+		}
+
+		/**
+		 * Puts the given constant definition map and map of analysed imports into the
+		 * state they had after the analysis this result stems from
+		 * @param _constants - the incremental constant definition map
+		 * @param _analysedImports - the map of analysed imports
+		 */
+		void restoreMaps(HashMap<String, String> _constants, HashMap<String, StringList> _analysedImports)
+		{
+			_constants.clear();
+			_constants.putAll(constants);
+			_analysedImports.clear();
+			_analysedImports.putAll(copyImports(analysedImports));
+		}
+
+		/** @return true if none of the analysed includables has been modified since */
+		boolean isValid()
+		{
+			for (Map.Entry<Root, Integer> dep: dependencies.entrySet()) {
+				if (dep.getKey().getModificationStamp() != dep.getValue()) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+
+	private static final WeakHashMap<IRoutinePool, IncludeAnalysisCache> caches =
+			new WeakHashMap<IRoutinePool, IncludeAnalysisCache>();
+
+	/** Results per (original) includable and import context */
+	private final IdentityHashMap<Root, HashMap<String, Result>> results =
+			new IdentityHashMap<Root, HashMap<String, Result>>();
+	/** The configuration the results are valid for */
+	private boolean[] checks = null;
+	private String locale = null;
+	private String[] keywords = null;
+	private boolean ignoreCase = false;
+	/** Incremented whenever the results are discarded */
+	private int generation = 0;
+
+	private IncludeAnalysisCache()
+	{
+	}
+
+	/**
+	 * Retrieves the cache associated to the given routine pool, which is registered as
+	 * listener to the pool on creation. Must be called on the thread modifying the pool.
+	 * @param _pool - the routine pool the includables are retrieved from
+	 * @return the cache associated to the given routine pool
+	 */
+	static IncludeAnalysisCache getInstance(IRoutinePool _pool)
+	{
+		synchronized (caches) {
+			IncludeAnalysisCache cache = caches.get(_pool);
+			if (cache == null) {
+				caches.put(_pool, cache = new IncludeAnalysisCache());
+				_pool.addChangeListener(cache);
+			}
+			return cache;
+		}
+	}
+
+	/**
+	 * Discards all results if the Analyser configuration, the locale, or the parser keywords
+	 * have changed. To be called on creation of the analysis snapshots.
+	 * @param _checks - the current Analyser check selection
+	 * @return the current generation of the cache (to be passed to {@link #get(Root, String, int)}
+	 * and {@link #put(Root, String, Result, int)})
+	 */
+	synchronized int validate(boolean[] _checks)
+	{
+		String curLocale = Locales.getInstance().getLoadedLocaleFilename();
+		String[] curKeywords = CodeParser.getAllProperties();
+		if (!Arrays.equals(_checks, checks)
+				|| curLocale == null || !curLocale.equals(locale)
+				|| !Arrays.equals(curKeywords, keywords) || CodeParser.ignoreCase != ignoreCase) {
+			results.clear();
+			checks = _checks.clone();
+			locale = curLocale;
+			keywords = curKeywords.clone();
+			ignoreCase = CodeParser.ignoreCase;
+			generation++;
+		}
+		return generation;
+	}
+
+	/**
+	 * Discards all results on a change of the diagram set, the signatures, or the groups of the pool
+	 */
+	@Override
+	public synchronized void routinePoolChanged(IRoutinePool _source, int _flags)
+	{
+		if ((_flags & RPC_POOL_CHANGED) != 0) {
+			results.clear();
+			generation++;
+		}
+	}
+
+	/**
+	 * Retrieves the valid result for the given includable and import context, if available.
+	 * @param _includable - the original includable diagram
+	 * @param _context - the import context key (see {@link #makeContextKey(StringList, HashMap, HashMap)})
+	 * @param _generation - the cache generation obtained on creation of the analysed snapshots
+	 * @return the result or null
+	 */
+	synchronized Result get(Root _includable, String _context, int _generation)
+	{
+		HashMap<String, Result> contextResults = results.get(_includable);
+		Result result = null;
+		if (_generation == generation && contextResults != null
+				&& (result = contextResults.get(_context)) != null && !result.isValid()) {
+			contextResults.remove(_context);
+			result = null;
+		}
+		return result;
+	}
+
+	/**
+	 * Stores the given result unless the cache or the analysed includables have changed
+	 * since the analysed snapshots were created.
+	 * @param _includable - the original of the analysed includable
+	 * @param _context - the import context key
+	 * @param _result - the analysis result
+	 * @param _generation - the cache generation obtained on creation of the analysed snapshots
+	 */
+	synchronized void put(Root _includable, String _context, Result _result, int _generation)
+	{
+		if (_generation == generation && _result.isValid()) {
+			HashMap<String, Result> contextResults = results.get(_includable);
+			if (contextResults == null) {
+				results.put(_includable, contextResults = new HashMap<String, Result>());
+			}
+			else if (contextResults.size() >= CONTEXT_LIMIT) {
+				contextResults.clear();
+			}
+			contextResults.put(_context, _result);
+		}
+	}
+
+	/**
+	 * Composes the key for the import context the analysis of an includable depends on
+	 * @param _importStack - names of the importing includables
+	 * @param _analysedImports - the imports done so far (with their import paths)
+	 * @param _constants - the constants defined so far
+	 * @return the context key
+	 */
+	static String makeContextKey(StringList _importStack, HashMap<String, StringList> _analysedImports, HashMap<String, String> _constants)
+	{
+		StringBuilder sb = new StringBuilder(_importStack.concatenate("<-"));
+		StringList names = new StringList();
+		for (String name: _analysedImports.keySet()) {
+			names.addOrdered(name);
+		}
+		for (int i = 0; i < names.count(); i++) {
+			sb.append('\n').append(names.get(i)).append(':').append(_analysedImports.get(names.get(i)).concatenate("<-"));
+		}
+		sb.append('\n');
+		for (Map.Entry<String, String> entry: _constants.entrySet()) {
+			sb.append('\n').append(entry.getKey()).append('=').append(entry.getValue());
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Copies the given type map entry-wise, such that entries shared by several keys
+	 * (i.e. named types and variables of these types) remain shared in the copy.
+	 * @param _types - the type map
+	 * @return the copied type map
+	 */
+	private static HashMap<String, TypeMapEntry> copyTypes(HashMap<String, TypeMapEntry> _types)
+	{
+		Map<TypeMapEntry, TypeMapEntry> copies = new IdentityHashMap<TypeMapEntry, TypeMapEntry>();
+		HashMap<String, TypeMapEntry> types = new HashMap<String, TypeMapEntry>();
+		for (Map.Entry<String, TypeMapEntry> entry: _types.entrySet()) {
+			TypeMapEntry original = entry.getValue();
+			TypeMapEntry copy = null;
+			if (original != null && (copy = copies.get(original)) == null) {
+				copies.put(original, copy = original.copy());
+			}
+			types.put(entry.getKey(), copy);
+		}
+		return types;
+	}
+
+	private static HashMap<String, StringList> copyImports(HashMap<String, StringList> _analysedImports)
+	{
+		HashMap<String, StringList> imports = new HashMap<String, StringList>();
+		for (Map.Entry<String, StringList> entry: _analysedImports.entrySet()) {
+			imports.put(entry.getKey(), entry.getValue().copy());
+		}
+		return imports;
+	}
+
+}
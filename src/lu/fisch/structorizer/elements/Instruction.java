@@ -969,7 +969,10 @@ public class Instruction extends Element {
 		boolean isEnum = isTypeDefinition(line);
 		if (isEnum) {
 			int posEq = line.indexOf('=');
-			isEnum = posEq > 0 && TypeMapEntry.MATCHER_ENUM.reset(line.substring(posEq+1).trim()).matches();
+			// START KGU#916 2026-10-19: Thread-safe matching
+			//isEnum = posEq > 0 && TypeMapEntry.MATCHER_ENUM.reset(line.substring(posEq+1).trim()).matches();
+			isEnum = posEq > 0 && TypeMapEntry.PATTERN_ENUM.matcher(line.substring(posEq+1).trim()).matches();
+			// END KGU#916 2026-10-19
 		}
 		return isEnum;
 	}
@@ -1118,7 +1121,10 @@ public class Instruction extends Element {
 	
 	public void updateTypeMapFromLine(HashMap<String, TypeMapEntry> typeMap, String line, int lineNo)
 	{
-		StringList tokens = Element.splitLexically(line, true);
+		// START KGU#913 2026-10-19: Use the token cache
+		//StringList tokens = Element.splitLexically(line, true);
+		StringList tokens = this.getLineTokens(line);
+		// END KGU#913 2026-10-19
 		String varName = null;
 		String typeSpec = "";
 		boolean isAssigned = false;
@@ -1202,7 +1208,10 @@ public class Instruction extends Element {
 				// START KGU#542 2019-11-17: Enh. #739 Handle enumeration tapes
 				if (isEnum) {
 					// first make sure the syntax is okay
-					if (TypeMapEntry.MATCHER_ENUM.reset(typeSpec).matches() ) {
+					// START KGU#916 2026-10-19: Thread-safe matching
+					//if (TypeMapEntry.MATCHER_ENUM.reset(typeSpec).matches() ) {
+					if (TypeMapEntry.PATTERN_ENUM.matcher(typeSpec).matches() ) {
+					// END KGU#916 2026-10-19
 						Root root = getRoot(this);
 						if (root != null) {
 							TypeMapEntry enumType = new TypeMapEntry(typeSpec, typename, typeMap, this, lineNo, false, false);
@@ -184,6 +184,9 @@ public class Parallel extends Element
 
     	//setText(_textList);
     	text=_textList;
+    	// START KGU#908 2026-10-19
+    	clearTokenCache();
+    	// END KGU#908 2026-10-19
 
     	if(qs==null)
     	{
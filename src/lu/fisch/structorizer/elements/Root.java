@@ -178,6 +178,7 @@ package lu.fisch.structorizer.elements;
  *
  ******************************************************************************************************///
 
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
@@ -218,6 +219,7 @@ import java.awt.Point;
 import java.awt.Polygon;
 import java.awt.Rectangle;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.Date;
 
@@ -308,7 +310,22 @@ public class Root extends Element {
 	/** A routine pool to be used for retrieval of includables and subroutines instead of Arranger if not null */
 	public IRoutinePool specialRoutinePool = null;
 	// END KGU#676 2019-03-31
-	
+	// START KGU#914 2026-10-19: Background analysis works on a snapshot
+	/** The diagram this is an analysis snapshot of (see {@link #copyForAnalysis()}), or null */
+	private Root snapshotOrigin = null;
+	// END KGU#914 2026-10-19
+	// START KGU#917 2026-10-19: Validation of the shared includable analysis results
+	/** Counts the (undoable or registered) modifications, see {@link #getModificationStamp()} */
+	private volatile int modificationStamp = 0;
+	/** Snapshots of the includables found for the names of the {@link #includeList} (analysis snapshots only) */
+	private HashMap<String, Vector<Root>> includeSnapshots = null;
+	/** Result types of the routines matching the called signatures "name#argc" (analysis snapshots only) */
+	private HashMap<String, Vector<String>> routineResultTypes = null;
+	/** The includable analysis cache of the routine pool (analysis snapshots only) and its generation */
+	private IncludeAnalysisCache includeCache = null;
+	private int includeCacheGeneration = 0;
+	// END KGU#917 2026-10-19
+
 	public Subqueue children = new Subqueue();
 
 	public int height = 0;
@@ -320,6 +337,22 @@ public class Root extends Element {
 
 	private Stack<Subqueue> undoList = new Stack<Subqueue>();
 	private Stack<Subqueue> redoList = new Stack<Subqueue>();
+	// START KGU#911 2026-10-19: Index for fast id lookup (lazily built, null if invalid)
+	/** Immutable id index, see {@link Root#findElementWithId(long)} */
+	private static final class IdIndex {
+		/** The {@link Root#children} the index was built for */
+		final Subqueue children;
+		/** Maps the element ids to the first element with this id in pre-order */
+		final HashMap<Long, Element> elements;
+		IdIndex(Subqueue children, HashMap<Long, Element> elements)
+		{
+			this.children = children;
+			this.elements = elements;
+		}
+	}
+	/** The id index, replaced as a whole (may be read by other threads, e.g. the Executor) */
+	private volatile IdIndex idIndex = null;
+	// END KGU#911 2026-10-19
 
 	public String filename = "";
 	// START KGU#316 2016-12-28: Enh. #318 Consider unzipped arrz-files
@@ -646,14 +679,68 @@ public class Root extends Element {
 	// END KGU#261 2017-01-19
 	// START KGU#163 2016-03-25: Added to solve the complete detection of unknown/uninitialised identifiers
 	// Pre-processed parser preference keywords to match them against tokenized strings
-	private static Vector<StringList> splitKeywords = new Vector<StringList>();
+	// START KGU#914 2026-10-19: Analysis may run concurrently, so the vector is replaced rather than refilled
+	//private static Vector<StringList> splitKeywords = new Vector<StringList>();
+	private static volatile Vector<StringList> splitKeywords = new Vector<StringList>();
+	// END KGU#914 2026-10-19
 	private String[] operatorsAndLiterals = {"false", "true", "div"};
 	// END KGU#163 2016-03-25
+	// START KGU#913 2026-10-19: Incremental variable analysis - results of the context-free line analysis
+	/** Context-free result of the variable introduction analysis of a single text line */
+	private static final class LineVarInfo {
+		/** Name of the assigned (or initialised) variable, or null */
+		String assignedVar = null;
+		/** Value string of a constant definition, or null */
+		String constValue = null;
+		/** Names of the input variables, or null */
+		StringList inputVars = null;
+	}
+	/** Maximum number of lines held in each of the line analysis caches */
+	private static final int VAR_CACHE_LIMIT = 1 << 16;
+	// END KGU#913 2026-10-19
+	// START KGU#915 2026-10-19: Memoized check results, all caches shared with analysis snapshots
+	/** Memoized results of the context-free checks of an element (see {@link #analyseMemoized(int, Element, Vector, StringList)}) */
+	private static final class CheckMemo {
+		/** Class and text of the element the results are valid for */
+		final String className, text;
+		/** Error messages per memoized check group (null if not computed yet) */
+		final String[][] messages = new String[N_MEMO_GROUPS][];
+		CheckMemo(String className, String text)
+		{
+			this.className = className;
+			this.text = text;
+		}
+	}
+	/** Memoized check groups: #8, #10 + #11, #19 */
+	private static final int MEMO_8 = 0, MEMO_10_11 = 1, MEMO_19 = 2, N_MEMO_GROUPS = 3;
+	/**
+	 * Context-free analysis results of a diagram, shared with its analysis snapshots
+	 * (see {@link Root#copyForAnalysis()}). Access must be synchronized on the object.
+	 */
+	private static final class AnalysisCache {
+		/** Maps text lines to their variable introduction analysis (see {@link Root#getVarNames(StringList, HashMap)}) */
+		final HashMap<String, LineVarInfo> varIntro = new HashMap<String, LineVarInfo>();
+		/** Maps text lines to their candidate tokens for variable usage (see {@link Root#getUsedVarNames(String, String[], Element)}) */
+		final HashMap<String, StringList> varUsage = new HashMap<String, StringList>();
+		/** The parser keywords (and case sensitivity) the line analysis caches are valid for */
+		String[] keywords = null;
+		boolean ignoreCase = false;
+		/** Maps element ids to the memoized results of their context-free checks */
+		final HashMap<Long, CheckMemo> checkMemos = new HashMap<Long, CheckMemo>();
+		/** The check selection and locale the memoized check results are valid for */
+		boolean[] checks = null;
+		String locale = null;
+	}
+	private AnalysisCache analysisCache = new AnalysisCache();
+	// END KGU#915 2026-10-19
 
 	// error checks for analyser (see also addError(), saveToIni(), Diagram.analyserNSD() and Mainform.loadFromIni())
 	// START KGU#239 2016-08-12: Inh. #231 + Partial redesign
 	// KGU#456 2017-11-05: Now used as initial defaults
-	private static boolean[] analyserChecks = {
+	// START KGU#916 2026-10-19: Copy-on-write array, since analyses may run concurrently
+	//private static boolean[] analyserChecks = {
+	private static volatile boolean[] analyserChecks = {
+	// END KGU#916 2026-10-19
 		true,	true,	true,	true,	false,	// 1 .. 5
 		false,	true,	true,	true,	true,	// 6 .. 10
 		true,	false,	true,	true,	true,	// 11 .. 15
@@ -683,7 +770,14 @@ public class Root extends Element {
 	{
 		if (checkNo >= 1 && checkNo <= analyserChecks.length)
 		{
-			analyserChecks[checkNo-1] = enable;
+			// START KGU#916 2026-10-19: Running analyses keep working with the previous array
+			//analyserChecks[checkNo-1] = enable;
+			synchronized (Root.class) {
+				boolean[] checks = analyserChecks.clone();
+				checks[checkNo-1] = enable;
+				analyserChecks = checks;
+			}
+			// END KGU#916 2026-10-19
 		}
 	}
 	// END KGU#239 2016-08-12
@@ -804,11 +898,18 @@ public class Root extends Element {
 	}
 	// END KGU#456 2017-11-05
 	// Mapping keyword -> generator titles
-	private static Hashtable<String, StringList> caseAwareKeywords = null;
-	private static Hashtable<String, StringList> caseUnawareKeywords = null;
+	// START KGU#914 2026-10-19: Made volatile for background analysis
+	//private static Hashtable<String, StringList> caseAwareKeywords = null;
+	//private static Hashtable<String, StringList> caseUnawareKeywords = null;
+	private static volatile Hashtable<String, StringList> caseAwareKeywords = null;
+	private static volatile Hashtable<String, StringList> caseUnawareKeywords = null;
+	// END KGU#914 2026-10-19
 	// END KGU#239 2016-08-12
 	// START KGU#239 2017-04-11: Some structorizer-internal keywords are also to be checked against
-	private static Set<String> structorizerKeywords = new HashSet<String>();
+	// START KGU#914 2026-10-19: Analysis may run concurrently, so the set is replaced rather than refilled
+	//private static Set<String> structorizerKeywords = new HashSet<String>();
+	private static volatile Set<String> structorizerKeywords = new HashSet<String>();
+	// END KGU#914 2026-10-19
 	// END KGU#239 2017-04-11
 
 	private Vector<Updater> updaters = new Vector<Updater>();
@@ -862,6 +963,9 @@ public class Root extends Element {
 	{
 		text.setText(_text);
 		parameterList = null;
+		// START KGU#908 2026-10-19
+		clearTokenCache();
+		// END KGU#908 2026-10-19
 	}
 
 	@Override
@@ -869,6 +973,9 @@ public class Root extends Element {
 	{
 		text = _text;
 		parameterList = null;
+		// START KGU#908 2026-10-19
+		clearTokenCache();
+		// END KGU#908 2026-10-19
 	}
 	// END KGU#371 2019-03-07
 
@@ -920,6 +1027,9 @@ public class Root extends Element {
     public void setChanged(boolean setModifiedAttrs)
     {
     	this.hasChanged = true;
+    	// START KGU#917 2026-10-19
+    	this.modificationStamp++;
+    	// END KGU#917 2026-10-19
     	// START KGU#363 2017-03-10: Enh. #372, KGU#363 2018-09-12 made dependent on argument
     	if (setModifiedAttrs) {
     		// END KGU#363 2018-09-12
@@ -944,6 +1054,20 @@ public class Root extends Element {
     }
     // END KGU#137 2016-01-11
 
+    // START KGU#917 2026-10-19: Validation of the shared includable analysis results
+    /**
+     * Returns a counter that is incremented on every registered modification of this diagram
+     * (i.e. with every new undo entry, on undoing and redoing, and on {@link #setChanged(boolean)}).
+     * Unlike {@link #hasChanged()} it never returns to a former value, so results derived
+     * from the diagram content may be validated by comparing the stamps.
+     * @return the current modification stamp
+     */
+    public int getModificationStamp()
+    {
+    	return this.modificationStamp;
+    }
+    // END KGU#917 2026-10-19
+
 	// START KGU 2015-10-13: This follows a code snippet found in Root.draw(Canvas, Rect), which had been ineffective though
 	@Override
 	public Color getColor()
@@ -1750,6 +1874,21 @@ public class Root extends Element {
         return myrect;/**/
     }
     
+	// START KGU#919 2026-10-19: Support for the tile cache of the Diagram
+	@Override
+	public int getAppearanceHash()
+	{
+		int hash = 31 * super.getAppearanceHash() + diagrType.ordinal();
+		hash = 2 * hash + (isBoxed ? 1 : 0);
+		if (includeList != null) {
+			for (int i = 0; i < includeList.count(); i++) {
+				hash = 31 * hash + includeList.get(i).hashCode();
+			}
+		}
+		return hash;
+	}
+	// END KGU#919 2026-10-19
+
     public boolean getSelected(DrawingContext _drawingContext)
     {
     	if (_drawingContext == DrawingContext.DC_STRUCTORIZER) {
@@ -1782,6 +1921,296 @@ public class Root extends Element {
 	}
 	// END KGU#749 2019-10-15
 
+	// START KGU#914 2026-10-19: Background analysis
+	/**
+	 * Creates a detached snapshot of this diagram to be analysed by a background thread
+	 * (see {@link #analyse()}) while this diagram may continue to be edited. The snapshot
+	 * retains the file paths and carries snapshots of the includables and the retrieval
+	 * results for the called subroutines as found in the routine pool on behalf of this
+	 * diagram, such that the analysis needn't access any other live diagram. Unlike
+	 * {@link #copy()} it doesn't touch this diagram.<br/>
+	 * Must be called on the thread that modifies this diagram (i.e. the event dispatch thread).
+	 * Background threads must not read live diagrams instead, since the underlying
+	 * {@link StringList}s aren't synchronized.
+	 * @return the snapshot {@link Root}, with element ids equal to the originals
+	 * @see #copyForAnalysis(IRoutinePool)
+	 */
+	public Root copyForAnalysis()
+	{
+		// START KGU#917 2026-10-19: Includables and subroutines are retrieved in advance
+		return copyForAnalysis(null);
+	}
+	
+	/**
+	 * Creates a detached snapshot of this diagram to be analysed by a background thread
+	 * like {@link #copyForAnalysis()} but retrieves includables and subroutines from the
+	 * given routine pool (if not null).<br/>
+	 * Must be called on the thread that modifies the diagrams of the pool.
+	 * @param _pool - the routine pool to be used instead of the default one (see
+	 * {@link #specialRoutinePool}), or null
+	 * @return the snapshot {@link Root}, with element ids equal to the originals
+	 */
+	public Root copyForAnalysis(IRoutinePool _pool)
+	{
+		if (_pool == null) {
+			_pool = this.getAnalysisPool();
+		}
+		IncludeAnalysisCache cache = null;
+		int generation = 0;
+		if (_pool != null) {
+			cache = IncludeAnalysisCache.getInstance(_pool);
+			generation = cache.validate(analyserChecks);
+		}
+		return copyForAnalysis(_pool, cache, generation, new IdentityHashMap<Root, Root>());
+	}
+	
+	/**
+	 * Creates the analysis snapshot of this diagram and (recursively) of its includables
+	 * @param _pool - the routine pool to retrieve includables and subroutines from, or null
+	 * @param _cache - the includable analysis cache of {@code _pool}, or null
+	 * @param _generation - the validated generation of {@code _cache}
+	 * @param _snapshots - maps the diagrams already copied to their snapshots
+	 * @return the snapshot
+	 */
+	private Root copyForAnalysis(IRoutinePool _pool, IncludeAnalysisCache _cache, int _generation, IdentityHashMap<Root, Root> _snapshots)
+	// END KGU#917 2026-10-19
+	{
+		String modifier = this.modifiedby;
+		Root snapshot = this.copyWithFilepaths();
+		this.modifiedby = modifier;
+		snapshot.specialRoutinePool = this.specialRoutinePool;
+		snapshot.snapshotOrigin = this;
+		// START KGU#915 2026-10-19: Context-free results may be reused across analyses
+		snapshot.analysisCache = this.analysisCache;
+		// END KGU#915 2026-10-19
+		// START KGU#917 2026-10-19: Lookups must not refer to live diagrams
+		snapshot.modificationStamp = this.modificationStamp;
+		snapshot.includeCache = _cache;
+		snapshot.includeCacheGeneration = _generation;
+		snapshot.includeSnapshots = new HashMap<String, Vector<Root>>();
+		_snapshots.put(this, snapshot);
+		if (this.includeList != null && _pool != null) {
+			for (int i = 0; i < this.includeList.count(); i++) {
+				String name = this.includeList.get(i);
+				Vector<Root> includables = new Vector<Root>();
+				for (Root incl: _pool.findIncludesByName(name, this)) {
+					Root inclSnapshot = _snapshots.get(incl);
+					if (inclSnapshot == null) {
+						inclSnapshot = incl.copyForAnalysis(_pool, _cache, _generation, _snapshots);
+					}
+					includables.add(inclSnapshot);
+				}
+				snapshot.includeSnapshots.put(name, includables);
+			}
+		}
+		final IRoutinePool pool = _pool;
+		final Root original = this;
+		final HashMap<String, Vector<String>> resultTypes = new HashMap<String, Vector<String>>();
+		// END KGU#917 2026-10-19
+		// The copies share the highlight caches with the originals, which are drawn meanwhile
+		snapshot.traverse(new IElementVisitor() {
+			@Override
+			public boolean visitPreOrder(Element _ele) {
+				// START KGU#918 2026-10-19: Highlight caches are created on demand
+				//_ele.highlightCache = new HashMap<String, Vector<HighlightUnit>>();
+				_ele.highlightCache = null;
+				// END KGU#918 2026-10-19
+				// START KGU#917 2026-10-19: Retrieve the called routines in advance
+				Function called = null;
+				if (pool != null && _ele instanceof Call && (called = ((Call)_ele).getCalledRoutine()) != null) {
+					String signature = called.getName() + "#" + called.paramCount();
+					if (!resultTypes.containsKey(signature)) {
+						Vector<String> types = new Vector<String>();
+						for (Root routine: pool.findRoutinesBySignature(called.getName(), called.paramCount(), original)) {
+							types.add(routine.getResultType());
+						}
+						resultTypes.put(signature, types);
+					}
+				}
+				// END KGU#917 2026-10-19
+				return true;
+			}
+			@Override
+			public boolean visitPostOrder(Element _ele) {
+				return true;
+			}
+		});
+		// START KGU#917 2026-10-19
+		snapshot.routineResultTypes = resultTypes;
+		// END KGU#917 2026-10-19
+		return snapshot;
+	}
+
+	// START KGU#917 2026-10-19: Retrieval via the snapshots if this is an analysis snapshot
+	/**
+	 * Retrieves the includable diagrams with the given name, on an analysis snapshot
+	 * among the includable snapshots, otherwise from the given routine pool
+	 * @param _name - the name of the includable (as listed in {@link #includeList})
+	 * @param _pool - the routine pool to be consulted if this isn't an analysis snapshot, or
+	 * null for the default one (see {@link #specialRoutinePool})
+	 * @return the matching includables (may be empty)
+	 */
+	private Vector<Root> findIncludables(String _name, IRoutinePool _pool)
+	{
+		if (this.includeSnapshots != null) {
+			Vector<Root> includables = this.includeSnapshots.get(_name);
+			return includables != null ? includables : new Vector<Root>();
+		}
+		if (_pool == null && (_pool = this.getAnalysisPool()) == null) {
+			return new Vector<Root>();
+		}
+		return _pool.findIncludesByName(_name, this);
+	}
+	
+	/**
+	 * Retrieves the result types of the routines matching the given signature, on an
+	 * analysis snapshot from the retrieval done on its creation, otherwise from the
+	 * analysis routine pool (see {@link #specialRoutinePool})
+	 * @param _name - the routine name
+	 * @param _argCount - the number of arguments
+	 * @return the result types of the matching routines, one per routine (may be null)
+	 */
+	Vector<String> findRoutineResultTypes(String _name, int _argCount)
+	{
+		Vector<String> types = null;
+		if (this.routineResultTypes != null) {
+			types = this.routineResultTypes.get(_name + "#" + _argCount);
+		}
+		else {
+			IRoutinePool pool = this.getAnalysisPool();
+			if (pool != null) {
+				types = new Vector<String>();
+				for (Root routine: pool.findRoutinesBySignature(_name, _argCount, this)) {
+					types.add(routine.getResultType());
+				}
+			}
+		}
+		return types != null ? types : new Vector<String>();
+	}
+	// END KGU#917 2026-10-19
+
+	/**
+	 * Maps the elements of the given analysis snapshot (or other copy) of this diagram to the
+	 * corresponding elements of this diagram by their structural position, i.e. by a parallel
+	 * pre-order traversal (element ids don't identify elements, since copies share them).<br/>
+	 * Must be called on the thread that modifies this diagram and before this diagram is
+	 * modified after the creation of {@code _snapshot}.
+	 * @param _snapshot - an analysis snapshot of this diagram (see {@link #copyForAnalysis()})
+	 * or a copy of it
+	 * @return identity map from the elements of {@code _snapshot} to those of this diagram
+	 */
+	public IdentityHashMap<Element, Element> mapSnapshotElements(Root _snapshot)
+	{
+		final Vector<Element> originals = new Vector<Element>();
+		this.traverse(new IElementVisitor() {
+			@Override
+			public boolean visitPreOrder(Element _ele) {
+				originals.add(_ele);
+				return true;
+			}
+			@Override
+			public boolean visitPostOrder(Element _ele) {
+				return true;
+			}
+		});
+		final IdentityHashMap<Element, Element> map = new IdentityHashMap<Element, Element>(originals.size());
+		_snapshot.traverse(new IElementVisitor() {
+			private int index = 0;
+			@Override
+			public boolean visitPreOrder(Element _ele) {
+				if (index < originals.size() && originals.get(index).getClass() == _ele.getClass()) {
+					map.put(_ele, originals.get(index));
+				}
+				index++;
+				return true;
+			}
+			@Override
+			public boolean visitPostOrder(Element _ele) {
+				return true;
+			}
+		});
+		return map;
+	}
+
+	/**
+	 * @return the Root to be presented to the routine pool for the group-aware retrieval
+	 * of includables and subroutines, i.e. the original diagram if this is an analysis snapshot
+	 */
+	private Root getPoolDiscriminator()
+	{
+		return this.snapshotOrigin != null ? this.snapshotOrigin : this;
+	}
+	// END KGU#914 2026-10-19
+
+	// START KGU#901 2026-10-19: Lazy mapping for the execution trace (no map of the entire copy)
+	/**
+	 * Finds the element of this diagram at the same structural position as the element
+	 * {@code _element} of the unmodified copy {@code _copy} of this diagram, i.e. follows
+	 * the child indices from {@code _element} up to {@code _copy} down from this diagram.
+	 * The effort depends on the nesting depth of {@code _element} only.
+	 * @param _copy - a copy of this diagram (not modified since)
+	 * @param _element - an element of {@code _copy}
+	 * @return the corresponding element of this diagram or null if there is none
+	 * @see #mapSnapshotElements(Root)
+	 */
+	public Element getCorrespondingElement(Root _copy, Element _element)
+	{
+		ArrayList<Integer> path = new ArrayList<Integer>();
+		Element ele = _element;
+		while (ele != _copy) {
+			Element parent = ele.parent;
+			if (parent == null) {
+				return null;	// Not an element of _copy
+			}
+			if (parent instanceof Subqueue) {
+				path.add(((Subqueue)parent).getIndexOf(ele));
+			}
+			else if (parent instanceof Root) {
+				path.add(0);	// Only the children
+			}
+			else {
+				path.add(getSubqueues(parent).indexOf(ele));
+			}
+			ele = parent;
+		}
+		Element corr = this;
+		for (int i = path.size() - 1; i >= 0 && corr != null; i--) {
+			int index = path.get(i);
+			if (corr instanceof Subqueue) {
+				Subqueue sq = (Subqueue)corr;
+				corr = (index < sq.getSize()) ? sq.getElement(index) : null;
+			}
+			else if (corr instanceof Root) {
+				corr = ((Root)corr).children;
+			}
+			else {
+				ArrayList<Subqueue> sqs = getSubqueues(corr);
+				corr = (index < sqs.size()) ? sqs.get(index) : null;
+			}
+		}
+		if (corr != null && corr.getClass() != _element.getClass()) {
+			corr = null;
+		}
+		return corr;
+	}
+	// END KGU#901 2026-10-19
+
+	// START KGU#916 2026-10-19: Batch analysis may provide a routine pool without Arranger
+	/**
+	 * @return the routine pool the analysis is to retrieve called and included diagrams
+	 * from, i.e. the {@link #specialRoutinePool} if set, otherwise the Arranger (if open),
+	 * or null
+	 */
+	private IRoutinePool getAnalysisPool()
+	{
+		IRoutinePool pool = this.specialRoutinePool;
+		if (pool == null && Arranger.hasInstance()) {
+			pool = Arranger.getInstance();
+		}
+		return pool;
+	}
+	// END KGU#916 2026-10-19
+
     @Override
     public Element copy()
     {
@@ -1918,8 +2347,14 @@ public class Root extends Element {
 	 */
 	public void addUndo(boolean _cacheAttributes)
 	{
-
-		Subqueue oldChildren = (Subqueue)children.copy(); 
+		// START KGU#917 2026-10-19
+		this.modificationStamp++;
+		// END KGU#917 2026-10-19
+
+		// START KGU#910 2026-10-19: Share the unchanged substructure with the previous entry
+		//Subqueue oldChildren = (Subqueue)children.copy(); 
+		Subqueue oldChildren = makeUndoSnapshot(children, undoList.isEmpty() ? null : undoList.peek());
+		// END KGU#910 2026-10-19
 		// START KGU#120 2016-01-02: Bugfix #85 - park my StringList attributes on the stack top
 		oldChildren.setText(this.text.copy());
 		oldChildren.setComment(this.comment.copy());
@@ -1967,8 +2402,332 @@ public class Root extends Element {
 		}
 		this.modified = new Date();
 		// END KGU#363 2017-03-10
+		// START KGU#910 2026-10-19
+		limitUndoList();
+		// END KGU#910 2026-10-19
+		// START KGU#911 2026-10-19: The subsequent change may be structural
+		this.invalidateIdIndex();
+		// END KGU#911 2026-10-19
+	}
+
+	// START KGU#911 2026-10-19: Id index
+	/**
+	 * Retrieves the element with the given id (see {@link #getId()}) within this diagram via
+	 * a lazily built hash index, i.e. in constant time unless the diagram structure has been
+	 * modified since the last lookup.<br/>
+	 * Note that ids are not unique: copies of elements share the id with their originals, so
+	 * if elements have been copied within this diagram, the first of them in pre-order is
+	 * returned (as the search by traversal does). Where the very element matters (e.g. for
+	 * a copy or an analysis snapshot of this diagram), elements must be associated by
+	 * structural position instead, see {@link #mapSnapshotElements(Root)}.
+	 * @param _id - the element id
+	 * @return the first element with id {@code _id} in pre-order, or null
+	 */
+	@Override
+	public Element findElementWithId(long _id)
+	{
+		IdIndex index = this.idIndex;
+		if (index == null || index.children != this.children) {
+			index = buildIdIndex();
+		}
+		Element found = index.elements.get(_id);
+		if (found != null && (found.getId() != _id || !isAttached(found))) {
+			// The index is outdated (structural change without notification)
+			found = buildIdIndex().elements.get(_id);
+		}
+		return found;
+	}
+
+	/**
+	 * Discards the id index, such that it will be rebuilt on the next
+	 * {@link #findElementWithId(long)} call. To be called on structural changes.
+	 */
+	public void invalidateIdIndex()
+	{
+		this.idIndex = null;
+	}
+
+	private IdIndex buildIdIndex()
+	{
+		final HashMap<Long, Element> index = new HashMap<Long, Element>();
+		Subqueue indexedChildren = this.children;
+		this.traverse(new IElementVisitor() {
+			@Override
+			public boolean visitPreOrder(Element _ele) {
+				// Clones share the id - the first occurrence wins (as with the traversal search)
+				if (!index.containsKey(_ele.getId())) {
+					index.put(_ele.getId(), _ele);
+				}
+				return true;
+			}
+			@Override
+			public boolean visitPostOrder(Element _ele) {
+				return true;
+			}
+		});
+		IdIndex built = new IdIndex(indexedChildren, index);
+		this.idIndex = built;
+		return built;
+	}
+
+	/**
+	 * Checks that {@code _ele} is still part of this diagram, i.e. that its ancestry leads
+	 * to this Root and every structured ancestor still holds the respective branch. (The
+	 * Subqueue methods removing children notify the index, so Subqueues aren't searched.)
+	 */
+	private boolean isAttached(Element _ele)
+	{
+		Element child = _ele;
+		while (child != this) {
+			Element parent = child.parent;
+			if (parent == null) {
+				return false;
+			}
+			if (parent instanceof Subqueue) {
+				// Nothing to check here
+			}
+			else if (parent == this) {
+				if (child != this.children) {
+					return false;
+				}
+			}
+			else if (!getSubqueues(parent).contains(child)) {
+				return false;
+			}
+			child = parent;
+		}
+		return true;
+	}
+	// END KGU#911 2026-10-19
+
+	// START KGU#910 2026-10-19: Structural sharing and memory cap for the undo history
+	/**
+	 * Creates an undo/redo entry for the diagram content {@code _live}, sharing all unchanged
+	 * elements with the given earlier entry {@code _reference} (if any). Only the changed
+	 * elements are copied.<br/>
+	 * Entries must never be modified, therefore, (see {@link #restoreUndoSnapshot(Subqueue)}).
+	 * @param _live - the current children of this diagram
+	 * @param _reference - the entry most likely to be similar to {@code _live}, or null
+	 * @return the new undo/redo entry
+	 */
+	private static Subqueue makeUndoSnapshot(Subqueue _live, Subqueue _reference)
+	{
+		Subqueue snapshot = new Subqueue();
+		snapshot.setColor(_live.getColor());
+		shareUnchanged(snapshot, _live, _reference, true);
+		return snapshot;
+	}
+
+	/**
+	 * Fills {@code _target} with the elements of {@code _source}, where the unchanged leading
+	 * and trailing elements (compared to {@code _reference}) are taken from {@code _reference}.
+	 * Changed elements are recursively treated the same way.
+	 * @param _target - the snapshot Subqueue to be filled (may be {@code _source} itself if
+	 * {@code _copy} is false)
+	 * @param _source - the Subqueue to be represented
+	 * @param _reference - a corresponding Subqueue of an earlier snapshot, or null
+	 * @param _copy - whether the elements of {@code _source} have to be copied (otherwise
+	 * {@code _source} is supposed to be a fresh copy that may be modified in place)
+	 */
+	private static void shareUnchanged(Subqueue _target, Subqueue _source, Subqueue _reference, boolean _copy)
+	{
+		int nSrc = _source.getSize();
+		int nRef = (_reference == null) ? 0 : _reference.getSize();
+		int nHead = 0, nTail = 0;
+		while (nHead < nSrc && nHead < nRef
+				&& isUndoEqual(_source.getElement(nHead), _reference.getElement(nHead))) {
+			nHead++;
+		}
+		while (nTail < nSrc - nHead && nTail < nRef - nHead
+				&& isUndoEqual(_source.getElement(nSrc - 1 - nTail), _reference.getElement(nRef - 1 - nTail))) {
+			nTail++;
+		}
+		for (int i = 0; i < nSrc; i++) {
+			Element ele = null;
+			if (i < nHead) {
+				ele = _reference.getElement(i);
+			}
+			else if (i >= nSrc - nTail) {
+				ele = _reference.getElement(i - nSrc + nRef);
+			}
+			else {
+				ele = _source.getElement(i);
+				if (_copy) {
+					ele = ele.copy();
+				}
+				// Changed element - the substructure may still be largely unchanged
+				shareUnchangedSubqueues(ele, (i < nRef - nTail) ? _reference.getElement(i) : null);
+			}
+			if (_copy) {
+				_target.addSharedElement(ele);
+			}
+			else {
+				_target.setSharedElement(i, ele);
+			}
+		}
+	}
+
+	/**
+	 * Replaces the unchanged parts within the substructure of the fresh copy {@code _copy} by the
+	 * corresponding parts of {@code _reference} if both are structurally compatible.
+	 */
+	private static void shareUnchangedSubqueues(Element _copy, Element _reference)
+	{
+		ArrayList<Subqueue> sqsCopy = getSubqueues(_copy);
+		ArrayList<Subqueue> sqsRef = null;
+		if (_reference != null && _reference.getClass() == _copy.getClass()) {
+			sqsRef = getSubqueues(_reference);
+		}
+		for (int i = 0; i < sqsCopy.size(); i++) {
+			Subqueue sqRef = (sqsRef != null && sqsRef.size() == sqsCopy.size()) ? sqsRef.get(i) : null;
+			shareUnchanged(sqsCopy.get(i), sqsCopy.get(i), sqRef, false);
+		}
+	}
+
+	/**
+	 * @return the Subqueues (branches, bodies) of the given element in a fixed order
+	 */
+	private static ArrayList<Subqueue> getSubqueues(Element _ele)
+	{
+		ArrayList<Subqueue> sqs = new ArrayList<Subqueue>();
+		if (_ele instanceof Alternative) {
+			sqs.add(((Alternative)_ele).qTrue);
+			sqs.add(((Alternative)_ele).qFalse);
+		}
+		else if (_ele instanceof Case) {
+			sqs.addAll(((Case)_ele).qs);
+		}
+		else if (_ele instanceof Parallel) {
+			sqs.addAll(((Parallel)_ele).qs);
+		}
+		else if (_ele instanceof ILoop) {
+			sqs.add(((ILoop)_ele).getBody());
+		}
+		else if (_ele instanceof Try) {
+			sqs.add(((Try)_ele).qTry);
+			sqs.add(((Try)_ele).qCatch);
+			sqs.add(((Try)_ele).qFinally);
+		}
+		return sqs;
+	}
+
+	/**
+	 * Checks whether {@code _ele} and {@code _ref} are equal with respect to all properties
+	 * a copy would preserve (such that {@code _ref} may represent {@code _ele} in the undo history).
+	 */
+	private static boolean isUndoEqual(Element _ele, Element _ref)
+	{
+		return _ele.equals(_ref) && hasEqualUndoAttributes(_ele, _ref);
+	}
+
+	/**
+	 * Recursively compares the non-textual properties of the structurally equal elements
+	 * {@code _ele} and {@code _ref}.
+	 */
+	private static boolean hasEqualUndoAttributes(Element _ele, Element _ref)
+	{
+		if (_ele.getId() != _ref.getId()
+				|| !_ele.getColor().equals(_ref.getColor())
+				|| _ele.isBreakpoint() != _ref.isBreakpoint()
+				|| _ele.getBreakTriggerCount() != _ref.getBreakTriggerCount()
+				|| _ele.disabled != _ref.disabled
+				|| _ele.isCollapsed(false) != _ref.isCollapsed(false)
+				|| _ele.selected != _ref.selected
+				|| _ele.simplyCovered != _ref.simplyCovered
+				|| _ele.deeplyCovered != _ref.deeplyCovered) {
+			return false;
+		}
+		if (_ele instanceof Subqueue) {
+			Subqueue sq = (Subqueue)_ele;
+			for (int i = 0; i < sq.getSize(); i++) {
+				if (!hasEqualUndoAttributes(sq.getElement(i), ((Subqueue)_ref).getElement(i))) {
+					return false;
+				}
+			}
+			return true;
+		}
+		ArrayList<Subqueue> sqsEle = getSubqueues(_ele);
+		ArrayList<Subqueue> sqsRef = getSubqueues(_ref);
+		for (int i = 0; i < sqsEle.size(); i++) {
+			if (!hasEqualUndoAttributes(sqsEle.get(i), sqsRef.get(i))) {
+				return false;
+			}
+		}
+		return true;
 	}
 
+	/**
+	 * Makes a fresh copy of the given undo/redo entry for use as diagram content (entries
+	 * may share elements and must hence never become part of the diagram themselves).
+	 * @param _snapshot - an entry taken from the undo or redo stack
+	 */
+	private void restoreUndoSnapshot(Subqueue _snapshot)
+	{
+		children = (Subqueue)_snapshot.copy();
+		children.parent = this;
+		// START KGU#911 2026-10-19
+		this.invalidateIdIndex();
+		// END KGU#911 2026-10-19
+	}
+
+	/**
+	 * Drops the oldest undo entries while the number of element copies retained by the undo
+	 * stack exceeds {@link Element#E_UNDO_ELEMENT_LIMIT}. The most recent entry is always kept.
+	 */
+	private void limitUndoList()
+	{
+		if (Element.E_UNDO_ELEMENT_LIMIT <= 0 || undoList.isEmpty()) {
+			return;
+		}
+		// Entries share elements, so count for every entry the copies no newer entry retains.
+		// These are exactly the copies that become unreachable when the entry is dropped.
+		IdentityHashMap<Element, Element> retained = new IdentityHashMap<Element, Element>();
+		int[] weights = new int[undoList.size()];
+		long weight = 0;
+		for (int i = weights.length - 1; i >= 0; i--) {
+			weights[i] = countUndoElements(undoList.get(i), retained);
+			weight += weights[i];
+		}
+		int nDropped = 0;
+		while (weight > Element.E_UNDO_ELEMENT_LIMIT && undoList.size() > 1) {
+			undoList.remove(0);
+			weight -= weights[nDropped++];
+			// The saved state may have gone (level 0 becomes -1)
+			if (this.undoLevelOfLastSave >= 0) {
+				this.undoLevelOfLastSave--;
+			}
+			// The oldest remaining state stems from this session
+			this.modifiedby0 = this.modifiedby;
+		}
+	}
+
+	/**
+	 * Counts the elements (including Subqueues) of the undo/redo entry {@code _ele} that aren't
+	 * contained in {@code _counted} yet and adds them to {@code _counted}. Since entries only
+	 * share entire elements, the substructure of an already counted element is skipped.
+	 * @return the number of newly counted elements
+	 */
+	private static int countUndoElements(Element _ele, IdentityHashMap<Element, Element> _counted)
+	{
+		if (_counted.put(_ele, _ele) != null) {
+			return 0;
+		}
+		int count = 1;
+		if (_ele instanceof Subqueue) {
+			Subqueue sq = (Subqueue)_ele;
+			for (int i = 0; i < sq.getSize(); i++) {
+				count += countUndoElements(sq.getElement(i), _counted);
+			}
+		}
+		else {
+			for (Subqueue sq: getSubqueues(_ele)) {
+				count += countUndoElements(sq, _counted);
+			}
+		}
+		return count;
+	}
+	// END KGU#910 2026-10-19
+
 	/**
 	 * Checks whether there are stacked undoable changes
 	 * @return true if there are entries on the undo stack and diagram is not being executed
@@ -2058,10 +2817,16 @@ public class Root extends Element {
             // START KGU#137 2016-01-11: Bugfix #103 - rely on undoList level comparison 
             //this.hasChanged=true;
             // END KGU#137 2016-01-11
+            // START KGU#917 2026-10-19
+            this.modificationStamp++;
+            // END KGU#917 2026-10-19
             // START KGU#365 2017-03-19: Enh. #380
             if (redoable) {
             // END KGU#365 2017-03-19
-                redoList.add((Subqueue)children.copy());
+                // START KGU#910 2026-10-19
+                //redoList.add((Subqueue)children.copy());
+                redoList.add(makeUndoSnapshot(children, undoList.peek()));
+                // END KGU#910 2026-10-19
                 // START KGU#120 2016-01-02: Bugfix #85 - park my StringList attributes in the stack top
                 redoList.peek().setText(this.text.copy());
                 redoList.peek().setComment(this.comment.copy());
@@ -2077,38 +2842,41 @@ public class Root extends Element {
             // START KGU#365 2017-03-19: Enh. #380
             }
             // END KGU#365 2017-03-19
-            children = undoList.pop();
-            children.parent = this;
+            // START KGU#910 2026-10-19: Entries may share elements, so they must not become children
+            //children = undoList.pop();
+            //children.parent = this;
+            Subqueue snapshot = undoList.pop();
+            restoreUndoSnapshot(snapshot);
+            // END KGU#910 2026-10-19
             // START KGU#120 2016-01-02: Bugfix #85 - restore my StringList attributes from stack
-            this.setText(children.getText().copy());
-            this.setComment(children.getComment().copy());
-            children.text.clear();
-            children.comment.clear();
+            this.setText(snapshot.getText().copy());
+            this.setComment(snapshot.getComment().copy());
+            // START KGU#910 2026-10-19: The snapshot is discarded anyway
+            //children.text.clear();
+            //children.comment.clear();
+            // END KGU#910 2026-10-19
             // END KGU#120 2016-01-02
             // START KGU#363 2017-05-21: Enh. #372
             // If the undone action involves Root attributes then we must
             // cache the current attributes on the redo stack accordingly
             // and restore the attributes from the undo stack
-            if (children.rootAttributes != null) {
+            if (snapshot.rootAttributes != null) {
                 if (redoable) {
                     redoList.peek().rootAttributes = new RootAttributes(this);
                 }
-                this.adoptAttributes(children.rootAttributes);
-                children.rootAttributes = null;
+                this.adoptAttributes(snapshot.rootAttributes);
             }
             // END KGU#363 2017-05-21
             // START KGU#363 2018-09-12
-            this.modified = children.modified;	// Restore the former modification date
-            children.modified = null;
+            this.modified = snapshot.modified;	// Restore the former modification date
             // Special action if all changes have been undone.
             if (undoList.empty()) {
             	this.modifiedby = this.modifiedby0;
             }
             // END KGU#363 2018-09-12
             // START KGU#376 2017-07-01: Enh. #389
-            if (children.diagramRefs != null) {
-                this.includeList = StringList.explode(children.diagramRefs, ",");
-                children.diagramRefs = null;
+            if (snapshot.diagramRefs != null) {
+                this.includeList = StringList.explode(snapshot.diagramRefs, ",");
             }
             // END KGU#376 2017-07-01
             // START KGU507 2018-03-15: bugfix #523
@@ -2153,7 +2921,13 @@ public class Root extends Element {
             // START KGU#137 2016-01-11: Bugfix #103 - rely on undoList level comparison 
             //this.hasChanged=true;
             // END KGU#137 2016-01-11
-            undoList.add((Subqueue)children.copy());
+            // START KGU#917 2026-10-19
+            this.modificationStamp++;
+            // END KGU#917 2026-10-19
+            // START KGU#910 2026-10-19
+            //undoList.add((Subqueue)children.copy());
+            undoList.add(makeUndoSnapshot(children, redoList.peek()));
+            // END KGU#910 2026-10-19
             // START KGU#120 2016-01-02: Bugfix #85 - park my StringList attributes on the stack top
             undoList.peek().setText(this.text.copy());
             undoList.peek().setComment(this.comment.copy());
@@ -2166,29 +2940,28 @@ public class Root extends Element {
             // START KGU#363 2018-09-12: Enh. #372
             undoList.peek().modified = this.modified;	// Save the current modification date
             // END KGU#363 2018-09-12
-            children = redoList.pop();
-            children.parent = this;
+            // START KGU#910 2026-10-19: Entries may share elements, so they must not become children
+            //children = redoList.pop();
+            //children.parent = this;
+            Subqueue snapshot = redoList.pop();
+            restoreUndoSnapshot(snapshot);
+            // END KGU#910 2026-10-19
             // START KGU#120 2016-01-02: Bugfix #85 - restore my StringList attributes from the stack
-            this.setText(children.getText().copy());
-            this.setComment(children.getComment().copy());
-            children.text.clear();
-            children.comment.clear();
+            this.setText(snapshot.getText().copy());
+            this.setComment(snapshot.getComment().copy());
             // END KGU#120 2016-01-02
             // START KGU#363 2017-05-21: Enh. #372
-            if (children.rootAttributes != null) {
+            if (snapshot.rootAttributes != null) {
                 undoList.peek().rootAttributes = new RootAttributes(this);
-                this.adoptAttributes(children.rootAttributes);
-                children.rootAttributes = null;
+                this.adoptAttributes(snapshot.rootAttributes);
             }
             // END KGU#363 2017-05-21
             // START KGU#363 2018-09-12: Enh. #372
-            this.modified = children.modified;
-            children.modified = null;
+            this.modified = snapshot.modified;
             // END KGU#363 2018-09-12
             // START KGU#507 2018-03-15: Bugfix #523
-            if (children.diagramRefs != null) {
-                this.includeList = StringList.explode(children.diagramRefs, ",");
-                children.diagramRefs = null;
+            if (snapshot.diagramRefs != null) {
+                this.includeList = StringList.explode(snapshot.diagramRefs, ",");
             }
             else {
                 this.includeList = null;
@@ -2433,7 +3206,10 @@ public class Root extends Element {
     				String name = this.includeList.get(i);
     				// START KGU#676 2019-03-31: Enh. #696
     				//Vector<Root> roots = Arranger.getInstance().findIncludesByName(name, this);
-    				Vector<Root> roots = pool.findIncludesByName(name, this);
+    				// START KGU#917 2026-10-19: An analysis snapshot refers to includable snapshots
+    				//Vector<Root> roots = pool.findIncludesByName(name, this);
+    				Vector<Root> roots = this.findIncludables(name, pool);
+    				// END KGU#917 2026-10-19
     				// END KGU#676 2019-03-31
     				if (roots.size() == 1) {
     					roots.get(0).addFullText(_lines, _instructionsOnly, _implicatedRoots);
@@ -2574,7 +3350,10 @@ public class Root extends Element {
     		for(int i=0; i<lines.count(); i++)
     		{
     			// START KGU#375 2017-04-04: Enh. #388 method decomposed
-    			parts.addIfNew(getUsedVarNames(lines.get(i).trim(), keywords));
+    			// START KGU#908 2026-10-19: Lines of a single element may use its token cache
+    			//parts.addIfNew(getUsedVarNames(lines.get(i).trim(), keywords));
+    			parts.addIfNew(getUsedVarNames(lines.get(i).trim(), keywords, _onlyEle ? _ele : null));
+    			// END KGU#908 2026-10-19
     			// END KGU#375 2017-04-04
     		}
     		
@@ -2601,10 +3380,87 @@ public class Root extends Element {
 	 * @return StringList of used variable names according to the above specification
 	 */
 	private StringList getUsedVarNames(String _line, String[] _keywords)
+	// START KGU#908 2026-10-19: Token cache support
+	{
+		return getUsedVarNames(_line, _keywords, null);
+	}
+
+	/**
+	 * Gathers the names of all variables that are used in text line _line in expressions
+	 * (see {@link #getUsedVarNames(String, String[])}).
+	 * @param _line - the element text line to be analysed
+	 * @param _keywords the set of parser keywords (if available)
+	 * @param _ele - the element {@code _line} stems from (for token caching) or null
+	 * @return StringList of used variable names
+	 */
+	private StringList getUsedVarNames(String _line, String[] _keywords, Element _ele)
+	// END KGU#908 2026-10-19
 	{
 		if (_keywords == null) {
 			_keywords = CodeParser.getAllProperties();
 		}
+		// START KGU#913 2026-10-19: The context-free candidate analysis is cached per line
+		validateLineAnalysisCaches(_keywords);
+		StringList tokens = null;
+		AnalysisCache cache = this.analysisCache;
+		synchronized (cache) {
+			tokens = cache.varUsage.get(_line);
+		}
+		if (tokens == null) {
+			tokens = getVarUsageCandidates(_line, _keywords, _ele);
+			synchronized (cache) {
+				if (cache.varUsage.size() >= VAR_CACHE_LIMIT) {
+					cache.varUsage.clear();
+				}
+				cache.varUsage.put(_line, tokens);
+			}
+		}
+		// The cached list must not be modified
+		tokens = tokens.copy();
+		// END KGU#913 2026-10-19
+		int i = 0;
+		while(i < tokens.count())
+		{
+			String token = tokens.get(i);
+			// START KGU#588 2018-10-04: Bugfix #618 Function names shouldn't be gathered here
+			//if((Function.testIdentifier(token, null)
+			//		&& (i == tokens.count() - 1 || !tokens.get(i+1).equals("("))
+			//		|| this.variables.contains(token)))
+			if((Function.testIdentifier(token, null) || this.getCachedVarNames().contains(token))
+					&& (i == tokens.count() - 1 || !tokens.get(i+1).equals("(")))
+			// END KGU#588 2018-10-04
+			{
+				// keep the id
+				//System.out.println("Adding to used var names: " + token);
+				i++;
+			}
+			// START KGU#388 2017-09-17: Enh. #423 Record support - don't complain component names!
+			else if (token.equals(".") && i+1 < tokens.count() && Function.testIdentifier(tokens.get(i+1), null)) {
+				// Drop the dot together with the following component name
+				tokens.remove(i, i+2);
+			}
+			// END KGU#388 2017-09-17
+			else {
+				// no id or variable name, so drop it
+				tokens.remove(i);
+			}
+		}
+		return tokens;
+	}
+	// END KGU#375 2017-04-04
+
+	// START KGU#913 2026-10-19: Decomposed from getUsedVarNames(String, String[], Element) for caching
+	/**
+	 * Retrieves the tokens of text line {@code _line} that might be used variables,
+	 * independent of the context, for {@link #getUsedVarNames(String, String[], Element)}.
+	 * Requires {@link #splitKeywords} to be up to date.
+	 * @param _line - the element text line to be analysed
+	 * @param _keywords the set of parser keywords
+	 * @param _ele - the element {@code _line} stems from (for token caching) or null
+	 * @return the candidate tokens (in order of occurrence)
+	 */
+	private StringList getVarUsageCandidates(String _line, String[] _keywords, Element _ele)
+	{
 //		Regex r;
 
 		// modify "inc" and "dec" function (Pascal)
@@ -2620,7 +3476,10 @@ public class Root extends Element {
 		_line = transform_inc_dec(_line);
 		// END KGU#575 2018-09-17
 
-		StringList tokens = Element.splitLexically(_line.trim(), true);
+		// START KGU#908 2026-10-19: Use the token cache if possible
+		//StringList tokens = Element.splitLexically(_line.trim(), true);
+		StringList tokens = _ele != null ? _ele.getLineTokens(_line.trim()) : Element.splitLexically(_line.trim(), true);
+		// END KGU#908 2026-10-19
 
 		Element.unifyOperators(tokens, false);
 
@@ -2726,36 +3585,9 @@ public class Root extends Element {
 		// START KGU#388 2017-09-17: Enh. #423 Cut off all irrelevant stuff of record initializers
 		skimRecordInitializers(tokens);
 		// END KGU#388 2017-09-17
-		int i = 0;
-		while(i < tokens.count())
-		{
-			String token = tokens.get(i);
-			// START KGU#588 2018-10-04: Bugfix #618 Function names shouldn't be gathered here
-			//if((Function.testIdentifier(token, null)
-			//		&& (i == tokens.count() - 1 || !tokens.get(i+1).equals("("))
-			//		|| this.variables.contains(token)))
-			if((Function.testIdentifier(token, null) || this.getCachedVarNames().contains(token))
-					&& (i == tokens.count() - 1 || !tokens.get(i+1).equals("(")))
-			// END KGU#588 2018-10-04
-			{
-				// keep the id
-				//System.out.println("Adding to used var names: " + token);
-				i++;
-			}
-			// START KGU#388 2017-09-17: Enh. #423 Record support - don't complain component names!
-			else if (token.equals(".") && i+1 < tokens.count() && Function.testIdentifier(tokens.get(i+1), null)) {
-				// Drop the dot together with the following component name
-				tokens.remove(i, i+2);
-			}
-			// END KGU#388 2017-09-17
-			else {
-				// no id or variable name, so drop it
-				tokens.remove(i);
-			}
-		}
 		return tokens;
 	}
-	// END KGU#375 2017-04-04
+	// END KGU#913 2026-10-19
 	// START KGU#388 2017-10-09: Enh. #423
 	/**
 	 * Recursively cuts off all irrelevant stuff of record initializers for {@link #getUsedVarNames(String, String[])}
@@ -2831,105 +3663,191 @@ public class Root extends Element {
     	StringList varNames = new StringList();
 
     	// START KGU#163 2016-03-25: Pre-processed match patterns for identifier search
-    	splitKeywords.clear();
+    	// START KGU#914 2026-10-19: Replace the vector atomically (concurrent analysis)
+    	//splitKeywords.clear();
+    	Vector<StringList> newSplitKeywords = new Vector<StringList>();
+    	// END KGU#914 2026-10-19
     	String[] keywords = CodeParser.getAllProperties();
     	for (int k = 0; k < keywords.length; k++)
     	{
-    		splitKeywords.add(Element.splitLexically(keywords[k], false));
+    		// START KGU#914 2026-10-19
+    		//splitKeywords.add(Element.splitLexically(keywords[k], false));
+    		newSplitKeywords.add(Element.splitLexically(keywords[k], false));
+    		// END KGU#914 2026-10-19
     	}
+    	// START KGU#914 2026-10-19
+    	splitKeywords = newSplitKeywords;
+    	// END KGU#914 2026-10-19
     	// END KGU#163 2016-03-25
 
-    	for(int i=0; i<lines.count(); i++)
+    	// START KGU#913 2026-10-19: The line analysis results are cached, only the merging is done here
+    	validateLineAnalysisCaches(keywords);
+    	for (int i = 0; i < lines.count(); i++)
     	{
-    		String allText = lines.get(i);
-    		// modify "inc" and "dec" function (Pascal)
-    		// START KGU#575 2018-09-17: Issue #594 - replace obsolete 3rd-party Regex library
-    		//Regex r;
-    		//r = new Regex(BString.breakup("inc")+"[(](.*?)[,](.*?)[)](.*?)","$1 <- $1 + $2"); allText=r.replaceAll(allText);
-    		//r = new Regex(BString.breakup("inc")+"[(](.*?)[)](.*?)","$1 <- $1 + 1"); allText=r.replaceAll(allText);
-    		//r = new Regex(BString.breakup("dec")+"[(](.*?)[,](.*?)[)](.*?)","$1 <- $1 - $2"); allText=r.replaceAll(allText);
-    		//r = new Regex(BString.breakup("dec")+"[(](.*?)[)](.*?)","$1 <- $1 - 1"); allText=r.replaceAll(allText);
-    		allText = transform_inc_dec(allText);
-    		// END KGU#575 2018-09-17
-
-    		StringList tokens = Element.splitLexically(allText, true);
-
-    		Element.unifyOperators(tokens, false);
-
-    		// Replace all split keywords by the respective configured strings
-    		// This replacement will be aware of the case sensitivity preference
-    		for (int kw = 0; kw < keywords.length; kw++)
-    		{    				
-    			if (keywords[kw].trim().length() > 0)
-    			{
-    				StringList keyTokens = splitKeywords.elementAt(kw);
-    				int keyLength = keyTokens.count();
-    				int pos = -1;
-    				while ((pos = tokens.indexOf(keyTokens, pos + 1, !CodeParser.ignoreCase)) >= 0)
-    				{
-    					tokens.set(pos, keywords[kw]);
-    					for (int j=1; j < keyLength; j++)
-    					{
-    						tokens.delete(pos+1);
-    					}
-    				}
+    		LineVarInfo info = getLineVarInfo(lines.get(i), keywords);
+    		if (info.assignedVar != null)
+    		{
+    			boolean wasNew = varNames.addOrderedIfNew(info.assignedVar);
+    			// Register it as constant if marked as such and not having been declared before
+    			if (info.constValue != null && wasNew && !constantDefs.containsKey(info.assignedVar)) {
+    				constantDefs.put(info.assignedVar, info.constValue);
     			}
     		}
-
-    		// Unify FOR-IN loops and FOR loops for the purpose of variable analysis
-    		if (!CodeParser.getKeyword("postForIn").trim().isEmpty())
+    		if (info.inputVars != null)
     		{
-    			tokens.replaceAll(CodeParser.getKeyword("postForIn"), "<-");
+    			for (int p = 0; p < info.inputVars.count(); p++)
+    			{
+    				varNames.addOrderedIfNew(info.inputVars.get(p));
+    			}
     		}
+    	}
+    	// END KGU#913 2026-10-19
 
-    		// Here all the unification, alignment, reduction is done, now the actual analysis begins
+    	return varNames;
+    }
 
-    		int asgnPos = tokens.indexOf("<-");
-    		if (asgnPos > 0)
-    		{
-    			String s = tokens.subSequence(0, asgnPos).concatenate();
-    			// (KGU#141 2016-01-16: type elimination moved to extractVarName())
-    			//System.out.println("Adding to initialised var names: " + extractVarName(allText.trim()));
-    			String varName = extractVarName(s.trim());
-    			boolean wasNew = varNames.addOrderedIfNew(varName);
-    			// START KGU#375 2017-03-31: Enh. #388 collect constant definitions
-    			// Register it as constant if marked as such and not having been declared before
-    			if (tokens.get(0).equals("const") && wasNew && !constantDefs.containsKey(varName)) {
-    				constantDefs.put(varName, tokens.subSequence(asgnPos+1, tokens.count()).concatenate().trim());
-    			}
+    // START KGU#913 2026-10-19: Decomposed from getVarNames(StringList, HashMap) for caching
+    /**
+     * Discards the cached line analysis results if the parser keywords or their case
+     * sensitivity have changed since they were cached.
+     * @param _keywords - the current parser keywords
+     */
+    private void validateLineAnalysisCaches(String[] _keywords)
+    {
+    	AnalysisCache cache = this.analysisCache;
+    	synchronized (cache) {
+    		if (!Arrays.equals(_keywords, cache.keywords) || cache.ignoreCase != CodeParser.ignoreCase) {
+    			cache.varIntro.clear();
+    			cache.varUsage.clear();
+    			// START KGU#915 2026-10-19
+    			cache.checkMemos.clear();
+    			// END KGU#915 2026-10-19
+    			cache.keywords = _keywords.clone();
+    			cache.ignoreCase = CodeParser.ignoreCase;
     		}
+    	}
+    }
 
+    /**
+     * Provides the (cached) variable introduction analysis of the given text line.
+     * @param _line - an element text line
+     * @param _keywords - the current parser keywords
+     * @return the analysis result (must not be modified)
+     */
+    private LineVarInfo getLineVarInfo(String _line, String[] _keywords)
+    {
+    	LineVarInfo info = null;
+    	AnalysisCache cache = this.analysisCache;
+    	synchronized (cache) {
+    		info = cache.varIntro.get(_line);
+    	}
+    	if (info == null) {
+    		info = analyseVarIntroduction(_line, _keywords);
+    		synchronized (cache) {
+    			if (cache.varIntro.size() >= VAR_CACHE_LIMIT) {
+    				cache.varIntro.clear();
+    			}
+    			cache.varIntro.put(_line, info);
+    		}
+    	}
+    	return info;
+    }
 
-    		// get names from read statements
-    		int inpPos = tokens.indexOf(CodeParser.getKeyword("input"));
-    		if (inpPos >= 0)
+    /**
+     * Identifies the variable (or constant) assigned or input in text line {@code allText}
+     * independent of the context. Requires {@link #splitKeywords} to be up to date.
+     * @param allText - the text line
+     * @param keywords - the current parser keywords
+     * @return the analysis result
+     */
+    private LineVarInfo analyseVarIntroduction(String allText, String[] keywords)
+    {
+    	LineVarInfo info = new LineVarInfo();
+    	// modify "inc" and "dec" function (Pascal)
+    	// START KGU#575 2018-09-17: Issue #594 - replace obsolete 3rd-party Regex library
+    	//Regex r;
+    	//r = new Regex(BString.breakup("inc")+"[(](.*?)[,](.*?)[)](.*?)","$1 <- $1 + $2"); allText=r.replaceAll(allText);
+    	//r = new Regex(BString.breakup("inc")+"[(](.*?)[)](.*?)","$1 <- $1 + 1"); allText=r.replaceAll(allText);
+    	//r = new Regex(BString.breakup("dec")+"[(](.*?)[,](.*?)[)](.*?)","$1 <- $1 - $2"); allText=r.replaceAll(allText);
+    	//r = new Regex(BString.breakup("dec")+"[(](.*?)[)](.*?)","$1 <- $1 - 1"); allText=r.replaceAll(allText);
+    	allText = transform_inc_dec(allText);
+    	// END KGU#575 2018-09-17
+
+    	StringList tokens = Element.splitLexically(allText, true);
+
+    	Element.unifyOperators(tokens, false);
+
+    	// Replace all split keywords by the respective configured strings
+    	// This replacement will be aware of the case sensitivity preference
+    	for (int kw = 0; kw < keywords.length; kw++)
+    	{    				
+    		if (keywords[kw].trim().length() > 0)
     		{
-    			// START KGU#281 2016-10-12: Issue #271 - there may be a prompt string literal to be skipped
-    			//String s = tokens.subSequence(inpPos + 1, tokens.count()).concatenate().trim();
-    			inpPos++;
-    			// START KGU#281 2016-12-23: Enh. #271 - allow comma between prompt and variable name
-    			//while (inpPos < tokens.count() && (tokens.get(inpPos).trim().isEmpty() || tokens.get(inpPos).matches("^[\"\'].*[\"\']$")))
-    			while (inpPos < tokens.count() && (tokens.get(inpPos).trim().isEmpty() || tokens.get(inpPos).trim().equals(",") || tokens.get(inpPos).matches("^[\"\'].*[\"\']$")))
-    			// END KGU#281 2016-12-23
+    			StringList keyTokens = splitKeywords.elementAt(kw);
+    			int keyLength = keyTokens.count();
+    			int pos = -1;
+    			while ((pos = tokens.indexOf(keyTokens, pos + 1, !CodeParser.ignoreCase)) >= 0)
     			{
-    				inpPos++;
-    			}
-    			//String s = tokens.subSequence(inpPos, tokens.count()).concatenate().trim();
-    			// END KGU#281 2016-10-12
-    			// A mere splitting by comma would spoil function calls as indices etc.
-    			StringList parts = Element.splitExpressionList(tokens.subSequence(inpPos, tokens.count()), ",", false);
-    			for (int p = 0; p < parts.count(); p++)
-    			{
-    				varNames.addOrderedIfNew(extractVarName(parts.get(p).trim()));
+    				tokens.set(pos, keywords[kw]);
+    				for (int j=1; j < keyLength; j++)
+    				{
+    					tokens.delete(pos+1);
+    				}
     			}
     		}
+    	}
 
+    	// Unify FOR-IN loops and FOR loops for the purpose of variable analysis
+    	if (!CodeParser.getKeyword("postForIn").trim().isEmpty())
+    	{
+    		tokens.replaceAll(CodeParser.getKeyword("postForIn"), "<-");
+    	}
 
-    		//lines.set(i, allText);
+    	// Here all the unification, alignment, reduction is done, now the actual analysis begins
+
+    	int asgnPos = tokens.indexOf("<-");
+    	if (asgnPos > 0)
+    	{
+    		String s = tokens.subSequence(0, asgnPos).concatenate();
+    		// (KGU#141 2016-01-16: type elimination moved to extractVarName())
+    		//System.out.println("Adding to initialised var names: " + extractVarName(allText.trim()));
+    		String varName = extractVarName(s.trim());
+    		info.assignedVar = varName;
+    		// START KGU#375 2017-03-31: Enh. #388 collect constant definitions
+    		// (Registered by the caller if not having been declared before)
+    		if (tokens.get(0).equals("const")) {
+    			info.constValue = tokens.subSequence(asgnPos+1, tokens.count()).concatenate().trim();
+    		}
     	}
 
-    	return varNames;
+
+    	// get names from read statements
+    	int inpPos = tokens.indexOf(CodeParser.getKeyword("input"));
+    	if (inpPos >= 0)
+    	{
+    		// START KGU#281 2016-10-12: Issue #271 - there may be a prompt string literal to be skipped
+    		//String s = tokens.subSequence(inpPos + 1, tokens.count()).concatenate().trim();
+    		inpPos++;
+    		// START KGU#281 2016-12-23: Enh. #271 - allow comma between prompt and variable name
+    		//while (inpPos < tokens.count() && (tokens.get(inpPos).trim().isEmpty() || tokens.get(inpPos).matches("^[\"\'].*[\"\']$")))
+    		while (inpPos < tokens.count() && (tokens.get(inpPos).trim().isEmpty() || tokens.get(inpPos).trim().equals(",") || tokens.get(inpPos).matches("^[\"\'].*[\"\']$")))
+    		// END KGU#281 2016-12-23
+    		{
+    			inpPos++;
+    		}
+    		//String s = tokens.subSequence(inpPos, tokens.count()).concatenate().trim();
+    		// END KGU#281 2016-10-12
+    		// A mere splitting by comma would spoil function calls as indices etc.
+    		StringList parts = Element.splitExpressionList(tokens.subSequence(inpPos, tokens.count()), ",", false);
+    		info.inputVars = new StringList();
+    		for (int p = 0; p < parts.count(); p++)
+    		{
+    			info.inputVars.add(extractVarName(parts.get(p).trim()));
+    		}
+    	}
+    	return info;
     }
+    // END KGU#913 2026-10-19
 
     /**
      * Extract all variable names of the entire program and store them in
@@ -3077,7 +3995,10 @@ public class Root extends Element {
     	String typename = tokens.get(1);
     	String typeSpec = tokens.concatenate(null, 3, tokens.count()).trim();
     	// Confirm that the syntax is okay
-    	if (TypeMapEntry.MATCHER_ENUM.reset(typeSpec).matches()) {
+    	// START KGU#916 2026-10-19: Thread-safe matching
+    	//if (TypeMapEntry.MATCHER_ENUM.reset(typeSpec).matches()) {
+    	if (TypeMapEntry.PATTERN_ENUM.matcher(typeSpec).matches()) {
+    	// END KGU#916 2026-10-19
     		enumConstants = new LinkedHashMap<String, String>();
     		int val = 0;
     		String valStr = "";
@@ -3198,7 +4119,10 @@ public class Root extends Element {
     					pool = Arranger.getInstance();
     				}
     				if (pool != null) {
-    					for (Root incl: pool.findIncludesByName(inclName, this)) {
+    					// START KGU#917 2026-10-19: An analysis snapshot refers to includable snapshots
+    					//for (Root incl: pool.findIncludesByName(inclName, this)) {
+    					for (Root incl: this.findIncludables(inclName, pool)) {
+    					// END KGU#917 2026-10-19
     						typeMap.putAll(incl.getTypeInfo());
     					}
     				}
@@ -3360,6 +4284,11 @@ public class Root extends Element {
     {
     	for (int i = 0; i < _node.getSize(); i++)
     	{
+    		// START KGU#914 2026-10-19: A background analysis may have become obsolete
+    		if (Thread.currentThread().isInterrupted()) {
+    			return;
+    		}
+    		// END KGU#914 2026-10-19
     		Element ele = _node.getElement(i);
     		// START KGU#277 2016-10-13: Enh. #270 - disabled elements are to be handled as if they wouldn't exist
     		if (ele.disabled) continue;
@@ -3374,7 +4303,10 @@ public class Root extends Element {
     				|| eleClassName.equals("Repeat")
     				|| eleClassName.equals("Alternative"))
     		{
-    			analyse_8(ele, _errors);
+    			// START KGU#915 2026-10-19
+    			//analyse_8(ele, _errors);
+    			analyseMemoized(MEMO_8, ele, _errors, null);
+    			// END KGU#915 2026-10-19
     		}
 
     		// CHECK  #5: non-uppercase var
@@ -3386,7 +4318,11 @@ public class Root extends Element {
     		// CHECK #18: Variable names only differing in case
     		// CHECK #19: Possible name collisions with reserved words
     		// CHECK #21: Mistakable variable names I, l, O
-    		analyse_18_19_21(ele, _errors, _vars, _uncertainVars, myVars);
+    		// START KGU#915 2026-10-19: Check #19 is context-free and hence memoized
+    		//analyse_18_19_21(ele, _errors, _vars, _uncertainVars, myVars);
+    		analyse_18_21(ele, _errors, _vars, _uncertainVars, myVars);
+    		analyseMemoized(MEMO_19, ele, _errors, myVars);
+    		// END KGU#915 2026-10-19
     		// END KGU#239/KGU#327 2016-08-12
 
     		// CHECK #10: wrong multi-line instruction
@@ -3395,7 +4331,10 @@ public class Root extends Element {
     		// CHECK #24: type definitions
     		if (eleClassName.equals("Instruction"))
     		{
-    			analyse_10_11(ele, _errors);
+    			// START KGU#915 2026-10-19
+    			//analyse_10_11(ele, _errors);
+    			analyseMemoized(MEMO_10_11, ele, _errors, null);
+    			// END KGU#915 2026-10-19
     			// START KGU#375 2017-04-04: Enh. #388
     			// START KGU#388 2017-09-16: Enh. #423 record analysis
     			//analyse_22((Instruction)ele, _errors, _vars, _uncertainVars, _constants);
@@ -3906,6 +4845,81 @@ public class Root extends Element {
 
 	}
 
+	// START KGU#915 2026-10-19: Memoization of context-free checks
+	/**
+	 * Discards the memoized check results if the check selection or the locale
+	 * have changed since they were computed (the parser keywords are checked via
+	 * {@link #validateLineAnalysisCaches(String[])}).
+	 */
+	private void validateCheckMemos()
+	{
+		validateLineAnalysisCaches(CodeParser.getAllProperties());
+		AnalysisCache cache = this.analysisCache;
+		String locale = Locales.getInstance().getLoadedLocaleFilename();
+		boolean[] checks = analyserChecks;
+		synchronized (cache) {
+			if (!Arrays.equals(checks, cache.checks) || locale == null || !locale.equals(cache.locale)) {
+				cache.checkMemos.clear();
+				cache.checks = checks.clone();
+				cache.locale = locale;
+			}
+		}
+	}
+
+	/**
+	 * Performs the context-free check group {@code _group} on element {@code _ele},
+	 * or reuses the results memoized for the same element class and text. These checks
+	 * depend only on the element text, the check selection, the parser keywords and the
+	 * locale. Requires {@link #validateCheckMemos()} to have been called.
+	 * @param _group - one of {@link #MEMO_8}, {@link #MEMO_10_11}, {@link #MEMO_19}
+	 * @param _ele - the element to be checked
+	 * @param _errors - the global error list
+	 * @param _myVars - the variables introduced by {@code _ele} (for {@link #MEMO_19})
+	 */
+	private void analyseMemoized(int _group, Element _ele, Vector<DetectedError> _errors, StringList _myVars)
+	{
+		AnalysisCache cache = this.analysisCache;
+		String className = _ele.getClass().getSimpleName();
+		String text = _ele.getText().getText();
+		String[] messages = null;
+		CheckMemo memo;
+		synchronized (cache) {
+			memo = cache.checkMemos.get(_ele.getId());
+			if (memo == null || !memo.className.equals(className) || !memo.text.equals(text)) {
+				if (cache.checkMemos.size() >= VAR_CACHE_LIMIT) {
+					cache.checkMemos.clear();
+				}
+				cache.checkMemos.put(_ele.getId(), memo = new CheckMemo(className, text));
+			}
+			messages = memo.messages[_group];
+		}
+		if (messages == null) {
+			Vector<DetectedError> errors = new Vector<DetectedError>();
+			switch (_group) {
+			case MEMO_8:
+				analyse_8(_ele, errors);
+				break;
+			case MEMO_10_11:
+				analyse_10_11(_ele, errors);
+				break;
+			case MEMO_19:
+				analyse_19(_ele, errors, _myVars);
+				break;
+			}
+			messages = new String[errors.size()];
+			for (int i = 0; i < messages.length; i++) {
+				messages[i] = errors.get(i).getError();
+			}
+			synchronized (cache) {
+				memo.messages[_group] = messages;
+			}
+		}
+		for (String message: messages) {
+			_errors.addElement(new DetectedError(message, _ele));
+		}
+	}
+	// END KGU#915 2026-10-19
+
 	/**
 	 * CHECK #8: assignment in condition
 	 * @param ele - the element to be checked
@@ -4099,9 +5113,12 @@ public class Root extends Element {
 			if ((!this.getMethodName().equals(subName) || subArgCount != this.getParameterNames().count()))
 			{
 				int count = 0;	// Number of matching routines
-				if (Arranger.hasInstance()) {
-					count = Arranger.getInstance().findRoutinesBySignature(subName, subArgCount, this).size();
-				}
+				// START KGU#917 2026-10-19: An analysis snapshot has retrieved the routines in advance
+				//if (Arranger.hasInstance()) {
+				//	count = Arranger.getInstance().findRoutinesBySignature(subName, subArgCount, this).size();
+				//}
+				count = this.findRoutineResultTypes(subName, subArgCount).size();
+				// END KGU#917 2026-10-19
 				if (count == 0) {
 					//error  = new DetectedError("The called subroutine «<routine_name>(<arg_count>)» is currently not available.",(Element) _node.getElement(i));
 					addError(_errors, new DetectedError(errorMsg(Menu.error15_2, subName + "(" + subArgCount + ")"), ele), 15);
@@ -4428,6 +5445,23 @@ public class Root extends Element {
 	 */
 	private void analyse_18_19_21(Element _ele, Vector<DetectedError> _errors, StringList _vars, StringList _uncertainVars, StringList _myVars)
 	{
+		// START KGU#915 2026-10-19: Decomposed for memoization
+		analyse_18_21(_ele, _errors, _vars, _uncertainVars, _myVars);
+		analyse_19(_ele, _errors, _myVars);
+	}
+
+	/**
+	 * CHECK #18: Variable names only differing in case
+	 * CHECK #21: Discourage use of variable names 'I', 'l', and 'O'
+	 * @param _ele - the element to be checked
+	 * @param _errors - the global error list
+	 * @param _vars - variables definitely introduced so far
+	 * @param _uncertainVars - variables detected but not certainly initialized so far
+	 * @param _myVars - the variables introduced by _ele
+	 */
+	private void analyse_18_21(Element _ele, Vector<DetectedError> _errors, StringList _vars, StringList _uncertainVars, StringList _myVars)
+	{
+		// END KGU#915 2026-10-19
 		StringList[] varSets = {_vars, _uncertainVars, _myVars};
 		for (int i = 0; i < _myVars.count(); i++)
 		{
@@ -4462,7 +5496,19 @@ public class Root extends Element {
 			}
 			// END KGU#327 2017-01-07
 		}
-		
+		// START KGU#915 2026-10-19: Decomposed for memoization
+	}
+
+	/**
+	 * CHECK #19: Possible name collisions with reserved words. Depends on the text of
+	 * {@code _ele} only.
+	 * @param _ele - the element to be checked
+	 * @param _errors - the global error list
+	 * @param _myVars - the variables introduced by _ele
+	 */
+	private void analyse_19(Element _ele, Vector<DetectedError> _errors, StringList _myVars)
+	{
+		// END KGU#915 2026-10-19
 		if (check(19))	// This check will cost some time
 		{
 			for (int i = 0; i < _myVars.count(); i++)
@@ -4592,7 +5638,10 @@ public class Root extends Element {
 					addError(_errors, new DetectedError(errorMsg(Menu.error24_1, String.valueOf(i)), _instr), 24);
 				}
 				else {
-					StringList tokens = splitLexically(line, true);
+					// START KGU#908 2026-10-19: Use the token cache
+					//StringList tokens = splitLexically(line, true);
+					StringList tokens = _instr.getLineTokens(line);
+					// END KGU#908 2026-10-19
 					int posAsgnmt = tokens.indexOf("=");
 					String typename = tokens.concatenate("", 1, posAsgnmt).trim();
 					String typeSpec = tokens.concatenate("", posAsgnmt + 1, tokens.count()).trim();
@@ -4682,7 +5731,10 @@ public class Root extends Element {
 				// END KGU#375 2017-04-20
 				// START KGU#388 2017-09-17: Enh. #423 Check the definition of type names and components
 				if (check(24)) {
-					StringList tokens = Element.splitLexically(line, true);
+					// START KGU#908 2026-10-19: Use the token cache
+					//StringList tokens = Element.splitLexically(line, true);
+					StringList tokens = _instr.getLineTokens(line);
+					// END KGU#908 2026-10-19
 					//int nTokens = tokens.count();
 					int posBrace = 0;
 					String typeName = "";
@@ -4806,8 +5858,12 @@ public class Root extends Element {
 	 * @param _importStack - names of imported includables
 	 * @param _analysedImports - 
 	 * @param _types - type definitions and declarations
+	 * @param _dependencies - if not null then collects the analysed includables with their modification stamps
 	 */
-	private void analyse_23(Vector<DetectedError> _errors, StringList _vars, StringList _uncertainVars, HashMap<String, String> _constants, StringList _importStack, HashMap<String, StringList> _analysedImports, HashMap<String, TypeMapEntry> _types)
+	// START KGU#917 2026-10-19: Dependency tracking for the shared includable analysis results
+	//private void analyse_23(Vector<DetectedError> _errors, StringList _vars, StringList _uncertainVars, HashMap<String, String> _constants, StringList _importStack, HashMap<String, StringList> _analysedImports, HashMap<String, TypeMapEntry> _types)
+	private void analyse_23(Vector<DetectedError> _errors, StringList _vars, StringList _uncertainVars, HashMap<String, String> _constants, StringList _importStack, HashMap<String, StringList> _analysedImports, HashMap<String, TypeMapEntry> _types, IdentityHashMap<Root, Integer> _dependencies)
+	// END KGU#917 2026-10-19
 	{
 		// START KGU#376 2017-07-01: Enh. #389 - obsolete
 //		Subqueue node = (Subqueue)_call.parent;
@@ -4833,9 +5889,13 @@ public class Root extends Element {
 		for (int i = 0; i < includeList.count(); i++) {
 			String name = includeList.get(i);
 			int count = 0;	// Number of matching routines
-			if (Arranger.hasInstance()) {
-				count = Arranger.getInstance().findIncludesByName(name, this).size();
-			}
+			// START KGU#917 2026-10-19: An analysis snapshot refers to includable snapshots
+			//if (Arranger.hasInstance()) {
+			//	count = Arranger.getInstance().findIncludesByName(name, this).size();
+			//}
+			Vector<Root> roots = this.findIncludables(name, null);
+			count = roots.size();
+			// END KGU#917 2026-10-19
 			if (count == 0) {
 				//error  = new DetectedError("An includable diagram «<diagram_name>» is currently not available.", this);
 				addError(_errors, new DetectedError(errorMsg(Menu.error23_5, name), this), 23);
@@ -4857,38 +5917,69 @@ public class Root extends Element {
 				StringList path = _analysedImports.get(name);
 				addError(_errors, new DetectedError(errorMsg(Menu.error23_3, new String[]{name, path.concatenate("<-")}), this), 23);    									
 			}
-			else if (Arranger.hasInstance()) {
-				Vector<Root> roots = Arranger.getInstance().findIncludesByName(name, this);
+			// START KGU#917 2026-10-19
+			//else if (Arranger.hasInstance()) {
+			//	Vector<Root> roots = Arranger.getInstance().findIncludesByName(name, this);
+			else {
+			// END KGU#917 2026-10-19
 				if (roots.size() == 1) {
 					Root importedRoot = roots.get(0);
-					Vector<DetectedError> impErrors = new Vector<DetectedError>();
-					boolean[] subResultFlags = new boolean[]{false, false, false};
+					// START KGU#917 2026-10-19: The analysis of the includable is shared by all includers
+					//Vector<DetectedError> impErrors = new Vector<DetectedError>();
+					//boolean[] subResultFlags = new boolean[]{false, false, false};
+					// END KGU#917 2026-10-19
 					// We are not interested in internal errors but in the imported variables and constants
 					// START KGU#376 2017-04-20: Enh. #389 - new semantic approach: no access to this context
 					//analyse(roots.get(0).children, new Vector<DetectedError>(), _vars, _uncertainVars, _constants, subResultFlags);
-					StringList importedVars = new StringList();
-					StringList importedUncVars = new StringList();
+					// START KGU#917 2026-10-19
+					//StringList importedVars = new StringList();
+					//StringList importedUncVars = new StringList();
+					// END KGU#917 2026-10-19
 					// START KGU#388 2017-09-17: Enh. #423
-					HashMap<String, TypeMapEntry> importedTypes = new HashMap<String, TypeMapEntry>(); 
+					// START KGU#917 2026-10-19
+					//HashMap<String, TypeMapEntry> importedTypes = new HashMap<String, TypeMapEntry>(); 
+					// END KGU#917 2026-10-19
 					// END KGU#388 2017-09-17
 					if (this.isInclude()) {
 						_importStack.add(this.getMethodName());
 					}
-					importedRoot.analyse_23(impErrors, importedVars, importedUncVars, _constants, _importStack, _analysedImports, importedTypes);
-					analyse(importedRoot.children, impErrors, importedVars, importedUncVars, _constants, subResultFlags, importedTypes);
+					// START KGU#917 2026-10-19
+					//importedRoot.analyse_23(impErrors, importedVars, importedUncVars, _constants, _importStack, _analysedImports, importedTypes);
+					//analyse(importedRoot.children, impErrors, importedVars, importedUncVars, _constants, subResultFlags, importedTypes);
+					IncludeAnalysisCache.Result imported = analyseIncludable(importedRoot, _constants, _importStack, _analysedImports);
+					// END KGU#917 2026-10-19
 					_analysedImports.put(name, _importStack.copy());
 					if (this.isInclude()) {
 						_importStack.remove(_importStack.count()-1);
 					}
 					// END KGU#376 2017-04-20
-					if (subResultFlags[0]) {
+					// START KGU#917 2026-10-19
+					if (_dependencies != null) {
+						for (Entry<Root, Integer> dep: imported.dependencies.entrySet()) {
+							if (!_dependencies.containsKey(dep.getKey())) {
+								_dependencies.put(dep.getKey(), dep.getValue());
+							}
+						}
+					}
+					StringList importedVars = imported.vars;
+					StringList importedUncVars = imported.uncertainVars;
+					HashMap<String, TypeMapEntry> importedTypes = imported.getTypes();
+					//if (subResultFlags[0]) {
+					if (imported.usesReturn) {
+					// END KGU#917 2026-10-19
 						//error  = new DetectedError("Diagram «%» is rather unsuited to be included as it makes use of return.",(Element) _node.getElement(i));
 						addError(_errors, new DetectedError(errorMsg(Menu.error23_1, name), this), 23);
 					}
 					// Now associate all sub-analysis results with the Call element
-					for (DetectedError err: impErrors) {
+					// START KGU#917 2026-10-19
+					//for (DetectedError err: impErrors) {
+					for (String message: imported.messages) {
+					// END KGU#917 2026-10-19
 						// Unfortunately the error object doesn't know its category, so we relaunch it under category 23
-						addError(_errors, new DetectedError(name + ": " + err.getError(), this), 23);
+						// START KGU#917 2026-10-19
+						//addError(_errors, new DetectedError(name + ": " + err.getError(), this), 23);
+						addError(_errors, new DetectedError(name + ": " + message, this), 23);
+						// END KGU#917 2026-10-19
 					}
 					// Add analysis for name conflicts and uncertain variables - might still occur among includes!
 					// START KGU#388 2017-09-17: Enh. #423
@@ -4934,6 +6025,54 @@ public class Root extends Element {
 
 	}
 	
+	// START KGU#917 2026-10-19: Shared includable analysis
+	/**
+	 * Analyses the includable diagram {@code _includable} (including its own imports) within
+	 * the given import context or retrieves the results from the analysis cache shared by all
+	 * includers, see {@link IncludeAnalysisCache}. The includable is analysed in its own context.
+	 * In either case, {@code _constants} and {@code _analysedImports} are updated as by the analysis.
+	 * The cache is only available if this is an analysis snapshot (see {@link #copyForAnalysis()}).
+	 * @param _includable - the includable diagram to be analysed
+	 * @param _constants - incremental constant definition map
+	 * @param _importStack - names of the importing includables
+	 * @param _analysedImports - the imports done so far (with their import paths)
+	 * @return the (shared, hence not to be modified) analysis results
+	 */
+	private IncludeAnalysisCache.Result analyseIncludable(Root _includable, HashMap<String, String> _constants, StringList _importStack, HashMap<String, StringList> _analysedImports)
+	{
+		IncludeAnalysisCache cache = this.includeCache;
+		int generation = this.includeCacheGeneration;
+		String context = null;
+		IncludeAnalysisCache.Result result = null;
+		if (cache != null) {
+			context = IncludeAnalysisCache.makeContextKey(_importStack, _analysedImports, _constants);
+			result = cache.get(_includable.getPoolDiscriminator(), context, generation);
+		}
+		if (result != null) {
+			result.restoreMaps(_constants, _analysedImports);
+			return result;
+		}
+		// The stamps of the snapshots were taken on their creation
+		IdentityHashMap<Root, Integer> dependencies = new IdentityHashMap<Root, Integer>();
+		dependencies.put(_includable.getPoolDiscriminator(), _includable.getModificationStamp());
+		Vector<DetectedError> impErrors = new Vector<DetectedError>();
+		boolean[] subResultFlags = new boolean[]{false, false, false};
+		StringList importedVars = new StringList();
+		StringList importedUncVars = new StringList();
+		HashMap<String, TypeMapEntry> importedTypes = new HashMap<String, TypeMapEntry>();
+		_includable.validateCheckMemos();
+		_includable.analyse_23(impErrors, importedVars, importedUncVars, _constants, _importStack, _analysedImports, importedTypes, dependencies);
+		_includable.analyse(_includable.children, impErrors, importedVars, importedUncVars, _constants, subResultFlags, importedTypes);
+		result = new IncludeAnalysisCache.Result(dependencies, impErrors, subResultFlags[0],
+				importedVars, importedUncVars, importedTypes, _constants, _analysedImports);
+		// An interrupted analysis is incomplete
+		if (cache != null && !Thread.currentThread().isInterrupted()) {
+			cache.put(_includable.getPoolDiscriminator(), context, result, generation);
+		}
+		return result;
+	}
+	// END KGU#917 2026-10-19
+
 	// START KGU#514 2018-04-03: Bugfix #528
 	/**
 	 * CHECK #24: correct record access
@@ -5643,11 +6782,22 @@ public class Root extends Element {
     
     public Vector<DetectedError> analyse()
     {
-        structorizerKeywords.clear();
-        structorizerKeywords.add("global");
+        // START KGU#914 2026-10-19: Replace the set atomically (concurrent analysis)
+        //structorizerKeywords.clear();
+        //structorizerKeywords.add("global");
+        //for (String keyword: CodeParser.getAllProperties()) {
+        //    structorizerKeywords.add(keyword);
+        //}
+        Set<String> newStructorizerKeywords = new HashSet<String>();
+        newStructorizerKeywords.add("global");
         for (String keyword: CodeParser.getAllProperties()) {
-            structorizerKeywords.add(keyword);
+            newStructorizerKeywords.add(keyword);
         }
+        structorizerKeywords = newStructorizerKeywords;
+        // END KGU#914 2026-10-19
+        // START KGU#915 2026-10-19
+        this.validateCheckMemos();
+        // END KGU#915 2026-10-19
 
         this.retrieveVarNames();	// also fills this.constants if not already done
         //System.out.println(this.variables);
@@ -5710,7 +6860,10 @@ public class Root extends Element {
 
         // START KGU#376 2017-07-01: Enh. #389 - Now includes are a Root property (again)
         LinkedHashMap<String, String> importedConstants = new LinkedHashMap<String, String>();
-        this.analyse_23(errors, vars, uncertainVars, importedConstants, new StringList(), new HashMap<String,StringList>(), typeDefinitions);
+        // START KGU#917 2026-10-19
+        //this.analyse_23(errors, vars, uncertainVars, importedConstants, new StringList(), new HashMap<String,StringList>(), typeDefinitions);
+        this.analyse_23(errors, vars, uncertainVars, importedConstants, new StringList(), new HashMap<String,StringList>(), typeDefinitions, null);
+        // END KGU#917 2026-10-19
         // END KGU#376 2017-07-01
 
         vars.add(rootVars);
@@ -5904,11 +7057,16 @@ public class Root extends Element {
 	/**
 	 * Initializes the lookup tables for the identifier check 19 of analyser 
 	 */
-	private static final void initialiseKeyTables()
+	// START KGU#914 2026-10-19: The tables are filled locally and published when complete
+	//private static final void initialiseKeyTables()
+	private static final synchronized void initialiseKeyTables()
 	{
 		// Establish the primary lookup tables
-		caseAwareKeywords = new Hashtable<String, StringList>();
-		caseUnawareKeywords = new Hashtable<String, StringList>();
+		//caseAwareKeywords = new Hashtable<String, StringList>();
+		//caseUnawareKeywords = new Hashtable<String, StringList>();
+		Hashtable<String, StringList> caseAwareKeywords = new Hashtable<String, StringList>();
+		Hashtable<String, StringList> caseUnawareKeywords = new Hashtable<String, StringList>();
+		// END KGU#914 2026-10-19
 		// Now add the table entries for every generator
 		for (GENPlugin plugin: Menu.generatorPlugins)
 		{
@@ -5946,6 +7104,10 @@ public class Root extends Element {
 				}
 			}
 		}
+		// START KGU#914 2026-10-19
+		Root.caseAwareKeywords = caseAwareKeywords;
+		Root.caseUnawareKeywords = caseUnawareKeywords;
+		// END KGU#914 2026-10-19
 		// Now buy the GUI some time to accomplish its initialisation
 //		try {
 //			Thread.sleep(500);
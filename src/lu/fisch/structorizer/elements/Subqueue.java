@@ -257,6 +257,30 @@ public class Subqueue extends Element implements IElementSequence {
 		return (Element) children.get(_index);
 	}
 	
+	// START KGU#910 2026-10-19: Structural sharing among undo/redo entries
+	/**
+	 * Replaces the child at position {@code _index} by {@code _element} without reparenting
+	 * and resetting drawing info. Only to be used for undo/redo snapshots, where {@code _element}
+	 * may be shared with other snapshots.
+	 * @param _index - position of the child to be replaced
+	 * @param _element - the (shared) replacing element
+	 */
+	void setSharedElement(int _index, Element _element)
+	{
+		children.set(_index, _element);
+	}
+
+	/**
+	 * Appends {@code _element} without reparenting and resetting drawing info. Only to be used
+	 * for undo/redo snapshots, where {@code _element} may be shared with other snapshots.
+	 * @param _element - the (shared) element to be appended
+	 */
+	void addSharedElement(Element _element)
+	{
+		children.add(_element);
+	}
+	// END KGU#910 2026-10-19
+
 	public void addElement(Element _element)
 	{
 		// START KGU#87 2015-11-22: We must make sure a Subqueue as _element is properly appended
@@ -359,6 +383,24 @@ public class Subqueue extends Element implements IElementSequence {
 	{
 		Element res = super.getElementByCoord(_x, _y, _forSelection);
     	// If this element isn't hit then there is no use searching the substructure
+		// START KGU#912 2026-10-19: Without selection side effects only the children at _y matter
+		if (res != null && !_forSelection)
+		{
+			Vector<Integer> y0Children = this.y0Children;	// may be replaced by prepareDraw()
+			int ix = findLastOffsetIndex(y0Children, children.size(), _y);
+			// Children are stacked, so only the found one and predecessors ending at _y may contain _y
+			for (int i = ix; i >= 0; i--)
+			{
+				int yOff = y0Children.get(i);
+				Element sel = children.get(i).getElementByCoord(_x, _y - yOff, false);
+				if (sel != null || yOff < _y)
+				{
+					return (sel != null) ? sel : res;
+				}
+			}
+			return res;
+		}
+		// END KGU#912 2026-10-19
 		if (res != null || _forSelection)
 		{
 			Element sel = null;
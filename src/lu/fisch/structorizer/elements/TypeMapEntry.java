@@ -106,8 +106,12 @@ public class TypeMapEntry {
 	//private static final Pattern RANGE_PATTERN = Pattern.compile("^([0-9]+)[.][.][.]?([0-9]+)$");
 	private static final Pattern RANGE_PATTERN = Pattern.compile("^([0-9]+)\\s*?[.][.][.]?\\s*?([0-9]+)$");
 	// START KGU#542 2019-11-17: Enh. #739
-	public static final Matcher MATCHER_ENUM = Pattern.compile("^" + BString.breakup("enum", true) 
-	+ "\\s*[{]\\s*[A-Za-z_][A-Za-z_0-9]*\\s*([=]\\s*[^=,}]*?)?(,\\s*[A-Za-z_][A-Za-z_0-9]*(\\s*[=]\\s*[^=,}]*?)?)*\\s*[}]$").matcher("");
+	// START KGU#916 2026-10-19: A shared Matcher isn't thread-safe (analysis may run concurrently)
+	//public static final Matcher MATCHER_ENUM = Pattern.compile("^" + BString.breakup("enum", true) 
+	//+ "\\s*[{]\\s*[A-Za-z_][A-Za-z_0-9]*\\s*([=]\\s*[^=,}]*?)?(,\\s*[A-Za-z_][A-Za-z_0-9]*(\\s*[=]\\s*[^=,}]*?)?)*\\s*[}]$").matcher("");
+	public static final Pattern PATTERN_ENUM = Pattern.compile("^" + BString.breakup("enum", true) 
+	+ "\\s*[{]\\s*[A-Za-z_][A-Za-z_0-9]*\\s*([=]\\s*[^=,}]*?)?(,\\s*[A-Za-z_][A-Za-z_0-9]*(\\s*[=]\\s*[^=,}]*?)?)*\\s*[}]$");
+	// END KGU#916 2026-10-19
 	// END KGU#542 2019-11-17
 	
 	// START KGU#686 2019-03-16: Enh. #56 - facilitate type retrieval by a backlink to the type map
@@ -159,7 +163,10 @@ public class TypeMapEntry {
 				this.setIndexRanges();
 			}
 			// START KGU#542 2019-11-17
-			else if (MATCHER_ENUM.reset(typeDescriptor).matches()) {
+			// START KGU#916 2026-10-19
+			//else if (MATCHER_ENUM.reset(typeDescriptor).matches()) {
+			else if (PATTERN_ENUM.matcher(typeDescriptor).matches()) {
+			// END KGU#916 2026-10-19
 				int start = typeDescriptor.indexOf('{') + 1;
 				this.valueNames = StringList.explode(typeDescriptor.substring(start, typeDescriptor.length()-1), "\\s*,\\s*");
 //				Root root = null;
@@ -506,6 +513,25 @@ public class TypeMapEntry {
 	}
 	// END KGU#6868 2019-03-16
 	
+	// START KGU#917 2026-10-19: Shared includable analysis results must not be modified
+	/**
+	 * Creates a copy of this entry whose declaration list and element sets may be
+	 * extended independently (the declarations themselves are shared).
+	 * @return the copied entry, with the same owning type map
+	 */
+	TypeMapEntry copy()
+	{
+		TypeMapEntry entry = new TypeMapEntry();
+		entry.typeName = this.typeName;
+		entry.typeMap = this.typeMap;
+		entry.declarations.addAll(this.declarations);
+		entry.modifiers.addAll(this.modifiers);
+		entry.references.addAll(this.references);
+		entry.isDeclared = this.isDeclared;
+		return entry;
+	}
+	// END KGU#917 2026-10-19
+	
 	/**
 	 * Returns a type string with canonicalized structure information and - if
 	 * {@code canonicalizeTypeNames} is true - canonicalized type identifiers (as far as
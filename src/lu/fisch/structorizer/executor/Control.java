@@ -212,6 +212,12 @@ public class Control extends LangFrame implements PropertyChangeListener, ItemLi
         chkCollectRuntimeData = new javax.swing.JCheckBox("Collect Run Data");
         cbRunDataDisplay = new JComboBox<RuntimeDataPresentMode>(RuntimeDataPresentMode.values());
         // END KGU#117 2016-03-06
+        // START KGU#901 2026-10-19: Execution trace recording and replay
+        chkRecordTrace = new javax.swing.JCheckBox("Record Trace");
+        lblTracePos = new javax.swing.JLabel("");
+        slTrace = new javax.swing.JSlider(0, 0, 0);
+        slTrace.setEnabled(false);
+        // END KGU#901 2026-10-19
         btnStop = new javax.swing.JButton();
         btnPlay = new javax.swing.JButton();
         btnPause = new javax.swing.JButton();
@@ -265,6 +271,16 @@ public class Control extends LangFrame implements PropertyChangeListener, ItemLi
 
         });
         // END KGU#210 2016-07-25
+        // START KGU#901 2026-10-19: Scrubbing through the recorded trace
+        slTrace.addChangeListener(new ChangeListener() {
+            public void stateChanged(ChangeEvent e) {
+                if (slTrace.isEnabled()) {
+                    lblTracePos.setText((slTrace.getValue() + 1) + " / " + (slTrace.getMaximum() + 1));
+                    Executor.getInstance().showTraceEntry(slTrace.getValue());
+                }
+            }
+        });
+        // END KGU#901 2026-10-19
         slSpeed.addMouseMotionListener(new java.awt.event.MouseMotionAdapter() {
             public void mouseMoved(java.awt.event.MouseEvent evt) {
                 slSpeedMouseMoved(evt);
@@ -548,6 +564,38 @@ public class Control extends LangFrame implements PropertyChangeListener, ItemLi
         ctnr.add(jScrollPane1);
         // END KGU#210 2016-07-25
         
+        // START KGU#901 2026-10-19: Execution trace recording and replay
+        gbc.gridx = 1;
+        gbc.gridy = 7;
+        gbc.gridwidth = 2;
+        gbc.gridheight = 1;
+        gbc.fill = GridBagConstraints.HORIZONTAL;
+        gbc.weightx = 0;
+        gbc.weighty = 0;
+        gbl.setConstraints(chkRecordTrace, gbc);
+        ctnr.add(chkRecordTrace);
+        
+        gbc.gridx = 3;
+        gbc.gridy = 7;
+        gbc.gridwidth = GridBagConstraints.REMAINDER;
+        gbc.gridheight = 1;
+        gbc.fill = GridBagConstraints.HORIZONTAL;
+        gbc.weightx = 0;
+        gbc.weighty = 0;
+        gbl.setConstraints(lblTracePos, gbc);
+        ctnr.add(lblTracePos);
+        
+        gbc.gridx = 1;
+        gbc.gridy = 8;
+        gbc.gridwidth = GridBagConstraints.REMAINDER;
+        gbc.gridheight = 1;
+        gbc.fill = GridBagConstraints.HORIZONTAL;
+        gbc.weightx = 1;
+        gbc.weighty = 0;
+        gbl.setConstraints(slTrace, gbc);
+        ctnr.add(slTrace);
+        // END KGU#901 2026-10-19
+        
         // START KGU#287 2017-01-09: Issue #81 / bugfix #330 - flexible GUI scaling
         GUIScaler.rescaleComponents(this);
         SwingUtilities.updateComponentTreeUI(this);
@@ -594,6 +642,10 @@ public class Control extends LangFrame implements PropertyChangeListener, ItemLi
         chkCollectRuntimeData.setEnabled(true);
         this.cbRunDataDisplay.setEnabled(chkCollectRuntimeData.isSelected());
         // END KGU#117 2016-03-06
+        // START KGU#901 2026-10-19
+        chkRecordTrace.setEnabled(true);
+        setTraceLength(0);
+        // END KGU#901 2026-10-19
         // empty table
         DefaultTableModel tm = (DefaultTableModel) tblVar.getModel();
         while(tm.getRowCount()>0) tm.removeRow(0);
@@ -618,6 +670,11 @@ public class Control extends LangFrame implements PropertyChangeListener, ItemLi
     
     private void btnStopActionPerformed(java.awt.event.ActionEvent evt)//GEN-FIRST:event_btnStopActionPerformed
     {
+        // START KGU#901 2026-10-19: A trace of a finished run is no longer needed when the Control closes
+        if (!Executor.getInstance().isRunning()) {
+            Executor.getInstance().releaseTrace(true);
+        }
+        // END KGU#901 2026-10-19
         Executor.getInstance().setStop(true);
         // START KGU#117 2016-03-06: Enh. #77
         chkCollectRuntimeData.setEnabled(true);
@@ -645,6 +702,10 @@ public class Control extends LangFrame implements PropertyChangeListener, ItemLi
         chkCollectRuntimeData.setEnabled(false);
         cbRunDataDisplay.setEnabled(chkCollectRuntimeData.isSelected());
         // END KGU#117 2016-03-06
+        // START KGU#901 2026-10-19
+        chkRecordTrace.setEnabled(false);
+        setTraceLength(0);
+        // END KGU#901 2026-10-19
         // START KGU#68 205-11-06: Enhancement - update edited values
         if (!varUpdates.isEmpty())
         {
@@ -742,6 +803,10 @@ public class Control extends LangFrame implements PropertyChangeListener, ItemLi
         chkCollectRuntimeData.setEnabled(false);
         cbRunDataDisplay.setEnabled(chkCollectRuntimeData.isSelected());
         // END KGU#117 2016-03-06
+        // START KGU#901 2026-10-19
+        chkRecordTrace.setEnabled(false);
+        setTraceLength(0);
+        // END KGU#901 2026-10-19
         if(Executor.getInstance().isRunning()==false)
         {
             Executor.getInstance().start(true);
@@ -929,6 +994,32 @@ public class Control extends LangFrame implements PropertyChangeListener, ItemLi
 	}
 
     // START KGU#2 (#9) 2015-11-14: Update method for subroutine level display
+    // START KGU#901 2026-10-19: Execution trace recording and replay
+    /**
+     * @return true if the user requested an execution trace to be recorded
+     * @see #setTraceLength(int)
+     */
+    public boolean isTraceRequested()
+    {
+        return chkRecordTrace.isSelected();
+    }
+    
+    /**
+     * Configures the trace slider for the given number of recorded trace entries and
+     * enables it if there is anything to replay.
+     * @param nEntries - number of trace entries (0 disables the slider)
+     * @see Executor#showTraceEntry(int)
+     */
+    public void setTraceLength(int nEntries)
+    {
+        slTrace.setEnabled(false);
+        slTrace.setMaximum(Math.max(nEntries - 1, 0));
+        slTrace.setValue(slTrace.getMaximum());
+        lblTracePos.setText(nEntries > 0 ? nEntries + " / " + nEntries : "");
+        slTrace.setEnabled(nEntries > 0);
+    }
+    // END KGU#901 2026-10-19
+
     public void updateCallLevel(int level)
     {
     	this.txtCallLevel.setText(Integer.toString(level));
@@ -952,6 +1043,11 @@ public class Control extends LangFrame implements PropertyChangeListener, ItemLi
     // START KGU#117/KGU#156 2016-03-13: Enh. #77/#124 - Checkbox fpr Test coverage mode
     public javax.swing.JCheckBox chkCollectRuntimeData;
     public javax.swing.JComboBox<RuntimeDataPresentMode> cbRunDataDisplay;
+    // START KGU#901 2026-10-19: Execution trace recording and replay
+    public javax.swing.JCheckBox chkRecordTrace;
+    private javax.swing.JLabel lblTracePos;
+    private javax.swing.JSlider slTrace;
+    // END KGU#901 2026-10-19
     // END KGU#117/KGU#156 2016-03-13
     private HeaderTable tblVar;
     // End of variables declaration//GEN-END:variables
@@ -0,0 +1,437 @@
+/*
+    Structorizer
+    A little tool which you can use to create Nassi-Schneiderman Diagrams (NSD)
+
+    Copyright (C) 2009  Bob Fisch
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or any
+    later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+
+package lu.fisch.structorizer.executor;
+
+/******************************************************************************************************
+ *
+ *      Description:    Compact binary execution trace for time-travel replay in the Executor Control.
+ *
+ ******************************************************************************************************
+ *
+ *      Comment:
+ *      2026-10-19 (KGU#901)
+ *      - The trace is written into a temporary file, which is memory-mapped in segments of fixed size,
+ *        such that recording costs hardly more than a few buffer puts per executed element.
+ *      - Every entry consists of a sequence number, the code of the element about to be executed, the
+ *        index of the Root it belongs to, and the variables changed since the preceding entry (a
+ *        removed variable, e.g. on leaving a subroutine, is recorded with a null value).
+ *      - Elements are coded by identity rather than by id, since copies share the ids. An element
+ *        of a recursion copy is replaced by the element of the original at the same structural
+ *        position when its entry is recorded, such that no copy element gets into the trace.
+ *      - The Executor only passes the variables possibly changed by the preceding step, such that
+ *        the recording cost doesn't grow with the size of the entire variable state. A recursion copy
+ *        is only known to the trace while the respective call is active (see releaseCopy()).
+ *      - Variable names are mapped to small integer codes, all integers are written as varints.
+ *      - To restore the variable state at an arbitrary entry, a snapshot is kept in memory at every
+ *        CHECKPOINT_INTERVAL-th entry, from which at most CHECKPOINT_INTERVAL - 1 entries are to be
+ *        replayed.
+ *
+ ******************************************************************************************************///
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Vector;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import lu.fisch.structorizer.elements.Element;
+import lu.fisch.structorizer.elements.Root;
+import lu.fisch.utils.StringList;
+
+/**
+ * Records the execution of a diagram as a compact binary log in a memory-mapped temporary
+ * file and allows to restore the variable state at any recorded step without re-executing
+ * the diagram.
+ * @see Executor#showTraceEntry(int)
+ */
+public class ExecutionTrace implements Closeable {
+
+	public static final Logger logger = Logger.getLogger(ExecutionTrace.class.getName());
+
+	/** Size of a memory-mapped file segment (entries never cross segment borders) */
+	private static final int SEGMENT_SIZE = 1 << 22;
+	/** Maximum number of segments (i.e. maximum trace file size = 1 GiB) */
+	private static final int MAX_SEGMENTS = 256;
+	/** Distance between two state snapshots (in entries) */
+	private static final int CHECKPOINT_INTERVAL = 1024;
+	/** Maximum number of characters of a recorded value representation */
+	private static final int MAX_VALUE_LENGTH = 4096;
+
+	private final File file;
+	private final RandomAccessFile raf;
+	private final FileChannel channel;
+	private final ArrayList<MappedByteBuffer> segments = new ArrayList<MappedByteBuffer>();
+	/** Entry positions (segment number in the upper 32 bits, offset in the lower 32 bits) */
+	private long[] positions = new long[CHECKPOINT_INTERVAL];
+	private int count = 0;
+	/** Set when the maximum file size was reached - no further entries will be recorded */
+	private boolean exhausted = false;
+
+	private final HashMap<String, Integer> nameCodes = new HashMap<String, Integer>();
+	private final ArrayList<String> names = new ArrayList<String>();
+	private final IdentityHashMap<Root, Integer> rootCodes = new IdentityHashMap<Root, Integer>();
+	private final ArrayList<Root> roots = new ArrayList<Root>();
+	/** Maps the recursion copies of the active calls to their originals */
+	private final IdentityHashMap<Root, Root> copyOrigins = new IdentityHashMap<Root, Root>();
+	private final IdentityHashMap<Element, Integer> elementCodes = new IdentityHashMap<Element, Integer>();
+	private final ArrayList<Element> elements = new ArrayList<Element>();
+
+	/** Variable state as of the last recorded entry (for the computation of differences) */
+	private final HashMap<String, String> lastValues = new HashMap<String, String>();
+	/** State snapshots before every CHECKPOINT_INTERVAL-th entry */
+	private final ArrayList<LinkedHashMap<String, String>> checkpoints = new ArrayList<LinkedHashMap<String, String>>();
+
+	/**
+	 * Creates a new, empty trace backed by a temporary file, which will be deleted on
+	 * {@link #close()} or on JVM exit.
+	 * @throws IOException if the temporary file cannot be created or mapped
+	 */
+	public ExecutionTrace() throws IOException
+	{
+		file = File.createTempFile("structorizer", ".trace");
+		file.deleteOnExit();
+		raf = new RandomAccessFile(file, "rw");
+		channel = raf.getChannel();
+		addSegment();
+	}
+
+	private MappedByteBuffer addSegment() throws IOException
+	{
+		MappedByteBuffer segment = channel.map(FileChannel.MapMode.READ_WRITE,
+				(long)segments.size() * SEGMENT_SIZE, SEGMENT_SIZE);
+		segments.add(segment);
+		return segment;
+	}
+
+	/**
+	 * Appends an entry for the given {@code _element} (about to be executed within
+	 * {@code _root}). The caller passes only the variables that may have changed since
+	 * the previous entry; of these only the ones actually differing are written.
+	 * @param _root - the currently executed diagram (or copy of it)
+	 * @param _element - the element to be executed next
+	 * @param _varNames - names of the variables and constants possibly changed or added
+	 * @param _values - the display strings of the values, aligned with {@code _varNames}
+	 * @param _removed - names of variables that ceased to exist (e.g. on leaving a subroutine)
+	 * @return false if the entry could not be recorded (trace exhausted, finished, or broken)
+	 * @see #registerCopy(Root, Root)
+	 */
+	public synchronized boolean record(Root _root, Element _element, StringList _varNames, StringList _values, StringList _removed)
+	{
+		if (exhausted) {
+			return false;
+		}
+		if (count % CHECKPOINT_INTERVAL == 0) {
+			checkpoints.add(new LinkedHashMap<String, String>(lastValues));
+		}
+		// Gather the differences first
+		ArrayList<Object> changes = new ArrayList<Object>();
+		for (int i = 0; i < _varNames.count(); i++) {
+			String name = _varNames.get(i);
+			String value = _values.get(i);
+			if (value.length() > MAX_VALUE_LENGTH) {
+				value = value.substring(0, MAX_VALUE_LENGTH) + "...";
+			}
+			if (!value.equals(lastValues.put(name, value))) {
+				changes.add(getNameCode(name));
+				changes.add(value);
+			}
+		}
+		for (int i = 0; i < _removed.count(); i++) {
+			String name = _removed.get(i);
+			if (lastValues.containsKey(name)) {
+				lastValues.remove(name);
+				changes.add(getNameCode(name));
+				changes.add(null);
+			}
+		}
+
+		// Refer to the original if _root is a recursion copy
+		Root original = copyOrigins.get(_root);
+		if (original != null) {
+			Element corresponding = original.getCorrespondingElement(_root, _element);
+			if (corresponding != null) {
+				_element = corresponding;
+				_root = original;
+			}
+		}
+		Integer rootCode = rootCodes.get(_root);
+		if (rootCode == null) {
+			rootCodes.put(_root, rootCode = roots.size());
+			roots.add(_root);
+		}
+
+		// Serialize the entry into a temporary array in order to know its size
+		byte[] bytes = encodeEntry(count, getElementCode(_element), rootCode, changes);
+		try {
+			MappedByteBuffer segment = segments.get(segments.size()-1);
+			if (segment.remaining() < bytes.length) {
+				if (bytes.length > SEGMENT_SIZE || segments.size() >= MAX_SEGMENTS) {
+					exhausted = true;
+					return false;
+				}
+				segment = addSegment();
+			}
+			if (count >= positions.length) {
+				long[] newPositions = new long[2 * positions.length];
+				System.arraycopy(positions, 0, newPositions, 0, count);
+				positions = newPositions;
+			}
+			positions[count++] = ((long)(segments.size()-1) << 32) | segment.position();
+			segment.put(bytes);
+		}
+		catch (IOException ex) {
+			logger.log(Level.WARNING, "Trace recording aborted", ex);
+			exhausted = true;
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Makes entries recorded for the given copy of a diagram (e.g. for a recursive call)
+	 * refer to its original, such that the copy needn't be retained by the trace. Neither
+	 * of the diagrams may be modified until {@link #releaseCopy(Root)} is called.
+	 * @param _copy - the copy of {@code _original}
+	 * @param _original - the diagram that was copied
+	 */
+	public synchronized void registerCopy(Root _copy, Root _original)
+	{
+		Root origin = copyOrigins.get(_original);
+		copyOrigins.put(_copy, (origin != null) ? origin : _original);
+	}
+
+	/**
+	 * Forgets the given diagram copy (registered via {@link #registerCopy(Root, Root)})
+	 * when the respective call has returned.
+	 * @param _copy - the no longer executed copy
+	 */
+	public synchronized void releaseCopy(Root _copy)
+	{
+		copyOrigins.remove(_copy);
+	}
+
+	/**
+	 * Terminates the recording, releasing all references to diagram copies. The recorded
+	 * entries remain available for replay until {@link #close()}.
+	 */
+	public synchronized void finish()
+	{
+		exhausted = true;
+		copyOrigins.clear();
+		rootCodes.clear();
+		elementCodes.clear();
+		lastValues.clear();
+	}
+
+	private int getNameCode(String _name)
+	{
+		Integer code = nameCodes.get(_name);
+		if (code == null) {
+			nameCodes.put(_name, code = names.size());
+			names.add(_name);
+		}
+		return code;
+	}
+
+	private int getElementCode(Element _element)
+	{
+		Integer code = elementCodes.get(_element);
+		if (code == null) {
+			elementCodes.put(_element, code = elements.size());
+			elements.add(_element);
+		}
+		return code;
+	}
+
+	private static byte[] encodeEntry(int _seqNo, int _elementCode, int _rootCode, ArrayList<Object> _changes)
+	{
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(32);
+		writeVarLong(bytes, _seqNo);
+		writeVarLong(bytes, _elementCode);
+		writeVarLong(bytes, _rootCode);
+		writeVarLong(bytes, _changes.size() / 2);
+		for (int i = 0; i < _changes.size(); i += 2) {
+			writeVarLong(bytes, (Integer)_changes.get(i));
+			String value = (String)_changes.get(i+1);
+			if (value == null) {
+				bytes.write(0);
+			}
+			else {
+				byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+				bytes.write(1);
+				writeVarLong(bytes, utf8.length);
+				bytes.write(utf8, 0, utf8.length);
+			}
+		}
+		return bytes.toByteArray();
+	}
+
+	private static void writeVarLong(ByteArrayOutputStream _out, long _value)
+	{
+		while ((_value & ~0x7FL) != 0) {
+			_out.write((int)(_value & 0x7F) | 0x80);
+			_value >>>= 7;
+		}
+		_out.write((int)_value);
+	}
+
+	private static long readVarLong(ByteBuffer _in)
+	{
+		long value = 0;
+		int shift = 0;
+		byte b;
+		do {
+			b = _in.get();
+			value |= (long)(b & 0x7F) << shift;
+			shift += 7;
+		} while ((b & 0x80) != 0);
+		return value;
+	}
+
+	/** Returns a read-only view of the trace positioned at entry {@code _index} */
+	private ByteBuffer entryBuffer(int _index)
+	{
+		long pos = positions[_index];
+		ByteBuffer buf = segments.get((int)(pos >>> 32)).duplicate();
+		buf.position((int)pos);
+		return buf;
+	}
+
+	/** @return the number of recorded entries */
+	public synchronized int getEntryCount()
+	{
+		return count;
+	}
+
+	/** @return true if the trace stopped recording (finished, size limit reached, or i/o problem) */
+	public synchronized boolean isExhausted()
+	{
+		return exhausted;
+	}
+
+	/**
+	 * @param _index - entry number (0 ... {@link #getEntryCount()} - 1)
+	 * @return the element that was about to be executed at entry {@code _index} (an
+	 * element of the original diagram in case of a recursion copy)
+	 */
+	public synchronized Element getElement(int _index)
+	{
+		ByteBuffer buf = entryBuffer(_index);
+		readVarLong(buf);	// sequence number
+		return elements.get((int)readVarLong(buf));
+	}
+
+	/**
+	 * @param _index - entry number (0 ... {@link #getEntryCount()} - 1)
+	 * @return the Root that was being executed at entry {@code _index} (the original diagram
+	 * in case of a recursion copy)
+	 */
+	public synchronized Root getRoot(int _index)
+	{
+		ByteBuffer buf = entryBuffer(_index);
+		readVarLong(buf);	// sequence number
+		readVarLong(buf);	// element code
+		return roots.get((int)readVarLong(buf));
+	}
+
+	/**
+	 * Restores the variable state (names mapped to value display strings) as it was
+	 * at entry {@code _index}, i.e. immediately before the respective element was executed.
+	 * @param _index - entry number (0 ... {@link #getEntryCount()} - 1)
+	 * @return the reconstructed variable map (in order of appearance)
+	 */
+	public synchronized LinkedHashMap<String, String> getStateAt(int _index)
+	{
+		int start = (_index / CHECKPOINT_INTERVAL) * CHECKPOINT_INTERVAL;
+		LinkedHashMap<String, String> state = new LinkedHashMap<String, String>(checkpoints.get(_index / CHECKPOINT_INTERVAL));
+		for (int i = start; i <= _index; i++) {
+			ByteBuffer buf = entryBuffer(i);
+			readVarLong(buf);	// sequence number
+			readVarLong(buf);	// element code
+			readVarLong(buf);	// root code
+			int nChanges = (int)readVarLong(buf);
+			for (int j = 0; j < nChanges; j++) {
+				String name = names.get((int)readVarLong(buf));
+				if (buf.get() == 0) {
+					state.remove(name);
+				}
+				else {
+					byte[] utf8 = new byte[(int)readVarLong(buf)];
+					buf.get(utf8);
+					state.put(name, new String(utf8, StandardCharsets.UTF_8));
+				}
+			}
+		}
+		return state;
+	}
+
+	/**
+	 * Restores the variable state at entry {@code _index} in the format expected by
+	 * {@link Control#updateVars(Vector)}.
+	 * @param _index - entry number (0 ... {@link #getEntryCount()} - 1)
+	 * @return vector of name-value pairs
+	 */
+	public Vector<String[]> getVarsAt(int _index)
+	{
+		Vector<String[]> vars = new Vector<String[]>();
+		for (Map.Entry<String, String> entry: getStateAt(_index).entrySet()) {
+			vars.add(new String[]{entry.getKey(), entry.getValue()});
+		}
+		return vars;
+	}
+
+	/**
+	 * Releases the mapped segments and deletes the backing file.
+	 */
+	@Override
+	public synchronized void close()
+	{
+		segments.clear();
+		checkpoints.clear();
+		roots.clear();
+		rootCodes.clear();
+		copyOrigins.clear();
+		elements.clear();
+		elementCodes.clear();
+		count = 0;
+		exhausted = true;
+		try {
+			channel.close();
+			raf.close();
+		} catch (IOException ex) {
+			logger.log(Level.WARNING, "Closing trace file", ex);
+		}
+		// The mapping may prevent deletion on some platforms - deleteOnExit() will then care
+		file.delete();
+	}
+}
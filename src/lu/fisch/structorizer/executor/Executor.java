@@ -330,6 +330,7 @@ import java.util.ArrayList;
 import java.util.ConcurrentModificationException;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
@@ -846,6 +847,9 @@ public class Executor implements Runnable
 		this.controllerFunctions.clear();
 		this.controllerProcedures.clear();
 		this.controllerFunctionNames.clear();
+		// START KGU#902 2026-10-19
+		this.controllerColorProcedures.clear();
+		// END KGU#902 2026-10-19
 		StringBuilder sb = new StringBuilder();
 		for (int i = 0; i < controllers.length; i++) {
 			DiagramController controller = controllers[i];
@@ -871,6 +875,13 @@ public class Executor implements Runnable
 							replace("%3", conflicting.getName()).
 							replace("%4", controller.getName()));
 				}
+				// START KGU#902 2026-10-19: Precompute the colour variants
+				int nArgs = Integer.parseInt(key.substring(key.indexOf('#')+1));
+				Method colMethod = controller.getProcedureMap().get(name + "#" + (nArgs + 1));
+				if (colMethod != null && colMethod.getParameterTypes()[nArgs] == Color.class) {
+					this.controllerColorProcedures.add(key);
+				}
+				// END KGU#902 2026-10-19
 			}				
 		}
 		if (sb.length() > 0) {
@@ -925,6 +936,10 @@ public class Executor implements Runnable
 	private HashMap<String, DiagramController> controllerProcedures = new HashMap<String, DiagramController>();
 	private Set<String> controllerFunctionNames = new HashSet<String>(); 
 	// END KGU#448 2017-10-28
+	// START KGU#902 2026-10-19: Avoid repeated map look-ups on every controller call
+	/** Procedure signatures for which the controller offers a variant with additional colour argument */
+	private Set<String> controllerColorProcedures = new HashSet<String>();
+	// END KGU#902 2026-10-19
 	// START KGU#384 2017-04-22: Context redesign -> this.context
 	//private Interpreter interpreter;
 	//private boolean returned = false;
@@ -969,6 +984,18 @@ public class Executor implements Runnable
 	/** The first element of a currently executed mere declaration sequence */
 	private Instruction lastDeclarationSurrogate = null;
 	// END KGU#477 2017-12-10
+	// START KGU#901 2026-10-19: Optional execution trace for time-travel replay
+	/** The execution trace of the current or last run if recording was requested (otherwise null) */
+	private ExecutionTrace trace = null;
+	/** The element currently highlighted by a trace replay */
+	private Element traceHighlighted = null;
+	/** The execution context of the last trace entry */
+	private ExecutionContext traceContext = null;
+	/** The element of the last trace entry */
+	private Element traceElement = null;
+	/** The raw variable values as of the last trace entry (for cheap change detection) */
+	private final HashMap<String, Object> traceValues = new HashMap<String, Object>();
+	// END KGU#901 2026-10-19
 	
 	// Constant set of matchers for unicode literals that cause harm in interpreter
 	// (Concurrent execution of the using method is rather unlikely, so we dare to reuse the Matchers) 
@@ -1504,6 +1531,16 @@ public class Executor implements Runnable
 		}
 		this.openFiles.clear();
 		// END KGU#311 2016-12-18
+		// START KGU#901 2026-10-19: Set up a new trace if requested
+		this.releaseTrace(true);
+		if (control.isTraceRequested()) {
+			try {
+				this.trace = new ExecutionTrace();
+			} catch (IOException ex) {
+				logger.log(Level.WARNING, "Execution trace not available", ex);
+			}
+		}
+		// END KGU#901 2026-10-19
 
 		if (Arranger.hasInstance())
 		{
@@ -2326,8 +2363,16 @@ public class Executor implements Runnable
 		{
 			// START KGU#749 2019-10-15: Issue #763 - we must compensate the changes in Diagram.saveNSD(Root, boolean)
 			//root = (Root)root.copy();
+			// START KGU#901 2026-10-19: The trace is to refer to the original
+			Root original = root;
+			// END KGU#901 2026-10-19
 			root = root.copyWithFilepaths();
 			// END KGU#749 2019-10-15
+			// START KGU#901 2026-10-19
+			if (trace != null) {
+				trace.registerCopy(root, original);
+			}
+			// END KGU#901 2026-10-19
 			root.isCalling = false;
 			// Remaining initialisations will be done by this.execute(...).
 			cloned = true;
@@ -2391,6 +2436,11 @@ public class Executor implements Runnable
 			subRoot.combineRuntimeData(root);
 		}
 		// END KG#117 2016-03-07
+		// START KGU#901 2026-10-19: The trace mustn't retain the copy beyond the call
+		if (cloned && trace != null) {
+			trace.releaseCopy(root);
+		}
+		// END KGU#901 2026-10-19
 		
 		ExecutionContext entry = this.callers.pop();	// former context
 		
@@ -3071,6 +3121,9 @@ public class Executor implements Runnable
 	{
 		execute();
 		running = false;
+		// START KGU#901 2026-10-19: Recursion copies and variable values needn't be retained
+		releaseTrace(false);
+		// END KGU#901 2026-10-19
 		// START KGU#117/KGU#156 2016-03-13: Enh. #77 + #124
 		// It is utterly annoying when in run data mode the control always 
 		// closes after execution.
@@ -3092,10 +3145,20 @@ public class Executor implements Runnable
 		if (reopen || Element.E_COLLECTRUNTIMEDATA)
 		{
 			control.init();
+			// START KGU#901 2026-10-19: Offer the replay of a recorded trace
+			if (trace != null) {
+				control.setTraceLength(trace.getEntryCount());
+			}
+			// END KGU#901 2026-10-19
 			control.validate();
 			control.setVisible(true);
 			control.repaint();
 		}
+		// START KGU#901 2026-10-19: Without Control, the trace can't be replayed
+		else {
+			releaseTrace(true);
+		}
+		// END KGU#901 2026-10-19
 		// END KGU#117/KGU#156
 	}
 
@@ -4282,6 +4345,164 @@ public class Executor implements Runnable
 		runner.start();
 	}
 	
+	// START KGU#901 2026-10-19: Execution trace recording and replay
+	/**
+	 * Appends an entry for the given {@code element} to the current execution trace,
+	 * comprising the variable state before the element is executed.
+	 * @param element - the element about to be executed
+	 */
+	private void recordTraceEntry(Element element)
+	{
+		StringList names = new StringList();
+		StringList values = new StringList();
+		StringList removed = new StringList();
+		// After a context change (call or return) the entire state is compared
+		boolean complete = context != traceContext;
+		HashSet<String> touched = new HashSet<String>();
+		if (!complete) {
+			// Containers can only have been modified in place by the elements executed in between
+			gatherTraceTokens(traceElement, touched);
+			gatherTraceTokens(element.parent, touched);
+		}
+		try {
+			IdentityHashMap<Object, Object> changedContainers = new IdentityHashMap<Object, Object>();
+			int nKnown = 0;
+			for (int i = 0; i < context.variables.count(); i++) {
+				String name = context.variables.get(i);
+				Object val = context.interpreter.get(name);
+				boolean known = traceValues.containsKey(name);
+				Object oldVal = traceValues.put(name, val);
+				if (known) {
+					nKnown++;
+				}
+				boolean changed = complete || !known;
+				if (!changed) {
+					if (val == null || val instanceof String || val instanceof Number
+							|| val instanceof Boolean || val instanceof Character) {
+						changed = val == null ? oldVal != null : !val.equals(oldVal);
+					}
+					else {
+						changed = val != oldVal || touched.contains(name);
+					}
+				}
+				if (changed) {
+					if (val instanceof ArrayList<?> || val instanceof HashMap<?,?>) {
+						changedContainers.put(val, val);
+					}
+					names.add(name);
+				}
+			}
+			// Aliases of modified containers (e.g. array parameters) are to be reported as well
+			if (!changedContainers.isEmpty()) {
+				for (int i = 0; i < context.variables.count(); i++) {
+					String name = context.variables.get(i);
+					if (changedContainers.containsKey(traceValues.get(name)) && !names.contains(name)) {
+						names.add(name);
+					}
+				}
+			}
+			if (complete || nKnown < traceValues.size()) {
+				HashSet<String> current = new HashSet<String>(context.variables.count());
+				for (int i = 0; i < context.variables.count(); i++) {
+					current.add(context.variables.get(i));
+				}
+				Iterator<String> iter = traceValues.keySet().iterator();
+				while (iter.hasNext()) {
+					String name = iter.next();
+					if (!current.contains(name)) {
+						removed.add(name);
+						iter.remove();
+					}
+				}
+			}
+			for (int i = 0; i < names.count(); i++) {
+				values.add(prepareValueForDisplay(traceValues.get(names.get(i)), context.dynTypeMap));
+			}
+		}
+		catch (EvalError ex) {
+			logger.log(Level.WARNING, "Trace recording aborted", ex);
+			trace.finish();
+			return;
+		}
+		traceContext = context;
+		traceElement = element;
+		trace.record(context.root, element, names, values, removed);
+	}
+
+	/**
+	 * Adds the tokens of the texts of {@code _element} and all its ancestors (except
+	 * the Root) to the set {@code _tokens}, i.e. the names of all variables that may
+	 * have been modified in place when the execution passed {@code _element}.
+	 */
+	private void gatherTraceTokens(Element _element, Set<String> _tokens)
+	{
+		while (_element != null && !(_element instanceof Root)) {
+			StringList lines = _element.getText();
+			for (int i = 0; i < lines.count(); i++) {
+				StringList tokens = _element.getLineTokens(lines.get(i));
+				for (int j = 0; j < tokens.count(); j++) {
+					_tokens.add(tokens.get(j));
+				}
+			}
+			_element = _element.parent;
+		}
+	}
+
+	/**
+	 * Stops the trace recording at the end of a run, or discards the trace entirely if
+	 * {@code _discard} is true (e.g. because the Control was closed).
+	 * @param _discard - whether the recorded trace is no longer needed
+	 */
+	public void releaseTrace(boolean _discard)
+	{
+		traceContext = null;
+		traceElement = null;
+		traceValues.clear();
+		if (trace != null) {
+			trace.finish();
+			if (_discard) {
+				clearTraceHighlight();
+				trace.close();
+				trace = null;
+			}
+		}
+	}
+	
+	/**
+	 * Restores the display of the recorded execution state at trace entry {@code _index}
+	 * (i.e. highlights the element executed next and shows the variable values) without
+	 * re-executing anything. Does nothing while the execution is running.
+	 * @param _index - the trace entry number
+	 * @see Control#setTraceLength(int)
+	 */
+	public void showTraceEntry(int _index)
+	{
+		if (running || trace == null || _index < 0 || _index >= trace.getEntryCount()) {
+			return;
+		}
+		// Element ids are ambiguous (copies share them), hence the trace holds the element itself
+		Element element = trace.getElement(_index);
+		clearTraceHighlight();
+		if (element != null) {
+			element.executed = true;
+			traceHighlighted = element;
+			if (Element.getRoot(element) == diagram.getRoot()) {
+				diagram.redraw(element);
+			}
+		}
+		control.updateVars(trace.getVarsAt(_index));
+	}
+
+	private void clearTraceHighlight()
+	{
+		if (traceHighlighted != null) {
+			traceHighlighted.executed = false;
+			traceHighlighted = null;
+			diagram.redraw();
+		}
+	}
+	// END KGU#901 2026-10-19
+
 	// START KGU#43 2015-10-12 New method for breakpoint support
 	private boolean checkBreakpoint(Element element)
 	{
@@ -4315,6 +4536,11 @@ public class Executor implements Runnable
 		}
 		// END KGU#277 2016-10-13
 		
+		// START KGU#901 2026-10-19: Record the step if a trace is requested
+		if (trace != null && !trace.isExhausted()) {
+			recordTraceEntry(element);
+		}
+		// END KGU#901 2026-10-19
 		element.executed = true;
 		// START KGU#143 2016-01-21: Bugfix #114 - make sure no compromising editing is done
 		diagram.doButtons();
@@ -4519,7 +4745,10 @@ public class Executor implements Runnable
 					// assignment?
 					// START KGU#377 2017-03-30: Bugfix
 					//if (cmd.indexOf("<-") >= 0)
-					if (Element.splitLexically(cmd, true).contains("<-"))
+					// START KGU#908 2026-10-19: Use the token cache
+					//if (Element.splitLexically(cmd, true).contains("<-"))
+					if (element.getLineTokens(cmd).contains("<-"))
+					// END KGU#908 2026-10-19
 					// END KGU#377 2017-03-30: Bugfix
 					{
 						trouble = tryAssignment(cmd, element, i);
@@ -4562,7 +4791,10 @@ public class Executor implements Runnable
 					element.updateTypeMapFromLine(this.context.dynTypeMap, cmd, i);
 					// START KGU#542 2019-11-17: Enh. #739 - In case of an enum type definition we have to assign the constants
 					String typeDescr = cmd.substring(cmd.indexOf('=')+1).trim();
-					if (TypeMapEntry.MATCHER_ENUM.reset(typeDescr).matches()) {
+					// START KGU#916 2026-10-19: Thread-safe matching
+					//if (TypeMapEntry.MATCHER_ENUM.reset(typeDescr).matches()) {
+					if (TypeMapEntry.PATTERN_ENUM.matcher(typeDescr).matches()) {
+					// END KGU#916 2026-10-19
 						isTypeDef = false;	// Is to be counted as an ordinary instruction (costs even more)
 						HashMap<String, String> enumItems = context.root.extractEnumerationConstants(cmd);
 						if (enumItems == null) {
@@ -4717,7 +4949,10 @@ public class Executor implements Runnable
 				// assignment?
 				// START KGU#377 2017-03-30: Bugfix
 				//if (cmd.indexOf("<-") >= 0)
-				if (Element.splitLexically(cmd, true).contains("<-"))
+				// START KGU#908 2026-10-19: Use the token cache
+				//if (Element.splitLexically(cmd, true).contains("<-"))
+				if (element.getLineTokens(cmd).contains("<-"))
+				// END KGU#908 2026-10-19
 				// END KGU#377 2017-03-30: Bugfix
 				{
 					trouble = tryAssignment(cmd, element, i);
@@ -5022,7 +5257,10 @@ public class Executor implements Runnable
 //		String varName = cmd.substring(0, cmd.indexOf("<-")).trim();
 //		String expression = cmd.substring(
 //				cmd.indexOf("<-") + 2, cmd.length()).trim();
-		StringList tokens = Element.splitLexically(cmd, true);
+		// START KGU#908 2026-10-19: Use the token cache
+		//StringList tokens = Element.splitLexically(cmd, true);
+		StringList tokens = instr.getLineTokens(cmd);
+		// END KGU#908 2026-10-19
 		int posAsgnOpr = tokens.indexOf("<-");
 		String leftSide = tokens.subSequence(0, posAsgnOpr).concatenate().trim();
 		tokens.remove(0, posAsgnOpr+1);
@@ -5753,10 +5991,14 @@ public class Executor implements Runnable
 				String pSign = procName + "#" + args.length;
 				DiagramController controller = this.controllerProcedures.get(pSign);
 				if (controller != null) { 
-					HashMap<String, Method> procMap = controller.getProcedureMap(); 
+					// START KGU#902 2026-10-19: Colour variants are now precomputed
+					//HashMap<String, Method> procMap = controller.getProcedureMap(); 
+					//// Check if the controller accepts a method with additional color argument, too
+					//Method colMethod = procMap.get(procName + "#" + (args.length + 1));
+					//if (colMethod != null && colMethod.getParameterTypes()[args.length] == Color.class) {
 					// Check if the controller accepts a method with additional color argument, too
-					Method colMethod = procMap.get(procName + "#" + (args.length + 1));
-					if (colMethod != null && colMethod.getParameterTypes()[args.length] == Color.class) {
+					if (this.controllerColorProcedures.contains(pSign)) {
+					// END KGU#902 2026-10-19
 						Object[] argsColor = new Object[args.length+1];
 						for (int i = 0; i < args.length; i++) {
 							argsColor[i] = args[i];
@@ -5801,7 +6043,10 @@ public class Executor implements Runnable
 			// START KGU#453 2017-11-02
 			// START KGU#259 2016-09-25: Bugfix #254
 			//String expression = text.get(0) + " = ";
-			StringList tokens = Element.splitLexically(text.get(0), true);
+			// START KGU#908 2026-10-19: Use the token cache
+			//StringList tokens = Element.splitLexically(text.get(0), true);
+			StringList tokens = element.getLineTokens(text.get(0));
+			// END KGU#908 2026-10-19
 			for (String key : parserKeys)
 			{
 				if (!key.trim().isEmpty())
@@ -5921,7 +6166,10 @@ public class Executor implements Runnable
 //			}
 //
 //			s = convert(s);
-			StringList tokens = Element.splitLexically(s, true);
+			// START KGU#908 2026-10-19: Use the token cache
+			//StringList tokens = Element.splitLexically(s, true);
+			StringList tokens = element.getLineTokens(s);
+			// END KGU#908 2026-10-19
 			for (String key : new String[]{
 					CodeParser.getKeyword("preAlt"),
 					CodeParser.getKeyword("postAlt")})
@@ -6032,7 +6280,10 @@ public class Executor implements Runnable
 //				condStr = convert(condStr, false);
 //				// END KGU#79 2015-11-12
 //				// System.out.println("WHILE: "+condStr);
-				StringList tokens = Element.splitLexically(condStr, true);
+				// START KGU#908 2026-10-19: Use the token cache
+				//StringList tokens = Element.splitLexically(condStr, true);
+				StringList tokens = element.getLineTokens(condStr);
+				// END KGU#908 2026-10-19
 				for (String key : new String[]{
 						CodeParser.getKeyword("preWhile"),
 						CodeParser.getKeyword("postWhile")})
@@ -6182,7 +6433,10 @@ public class Executor implements Runnable
 //				condStr = BString.replace(condStr, CodeParser.postRepeat, "");
 //			}
 //			condStr = convert(condStr, false);
-			StringList tokens = Element.splitLexically(condStr, true);
+			// START KGU#908 2026-10-19: Use the token cache
+			//StringList tokens = Element.splitLexically(condStr, true);
+			StringList tokens = element.getLineTokens(condStr);
+			// END KGU#908 2026-10-19
 			for (String key : new String[]{
 					CodeParser.getKeyword("preRepeat"),
 					CodeParser.getKeyword("postRepeat")})
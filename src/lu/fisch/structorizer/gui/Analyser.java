@@ -36,82 +36,203 @@ package lu.fisch.structorizer.gui;
  *
  ******************************************************************************************************
  *
- *      Comment:		
+ *      Comment:
+ *      2026-10-19 (KGU#914)
+ *      - Revived as background analyser: analysis requests are debounced by a Swing timer, the analysis
+ *        itself runs on a snapshot of the diagram in a worker thread shared by all Analysers. A request
+ *        arriving meanwhile interrupts the running analysis; results are only published (on the event
+ *        dispatch thread) if no newer request came in and the diagram is still the same.
+ *      - The original thread approach had modified the error list model outside the event dispatch
+ *        thread, which explains the missing error lists the comment in Diagram.analyse() reported.
+ *      - The errors are mapped back from the snapshot to the diagram by structural position (the
+ *        element correspondence is established on snapshot creation), not by element id, since ids
+ *        aren't unique. The snapshot carries its own snapshots of the includables, so the worker
+ *        never reads other live diagrams (see Root.copyForAnalysis()).
  *
  ******************************************************************************************************///
 
 import lu.fisch.structorizer.elements.*;
 
-import java.util.*;
-
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.util.IdentityHashMap;
+import java.util.Vector;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 import javax.swing.*;
 
-public class Analyser extends Thread
+/**
+ * Runs the analysis of the diagram of a {@link Diagram} in the background and shows
+ * the detected errors in the associated error list.<br/>
+ * All public methods must be called on the event dispatch thread.
+ */
+public class Analyser
 {
-	private Root root = null;
-	private JList<DetectedError> errorlist = null;
-	private DefaultListModel<DetectedError> errors = null;
-	
-	private static boolean running = false;
+	// START KGU#914 2026-10-19: Rewritten as debounced, cancellable background analyser
+	/** Delay (in ms) after the last request before an analysis is started */
+	private static final int DEBOUNCE_DELAY = 250;
 	
-	public Analyser(Root _root, JList<DetectedError> _errorlist)
+	/** The worker thread (shared by all Analysers) */
+	private static final ExecutorService worker = Executors.newSingleThreadExecutor(new ThreadFactory() {
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "Structorizer Analyser");
+			thread.setDaemon(true);
+			thread.setPriority(Thread.NORM_PRIORITY - 1);
+			return thread;
+		}
+	});
+
+	private final Diagram diagram;
+	private final JList<DetectedError> errorlist;
+	private final Timer timer;
+	/** The submitted analysis task not published yet (if any) */
+	private Future<?> pending = null;
+	/** Counter of requests, used to discard obsolete results */
+	private int generation = 0;
+
+	/**
+	 * Creates an Analyser for the diagram held by {@code _diagram}
+	 * @param _diagram - the {@link Diagram} whose current {@link Root} is to be analysed
+	 * @param _errorlist - the list to show the detected errors in
+	 */
+	public Analyser(Diagram _diagram, JList<DetectedError> _errorlist)
 	{
-		super();
-		
-		//System.out.println("Setup ...");
-		root = _root;
+		diagram = _diagram;
 		errorlist = _errorlist;
-		errors = (DefaultListModel<DetectedError>) _errorlist.getModel();
+		timer = new Timer(DEBOUNCE_DELAY, new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent evt) {
+				start();
+			}
+		});
+		timer.setRepeats(false);
 	}
 
-	public void run() 
+	/**
+	 * Requests an analysis of the current diagram. Requests following each other within
+	 * {@link #DEBOUNCE_DELAY} ms are coalesced, a running analysis is cancelled.
+	 */
+	public void request()
 	{
-		// make sure the analyser is not yet running
-		if(running==false)
-		{
-			running=true;
-			//System.out.println("Working ...");
-			Vector<DetectedError> vec = root.analyse();
-			errors.clear();
-			
-			for(int i=0; i<vec.size(); i++)
-			{
-				errors.addElement(vec.get(i));
-			}
-			
-			errorlist.repaint();
-			errorlist.validate();
-			running=false;
-		}
-		//else System.out.println("RUNNING");
+		cancel();
+		timer.restart();
 	}
-/*	
-	public void mouseClicked(MouseEvent e) 
-	{
-		if (e.getClickCount() == 1)
-		{
-			// alors?
-		}
-		else if (e.getClickCount() == 2)
-		{
-		}
-	}	
 
-    public void mouseReleased(MouseEvent e) 
+	/**
+	 * Cancels pending requests and a running analysis (without changing the error list),
+	 * e.g. if the diagram is replaced.
+	 */
+	public void cancel()
 	{
+		timer.stop();
+		generation++;
+		if (pending != null) {
+			pending.cancel(true);
+			pending = null;
+		}
 	}
-	
-    public void mouseEntered(MouseEvent e) 
+
+	/**
+	 * Cancels pending requests and a running analysis and clears the error list (to be
+	 * used when the Analyser gets switched off).
+	 */
+	public void clear()
 	{
+		cancel();
+		Root root = diagram.getRoot();
+		if (root != null) {
+			root.errors = new Vector<DetectedError>();
+		}
+		((DefaultListModel<DetectedError>) errorlist.getModel()).clear();
+		errorlist.repaint();
 	}
-	
-    public void mouseExited(MouseEvent e) 
+
+	/**
+	 * Snapshots the current diagram and submits its analysis to the worker thread
+	 */
+	private void start()
 	{
+		final Root root = diagram.getRoot();
+		if (pending != null) {
+			pending.cancel(true);
+			pending = null;
+		}
+		if (root == null || !Element.E_ANALYSER) {
+			return;
+		}
+		final int gen = ++generation;
+		final Root snapshot = root.copyForAnalysis();
+		final IdentityHashMap<Element, Element> originals = root.mapSnapshotElements(snapshot);
+		final int stamp = root.getModificationStamp();
+		pending = worker.submit(new Runnable() {
+			@Override
+			public void run() {
+				final Vector<DetectedError> vec;
+				try {
+					vec = snapshot.analyse();
+				}
+				catch (Exception ex) {
+					Logger.getLogger(Analyser.class.getName()).log(Level.WARNING, "Analysis failed", ex);
+					return;
+				}
+				if (!Thread.currentThread().isInterrupted()) {
+					SwingUtilities.invokeLater(new Runnable() {
+						@Override
+						public void run() {
+							publish(gen, root, stamp, originals, vec);
+						}
+					});
+				}
+			}
+		});
 	}
-	
-	public void mousePressed(MouseEvent e) 
+
+	/**
+	 * Shows the errors {@code vec} detected in the snapshot of {@code root} unless they have
+	 * become obsolete.
+	 * @param gen - the request generation of the analysis
+	 * @param root - the analysed diagram
+	 * @param stamp - the modification stamp of {@code root} at snapshot creation
+	 * @param originals - maps the elements of the snapshot to those of {@code root}
+	 * @param vec - the detected errors (referring to elements of the snapshot)
+	 */
+	private void publish(int gen, Root root, int stamp, IdentityHashMap<Element, Element> originals, Vector<DetectedError> vec)
 	{
+		if (gen != generation || diagram.getRoot() != root || !Element.E_ANALYSER) {
+			return;
+		}
+		pending = null;
+		if (root.getModificationStamp() != stamp) {
+			// The element correspondence may be outdated
+			request();
+			return;
+		}
+		// Errors must refer to the elements of the diagram rather than to those of the snapshot
+		Vector<DetectedError> errors = new Vector<DetectedError>(vec.size());
+		for (DetectedError error: vec) {
+			Element ele = error.getElement();
+			if (ele != null) {
+				ele = originals.get(ele);
+			}
+			errors.add(ele == error.getElement() ? error : new DetectedError(error.getError(), ele));
+		}
+		root.errors = errors;
+		
+		DefaultListModel<DetectedError> model = (DefaultListModel<DetectedError>) errorlist.getModel();
+		model.clear();
+		for (int i = 0; i < errors.size(); i++)
+		{
+			model.addElement(errors.get(i));
+		}
+		
+		errorlist.repaint();
+		errorlist.validate();
 	}
-*/
+	// END KGU#914 2026-10-19
 }
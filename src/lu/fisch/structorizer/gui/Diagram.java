@@ -240,6 +240,11 @@ import java.nio.charset.Charset;
 import java.util.*;
 import java.util.List;
 import java.util.Map.Entry;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.regex.Matcher;
@@ -288,7 +293,9 @@ import lu.fisch.structorizer.executor.Executor;
 import lu.fisch.structorizer.executor.Function;
 import lu.fisch.turtle.TurtleBox;
 
-import org.freehep.graphicsio.svg.SVGGraphics2D;
+// START KGU#924 2026-10-19: Replaced by lu.fisch.graphics.SVGStreamGraphics
+//import org.freehep.graphicsio.svg.SVGGraphics2D;
+// END KGU#924 2026-10-19
 
 /**
  * Represents the working area of the Structorizer. Holds the current Nassi-Shneiderman diagram and manages
@@ -443,6 +450,13 @@ public class Diagram extends JPanel implements MouseMotionListener, MouseListene
     // END KGU#2 2015-11-24
 
     private JList<DetectedError> errorlist = null;
+	// START KGU#914 2026-10-19: Background analysis
+	/** Runs the analysis of {@link #root} in the background (lazily created) */
+	private Analyser analyser = null;
+	// END KGU#914 2026-10-19
+	// START KGU#919 2026-10-19: Rendered tiles, re-rendered only where the appearance changed
+	private final DiagramTileCache tileCache = new DiagramTileCache();
+	// END KGU#919 2026-10-19
     // START KGU#705 2019-09-23: Enh. #738
     private JTextArea codePreview = null; 
     // END KGU#705 2019-09-23
@@ -648,6 +662,11 @@ public class Diagram extends JPanel implements MouseMotionListener, MouseListene
 
 			//boolean hil = root.highlightVars;
 			this.root = root;
+			// START KGU#914 2026-10-19: An analysis of the previous diagram is obsolete
+			if (analyser != null) {
+				analyser.cancel();
+			}
+			// END KGU#914 2026-10-19
 			//root.highlightVars = hil;
 			//System.out.println(root.getFullText().getText());
 			//root.getVarNames();
@@ -1381,8 +1400,12 @@ public class Diagram extends JPanel implements MouseMotionListener, MouseListene
 					// select the right element
 					// START KGU#565 2018-07-27: Bugfix #569 - We must first unselect the previous selection
 					//selected = (root.errors.get(errorlist.getSelectedIndex())).getElement();
-					Element errElem = (root.errors.get(errorlist.getSelectedIndex())).getElement();
-					if (selected != null && errElem != selected) {
+					// START KGU#914 2026-10-19: root.errors may already belong to a new diagram
+					//Element errElem = (root.errors.get(errorlist.getSelectedIndex())).getElement();
+					//if (selected != null && errElem != selected) {
+					Element errElem = errorlist.getSelectedValue().getElement();
+					if (selected != null && errElem != null && errElem != selected) {
+					// END KGU#914 2026-10-19
 						selected.setSelected(false);
 						selected = errElem.setSelected(true);
 						// START KGU#705 2019-09-24: Enh. #738
@@ -1624,7 +1647,12 @@ public class Diagram extends JPanel implements MouseMotionListener, MouseListene
 		// START KGU#502/KGU#524/KGU#553: 2019-03-29: Issues #518, #544, #557 drawing speed
 		//root.draw(_g, ((JViewport)this.getParent()).getViewRect());
 		Rectangle clipRect = _g.getClipBounds();
-		root.draw(_g, clipRect);
+		// START KGU#919 2026-10-19: Blit cached tiles where possible
+		//root.draw(_g, clipRect);
+		if (!tileCache.paint((Graphics2D)_g, root, this.getBackground())) {
+			root.draw(_g, clipRect);
+		}
+		// END KGU#919 2026-10-19
 		// END KGU#502/KGU#524/KGU#553
 		
 		lu.fisch.graphics.Canvas canvas = new lu.fisch.graphics.Canvas((Graphics2D) _g);
@@ -1731,6 +1759,9 @@ public class Diagram extends JPanel implements MouseMotionListener, MouseListene
 	public void resetDrawingInfo()
 	{
 		root.resetDrawingInfoDown();
+		// START KGU#919 2026-10-19
+		tileCache.clear();
+		// END KGU#919 2026-10-19
 		if (isArrangerOpen())
 		{
 			Arranger.getInstance().resetDrawingInfo(this.hashCode());
@@ -5533,77 +5564,12 @@ public class Diagram extends JPanel implements MouseMotionListener, MouseListene
 				//printAll(image.getGraphics());
 				redraw(image.createGraphics());
 				// END KGU#221 2016-07-28
+				// START KGU#923 2026-10-19: The tiles are cut from the image and encoded in the background
 				// source: http://answers.yahoo.com/question/index?qid=20110821001157AAcdXVk
 				// source: http://kalanir.blogspot.com/2010/02/how-to-split-image-into-chunks-java.html
-				try
-				{
-					// 1. Load image file into memory
-					//File file = new File("mario.png"); // mario.png in the same working directory
-					//FileInputStream fis = new FileInputStream(file);
-					//BufferedImage image = ImageIO.read(fis);
-
-					// 2. Decide the number of pieces, and calculate the size of each chunk
-					//int rows = 4;
-					//int cols = 6;
-					int chunks = rows * cols;
-
-					int chunkWidth = image.getWidth() / cols;
-					int chunkHeight = image.getHeight() / rows;
-					// START KGU#223 2016-07-28: Bugfix #209 - identify the integer division defects
-					int widthDefect = image.getWidth() % cols;
-					int heightDefect = image.getHeight() % rows;
-					// END KGU#223 2016-07-28
-
-					// 3. Define an Image array to hold image chunks
-					int count = 0;
-					BufferedImage imgs[] = new BufferedImage[chunks];
-
-					// 4. Fill the Image array with split image parts
-					for (int x = 0; x < rows; x++)
-					{
-						for (int y = 0; y < cols; y++)
-						{
-							//Initialize the image array with image chunks
-							// START KGU#223 2016-07-28: Bugfix #209
-							// We must compensate the rounding defects lest the right and lower borders should be cut 
-							//imgs[count] = new BufferedImage(chunkWidth, chunkHeight, image.getType());
-							int tileWidth = chunkWidth + (y < cols-1 ? 0 : widthDefect);
-							int tileHeight = chunkHeight + (x < rows-1 ? 0 : heightDefect);
-							imgs[count] = new BufferedImage(tileWidth, tileHeight, image.getType());
-							// END KGU#223 2016-07-28
-							
-							// draws the image chunk
-							Graphics2D gr = imgs[count++].createGraphics();
-							// START KGU#223 2016-07-28: Bugfix #209
-							//gr.drawImage(image, 0, 0, chunkWidth, chunkHeight, chunkWidth * y, chunkHeight * x, chunkWidth * y + chunkWidth, chunkHeight * x + chunkHeight, null);
-							// We need to achieve transparent background
-							gr.drawImage(image, 0, 0, tileWidth, tileHeight, chunkWidth * y, chunkHeight * x, chunkWidth * y + tileWidth, chunkHeight * x + tileHeight, null);
-							// END KGU#223 2016-07-28
-							gr.dispose();
-						}
-					}
-
-					// 5. Save mini images into image files
-					// START KGU#224 2016-07-28: Issue #209 - provide the original base name
-					file = new File(filename);
-					filename = file.getAbsolutePath();
-					// END KGU#224 2016-07-28
-					for (int i = 0; i < imgs.length; i++)
-					{
-						// START KGU#224 2016-07-28: Issue #209 - Better file name coding
-						//File f = new File(file.getAbsolutePath().replace(".png", "-"+i+".png"));
-						File f = new File(filename.replace(".png", String.format("-%1$02d-%2$02d.png", i / cols, i % cols)));
-						// END KGU#224 2016-07-28
-						ImageIO.write(imgs[i], "png", f);
-					}     
-				}
-				catch(Exception e)
-				{
-					JOptionPane.showMessageDialog(this.getFrame(),
-							Menu.msgErrorImageSave.getText(),
-							Menu.msgTitleError.getText(), 
-							JOptionPane.ERROR_MESSAGE);
-				}
+				// (The tiles were formerly copied and written one after the other here, blocking the GUI)
+				new ImageExportMonitor(this.getFrame(), new PNGTileWorker(image, rows, cols, new File(filename).getAbsolutePath()));
+				// END KGU#923 2026-10-19
 			}
 		}
 		// START KGU#183 2016-04-24: Issue #169 - restore old selection
@@ -5621,6 +5587,105 @@ public class Diagram extends JPanel implements MouseMotionListener, MouseListene
 		// END KGU#456 2017-11-05
 	}
 
+	// START KGU#923 2026-10-19: Background encoding of the multi-PNG export
+	/**
+	 * Background worker for {@link #exportPNGmulti()}: cuts the rendered diagram image into
+	 * a grid of tiles and writes them as PNG files in parallel on a fork-join pool, reporting
+	 * the percentage of written files as progress. Cancelling it skips the pending tiles.
+	 */
+	private class PNGTileWorker extends SwingWorker<Boolean, Void>
+	{
+		private final BufferedImage image;
+		private final int rows, cols;
+		private final String filename;
+
+		/**
+		 * @param _image - the rendered diagram (must not be modified meanwhile)
+		 * @param _rows - number of tile rows
+		 * @param _cols - number of tile columns
+		 * @param _filename - absolute path of the base file name (with extension ".png")
+		 */
+		public PNGTileWorker(BufferedImage _image, int _rows, int _cols, String _filename)
+		{
+			this.image = _image;
+			this.rows = _rows;
+			this.cols = _cols;
+			this.filename = _filename;
+		}
+
+		@Override
+		protected Boolean doInBackground() throws Exception
+		{
+			final int chunks = rows * cols;
+			final int chunkWidth = image.getWidth() / cols;
+			final int chunkHeight = image.getHeight() / rows;
+			// START KGU#223 2016-07-28: Bugfix #209 - identify the integer division defects
+			final int widthDefect = image.getWidth() % cols;
+			final int heightDefect = image.getHeight() % rows;
+			// END KGU#223 2016-07-28
+			final AtomicInteger written = new AtomicInteger(0);
+			ForkJoinPool forkJoinPool = new ForkJoinPool();
+			Vector<Future<Void>> futures = new Vector<Future<Void>>(chunks);
+			try {
+				for (int i = 0; i < chunks; i++) {
+					final int x = i / cols, y = i % cols;
+					futures.add(forkJoinPool.submit(new Callable<Void>() {
+						@Override
+						public Void call() throws IOException {
+							if (isCancelled()) {
+								return null;
+							}
+							// START KGU#223 2016-07-28: Bugfix #209
+							// We must compensate the rounding defects lest the right and lower borders should be cut
+							int tileWidth = chunkWidth + (y < cols-1 ? 0 : widthDefect);
+							int tileHeight = chunkHeight + (x < rows-1 ? 0 : heightDefect);
+							// END KGU#223 2016-07-28
+							// The subimage shares the raster, so the tile isn't copied
+							BufferedImage tile = image.getSubimage(chunkWidth * y, chunkHeight * x, tileWidth, tileHeight);
+							// START KGU#224 2016-07-28: Issue #209 - Better file name coding
+							File f = new File(filename.replace(".png", String.format("-%1$02d-%2$02d.png", x, y)));
+							// END KGU#224 2016-07-28
+							ImageIO.write(tile, "png", f);
+							setProgress(written.incrementAndGet() * 100 / chunks);
+							return null;
+						}
+					}));
+				}
+				for (Future<Void> future: futures) {
+					try {
+						future.get();
+					}
+					catch (ExecutionException ex) {
+						Throwable cause = ex.getCause();
+						throw cause instanceof Exception ? (Exception)cause : ex;
+					}
+				}
+			}
+			finally {
+				forkJoinPool.shutdownNow();
+			}
+			return true;
+		}
+
+		@Override
+		protected void done()
+		{
+			if (!isCancelled()) {
+				try {
+					get();
+				}
+				catch (Exception ex) {
+					logger.log(Level.WARNING, "Trouble exporting as image.", ex);
+					JOptionPane.showMessageDialog(getFrame(),
+							Menu.msgErrorImageSave.getText(),
+							Menu.msgTitleError.getText(),
+							JOptionPane.ERROR_MESSAGE);
+				}
+			}
+		}
+	}
+	// END KGU#923 2026-10-19
+
 	/**
 	 * Opens a {@link FileChooser} and performs the image export as PNG file.
 	 * @see #exportPNGmulti()
@@ -5893,33 +5958,49 @@ public class Diagram extends JPanel implements MouseMotionListener, MouseListene
 			{
 				try
 				{
-					SVGGraphics2D svg = new SVGGraphics2D(new FileOutputStream(filename),new Dimension(root.width+12, root.height+12)) ;
-					svg.startExport();
-					lu.fisch.graphics.Canvas c = new lu.fisch.graphics.Canvas(svg);
-					lu.fisch.graphics.Rect myrect = root.prepareDraw(c);
-					myrect.left+=6;
-					myrect.top+=6;
-					root.draw(c,myrect, null, false);
-					svg.endExport();
-
-					// re-read the file ...
-					StringBuffer buffer = new StringBuffer();
-					InputStreamReader isr = new InputStreamReader(new FileInputStream(filename));
-					Reader in = new BufferedReader(isr);
-					int ch;
-					while ((ch = in.read()) > -1)
-					{
-						buffer.append((char)ch);
+					// START KGU#924 2026-10-19: Stream the SVG elements directly into the UTF-8 file
+//					SVGGraphics2D svg = new SVGGraphics2D(new FileOutputStream(filename),new Dimension(root.width+12, root.height+12)) ;
+//					svg.startExport();
+//					lu.fisch.graphics.Canvas c = new lu.fisch.graphics.Canvas(svg);
+//					lu.fisch.graphics.Rect myrect = root.prepareDraw(c);
+//					myrect.left+=6;
+//					myrect.top+=6;
+//					root.draw(c,myrect, null, false);
+//					svg.endExport();
+
+//					// re-read the file ...
+//					StringBuffer buffer = new StringBuffer();
+//					InputStreamReader isr = new InputStreamReader(new FileInputStream(filename));
+//					Reader in = new BufferedReader(isr);
+//					int ch;
+//					while ((ch = in.read()) > -1)
+//					{
+//						buffer.append((char)ch);
+//					}
+//					// START KGU 2015-12-04
+//					in.close();
+//					// END KGU 2015-12-04
+
+//					// ... and encode it UTF-8
+//					FileOutputStream fos = new FileOutputStream(filename);
+//					Writer out = new OutputStreamWriter(fos, "UTF-8");
+//					out.write(buffer.toString());
+//					out.close();
+					Writer out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(filename), "UTF-8"));
+					try {
+						SVGStreamGraphics svg = new SVGStreamGraphics(out, root.width+12, root.height+12);
+						svg.startExport();
+						lu.fisch.graphics.Canvas c = new lu.fisch.graphics.Canvas(svg);
+						lu.fisch.graphics.Rect myrect = root.prepareDraw(c);
+						myrect.left+=6;
+						myrect.top+=6;
+						root.draw(c,myrect, null, false);
+						svg.endExport();
 					}
-					// START KGU 2015-12-04
-					in.close();
-					// END KGU 2015-12-04
-
-					// ... and encode it UTF-8
-					FileOutputStream fos = new FileOutputStream(filename);
-					Writer out = new OutputStreamWriter(fos, "UTF-8");
-					out.write(buffer.toString());
-					out.close();
+					finally {
+						out.close();
+					}
+					// END KGU#924 2026-10-19
 
 				}
 				catch (Exception e)
@@ -8947,6 +9028,11 @@ public class Diagram extends JPanel implements MouseMotionListener, MouseListene
 	public void setAnalyser(boolean _analyse)
 	{
 		Element.E_ANALYSER = _analyse;
+		// START KGU#914 2026-10-19: Don't retain outdated results
+		if (!_analyse && analyser != null) {
+			analyser.clear();
+		}
+		// END KGU#914 2026-10-19
 		NSDControl.doButtons();
 	}
 
@@ -9606,18 +9692,24 @@ public class Diagram extends JPanel implements MouseMotionListener, MouseListene
 			 /**/
 
 			//System.out.println("Working ...");
-			Vector<DetectedError> vec = root.analyse();
-			DefaultListModel<DetectedError> errors = 
-					(DefaultListModel<DetectedError>) errorlist.getModel();
-			errors.clear();
-
-			for(int i=0;i<vec.size();i++)
-			{
-				errors.addElement(vec.get(i));
+			// START KGU#914 2026-10-19: Debounced background analysis, results are published on the EDT
+			//Vector<DetectedError> vec = root.analyse();
+			//DefaultListModel<DetectedError> errors = 
+			//		(DefaultListModel<DetectedError>) errorlist.getModel();
+			//errors.clear();
+			//
+			//for(int i=0;i<vec.size();i++)
+			//{
+			//	errors.addElement(vec.get(i));
+			//}
+			//
+			//errorlist.repaint();
+			//errorlist.validate();
+			if (analyser == null) {
+				analyser = new Analyser(this, errorlist);
 			}
-
-			errorlist.repaint();
-			errorlist.validate();
+			analyser.request();
+			// END KGU#914 2026-10-19
 		}
 	}
 
@@ -10168,7 +10260,10 @@ public class Diagram extends JPanel implements MouseMotionListener, MouseListene
 		if (errorlist.getSelectedIndex() >= 0)
 		{
 			// get the selected error
-			DetectedError err = root.errors.get(errorlist.getSelectedIndex()); 
+			// START KGU#914 2026-10-19: root.errors may already belong to a new diagram
+			//DetectedError err = root.errors.get(errorlist.getSelectedIndex()); 
+			DetectedError err = errorlist.getSelectedValue();
+			// END KGU#914 2026-10-19
 			Element ele = err.getElement();
 			if (ele != null && ele != selected)
 			{
@@ -0,0 +1,321 @@
+/*
+    Structorizer
+    A little tool which you can use to create Nassi-Schneiderman Diagrams (NSD)
+
+    Copyright (C) 2009  Bob Fisch
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or any
+    later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+
+package lu.fisch.structorizer.gui;
+
+/******************************************************************************************************
+ *
+ *      Description:    Cache of rendered image tiles for the Diagram canvas.
+ *
+ ******************************************************************************************************
+ *
+ *      Comment:
+ *      2026-10-19 (KGU#919)
+ *      - The diagram is rendered in square tiles of fixed size, which are blitted on repaint (scrolling,
+ *        window exposure) as long as they are valid. The number of cached tiles is bounded (LRU).
+ *      - Each tile holds the elements intersecting it together with their appearance hashes as of the
+ *        rendering. A tile is rendered anew when about to be painted if the appearance of one of its
+ *        elements has changed (selection, execution highlighting, test coverage etc.), no matter by
+ *        which way the state change was triggered. So the validation effort is proportional to the
+ *        painted area rather than to the diagram size. The element set of a tile is retained on
+ *        re-rendering, such that the diagram only has to be traversed for tiles rendered first.
+ *      - Any modification of the diagram (see Root.getModificationStamp()) or reset of the drawing
+ *        info (which precedes all changes of the layout) discards all tiles, since it may change
+ *        the syntax highlighting anywhere (variable sets). The same holds for a change of the global
+ *        drawing settings, of the Root, or of the device scale.
+ *      - Missing tiles within the painted area are rendered as a single block, because the costs of
+ *        a drawing of the diagram hardly depend on the size of the clip area.
+ *      - Tiles are rendered with the device scale of the target graphics, such that they are blitted
+ *        1:1. If the transformation is not suited (rotation, non-integral tile offsets) or the painted
+ *        area is too large then the caller is to draw directly.
+ *
+ ******************************************************************************************************///
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import lu.fisch.graphics.Rect;
+import lu.fisch.structorizer.elements.Element;
+import lu.fisch.structorizer.elements.IElementVisitor;
+import lu.fisch.structorizer.elements.Root;
+
+/**
+ * Holds rendered tiles of the {@link Root} presented by a {@link Diagram} and
+ * paints the requested area from them, re-rendering only invalidated tiles.
+ */
+class DiagramTileCache {
+
+	/** Edge length of the tiles (in logical pixels) */
+	static final int TILE_SIZE = 256;
+	/** Maximum number of tiles held */
+	private static final int TILE_LIMIT = 64;
+
+	/** A rendered tile with the elements it shows */
+	private static final class Tile {
+		/** The rendered image */
+		BufferedImage image = null;
+		/** Whether {@link #image} is up to date */
+		boolean valid = false;
+		/** The elements intersecting the tile (invariant while the layout doesn't change) */
+		Element[] elements = null;
+		/** The appearance hashes of {@link #elements} as rendered */
+		int[] hashes = null;
+
+		/** @return true if none of the shown elements has changed its appearance */
+		boolean isValid()
+		{
+			for (int i = 0; i < elements.length; i++) {
+				if (elements[i].getAppearanceHash() != hashes[i]) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		/** Updates the appearance hashes of the elements */
+		void updateHashes()
+		{
+			hashes = new int[elements.length];
+			for (int i = 0; i < elements.length; i++) {
+				hashes[i] = elements[i].getAppearanceHash();
+			}
+		}
+	}
+
+	/** The rendered tiles by row and column, in access order */
+	@SuppressWarnings("serial")
+	private final LinkedHashMap<Long, Tile> tiles = new LinkedHashMap<Long, Tile>(TILE_LIMIT, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Long, Tile> eldest) {
+			return size() > TILE_LIMIT;
+		}
+	};
+
+	/** The conditions the tiles are valid for */
+	private Root root = null;
+	private int stamp = 0;
+	private int settingsHash = 0;
+	private int background = 0;
+	private double scale = 1.0;
+	/** Drawing buffer for the rendering of tile blocks (reused) */
+	private BufferedImage buffer = null;
+
+	/**
+	 * Discards all tiles
+	 */
+	void clear()
+	{
+		tiles.clear();
+		buffer = null;
+		root = null;
+	}
+
+	/**
+	 * Paints the clip area of {@code _g} from the tiles, rendering missing or invalidated
+	 * tiles via {@link Root#draw(java.awt.Graphics, Rectangle)} first.
+	 * @param _g - the target graphics (as passed to paintComponent)
+	 * @param _root - the diagram to be painted
+	 * @param _background - the background colour beyond the diagram
+	 * @return false if the tiles aren't applicable to the graphics transformation or the
+	 * clip area (in which case nothing was painted)
+	 */
+	boolean paint(Graphics2D _g, Root _root, Color _background)
+	{
+		AffineTransform transform = _g.getTransform();
+		double scl = transform.getScaleX();
+		double tileExtent = scl * TILE_SIZE;
+		Rectangle clip = _g.getClipBounds();
+		if (clip == null || clip.isEmpty() || transform.getShearX() != 0 || transform.getShearY() != 0
+				|| transform.getScaleY() != scl || tileExtent != Math.rint(tileExtent)
+				|| transform.getTranslateX() != Math.rint(transform.getTranslateX())
+				|| transform.getTranslateY() != Math.rint(transform.getTranslateY())) {
+			return false;
+		}
+		int col0 = Math.floorDiv(clip.x, TILE_SIZE);
+		int row0 = Math.floorDiv(clip.y, TILE_SIZE);
+		int col1 = Math.floorDiv(clip.x + clip.width - 1, TILE_SIZE);
+		int row1 = Math.floorDiv(clip.y + clip.height - 1, TILE_SIZE);
+		int nCols = col1 - col0 + 1;
+		if ((long)nCols * (row1 - row0 + 1) > TILE_LIMIT) {
+			return false;
+		}
+		int stmp = _root.getModificationStamp();
+		int settings = Element.getSettingsAppearanceHash();
+		if (_root != root || stmp != stamp || settings != settingsHash
+				|| _background.getRGB() != background || scl != scale) {
+			clear();
+			root = _root;
+			stamp = stmp;
+			settingsHash = settings;
+			background = _background.getRGB();
+			scale = scl;
+		}
+
+		// Retrieve the valid tiles and determine the block of tiles to be rendered
+		Tile[] painted = new Tile[nCols * (row1 - row0 + 1)];
+		Rectangle missing = null;
+		for (int row = row0; row <= row1; row++) {
+			for (int col = col0; col <= col1; col++) {
+				Tile tile = tiles.get(tileKey(col, row));
+				if (tile != null && tile.valid && !tile.isValid()) {
+					tile.valid = false;
+				}
+				if (tile == null || !tile.valid) {
+					if (missing == null) {
+						missing = new Rectangle(col, row, 1, 1);
+					}
+					else {
+						missing.add(new Rectangle(col, row, 1, 1));
+					}
+				}
+				painted[(row - row0) * nCols + col - col0] = tile;
+			}
+		}
+		if (missing != null) {
+			Tile[] rendered = renderTiles(missing, _g.getRenderingHints());
+			for (int row = 0; row < missing.height; row++) {
+				for (int col = 0; col < missing.width; col++) {
+					painted[(missing.y + row - row0) * nCols + missing.x + col - col0] = rendered[row * missing.width + col];
+				}
+			}
+		}
+
+		for (int i = 0; i < painted.length; i++) {
+			int x = (col0 + i % nCols) * TILE_SIZE;
+			int y = (row0 + i / nCols) * TILE_SIZE;
+			_g.drawImage(painted[i].image, x, y, TILE_SIZE, TILE_SIZE, null);
+		}
+		return true;
+	}
+
+	/**
+	 * Renders the tiles of the given block by a single drawing of the diagram (which
+	 * also informs the updaters of the Root) and updates the respective cached tiles.
+	 * @param _block - columns and rows of the tiles to be rendered
+	 * @param _hints - the rendering hints of the target graphics
+	 * @return the rendered tiles row by row
+	 */
+	private Tile[] renderTiles(Rectangle _block, RenderingHints _hints)
+	{
+		int extent = (int)Math.rint(scale * TILE_SIZE);
+		Rectangle area = new Rectangle(_block.x * TILE_SIZE, _block.y * TILE_SIZE,
+				_block.width * TILE_SIZE, _block.height * TILE_SIZE);
+		int width = _block.width * extent, height = _block.height * extent;
+		if (buffer == null || buffer.getWidth() < width || buffer.getHeight() < height) {
+			if (buffer != null) {
+				width = Math.max(width, buffer.getWidth());
+				height = Math.max(height, buffer.getHeight());
+			}
+			buffer = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+		}
+		Graphics2D g2d = buffer.createGraphics();
+		try {
+			g2d.setRenderingHints(_hints);
+			g2d.scale(scale, scale);
+			g2d.translate(-area.x, -area.y);
+			g2d.setColor(new Color(background));
+			g2d.fill(area);
+			g2d.setClip(area);
+			root.draw(g2d, area);
+		}
+		finally {
+			g2d.dispose();
+		}
+		// The tiles are copied from the buffer (rather than sharing it) to bound the memory
+		Tile[] rendered = new Tile[_block.width * _block.height];
+		boolean incomplete = false;
+		for (int row = 0; row < _block.height; row++) {
+			for (int col = 0; col < _block.width; col++) {
+				Long key = tileKey(_block.x + col, _block.y + row);
+				Tile tile = tiles.get(key);
+				if (tile == null) {
+					tiles.put(key, tile = new Tile());
+					incomplete = true;
+				}
+				if (tile.image == null) {
+					tile.image = new BufferedImage(extent, extent, BufferedImage.TYPE_INT_RGB);
+				}
+				Graphics2D gTile = tile.image.createGraphics();
+				gTile.drawImage(buffer, -col * extent, -row * extent, null);
+				gTile.dispose();
+				tile.valid = true;
+				rendered[row * _block.width + col] = tile;
+			}
+		}
+		if (incomplete) {
+			collectElements(_block, rendered);
+		}
+		for (Tile tile: rendered) {
+			tile.updateHashes();
+		}
+		return rendered;
+	}
+
+	/**
+	 * Equips the given tiles lacking it with the set of elements intersecting them
+	 * @param _block - columns and rows of the tiles
+	 * @param _rendered - the tiles of the block row by row
+	 */
+	private void collectElements(final Rectangle _block, final Tile[] _rendered)
+	{
+		final ArrayList<ArrayList<Element>> elements = new ArrayList<ArrayList<Element>>(_rendered.length);
+		for (int i = 0; i < _rendered.length; i++) {
+			elements.add(new ArrayList<Element>());
+		}
+		root.traverse(new IElementVisitor() {
+			@Override
+			public boolean visitPreOrder(Element _ele) {
+				Rect rect = _ele.getRectOffDrawPoint();
+				int col0 = Math.max(Math.floorDiv(rect.left, TILE_SIZE), _block.x);
+				int row0 = Math.max(Math.floorDiv(rect.top, TILE_SIZE), _block.y);
+				int col1 = Math.min(Math.floorDiv(rect.right, TILE_SIZE), _block.x + _block.width - 1);
+				int row1 = Math.min(Math.floorDiv(rect.bottom, TILE_SIZE), _block.y + _block.height - 1);
+				for (int row = row0; row <= row1; row++) {
+					for (int col = col0; col <= col1; col++) {
+						elements.get((row - _block.y) * _block.width + col - _block.x).add(_ele);
+					}
+				}
+				return true;
+			}
+			@Override
+			public boolean visitPostOrder(Element _ele) {
+				return true;
+			}
+		});
+		for (int i = 0; i < _rendered.length; i++) {
+			if (_rendered[i].elements == null) {
+				_rendered[i].elements = elements.get(i).toArray(new Element[elements.get(i).size()]);
+			}
+		}
+	}
+
+	private static Long tileKey(int _col, int _row)
+	{
+		return ((long)_row << 32) | (_col & 0xFFFFFFFFL);
+	}
+
+}
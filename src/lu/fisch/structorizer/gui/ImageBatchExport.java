@@ -0,0 +1,225 @@
+/*
+    Structorizer
+    A little tool which you can use to create Nassi-Schneiderman Diagrams (NSD)
+
+    Copyright (C) 2009  Bob Fisch
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or any
+    later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+
+package lu.fisch.structorizer.gui;
+
+/******************************************************************************************************
+ *
+ *      Description:    Headless image export of a set of diagrams (batch mode).
+ *
+ ******************************************************************************************************
+ *
+ *      Comment:
+ *      2026-10-19 (KGU#922)
+ *      - The diagrams are drawn without any GUI component via Root.draw() onto image or SVG graphics,
+ *        in the same way as Diagram.exportPNG() and Diagram.exportSVG() do, and hence work with
+ *        java.awt.headless = true.
+ *      - The diagrams are rendered in parallel on a fork-join pool. This requires the static drawing
+ *        settings held on class Element to be merely read meanwhile: lazily initialised resources are
+ *        completed in advance, and the variable and type information (which may involve includables,
+ *        i.e. other diagrams) is retrieved sequentially before the rendering starts. The diagrams
+ *        must have been loaded completely before (element ids are assigned on creation).
+ *      - Only PNG and SVG are supported, the other vector formats of the GUI are left to the GUI.
+ *      2026-10-19 (KGU#924)
+ *      - SVG files are streamed by SVGStreamGraphics instead of being composed by FreeHEP in memory.
+ *
+ ******************************************************************************************************///
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.Vector;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.imageio.ImageIO;
+
+import lu.fisch.graphics.Canvas;
+import lu.fisch.graphics.Rect;
+import lu.fisch.graphics.SVGStreamGraphics;
+import lu.fisch.structorizer.elements.Element;
+import lu.fisch.structorizer.elements.Root;
+
+/**
+ * Renders a set of diagrams in parallel into PNG or SVG files without GUI.
+ */
+public class ImageBatchExport {
+
+	/** The supported image formats (file extensions) */
+	public static final String[] FORMATS = {"png", "svg"};
+
+	private final String format;
+	private final Vector<Root> roots = new Vector<Root>();
+	private final Vector<File> files = new Vector<File>();
+
+	/**
+	 * Creates an empty batch export for the given image format
+	 * @param _format - one of the {@link #FORMATS}
+	 */
+	public ImageBatchExport(String _format)
+	{
+		format = _format.toLowerCase();
+	}
+
+	/**
+	 * @param _format - an image format name or file extension
+	 * @return true if the given format is supported
+	 */
+	public static boolean isSupported(String _format)
+	{
+		for (String fmt: FORMATS) {
+			if (fmt.equalsIgnoreCase(_format)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Schedules the export of the given diagram into the given file
+	 * @param _root - a completely loaded diagram (with its routine pool if it includes others)
+	 * @param _file - the target file
+	 */
+	public void add(Root _root, File _file)
+	{
+		roots.add(_root);
+		files.add(_file);
+	}
+
+	/** @return the number of scheduled diagrams */
+	public int getDiagramCount()
+	{
+		return roots.size();
+	}
+
+	/**
+	 * Renders all scheduled diagrams in parallel and writes the image files. The static
+	 * drawing settings (see {@link Element}) must not be changed before this returns.
+	 * @return the messages of the failed exports (empty if all succeeded)
+	 * @throws InterruptedException if the export was interrupted
+	 */
+	public Vector<String> run() throws InterruptedException
+	{
+		Element.prepareConcurrentDrawing();
+		// Drawing may retrieve type information from includables, which mustn't happen concurrently
+		for (Root root: roots) {
+			root.getVarNames();
+			root.getTypeInfo();
+		}
+		ForkJoinPool forkJoinPool = new ForkJoinPool();
+		Vector<Future<Void>> futures = new Vector<Future<Void>>(roots.size());
+		Vector<String> failures = new Vector<String>();
+		try {
+			for (int i = 0; i < roots.size(); i++) {
+				final Root root = roots.get(i);
+				final File file = files.get(i);
+				futures.add(forkJoinPool.submit(new Callable<Void>() {
+					@Override
+					public Void call() throws IOException {
+						if (format.equals("svg")) {
+							writeSVG(root, file);
+						}
+						else {
+							writePNG(root, file);
+						}
+						return null;
+					}
+				}));
+			}
+			for (int i = 0; i < futures.size(); i++) {
+				try {
+					futures.get(i).get();
+				}
+				catch (ExecutionException ex) {
+					Logger.getLogger(ImageBatchExport.class.getName()).log(Level.WARNING, "Export of " + files.get(i) + " failed", ex.getCause());
+					failures.add(files.get(i) + ": " + ex.getCause());
+				}
+			}
+		}
+		finally {
+			forkJoinPool.shutdownNow();
+		}
+		return failures;
+	}
+
+	/**
+	 * Draws the given diagram onto a transparent image and writes it as PNG file
+	 * (like {@link Diagram#exportPNG()}).
+	 * @param _root - the diagram
+	 * @param _file - the target file
+	 * @throws IOException
+	 */
+	public static void writePNG(Root _root, File _file) throws IOException
+	{
+		// The extension of the diagram is only known after the drawing preparation
+		Graphics2D g2d = new BufferedImage(1, 1, BufferedImage.TYPE_4BYTE_ABGR).createGraphics();
+		Rect rect = _root.prepareDraw(g2d);
+		g2d.dispose();
+		BufferedImage bi = new BufferedImage(rect.right - rect.left + 1, rect.bottom - rect.top + 1, BufferedImage.TYPE_4BYTE_ABGR);
+		g2d = bi.createGraphics();
+		try {
+			_root.draw(g2d, null);
+		}
+		finally {
+			g2d.dispose();
+		}
+		if (!ImageIO.write(bi, "png", _file)) {
+			throw new IOException("No PNG writer available");
+		}
+	}
+
+	/**
+	 * Draws the given diagram onto a streaming SVG graphics writing the UTF-8-encoded
+	 * SVG file (like {@link Diagram#exportSVG()}).
+	 * @param _root - the diagram
+	 * @param _file - the target file
+	 * @throws IOException
+	 */
+	public static void writeSVG(Root _root, File _file) throws IOException
+	{
+		Graphics2D g2d = new BufferedImage(1, 1, BufferedImage.TYPE_4BYTE_ABGR).createGraphics();
+		Rect rect = _root.prepareDraw(g2d);
+		g2d.dispose();
+		Writer out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(_file), "UTF-8"));
+		try {
+			SVGStreamGraphics svg = new SVGStreamGraphics(out, rect.right - rect.left + 12, rect.bottom - rect.top + 12);
+			svg.startExport();
+			Canvas canvas = new Canvas(svg);
+			Rect myrect = _root.prepareDraw(canvas);
+			myrect.left += 6;
+			myrect.top += 6;
+			_root.draw(canvas, myrect, null, false);
+			svg.endExport();
+		}
+		finally {
+			out.close();
+		}
+	}
+
+}
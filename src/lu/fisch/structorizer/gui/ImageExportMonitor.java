@@ -0,0 +1,139 @@
+/*
+    Structorizer
+    A little tool which you can use to create Nassi-Schneiderman Diagrams (NSD)
+
+    Copyright (C) 2009  Bob Fisch
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or any
+    later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+
+package lu.fisch.structorizer.gui;
+
+/******************************************************************************************************
+ *
+ *      Description:    Dialog showing the progress of a background image export and allowing to cancel it.
+ *
+ ******************************************************************************************************
+ *
+ *      Comment:
+ *      2026-10-19 (KGU#923)
+ *      - The dialog is not modal, i.e. the GUI remains usable while the image files are written. It
+ *        starts the given worker, presents its "progress" property, and closes when the worker is done.
+ *        Cancelling the worker (button or closing the dialog) stops the export.
+ *
+ ******************************************************************************************************///
+
+import java.awt.BorderLayout;
+import java.awt.FlowLayout;
+import java.awt.Frame;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+
+import javax.swing.JButton;
+import javax.swing.JPanel;
+import javax.swing.JProgressBar;
+import javax.swing.SwingWorker;
+import javax.swing.border.EmptyBorder;
+
+import lu.fisch.structorizer.locales.LangDialog;
+import lu.fisch.structorizer.locales.LangTextHolder;
+import lu.fisch.structorizer.locales.Locales;
+
+/**
+ * Non-modal monitor dialog for a background image export {@link SwingWorker}, which
+ * is expected to report the percentage of the written files as progress.
+ */
+@SuppressWarnings("serial")
+public class ImageExportMonitor extends LangDialog implements PropertyChangeListener, ActionListener {
+
+	public static final LangTextHolder ttlExporting = new LangTextHolder("Writing image files ...");
+
+	private final SwingWorker<?,?> worker;
+	private JProgressBar progressBar;
+	protected JButton btnCancel;
+
+	/**
+	 * Creates and shows the monitor dialog and starts the worker
+	 * @param _owner - the owning frame
+	 * @param _worker - the (not yet started) export worker
+	 */
+	public ImageExportMonitor(Frame _owner, SwingWorker<?,?> _worker)
+	{
+		super(_owner, false);
+		this.worker = _worker;
+		initComponents();
+		Locales.getInstance().setLocale(this);
+		this.setTitle(ttlExporting.getText());
+		this.setLocationRelativeTo(_owner);
+		this.setVisible(true);
+		this.worker.addPropertyChangeListener(this);
+		this.worker.execute();
+	}
+
+	private void initComponents()
+	{
+		JPanel contentPane = new JPanel(new BorderLayout());
+		contentPane.setBorder(new EmptyBorder(5, 5, 5, 5));
+
+		progressBar = new JProgressBar(0, 100);
+		progressBar.setValue(0);
+		progressBar.setStringPainted(true);
+		contentPane.add(progressBar, BorderLayout.CENTER);
+
+		JPanel buttonBar = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+		btnCancel = new JButton("Cancel");
+		btnCancel.addActionListener(this);
+		buttonBar.add(btnCancel);
+		contentPane.add(buttonBar, BorderLayout.SOUTH);
+
+		this.addWindowListener(new WindowAdapter() {
+			@Override
+			public void windowClosed(WindowEvent evt) {
+				if (!worker.isDone()) {
+					worker.cancel(true);
+				}
+			}
+		});
+		this.setDefaultCloseOperation(DISPOSE_ON_CLOSE);
+		this.setContentPane(contentPane);
+		GUIScaler.rescaleComponents(this);
+		this.pack();
+		this.setSize(Math.max(this.getWidth(), 3 * this.getHeight()), this.getHeight());
+	}
+
+	@Override
+	public void propertyChange(PropertyChangeEvent evt) {
+		if (evt.getSource() == this.worker) {
+			String aspect = evt.getPropertyName();
+			if (aspect.equals("progress")) {
+				progressBar.setValue((Integer)evt.getNewValue());
+			}
+			else if (aspect.equals("state") && this.worker.isDone()) {
+				this.dispose();
+			}
+		}
+	}
+
+	@Override
+	public void actionPerformed(ActionEvent evt) {
+		if (evt.getSource() == btnCancel) {
+			this.worker.cancel(true);
+		}
+	}
+
+}
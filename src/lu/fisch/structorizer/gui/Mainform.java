@@ -118,7 +118,9 @@ package lu.fisch.structorizer.gui;
 
 import java.io.*;
 import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Map.Entry;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -702,9 +704,18 @@ public class Mainform  extends LangFrame implements NSDController, IRoutinePoolL
 			// START KGU#699 2019-03-27: Enh. #717
 			Element.E_WHEEL_SCROLL_UNIT = Integer.parseInt(ini.getProperty("wheelScrollUnit", "0"));
 			// END KGU#699 2019-03-27
-			// START KGU#494 2018-09-10: Issue #508
-			Element.E_PADDING_FIX = ini.getProperty("fixPadding", "0").equals("1");
-			// END KGU#494 2018-09-10
+			// START KGU#910 2026-10-19
+			try {
+				Element.E_UNDO_ELEMENT_LIMIT = Integer.parseInt(ini.getProperty("undoElementLimit", "200000"));
+			}
+			catch (NumberFormatException ex) {}
+			// END KGU#910 2026-10-19
+			// START KGU#922 2026-10-19: Drawing preferences shared with the headless image export
+			//// START KGU#494 2018-09-10: Issue #508
+			//Element.E_PADDING_FIX = ini.getProperty("fixPadding", "0").equals("1");
+			//// END KGU#494 2018-09-10
+			loadDrawingPreferences(ini, (diagram == null) ? null : diagram.getDiagramControllers());
+			// END KGU#922 2026-10-19
 
 			// START KGU#300 2016-12-02: Enh. #300
 			Diagram.retrieveVersion = ini.getProperty("retrieveVersion", "false").equals("true");
@@ -729,42 +740,7 @@ public class Mainform  extends LangFrame implements NSDController, IRoutinePoolL
 				diagram.fetchIniProperties(ini);
 				// END KGU#602 2018-10-28
 				
-				// ==================== diagram menu settings ====================
-				// DIN 66261
-				if (ini.getProperty("DIN","1").equals("1")) // default = 1 (since version 3.30)
-				{
-					//diagram.setDIN();
-					Element.E_DIN = true;
-				}
-				// comments
-				if (ini.getProperty("showComments","1").equals("0")) // default = 1
-				{
-					//diagram.setComments(false);
-					// START KGU#549 2018-07-09: Bugfix #555 - the mode of the last session wasn't restored anymore 
-					//Element.E_SHOWCOMMENTS = true;
-					Element.E_SHOWCOMMENTS = false;
-					// END KGU#549 2018-07-09
-				}
-				// START KGU#227 2016-08-01: Enh. #128
-				//diagram.setCommentsPlusText(ini.getProperty("commentsPlusText","0").equals("1"));	// default = 0
-				Element.E_COMMENTSPLUSTEXT = ini.getProperty("commentsPlusText","0").equals("1");	// default = 0
-				// END KGU#227 2016-08-01
-				if (ini.getProperty("switchTextComments","0").equals("1")) // default = 0
-				{
-					//diagram.setToggleTC(true);
-					Element.E_TOGGLETC = true;
-				}
-				// syntax highlighting
-				if (ini.getProperty("varHightlight","1").equals("1")) // default = 0
-				{
-					//diagram.setHightlightVars(true);
-					Element.E_VARHIGHLIGHT = true;	// this is now directly used for drawing
-					diagram.resetDrawingInfo();
-				}
-				// START KGU#477 2017-12-06: Enh. #487
-				//diagram.setHideDeclarations(ini.getProperty("hideDeclarations","0").equals("1"));	// default = 0
-				Element.E_HIDE_DECL = ini.getProperty("hideDeclarations","0").equals("1");	// default = 0
-				// END KGU#227 2017-12-06
+				// KGU#922 2026-10-19: Display modes and controller aliases are set by loadDrawingPreferences()
 				// analyser
 				// KGU 2016-07-27: Analyser should by default be switched on. See Issue #207
 				/*
@@ -774,34 +750,6 @@ public class Mainform  extends LangFrame implements NSDController, IRoutinePoolL
 				}
 				/**/
 				
-				// START KGU#480 2018-01-21: Enh. #490
-				if (Element.controllerName2Alias.isEmpty()) {
-					for (DiagramController controller: diagram.getDiagramControllers()) {
-						if (controller == null) {
-							controller = new TurtleBox();
-						}
-						String className = controller.getClass().getName();
-						for (Entry<String, java.lang.reflect.Method> entry: controller.getProcedureMap().entrySet()) {
-							String sign = entry.getKey();
-							String name = entry.getValue().getName();
-							String[] parts = sign.split("#");
-							if (!name.equalsIgnoreCase(parts[0])) {
-								name = parts[0];
-							}
-							String alias = ini.getProperty(className + "." + sign, "").trim();
-							if (!alias.isEmpty()) {
-								Element.controllerName2Alias.put(sign, alias);
-								Element.controllerAlias2Name.put(alias.toLowerCase() + "#" + parts[1], name);
-							}
-						}
-					}
-					if (ini.getProperty("applyAliases", "0").equals("1")) // default = 0
-					{
-						//diagram.setApplyAliases(true);
-						Element.E_APPLY_ALIASES = true;
-					}
-				}
-				// END KGU#480 2018-01-18
 				// START KGU#305 2016-12-14: Enh. #305
 				//System.out.println("* setArrangerIndex() ...");
 				diagram.setArrangerIndex(ini.getProperty("index", "1").equals("1"));	// default = 1
@@ -867,9 +815,7 @@ public class Mainform  extends LangFrame implements NSDController, IRoutinePoolL
 			Arranger.A_STORE_RELATIVE_COORDS = ini.getProperty("arrangerRelCoords", "0").equals("1");
 			// END KGU#630 2019-01-13
 			
-			// START KGU#331 2017-01-15: Enh. #333 Comparison operator display
-			Element.E_SHOW_UNICODE_OPERATORS = ini.getProperty("unicodeCompOps", "1").equals("1");
-			// END KGU#331 2017-01-15
+			// KGU#922 2026-10-19: Comparison operator display mode now set by loadDrawingPreferences()
 			
 			// START KGU#428 2017-10-06: Enh. #430
 			InputBox.FONT_SIZE = Float.parseFloat(ini.getProperty("editorFontSize", "0"));
@@ -890,6 +836,73 @@ public class Mainform  extends LangFrame implements NSDController, IRoutinePoolL
 		}
 	}
 
+	// START KGU#922 2026-10-19: Shared with the headless image export (Structorizer -x)
+	/**
+	 * Sets the diagram display modes (DIN, comments, highlighting etc.) and the
+	 * {@link DiagramController} routine aliases from the given preferences. Needs no GUI.
+	 * @param ini - the loaded preferences
+	 * @param controllers - the available diagram controllers (a null entry stands for the
+	 * Turtleizer), or null for Turtleizer only
+	 */
+	public static void loadDrawingPreferences(Ini ini, List<DiagramController> controllers)
+	{
+		// START KGU#494 2018-09-10: Issue #508
+		Element.E_PADDING_FIX = ini.getProperty("fixPadding", "0").equals("1");
+		// END KGU#494 2018-09-10
+		// ==================== diagram menu settings ====================
+		// DIN 66261
+		Element.E_DIN = ini.getProperty("DIN","1").equals("1"); // default = 1 (since version 3.30)
+		// comments
+		// START KGU#549 2018-07-09: Bugfix #555 - the mode of the last session wasn't restored anymore 
+		Element.E_SHOWCOMMENTS = !ini.getProperty("showComments","1").equals("0"); // default = 1
+		// END KGU#549 2018-07-09
+		// START KGU#227 2016-08-01: Enh. #128
+		Element.E_COMMENTSPLUSTEXT = ini.getProperty("commentsPlusText","0").equals("1");	// default = 0
+		// END KGU#227 2016-08-01
+		Element.E_TOGGLETC = ini.getProperty("switchTextComments","0").equals("1"); // default = 0
+		// syntax highlighting
+		Element.E_VARHIGHLIGHT = ini.getProperty("varHightlight","1").equals("1");	// this is now directly used for drawing
+		// START KGU#477 2017-12-06: Enh. #487
+		Element.E_HIDE_DECL = ini.getProperty("hideDeclarations","0").equals("1");	// default = 0
+		// END KGU#227 2017-12-06
+		// START KGU#331 2017-01-15: Enh. #333 Comparison operator display
+		Element.E_SHOW_UNICODE_OPERATORS = ini.getProperty("unicodeCompOps", "1").equals("1");
+		// END KGU#331 2017-01-15
+		
+		// START KGU#480 2018-01-21: Enh. #490
+		if (Element.controllerName2Alias.isEmpty()) {
+			if (controllers == null) {
+				controllers = new ArrayList<DiagramController>();
+				controllers.add(null);
+			}
+			for (DiagramController controller: controllers) {
+				if (controller == null) {
+					controller = new TurtleBox();
+				}
+				String className = controller.getClass().getName();
+				for (Entry<String, java.lang.reflect.Method> entry: controller.getProcedureMap().entrySet()) {
+					String sign = entry.getKey();
+					String name = entry.getValue().getName();
+					String[] parts = sign.split("#");
+					if (!name.equalsIgnoreCase(parts[0])) {
+						name = parts[0];
+					}
+					String alias = ini.getProperty(className + "." + sign, "").trim();
+					if (!alias.isEmpty()) {
+						Element.controllerName2Alias.put(sign, alias);
+						Element.controllerAlias2Name.put(alias.toLowerCase() + "#" + parts[1], name);
+					}
+				}
+			}
+			if (ini.getProperty("applyAliases", "0").equals("1")) // default = 0
+			{
+				Element.E_APPLY_ALIASES = true;
+			}
+		}
+		// END KGU#480 2018-01-18
+	}
+	// END KGU#922 2026-10-19
+
 
 	public void saveToINI()
 	{
@@ -969,6 +982,9 @@ public class Mainform  extends LangFrame implements NSDController, IRoutinePoolL
 			// START KGU#699 2019-03-27: Enh. #717
 			ini.setProperty("wheelScrollUnit", Integer.toString(Element.E_WHEEL_SCROLL_UNIT));
 			// END KGU#699 2019-03-27
+			// START KGU#910 2026-10-19
+			ini.setProperty("undoElementLimit", Integer.toString(Element.E_UNDO_ELEMENT_LIMIT));
+			// END KGU#910 2026-10-19
 
 			// ========================== fonts ==============================
 			// START KGU#494 2018-09-10: Issue #508
@@ -0,0 +1,78 @@
+/*
+    Turtlebox
+
+    Copyright (C) 2009  Bob Fisch
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or any
+    later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+
+package lu.fisch.turtle;
+
+/******************************************************************************************************
+ *
+ *      Description:    Turtleizer variant without GUI for batch processing of turtle drawings.
+ *
+ ******************************************************************************************************
+ *
+ *      Comment:
+ *      2026-10-19 (KGU#905)
+ *      - Inherits the entire routine map from TurtleBox (hence the same API for the Executor), but
+ *        never establishes a window and never delays. The drawing is obtained via getImage(),
+ *        saveImage(File, String), or saveSVG(File).
+ *
+ ******************************************************************************************************///
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Headless {@link TurtleBox}: provides the same routines (forward, right, gotoXY, setPenColor etc.)
+ * but draws to a virtual canvas at full speed, without any window. Usable in a headless JVM.
+ * The final picture may be exported via {@link #getImage()}, {@link #saveImage(File, String)}, or
+ * {@link #saveSVG(File)}, or simply by {@link #save(File)}.
+ */
+public class HeadlessTurtleBox extends TurtleBox {
+
+	/**
+	 * Creates a headless Turtleizer with a virtual canvas of the given size. The turtle
+	 * will start in the centre of the canvas.
+	 * @param width - canvas width in pixels
+	 * @param height - canvas height in pixels
+	 */
+	public HeadlessTurtleBox(int width, int height)
+	{
+		super(width, height, true);
+	}
+
+	/**
+	 * Saves the drawing to the given file, the format being derived from the file name
+	 * extension: ".svg" produces an SVG file, other extensions are passed to the available
+	 * image writers (e.g. ".png", ".jpg", ".bmp").
+	 * @param file - the target file
+	 * @throws IOException if the file can't be written or the format isn't supported
+	 */
+	public void save(File file) throws IOException
+	{
+		String fileName = file.getName();
+		int posDot = fileName.lastIndexOf('.');
+		String ext = posDot < 0 ? "png" : fileName.substring(posDot + 1).toLowerCase();
+		if (ext.equals("svg")) {
+			saveSVG(file);
+		}
+		else {
+			saveImage(file, ext);
+		}
+	}
+
+}
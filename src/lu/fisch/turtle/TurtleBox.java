@@ -64,19 +64,45 @@ import java.awt.Graphics2D;
 import java.awt.Image;
 import java.awt.Point;
 import java.awt.RenderingHints;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+// START KGU#906 2026-10-19: Zoom and pan
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseWheelEvent;
+// END KGU#906 2026-10-19
+import java.awt.image.BufferedImage;
+// START KGU#905 2026-10-19: Enh. Image / SVG export
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+// END KGU#905 2026-10-19
 import java.lang.reflect.Method;
+// START KGU#906 2026-10-19
+import java.util.BitSet;
+// END KGU#906 2026-10-19
 import java.util.HashMap;
-import java.util.Vector;
+//import java.util.Vector;
 //import java.util.logging.Logger;
 
+import javax.imageio.ImageIO;
 import javax.swing.ImageIcon;
 import javax.swing.JFrame;
 import javax.swing.JPanel;
+import javax.swing.Timer;
 
 import lu.fisch.diagrcontrol.*;
-import lu.fisch.turtle.elements.Element;
-import lu.fisch.turtle.elements.Line;
-import lu.fisch.turtle.elements.Move;
+// START KGU#904 2026-10-19: Compact segment storage
+//import lu.fisch.turtle.elements.Element;
+//import lu.fisch.turtle.elements.Line;
+//import lu.fisch.turtle.elements.Move;
+import lu.fisch.turtle.elements.SegmentStore;
+// END KGU#904 2026-10-19
+// START KGU#906 2026-10-19: Viewport culling
+import lu.fisch.turtle.elements.SegmentGrid;
+// END KGU#906 2026-10-19
 
 /**
  * TurtleBox - a Turtle controller providing an interface usable e.g. by Structorizer
@@ -182,8 +208,46 @@ public class TurtleBox implements DelayableDiagramController
     // END KGU#303 2016-12-02
     private boolean turtleHidden = false;
     private int delay = 10;
-    private Vector<Element> elements = new Vector<Element>();
+    // START KGU#904 2026-10-19: Primitive segment store instead of Line and Move objects
+    //private Vector<Element> elements = new Vector<Element>();
+    /** The drawn line segments (moves without trace aren't stored) */
+    private final SegmentStore segments = new SegmentStore();
+    // END KGU#904 2026-10-19
+    // START KGU#906 2026-10-19: Viewport culling, zoom and pan
+    /** Spatial index of {@link #segments}, only maintained and used on the event dispatch thread */
+    private final SegmentGrid segmentGrid = new SegmentGrid(segments);
+    /** Zoom factor of the view (screen pixels per drawing unit) */
+    private double viewZoom = 1.0;
+    /** Translation of the view (screen pixels), i.e. screen = drawing * {@link #viewZoom} + offset */
+    private double viewOffsetX = 0.0, viewOffsetY = 0.0;
+    /** Zoom limits */
+    private static final double MIN_ZOOM = 1.0/64, MAX_ZOOM = 64.0;
+    // END KGU#906 2026-10-19
     private JPanel panel; 
+    // START KGU#902 2026-10-19: Frame-synchronous repainting in zero-delay mode
+    /** Minimum interval between two repaints in ms if the animation delay is 0 */
+    private static final int FRAME_INTERVAL = 20;
+    /** Set by turtle commands in zero-delay mode, reset on the next frame repaint */
+    private volatile boolean isDirty = false;
+    /** Repaints the panel once per frame if {@link #isDirty} is set, runs only while drawing is pending */
+    private Timer frameTimer = null;
+    // END KGU#902 2026-10-19
+    // START KGU#903 2026-10-19: Incremental rendering into a backing image
+    /** Offscreen image holding the rasterized elements (without the turtle) */
+    private BufferedImage backImage = null;
+    /** The background colour {@link #backImage} was filled with */
+    private Color backImageColor = null;
+    /** Number of {@link #segments} already rasterized in {@link #backImage} */
+    private int nPaintedElements = 0;
+    /** Set if the {@link #backImage} must be redrawn completely on next paint */
+    private volatile boolean backImageInvalid = false;
+    // END KGU#903 2026-10-19
+    // START KGU#905 2026-10-19: Headless mode (no frame, no delays)
+    /** If true then no GUI will ever be materialized, the drawing is only available via export */
+    private boolean headless = false;
+    /** Canvas dimensions in headless mode */
+    private int canvasWidth = 0, canvasHeight = 0;
+    // END KGU#905 2026-10-19
 
     /**
      * This constructor does NOT realize a GUI, it just creates a light-weight instance
@@ -211,6 +275,31 @@ public class TurtleBox implements DelayableDiagramController
         init(width,height);
     }
 
+    // START KGU#905 2026-10-19: Headless mode
+    /**
+     * Creates a TurtleBox that never materializes a GUI if {@code headless} is true:
+     * all routines work at full speed on a virtual canvas of the given size, the
+     * result can be obtained via {@link #getImage()}, {@link #saveImage(File, String)},
+     * or {@link #saveSVG(File)}. Otherwise equivalent to {@link #TurtleBox(int, int)}.
+     * @param width - the width of the canvas in pixels
+     * @param height - the height of the canvas in pixels
+     * @param headless - whether the GUI is to be suppressed
+     * @see HeadlessTurtleBox
+     */
+    protected TurtleBox(int width, int height, boolean headless)
+    {
+        if (this.headless = headless) {
+            canvasWidth = Math.max(width, 1);
+            canvasHeight = Math.max(height, 1);
+            home = new Point(canvasWidth/2, canvasHeight/2);
+            reinit();
+        }
+        else {
+            init(width, height);
+        }
+    }
+    // END KGU#905 2026-10-19
+
     /* (non-Javadoc)
      * @see java.awt.Component#setName(java.lang.String)
      */
@@ -270,6 +359,110 @@ public class TurtleBox implements DelayableDiagramController
     }
     // END #272 2016-10-16
 
+    // START KGU#903 2026-10-19: Incremental rendering into a backing image
+    /**
+     * Brings the backing image up to date: only the elements added since the last
+     * paint are rasterized, unless the size, the background colour, or the element
+     * list has changed in a way requiring a complete redraw.
+     * Must only be called on the event dispatch thread.
+     * @param width - current panel width
+     * @param height - current panel height
+     */
+    private void updateBackImage(int width, int height)
+    {
+        int nElements = segments.size();
+        if (backImage == null
+                || backImage.getWidth() != Math.max(width, 1)
+                || backImage.getHeight() != Math.max(height, 1)
+                || !backgroundColor.equals(backImageColor)
+                || nElements < nPaintedElements
+                || backImageInvalid) {
+            backImage = new BufferedImage(Math.max(width, 1), Math.max(height, 1), BufferedImage.TYPE_INT_RGB);
+            backImageColor = backgroundColor;
+            backImageInvalid = false;
+            nPaintedElements = 0;
+            Graphics2D g = backImage.createGraphics();
+            g.setColor(backgroundColor);
+            g.fillRect(0, 0, backImage.getWidth(), backImage.getHeight());
+            // START KGU#906 2026-10-19: Only draw the segments within the viewport
+            nPaintedElements = segmentGrid.update();
+            double margin = 2.0 / viewZoom;	// allow for anti-aliasing
+            BitSet visible = segmentGrid.query(
+                    -viewOffsetX / viewZoom - margin,
+                    -viewOffsetY / viewZoom - margin,
+                    (backImage.getWidth() - viewOffsetX) / viewZoom + margin,
+                    (backImage.getHeight() - viewOffsetY) / viewZoom + margin);
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            segments.draw(g, visible, viewZoom, viewOffsetX, viewOffsetY);
+            // END KGU#906 2026-10-19
+            g.dispose();
+        }
+        if (nPaintedElements < nElements) {
+            Graphics2D g = backImage.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g.setColor(defaultPenColor);
+            // The segment store can't shrink during execution (clearing is detected above)
+            // START KGU#904 2026-10-19
+            //for (int i = nPaintedElements; i < nElements; i++) {
+            //    elements.get(i).draw(g);
+            //}
+            // START KGU#906 2026-10-19
+            //segments.draw(g, nPaintedElements, nElements);
+            segments.draw(g, nPaintedElements, nElements, viewZoom, viewOffsetX, viewOffsetY);
+            // END KGU#906 2026-10-19
+            // END KGU#904 2026-10-19
+            g.dispose();
+            nPaintedElements = nElements;
+        }
+    }
+
+    /**
+     * Forces a complete redraw of the backing image on the next paint (e.g. after
+     * the element list was replaced)
+     */
+    private void invalidateBackImage()
+    {
+        backImageInvalid = true;
+    }
+    // END KGU#903 2026-10-19
+
+    // START KGU#906 2026-10-19: Zoom and pan
+    /**
+     * Scales the view by {@code factor}, keeping the drawing point at screen position
+     * ({@code x}, {@code y}) in place. Must only be called on the event dispatch thread.
+     */
+    private void zoomView(double factor, int x, int y)
+    {
+        double newZoom = Math.max(MIN_ZOOM, Math.min(MAX_ZOOM, viewZoom * factor));
+        viewOffsetX = x - (x - viewOffsetX) * newZoom / viewZoom;
+        viewOffsetY = y - (y - viewOffsetY) * newZoom / viewZoom;
+        viewZoom = newZoom;
+        invalidateBackImage();
+        panel.repaint();
+    }
+
+    /**
+     * Shifts the view by ({@code dx}, {@code dy}) screen pixels. Must only be called
+     * on the event dispatch thread.
+     */
+    private void panView(int dx, int dy)
+    {
+        viewOffsetX += dx;
+        viewOffsetY += dy;
+        invalidateBackImage();
+        panel.repaint();
+    }
+
+    /** Restores the original view (no zoom, no shift) */
+    private void resetView()
+    {
+        viewZoom = 1.0;
+        viewOffsetX = viewOffsetY = 0.0;
+        invalidateBackImage();
+        panel.repaint();
+    }
+    // END KGU#906 2026-10-19
+
     /**
      * Initialises this instance establishing the window with the graphics canvas
      * and places the Turtle in the centre.
@@ -292,34 +485,38 @@ public class TurtleBox implements DelayableDiagramController
                 // set anti-aliasing rendering
                 ((Graphics2D)g).setRenderingHint(RenderingHints.KEY_ANTIALIASING,RenderingHints.VALUE_ANTIALIAS_ON);
 
-                // clear background
-                // START KGU#303 2016-12-02: Enh. #302
-                //g.setColor(Color.WHITE);
-                g.setColor(backgroundColor);
-                // END KGU#303 2016-12-02
-                g.fillRect(0,0,getWidth(),getHeight());
-                // START KGU#303 2016-12-03: Enh. #302
-                //g.setColor(Color.BLACK);
-                g.setColor(defaultPenColor);
-                // END KGU#303 2016-12-03
-
-                // draw all elements
-                // START KGU#449 2017-10-28: The use of iterators may lead to lots of
-                //java.util.ConcurrentModificationException errors slowing down all.
-                // So we better avoid the iterator and loop against a snapshot size
-                // (which is safe because the elements Vector can't shrink during execution).
-                //for (Element ele : elements)
-                //{
-                //    ele.draw(g);
+                // START KGU#903 2026-10-19: Incremental rendering into a backing image
+                //// clear background
+                //// START KGU#303 2016-12-02: Enh. #302
+                ////g.setColor(Color.WHITE);
+                //g.setColor(backgroundColor);
+                //// END KGU#303 2016-12-02
+                //g.fillRect(0,0,getWidth(),getHeight());
+                //// START KGU#303 2016-12-03: Enh. #302
+                ////g.setColor(Color.BLACK);
+                //g.setColor(defaultPenColor);
+                //// END KGU#303 2016-12-03
+                //
+                //// draw all elements
+                //// START KGU#449 2017-10-28: The use of iterators may lead to lots of
+                ////java.util.ConcurrentModificationException errors slowing down all.
+                //// So we better avoid the iterator and loop against a snapshot size
+                //// (which is safe because the elements Vector can't shrink during execution).
+                ////for (Element ele : elements)
+                ////{
+                ////    ele.draw(g);
+                ////}
+                //int nElements = elements.size();
+                //// START KGU#597 2018-10-12: Issue #622 - Monitoring drawing detention underMac
+                ////logger.config("Painting " + nElements + " elements...");
+                //// END KGU#597 2018-10-12
+                //for (int i = 0; i < nElements; i++) {
+                //	elements.get(i).draw(g);
                 //}
-                int nElements = elements.size();
-                // START KGU#597 2018-10-12: Issue #622 - Monitoring drawing detention underMac
-                //logger.config("Painting " + nElements + " elements...");
-                // END KGU#597 2018-10-12
-                for (int i = 0; i < nElements; i++) {
-                	elements.get(i).draw(g);
-                }
-                // END KGU#449 2017-10-28
+                //// END KGU#449 2017-10-28
+                updateBackImage(getWidth(), getHeight());
+                g.drawImage(backImage, 0, 0, null);
+                // END KGU#903 2026-10-19
 
                 if (!turtleHidden)
                 {
@@ -333,10 +530,18 @@ public class TurtleBox implements DelayableDiagramController
                     // apply rotation
                     //g.rotate((270-angle)/180*Math.PI,xRot,yRot);
                     // fix drawing point
-                    double x = posX - (image.getWidth(this)/2);
-                    double y = posY - (image.getHeight(this)/2);
+                    // START KGU#906 2026-10-19: Consider the view transformation
+                    //double x = posX - (image.getWidth(this)/2);
+                    //double y = posY - (image.getHeight(this)/2);
+                    //// apply rotation
+                    //g.rotate((270-angle)/180*Math.PI, posX, posY);
+                    double viewX = posX * viewZoom + viewOffsetX;
+                    double viewY = posY * viewZoom + viewOffsetY;
+                    double x = viewX - (image.getWidth(this)/2);
+                    double y = viewY - (image.getHeight(this)/2);
                     // apply rotation
-                    g.rotate((270-angle)/180*Math.PI, posX, posY);
+                    g.rotate((270-angle)/180*Math.PI, viewX, viewY);
+                    // END KGU#906 2026-10-19
                     // END #272 2016-10-16
                     // draw the turtle
                     g.drawImage(image,(int)Math.round(x),(int)Math.round(y),this);
@@ -357,7 +562,60 @@ public class TurtleBox implements DelayableDiagramController
         setPos(new Point(panel.getWidth()/2,panel.getHeight()/2));
         home = new Point(panel.getWidth()/2,panel.getHeight()/2);
         panel.setDoubleBuffered(true);
+        // START KGU#906 2026-10-19: Zoom with the mouse wheel, pan by dragging, reset on double-click
+        MouseAdapter viewHandler = new MouseAdapter() {
+            private Point dragStart = null;
+            @Override
+            public void mouseWheelMoved(MouseWheelEvent evt) {
+                zoomView(Math.pow(1.1, -evt.getPreciseWheelRotation()), evt.getX(), evt.getY());
+            }
+            @Override
+            public void mousePressed(MouseEvent evt) {
+                dragStart = evt.getPoint();
+            }
+            @Override
+            public void mouseReleased(MouseEvent evt) {
+                dragStart = null;
+            }
+            @Override
+            public void mouseDragged(MouseEvent evt) {
+                if (dragStart != null) {
+                    panView(evt.getX() - dragStart.x, evt.getY() - dragStart.y);
+                    dragStart = evt.getPoint();
+                }
+            }
+            @Override
+            public void mouseClicked(MouseEvent evt) {
+                if (evt.getClickCount() == 2) {
+                    resetView();
+                }
+            }
+        };
+        panel.addMouseListener(viewHandler);
+        panel.addMouseMotionListener(viewHandler);
+        panel.addMouseWheelListener(viewHandler);
+        // END KGU#906 2026-10-19
         panel.repaint();
+        // START KGU#902 2026-10-19: Frame-synchronous repainting in zero-delay mode
+        if (frameTimer == null) {
+            frameTimer = new Timer(FRAME_INTERVAL, new ActionListener() {
+                @Override
+                public void actionPerformed(ActionEvent evt) {
+                    if (isDirty) {
+                        isDirty = false;
+                        panel.repaint();
+                    }
+                    else {
+                        // Nothing pending - sleep until the next command (see repaint())
+                        frameTimer.stop();
+                        if (isDirty) {
+                            frameTimer.start();
+                        }
+                    }
+                }
+            });
+        }
+        // END KGU#902 2026-10-19
     }
 
     //@Override
@@ -368,6 +626,14 @@ public class TurtleBox implements DelayableDiagramController
      */
     public void setVisible(boolean visible)
     {
+        // START KGU#905 2026-10-19: There is nothing to show in headless mode
+        if (headless) {
+            if (visible) {
+                reinit();
+            }
+            return;
+        }
+        // END KGU#905 2026-10-19
         // START KGU#480 2018-01-16: Enh. #490 - lazy initialization
         if (visible && frame == null) {
             init(300, 300);
@@ -399,7 +665,13 @@ public class TurtleBox implements DelayableDiagramController
      */
     private void reinit()
     {
-        elements.clear();
+        // START KGU#904 2026-10-19
+        //elements.clear();
+        segments.clear();
+        // END KGU#904 2026-10-19
+        // START KGU#903 2026-10-19
+        invalidateBackImage();
+        // END KGU#903 2026-10-19
         angle = -90;
         backgroundColor = Color.WHITE;
         defaultPenColor = Color.BLACK;
@@ -411,6 +683,11 @@ public class TurtleBox implements DelayableDiagramController
     
     private void delay()
     {
+        // START KGU#905 2026-10-19: Neither animation nor delay in headless mode
+        if (headless) {
+            return;
+        }
+        // END KGU#905 2026-10-19
         //panel.repaint();
         // force repaint (not recommended!)
         // START KGU#480 2018-01-16: Enh. #490 - lazy initialization
@@ -418,6 +695,15 @@ public class TurtleBox implements DelayableDiagramController
         	init(300, 300);
         }
         // END KGU#480 2018-01-16
+        // START KGU#902 2026-10-19: Without delay, commands are just collected and repainted once per frame
+        if (delay == 0) {
+            isDirty = true;
+            if (!frameTimer.isRunning()) {
+                frameTimer.start();
+            }
+            return;
+        }
+        // END KGU#902 2026-10-19
         // START KGU#597 2018-10-12: Issue #622 Attempt to fix a drawing contention on some Macbook
         //logger.config(panel + " enqueuing repaint()...");
         panel.repaint();
@@ -442,14 +728,20 @@ public class TurtleBox implements DelayableDiagramController
     {
         Point newPos = new Point(pos.x-(int) Math.round(Math.cos(angle/180*Math.PI)*pixels),
                                  pos.y+(int) Math.round(Math.sin(angle/180*Math.PI)*pixels));
+        // START KGU#904 2026-10-19: Moves without trace needn't be stored
+        //if (isPenDown)
+        //{
+        //    elements.add(new Line(pos,newPos,penColor));
+        //}
+        //else
+        //{
+        //    elements.add(new Move(pos,newPos));
+        //}
         if (isPenDown)
         {
-            elements.add(new Line(pos,newPos,penColor));
-        }
-        else
-        {
-            elements.add(new Move(pos,newPos));
+            segments.add(pos.x, pos.y, newPos.x, newPos.y, penColor);
         }
+        // END KGU#904 2026-10-19
         //System.out.println("from: ("+pos.x+","+pos.y+") => to: ("+newPos.x+","+newPos.y+")");
         setPos(newPos);
         delay();
@@ -465,14 +757,20 @@ public class TurtleBox implements DelayableDiagramController
         double newX = posX - Math.cos(angle/180*Math.PI) * pixels;
         double newY = posY + Math.sin(angle/180*Math.PI) * pixels;
         Point newPos = new Point((int)Math.round(newX), (int)Math.round(newY));
+        // START KGU#904 2026-10-19: Keep the precise coordinates, moves without trace needn't be stored
+        //if (isPenDown)
+        //{
+        //    elements.add(new Line(pos, newPos, penColor));
+        //}
+        //else
+        //{
+        //    elements.add(new Move(pos, newPos));
+        //}
         if (isPenDown)
         {
-            elements.add(new Line(pos, newPos, penColor));
-        }
-        else
-        {
-            elements.add(new Move(pos, newPos));
+            segments.add((float)posX, (float)posY, (float)newX, (float)newY, penColor);
         }
+        // END KGU#904 2026-10-19
         //System.out.println("from: ("+pos.x+","+pos.y+") => to: ("+newPos.x+","+newPos.y+")");
         setPos(newX, newY);
         delay();
@@ -545,6 +843,12 @@ public class TurtleBox implements DelayableDiagramController
      */
     public void setBackgroundColor(Color bgColor)
     {
+        // START KGU#905 2026-10-19: Headless mode
+        if (headless) {
+            backgroundColor = bgColor;
+            return;
+        }
+        // END KGU#905 2026-10-19
         // START KGU#480 2018-01-16: Enh. #490 - lazy initialization
         if (frame == null) {
             init(300, 300);
@@ -572,6 +876,12 @@ public class TurtleBox implements DelayableDiagramController
      */
     public void setPenColor(Color penColor)
     {
+        // START KGU#905 2026-10-19: Headless mode
+        if (headless) {
+            defaultPenColor = penColor;
+            return;
+        }
+        // END KGU#905 2026-10-19
         // START KGU#480 2018-01-16: Enh. #490 - lazy initialization
         if (frame == null) {
             init(300, 300);
@@ -661,7 +971,9 @@ public class TurtleBox implements DelayableDiagramController
     public void gotoXY(Integer x, Integer y)
     {
         Point newPos = new Point(x,y);
-        elements.add(new Move(pos,newPos));
+        // START KGU#904 2026-10-19: Moves without trace needn't be stored
+        //elements.add(new Move(pos,newPos));
+        // END KGU#904 2026-10-19
         setPos(newPos);
         delay();
    }
@@ -915,8 +1227,112 @@ public class TurtleBox implements DelayableDiagramController
      */
     public void clear()
     {
-    	this.elements.clear();
+    	// START KGU#904 2026-10-19
+    	//this.elements.clear();
+    	this.segments.clear();
+    	// END KGU#904 2026-10-19
+    	// START KGU#903 2026-10-19
+    	this.invalidateBackImage();
+    	// END KGU#903 2026-10-19
     	this.delay();
     }
     // END KGU#566 2018-07-30
+
+    // START KGU#905 2026-10-19: Enh. Image / SVG export of the drawing
+    /**
+     * @return whether this TurtleBox works without GUI
+     * @see #TurtleBox(int, int, boolean)
+     */
+    public boolean isHeadless()
+    {
+        return headless;
+    }
+
+    private int getCanvasWidth()
+    {
+        if (headless || panel == null) {
+            return Math.max(canvasWidth, 1);
+        }
+        return Math.max(panel.getWidth(), 1);
+    }
+
+    private int getCanvasHeight()
+    {
+        if (headless || panel == null) {
+            return Math.max(canvasHeight, 1);
+        }
+        return Math.max(panel.getHeight(), 1);
+    }
+
+    /**
+     * Renders the current drawing (without the turtle symbol) into a new image of
+     * canvas size.
+     * @return the rendered image
+     */
+    public BufferedImage getImage()
+    {
+        BufferedImage img = new BufferedImage(getCanvasWidth(), getCanvasHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = img.createGraphics();
+        g.setColor(backgroundColor);
+        g.fillRect(0, 0, img.getWidth(), img.getHeight());
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        segments.draw(g, 0, segments.size());
+        g.dispose();
+        return img;
+    }
+
+    /**
+     * Saves the current drawing (without the turtle symbol) as image file.
+     * @param file - the target file
+     * @param formatName - an informal format name as accepted by {@link ImageIO}, e.g. "png"
+     * @throws IOException if the file can't be written or the format isn't supported
+     */
+    public void saveImage(File file, String formatName) throws IOException
+    {
+        if (!ImageIO.write(getImage(), formatName, file)) {
+            throw new IOException("No image writer for format \"" + formatName + "\"");
+        }
+    }
+
+    /**
+     * Saves the current drawing (without the turtle symbol) as SVG file. The
+     * segments are streamed directly into the file.
+     * @param file - the target file
+     * @throws IOException if the file can't be written
+     */
+    public void saveSVG(File file) throws IOException
+    {
+        int width = getCanvasWidth(), height = getCanvasHeight();
+        int nSegments = segments.size();
+        try (BufferedWriter out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), "UTF-8"))) {
+            out.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+            out.write("<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"" + width + "\" height=\"" + height
+                    + "\" viewBox=\"0 0 " + width + " " + height + "\">\n");
+            out.write("<rect width=\"100%\" height=\"100%\" fill=\"" + toHexColor(backgroundColor) + "\"/>\n");
+            // Consecutive segments of equal colour are grouped
+            Color lastColor = null;
+            for (int i = 0; i < nSegments; i++) {
+                Color color = segments.getColor(i);
+                if (!color.equals(lastColor)) {
+                    if (lastColor != null) {
+                        out.write("</g>\n");
+                    }
+                    out.write("<g stroke=\"" + toHexColor(color) + "\" stroke-linecap=\"round\">\n");
+                    lastColor = color;
+                }
+                out.write("<line x1=\"" + segments.getX1(i) + "\" y1=\"" + segments.getY1(i)
+                        + "\" x2=\"" + segments.getX2(i) + "\" y2=\"" + segments.getY2(i) + "\"/>\n");
+            }
+            if (lastColor != null) {
+                out.write("</g>\n");
+            }
+            out.write("</svg>\n");
+        }
+    }
+
+    private static String toHexColor(Color color)
+    {
+        return String.format("#%06x", color.getRGB() & 0xFFFFFF);
+    }
+    // END KGU#905 2026-10-19
 }
@@ -40,6 +40,10 @@ package lu.fisch.turtle.adapters;
  *
  *      Comment:
  *      This adapter class works with static methods and is a kind of proxy for {@link TurtleBox}.
+ *      2026-10-19 (KGU#905): In a headless JVM (e.g. {@code java -Djava.awt.headless=true ...}) a
+ *      {@link HeadlessTurtleBox} is used instead, and the final picture is saved on exit to the file
+ *      specified by system property {@code turtleizer.output} (default "turtleizer.png", an ".svg"
+ *      extension produces SVG). This allows to batch-run exported turtle programs at full speed.
  *      The API for employing applications is retrievable via {@link TurtleBox#getFunctionMap()} and
  *      {@link TurtleBox#getProcedureMap}.
  *
@@ -47,8 +51,16 @@ package lu.fisch.turtle.adapters;
 
 import java.awt.Color;
 
+// START KGU#905 2026-10-19: Headless mode
+import java.awt.GraphicsEnvironment;
+import java.io.File;
+import java.io.IOException;
+// END KGU#905 2026-10-19
 import java.util.HashMap;
 
+// START KGU#905 2026-10-19: Headless mode
+import lu.fisch.turtle.HeadlessTurtleBox;
+// END KGU#905 2026-10-19
 import lu.fisch.turtle.TurtleBox;
 
 /**
@@ -64,6 +76,10 @@ import lu.fisch.turtle.TurtleBox;
 public class Turtleizer {
 	
 	private static TurtleBox turtleBox = null;
+	// START KGU#905 2026-10-19: Headless mode
+	/** System property naming the image or SVG file a headless run saves the drawing to */
+	public static final String OUTPUT_PROPERTY = "turtleizer.output";
+	// END KGU#905 2026-10-19
 	/**
 	 * Maps different Turtleizer function names (in lower-case) to the respective adapter
 	 * method names, which are not of course case-ignorant. This map is needed for 
@@ -105,6 +121,24 @@ public class Turtleizer {
 	private static TurtleBox getTurtleBox()
 	{
 		if (turtleBox == null) {
+			// START KGU#905 2026-10-19: Headless mode saving the picture on exit
+			if (GraphicsEnvironment.isHeadless()) {
+				final HeadlessTurtleBox headlessBox = new HeadlessTurtleBox(500, 500);
+				final File outFile = new File(System.getProperty(OUTPUT_PROPERTY, "turtleizer.png"));
+				Runtime.getRuntime().addShutdownHook(new Thread() {
+					@Override
+					public void run() {
+						try {
+							headlessBox.save(outFile);
+						} catch (IOException ex) {
+							System.err.println("Turtleizer: failed to save " + outFile + ": " + ex.getMessage());
+						}
+					}
+				});
+				turtleBox = headlessBox;
+				return turtleBox;
+			}
+			// END KGU#905 2026-10-19
 			turtleBox = new TurtleBox(500, 500);
 			turtleBox.setVisible(true);
 			turtleBox.setAnimationDelay(0, true);
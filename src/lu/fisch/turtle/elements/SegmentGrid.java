@@ -0,0 +1,194 @@
+/*
+    Turtlebox
+
+    Copyright (C) 2009  Bob Fisch
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or any
+    later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+
+package lu.fisch.turtle.elements;
+
+/******************************************************************************************************
+ *
+ *      Description:    Uniform grid index over the segments of a SegmentStore.
+ *
+ ******************************************************************************************************
+ *
+ *      Comment:
+ *      2026-10-19 (KGU#906)
+ *      - Every segment is registered in all grid cells its bounding box overlaps. Only the occupied
+ *        cells are held (in a hash map), so the drawing area needn't be known in advance.
+ *      - Segments whose bounding box would cover too many cells are kept in a separate list of
+ *        "large" segments, which are always regarded as candidates.
+ *      - The index is not thread-safe: it is meant to be updated and queried by the painting thread
+ *        only. It catches up with the store incrementally and detects a cleared store via its
+ *        generation counter.
+ *
+ ******************************************************************************************************///
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Spatial index (uniform grid of square cells) for the segments of a {@link SegmentStore},
+ * allowing to retrieve the segments possibly intersecting a rectangular viewport.
+ */
+public class SegmentGrid {
+
+	/** Edge length of a grid cell in drawing coordinates */
+	private static final double CELL_SIZE = 64.0;
+	/** Maximum number of cells a single segment is registered in (otherwise it's regarded as large) */
+	private static final int MAX_CELLS_PER_SEGMENT = 64;
+	/** Limit for the absolute value of cell coordinates */
+	private static final int CELL_LIMIT = 1 << 30;
+
+	/** Growable list of segment indices */
+	private static final class IndexList {
+		int[] items = new int[8];
+		int count = 0;
+
+		void add(int item)
+		{
+			if (count == items.length) {
+				int[] newItems = new int[2 * count];
+				System.arraycopy(items, 0, newItems, 0, count);
+				items = newItems;
+			}
+			items[count++] = item;
+		}
+	}
+
+	private final SegmentStore store;
+	private final HashMap<Long, IndexList> cells = new HashMap<Long, IndexList>();
+	private final IndexList largeSegments = new IndexList();
+	/** Number of store segments already indexed */
+	private int nIndexed = 0;
+	/** Store generation the index refers to */
+	private int generation;
+
+	/**
+	 * Creates an (empty) index for the given segment store
+	 * @param store - the indexed segment store
+	 */
+	public SegmentGrid(SegmentStore store)
+	{
+		this.store = store;
+		this.generation = store.getGeneration();
+	}
+
+	private static long cellKey(int cx, int cy)
+	{
+		return ((long)cx << 32) | (cy & 0xFFFFFFFFL);
+	}
+
+	private static int cellCoord(double coord)
+	{
+		// Clamping avoids overflows with absurd coordinates (such segments end up as large ones)
+		return (int)Math.max(-CELL_LIMIT, Math.min(CELL_LIMIT, Math.floor(coord / CELL_SIZE)));
+	}
+
+	/**
+	 * Brings the index up to date with the store, i.e. registers all segments added since
+	 * the last update (or rebuilds the index if the store has been cleared meanwhile).
+	 * @return the number of indexed segments (an upper bound for the query results)
+	 */
+	public int update()
+	{
+		int gen = store.getGeneration();
+		int size = store.size();
+		if (gen != generation || size < nIndexed) {
+			cells.clear();
+			largeSegments.count = 0;
+			nIndexed = 0;
+			generation = gen;
+		}
+		for (int i = nIndexed; i < size; i++) {
+			float x1, y1, x2, y2;
+			try {
+				x1 = store.getX1(i); y1 = store.getY1(i);
+				x2 = store.getX2(i); y2 = store.getY2(i);
+			}
+			catch (NullPointerException | ArrayIndexOutOfBoundsException ex) {
+				// The store has been cleared concurrently, the next update will rebuild the index
+				nIndexed = i;
+				return nIndexed;
+			}
+			int cx1 = cellCoord(Math.min(x1, x2)), cx2 = cellCoord(Math.max(x1, x2));
+			int cy1 = cellCoord(Math.min(y1, y2)), cy2 = cellCoord(Math.max(y1, y2));
+			if (((long)cx2 - cx1 + 1) * ((long)cy2 - cy1 + 1) > MAX_CELLS_PER_SEGMENT) {
+				largeSegments.add(i);
+				continue;
+			}
+			for (int cx = cx1; cx <= cx2; cx++) {
+				for (int cy = cy1; cy <= cy2; cy++) {
+					Long key = cellKey(cx, cy);
+					IndexList cell = cells.get(key);
+					if (cell == null) {
+						cells.put(key, cell = new IndexList());
+					}
+					cell.add(i);
+				}
+			}
+		}
+		nIndexed = size;
+		return nIndexed;
+	}
+
+	/**
+	 * Retrieves the indexed segments possibly intersecting the given rectangle (in drawing
+	 * coordinates). Doesn't update the index.
+	 * @param minX - left border of the rectangle
+	 * @param minY - upper border of the rectangle
+	 * @param maxX - right border of the rectangle
+	 * @param maxY - lower border of the rectangle
+	 * @return the set of candidate segment indices (all less than the last result of {@link #update()})
+	 */
+	public BitSet query(double minX, double minY, double maxX, double maxY)
+	{
+		BitSet result = new BitSet(nIndexed);
+		int cx1 = cellCoord(minX), cx2 = cellCoord(maxX);
+		int cy1 = cellCoord(minY), cy2 = cellCoord(maxY);
+		if (((long)cx2 - cx1 + 1) * ((long)cy2 - cy1 + 1) > cells.size()) {
+			// Viewport is larger than the drawing - rather scan the occupied cells
+			for (Map.Entry<Long, IndexList> entry: cells.entrySet()) {
+				long key = entry.getKey();
+				int cx = (int)(key >> 32), cy = (int)key;
+				if (cx >= cx1 && cx <= cx2 && cy >= cy1 && cy <= cy2) {
+					addAll(result, entry.getValue());
+				}
+			}
+		}
+		else {
+			for (int cx = cx1; cx <= cx2; cx++) {
+				for (int cy = cy1; cy <= cy2; cy++) {
+					IndexList cell = cells.get(cellKey(cx, cy));
+					if (cell != null) {
+						addAll(result, cell);
+					}
+				}
+			}
+		}
+		addAll(result, largeSegments);
+		return result;
+	}
+
+	private static void addAll(BitSet result, IndexList list)
+	{
+		for (int i = 0; i < list.count; i++) {
+			result.set(list.items[i]);
+		}
+	}
+
+}
@@ -0,0 +1,331 @@
+/*
+    Turtlebox
+
+    Copyright (C) 2009  Bob Fisch
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or any
+    later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+
+package lu.fisch.turtle.elements;
+
+/******************************************************************************************************
+ *
+ *      Description:    Compact, chunked store of the line segments drawn by a turtle.
+ *
+ ******************************************************************************************************
+ *
+ *      Comment:
+ *      2026-10-19 (KGU#904)
+ *      - Replaces the Vector of Line and Move objects in TurtleBox: a segment now costs 18 bytes
+ *        (four packed float coordinates and a char index into a colour palette) instead of a Line
+ *        object with two Points. Moves without trace aren't stored at all.
+ *      - The store is organised in chunks of fixed size, such that growing never copies segment
+ *        data. There is a single writer (the executing thread) and any number of readers (the
+ *        painting thread). The writer fills a slot completely before it publishes the new size
+ *        via a volatile field, so readers never need to lock.
+ *      2026-10-19 (KGU#906)
+ *      - Generation counter (to let indexing readers detect a clear()) and drawing methods applying
+ *        a view transformation and a segment selection (viewport culling).
+ *      2026-10-19 (KGU#904)
+ *      - Chunk tables and palette are published together in an immutable holder via a single volatile
+ *        field, such that a reader can't combine the coordinates of one generation with the colours of
+ *        another one after a concurrent clear().
+ *
+ ******************************************************************************************************///
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.util.BitSet;
+import java.util.HashMap;
+
+/**
+ * Growable store of coloured line segments based on primitive arrays.<br/>
+ * Designed for a single appending thread and concurrent reading threads: readers
+ * obtain a consistent prefix of the store by reading {@link #size()} first.
+ */
+public class SegmentStore {
+
+	/** Number of segments per chunk (a power of 2) */
+	private static final int CHUNK_BITS = 12;
+	private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+	private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+	/** Maximum number of distinct colours (further colours are mapped to the last palette entry) */
+	private static final int MAX_COLORS = Character.MAX_VALUE + 1;
+
+	/**
+	 * The chunk tables and the palette as published together. A new instance is created
+	 * whenever one of the tables is replaced (on growth or {@link SegmentStore#clear()}),
+	 * only the empty slots of the chunk tables are filled in place.
+	 */
+	private static final class Tables {
+		/** Coordinate chunks, 4 floats (x1, y1, x2, y2) per segment */
+		final float[][] coordChunks;
+		/** Colour index chunks, one palette index per segment */
+		final char[][] colorChunks;
+		/** Colour palette */
+		final Color[] palette;
+		Tables(float[][] coordChunks, char[][] colorChunks, Color[] palette)
+		{
+			this.coordChunks = coordChunks;
+			this.colorChunks = colorChunks;
+			this.palette = palette;
+		}
+	}
+
+	/** The current chunk tables and palette */
+	private volatile Tables tables = new Tables(new float[4][], new char[4][], new Color[0]);
+	/** Number of completely written segments */
+	private volatile int size = 0;
+
+	private final HashMap<Color, Integer> paletteIndex = new HashMap<Color, Integer>();
+	// START KGU#906 2026-10-19
+	/** Incremented on every {@link #clear()} */
+	private volatile int generation = 0;
+	// END KGU#906 2026-10-19
+
+	/**
+	 * Appends a segment from ({@code x1}, {@code y1}) to ({@code x2}, {@code y2}) with
+	 * colour {@code color}. Must only be called by the (single) writing thread.
+	 * @return the index of the new segment
+	 */
+	public int add(float x1, float y1, float x2, float y2, Color color)
+	{
+		int index = size;
+		int chunkNo = index >>> CHUNK_BITS;
+		int offset = index & CHUNK_MASK;
+		char colIx = (char)getColorIndex(color);
+		Tables tabs = tables;
+		float[][] coords = tabs.coordChunks;
+		char[][] colors = tabs.colorChunks;
+		if (chunkNo >= coords.length) {
+			float[][] newCoords = new float[2 * coords.length][];
+			char[][] newColors = new char[2 * colors.length][];
+			System.arraycopy(coords, 0, newCoords, 0, coords.length);
+			System.arraycopy(colors, 0, newColors, 0, colors.length);
+			tables = new Tables(coords = newCoords, colors = newColors, tabs.palette);
+		}
+		if (coords[chunkNo] == null) {
+			// Colour chunk first: readers check the coordinate chunk for existence
+			colors[chunkNo] = new char[CHUNK_SIZE];
+			coords[chunkNo] = new float[4 * CHUNK_SIZE];
+		}
+		float[] chunk = coords[chunkNo];
+		chunk[4 * offset] = x1;
+		chunk[4 * offset + 1] = y1;
+		chunk[4 * offset + 2] = x2;
+		chunk[4 * offset + 3] = y2;
+		colors[chunkNo][offset] = colIx;
+		// Publish the segment
+		size = index + 1;
+		return index;
+	}
+
+	private int getColorIndex(Color color)
+	{
+		Integer colIx = paletteIndex.get(color);
+		if (colIx == null) {
+			Tables tabs = tables;
+			Color[] pal = tabs.palette;
+			if (pal.length >= MAX_COLORS) {
+				return pal.length - 1;
+			}
+			Color[] newPal = new Color[pal.length + 1];
+			System.arraycopy(pal, 0, newPal, 0, pal.length);
+			newPal[pal.length] = color;
+			tables = new Tables(tabs.coordChunks, tabs.colorChunks, newPal);
+			paletteIndex.put(color, colIx = pal.length);
+		}
+		return colIx;
+	}
+
+	/**
+	 * Removes all segments (and colours). Must only be called by the writing thread.
+	 * Readers still working on an older snapshot won't be disturbed.
+	 */
+	public void clear()
+	{
+		// START KGU#906 2026-10-19
+		generation++;
+		// END KGU#906 2026-10-19
+		size = 0;
+		tables = new Tables(new float[4][], new char[4][], new Color[0]);
+		paletteIndex.clear();
+	}
+
+	// START KGU#906 2026-10-19
+	/**
+	 * @return the number of {@link #clear()} operations so far. Readers maintaining
+	 * derived data (e.g. an index) may compare it to detect the need of a rebuild.
+	 */
+	public int getGeneration()
+	{
+		return generation;
+	}
+	// END KGU#906 2026-10-19
+
+	/** @return the number of published segments */
+	public int size()
+	{
+		return size;
+	}
+
+	/** @return the start x coordinate of segment {@code index} */
+	public float getX1(int index)
+	{
+		return tables.coordChunks[index >>> CHUNK_BITS][4 * (index & CHUNK_MASK)];
+	}
+
+	/** @return the start y coordinate of segment {@code index} */
+	public float getY1(int index)
+	{
+		return tables.coordChunks[index >>> CHUNK_BITS][4 * (index & CHUNK_MASK) + 1];
+	}
+
+	/** @return the end x coordinate of segment {@code index} */
+	public float getX2(int index)
+	{
+		return tables.coordChunks[index >>> CHUNK_BITS][4 * (index & CHUNK_MASK) + 2];
+	}
+
+	/** @return the end y coordinate of segment {@code index} */
+	public float getY2(int index)
+	{
+		return tables.coordChunks[index >>> CHUNK_BITS][4 * (index & CHUNK_MASK) + 3];
+	}
+
+	/** @return the colour of segment {@code index} */
+	public Color getColor(int index)
+	{
+		Tables tabs = tables;
+		return tabs.palette[tabs.colorChunks[index >>> CHUNK_BITS][index & CHUNK_MASK]];
+	}
+
+	/**
+	 * Draws the segments {@code from} (inclusive) to {@code to} (exclusive) into
+	 * {@code graphics}. The caller must ensure {@code to <= }{@link #size()}.
+	 * @param graphics - the target graphics context
+	 * @param from - index of the first segment to draw
+	 * @param to - index beyond the last segment to draw
+	 */
+	public void draw(Graphics2D graphics, int from, int to)
+	{
+		// START KGU#906 2026-10-19: Delegated to the transforming variant
+		draw(graphics, from, to, 1.0, 0.0, 0.0);
+	}
+
+	/**
+	 * Draws the segments {@code from} (inclusive) to {@code to} (exclusive) into
+	 * {@code graphics}, mapping the coordinates by {@code scale} and translation
+	 * ({@code dx}, {@code dy}). The caller must ensure {@code to <= }{@link #size()}.
+	 * @param graphics - the target graphics context
+	 * @param from - index of the first segment to draw
+	 * @param to - index beyond the last segment to draw
+	 * @param scale - the zoom factor
+	 * @param dx - horizontal translation (after scaling)
+	 * @param dy - vertical translation (after scaling)
+	 */
+	public void draw(Graphics2D graphics, int from, int to, double scale, double dx, double dy)
+	{
+		// END KGU#906 2026-10-19
+		// Fetch the volatile field only once - it is consistent with the size read by the caller
+		// unless the store has been cleared concurrently
+		Tables tabs = tables;
+		float[][] coords = tabs.coordChunks;
+		char[][] colors = tabs.colorChunks;
+		Color[] pal = tabs.palette;
+		int lastColIx = -1;
+		for (int i = from; i < to; i++) {
+			// START KGU#906 2026-10-19: A concurrent clear() may have replaced the chunks
+			//float[] chunk = coords[i >>> CHUNK_BITS];
+			if ((i >>> CHUNK_BITS) >= coords.length || coords[i >>> CHUNK_BITS] == null
+					|| colors[i >>> CHUNK_BITS] == null) {
+				break;
+			}
+			float[] chunk = coords[i >>> CHUNK_BITS];
+			// END KGU#906 2026-10-19
+			int offset = i & CHUNK_MASK;
+			int colIx = colors[i >>> CHUNK_BITS][offset];
+			if (colIx != lastColIx) {
+				if (colIx >= pal.length) {
+					break;	// Concurrently cleared
+				}
+				graphics.setColor(pal[colIx]);
+				lastColIx = colIx;
+			}
+			int base = 4 * offset;
+			// START KGU#906 2026-10-19
+			//graphics.drawLine(Math.round(chunk[base]), Math.round(chunk[base+1]),
+			//		Math.round(chunk[base+2]), Math.round(chunk[base+3]));
+			graphics.drawLine((int)Math.round(chunk[base] * scale + dx), (int)Math.round(chunk[base+1] * scale + dy),
+					(int)Math.round(chunk[base+2] * scale + dx), (int)Math.round(chunk[base+3] * scale + dy));
+			// END KGU#906 2026-10-19
+		}
+	}
+
+	// START KGU#906 2026-10-19: Viewport culling
+	/**
+	 * Draws the segments with indices set in {@code selection} (in index order) into
+	 * {@code graphics}, mapping the coordinates by {@code scale} and translation
+	 * ({@code dx}, {@code dy}). All selected indices must be less than {@link #size()}.
+	 * @param graphics - the target graphics context
+	 * @param selection - the indices of the segments to draw
+	 * @param scale - the zoom factor
+	 * @param dx - horizontal translation (after scaling)
+	 * @param dy - vertical translation (after scaling)
+	 * @see SegmentGrid#query(double, double, double, double)
+	 */
+	public void draw(Graphics2D graphics, BitSet selection, double scale, double dx, double dy)
+	{
+		Tables tabs = tables;
+		float[][] coords = tabs.coordChunks;
+		char[][] colors = tabs.colorChunks;
+		Color[] pal = tabs.palette;
+		int lastColIx = -1;
+		for (int i = selection.nextSetBit(0); i >= 0; i = selection.nextSetBit(i+1)) {
+			if ((i >>> CHUNK_BITS) >= coords.length || coords[i >>> CHUNK_BITS] == null
+					|| colors[i >>> CHUNK_BITS] == null) {
+				// A concurrent clear() has replaced the chunks
+				break;
+			}
+			float[] chunk = coords[i >>> CHUNK_BITS];
+			int offset = i & CHUNK_MASK;
+			int colIx = colors[i >>> CHUNK_BITS][offset];
+			if (colIx != lastColIx) {
+				if (colIx >= pal.length) {
+					break;	// Concurrently cleared
+				}
+				graphics.setColor(pal[colIx]);
+				lastColIx = colIx;
+			}
+			int base = 4 * offset;
+			graphics.drawLine((int)Math.round(chunk[base] * scale + dx), (int)Math.round(chunk[base+1] * scale + dy),
+					(int)Math.round(chunk[base+2] * scale + dx), (int)Math.round(chunk[base+3] * scale + dy));
+		}
+	}
+	// END KGU#906 2026-10-19
+
+	/**
+	 * @return the approximate number of bytes occupied by the segment arrays
+	 */
+	public long getFootprint()
+	{
+		long bytes = 0;
+		for (float[] chunk: tables.coordChunks) {
+			if (chunk != null) {
+				bytes += 4L * chunk.length + 2L * CHUNK_SIZE;
+			}
+		}
+		return bytes;
+	}
+}
@@ -55,7 +55,18 @@ package lu.fisch.utils;
  *
  ******************************************************************************************************
  *
- *      Comment:		/
+ *      Comment:
+ *      2026-10-19 (KGU#909)
+ *      - Based on an (unsynchronized) ArrayList instead of a Vector now. Hence a StringList must
+ *        not be read by one thread while another one may modify it. Background tasks (analyser,
+ *        analysis reports) therefore only work on detached diagram copies (Root.copyForAnalysis()),
+ *        the Executor relies on the editing lock of the diagrams under execution and on the
+ *        synchronized pause/resume hand-over.
+ *      - Bulk operations (add(StringList), insert(StringList, int), remove(int, int), removeAll(...))
+ *        now work on the backing list in one go rather than element by element.
+ *      2026-10-19 (KGU#915)
+ *      - copy() no longer takes the detour via the CSV representation unless there are null elements
+ *        (the result is the same as before, including the dropping of a single blank element).
  *
  ******************************************************************************************************/
 
@@ -69,11 +80,18 @@ import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
 import java.io.Reader;
 import java.io.Writer;
-import java.util.Vector;
+// START KGU#909 2026-10-19: Unsynchronized list
+//import java.util.Vector;
+import java.util.ArrayList;
+import java.util.Arrays;
+// END KGU#909 2026-10-19
 
 public class StringList {
 
-	private Vector<String> strings = new Vector<String>();
+	// START KGU#909 2026-10-19: Unsynchronized list
+	//private Vector<String> strings = new Vector<String>();
+	private final ArrayList<String> strings;
+	// END KGU#909 2026-10-19
 
 	/**
 	 * Constructs this as empty StringList
@@ -83,7 +101,11 @@ public class StringList {
 	 * @see #explode(String, String)
 	 */
 	public StringList()
-	{}
+	// START KGU#909 2026-10-19
+	{
+		strings = new ArrayList<String>();
+	}
+	// END KGU#909 2026-10-19
 	
 	// START KGU 2017-06-18: New constructor as pendant to toArray()
 	/**
@@ -95,9 +117,12 @@ public class StringList {
 	 */
 	public StringList(String[] _strings)
 	{
-		for (String str: _strings) {
-			strings.add(str);
-		}
+		// START KGU#909 2026-10-19
+		//for (String str: _strings) {
+		//	strings.add(str);
+		//}
+		strings = new ArrayList<String>(Arrays.asList(_strings));
+		// END KGU#909 2026-10-19
 	}
 	// END KGU 2017-06-18
 	
@@ -335,7 +360,17 @@ public class StringList {
 		// FIXME (KGU) Why this complicated detour?
 		StringList sl = new StringList();
 		//sl.add("TEXT");
-		sl.setCommaText(this.getCommaText()+"");
+		// START KGU#915 2026-10-19: Direct copy where the CSV detour is known to be transparent
+		//sl.setCommaText(this.getCommaText()+"");
+		if (strings.contains(null)) {
+			// null elements get lost or garbled via CSV, so keep that behaviour
+			sl.setCommaText(this.getCommaText()+"");
+		}
+		else if (strings.size() != 1 || !strings.get(0).trim().isEmpty()) {
+			// (A single blank element used to get lost via CSV)
+			sl.strings.addAll(strings);
+		}
+		// END KGU#915 2026-10-19
 		return sl;
 	}
 	
@@ -353,10 +388,15 @@ public class StringList {
 		StringList sl = new StringList();
 		if (_start < 0) _start = 0;
 		if (_end > this.count()) _end = this.count();
-		for (int i = _start; i < _end; i++)
-		{
-			sl.add(this.get(i) + "");
+		// START KGU#909 2026-10-19: Bulk copy (strings are immutable, no need to clone them)
+		//for (int i = _start; i < _end; i++)
+		//{
+		//	sl.add(this.get(i) + "");
+		//}
+		if (_start < _end) {
+			sl.strings.addAll(this.strings.subList(_start, _end));
 		}
+		// END KGU#909 2026-10-19
 		return sl;
 	}
 
@@ -395,7 +435,7 @@ public class StringList {
 				return false;
 			}
 			else if (comp >= 0) {
-				strings.insertElementAt(_string, i);
+				strings.add(i, _string);
 				return true;
 			}
 		}
@@ -429,7 +469,7 @@ public class StringList {
 				// FIXME: Shouldn't strings of the same length be ordered lexicographically?
 				if ((strings.get(i)).length()<_string.length())
 				{
-					strings.insertElementAt(_string,i);
+					strings.add(i, _string);
 					inserted = true;
 					break;
 				}
@@ -516,10 +556,13 @@ public class StringList {
 	 */
 	public void add(StringList _stringList)
 	{
-		for (int i=0; i<_stringList.count(); i++)
-		{
-			strings.add(_stringList.get(i));
-		}
+		// START KGU#909 2026-10-19: Bulk operation
+		//for (int i=0; i<_stringList.count(); i++)
+		//{
+		//	strings.add(_stringList.get(i));
+		//}
+		strings.addAll(_stringList.strings);
+		// END KGU#909 2026-10-19
 	}
 
 	/**
@@ -583,7 +626,7 @@ public class StringList {
 	 */
 	public int lastIndexOf(String _string, int _backwardFrom)
 	{
-		return this.strings.lastIndexOf(_string, _backwardFrom);
+		return lastIndexOfFrom(_string, _backwardFrom);
 	}
 
 	public int lastIndexOf(String _string, boolean _matchCase)
@@ -594,7 +637,7 @@ public class StringList {
 	public int lastIndexOf(String _string, int _backwardFrom, boolean _matchCase)
 	{
 		if (_matchCase)
-			return this.strings.lastIndexOf(_string, _backwardFrom);
+			return lastIndexOfFrom(_string, _backwardFrom);
 
 		_string = _string.toLowerCase();
 		for (int i=_backwardFrom; i > 0; i--)
@@ -612,9 +655,41 @@ public class StringList {
 		return this.strings.indexOf(_string);
 	}
 
+	// START KGU#909 2026-10-19: Replacements for the respective Vector methods
+	/** Forward search from index {@code _from} (semantics of {@code Vector.indexOf(Object, int)}) */
+	private int indexOfFrom(String _string, int _from)
+	{
+		if (_from < 0) {
+			throw new ArrayIndexOutOfBoundsException(_from);
+		}
+		for (int i = _from; i < strings.size(); i++) {
+			String elem = strings.get(i);
+			if (_string == null ? elem == null : _string.equals(elem)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/** Backward search from index {@code _from} (semantics of {@code Vector.lastIndexOf(Object, int)}) */
+	private int lastIndexOfFrom(String _string, int _from)
+	{
+		if (_from >= strings.size()) {
+			throw new IndexOutOfBoundsException(_from + " >= " + strings.size());
+		}
+		for (int i = _from; i >= 0; i--) {
+			String elem = strings.get(i);
+			if (_string == null ? elem == null : _string.equals(elem)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+	// END KGU#909 2026-10-19
+
 	public int indexOf(String _string, int _from)
 	{
-		return this.strings.indexOf(_string, _from);
+		return indexOfFrom(_string, _from);
 	}
 
 	public int indexOf(String _string, boolean _matchCase)
@@ -625,7 +700,7 @@ public class StringList {
 	public int indexOf(String _string, int _from, boolean _matchCase)
 	{
 		if (_matchCase)
-			return this.strings.indexOf(_string, _from);
+			return indexOfFrom(_string, _from);
 
 		_string = _string.toLowerCase();
 		for (int i=_from; i<strings.size(); i++)
@@ -734,8 +809,11 @@ public class StringList {
 	{
 		if (_index < strings.size() && _index >= 0)
 		{
-			strings.remove(_index);
-			strings.insertElementAt(_s,_index);
+			// START KGU#909 2026-10-19
+			//strings.remove(_index);
+			//strings.insertElementAt(_s,_index);
+			strings.set(_index, _s);
+			// END KGU#909 2026-10-19
 		}
 	}
 
@@ -762,11 +840,11 @@ public class StringList {
 	/**
 	 * Removes the {@code _index}th element from the StringList.
 	 * @param _index - the position of the element to be removed
-	 * @throws ArrayIndexOutOfBoundsException if {@code _index} is out of range (_index < 0 || _index >= count())
+	 * @throws IndexOutOfBoundsException if {@code _index} is out of range (_index < 0 || _index >= count())
 	 */
 	public void delete(int _index)
 	{
-		strings.removeElementAt(_index);
+		strings.remove(_index);
 	}
 
 	/**
@@ -774,11 +852,11 @@ public class StringList {
 	 * Throws an exception if _index is negative or larger than the current length.
 	 * @param _strList - the StringList to be inserted
 	 * @param _index - the insertion index
-	 * @throws ArrayIndexOutOfBoundsException if {@code _index} is out of range (_index < 0 || _index > count())
+	 * @throws IndexOutOfBoundsException if {@code _index} is out of range (_index < 0 || _index > count())
 	 */
 	public void insert(String _string, int _index)
 	{
-		strings.insertElementAt(_string,_index);
+		strings.add(_index, _string);
 	}
 	
 	/**
@@ -787,14 +865,17 @@ public class StringList {
 	 * is negative or larger than the current length.
 	 * @param _strList - the StringList to be inserted
 	 * @param _index - the insertion index
-	 * @throws ArrayIndexOutOfBoundsException if {@code _index} is out of range (_index < 0 || _index > count())
+	 * @throws IndexOutOfBoundsException if {@code _index} is out of range (_index < 0 || _index > count())
 	 */
 	public void insert(StringList _strList, int _index)
 	{
 		if (_index >= 0 && _index <= strings.size() && !_strList.isEmpty()) {
-			for (int i = 0; i < _strList.count(); i++) {
-				strings.insertElementAt(_strList.get(i), _index++);
-			}
+			// START KGU#909 2026-10-19: Bulk operation
+			//for (int i = 0; i < _strList.count(); i++) {
+			//	strings.insertElementAt(_strList.get(i), _index++);
+			//}
+			strings.addAll(_index, _strList.strings);
+			// END KGU#909 2026-10-19
 		}
 	}
 
@@ -1221,21 +1302,41 @@ public class StringList {
      */
     public int removeAll(String _string, boolean _matchCase)
     {
-        int nRemoved = 0;
-        int i = 0;
-        while (i < count())
+        // START KGU#909 2026-10-19: Compaction in a single pass instead of repeated element removal
+        //int nRemoved = 0;
+        //int i = 0;
+        //while (i < count())
+        //{
+        //    if (_matchCase && strings.get(i).equals(_string) || strings.get(i).equalsIgnoreCase(_string))
+        //    {
+        //        strings.removeElementAt(i);
+        //        nRemoved++;
+        //    }
+        //    else
+        //    {
+        //        i++;    			
+        //    }
+        //}
+        //return nRemoved;
+        int size = strings.size();
+        int nKept = 0;
+        for (int i = 0; i < size; i++)
         {
-            if (_matchCase && strings.get(i).equals(_string) || strings.get(i).equalsIgnoreCase(_string))
-            {
-                strings.removeElementAt(i);
-                nRemoved++;
-            }
-            else
+            String elem = strings.get(i);
+            // (The condition is the original one, which actually ignores _matchCase)
+            if (!(_matchCase && elem.equals(_string) || elem.equalsIgnoreCase(_string)))
             {
-                i++;    			
+                if (nKept < i) {
+                    strings.set(nKept, elem);
+                }
+                nKept++;
             }
         }
-        return nRemoved;
+        if (nKept < size) {
+            strings.subList(nKept, size).clear();
+        }
+        return size - nKept;
+        // END KGU#909 2026-10-19
     }
     // END KGU#375 2017-04-04
     // END KGU 2015-11-25
@@ -1254,10 +1355,13 @@ public class StringList {
         int pos = -1;
         while ((pos = this.indexOf(_subList, pos+1, _matchCase)) >= 0)
         {
-            for (int i = 0; i < _subList.count(); i++)
-            {
-                strings.removeElementAt(pos);
-            }
+            // START KGU#909 2026-10-19: Range removal
+            //for (int i = 0; i < _subList.count(); i++)
+            //{
+            //    strings.removeElementAt(pos);
+            //}
+            strings.subList(pos, pos + _subList.count()).clear();
+            // END KGU#909 2026-10-19
             nRemoved++;
         }
         return nRemoved;
@@ -1344,7 +1448,7 @@ public class StringList {
     		if (_matchCase && strings.get(i).equals(_stringOld) ||
     				!_matchCase && strings.get(i).equalsIgnoreCase(_stringOld))
     		{
-    			strings.setElementAt(_stringNew, i);
+    			strings.set(i, _stringNew);
     			nReplaced++;
     		}
     	}
@@ -1372,12 +1476,15 @@ public class StringList {
     // START BOB 2016-08-01
     public String[] toArray()
     {
-        String[] array = new String[count()];
-        for (int i = 0; i < count(); i++) {
-            String get = strings.get(i);
-            array[i]=get;
-        }
-        return array;
+        // START KGU#909 2026-10-19
+        //String[] array = new String[count()];
+        //for (int i = 0; i < count(); i++) {
+        //    String get = strings.get(i);
+        //    array[i]=get;
+        //}
+        //return array;
+        return strings.toArray(new String[strings.size()]);
+        // END KGU#909 2026-10-19
     }
     
     /**
@@ -1399,9 +1506,15 @@ public class StringList {
      */
     public void remove(int fromIndex, int toIndex)
     {
-    	for (int count = Math.min(toIndex, this.strings.size())-fromIndex; count > 0; count--) {
-    		strings.remove(fromIndex);
+    	// START KGU#909 2026-10-19: Range removal
+    	//for (int count = Math.min(toIndex, this.strings.size())-fromIndex; count > 0; count--) {
+    	//	strings.remove(fromIndex);
+    	//}
+    	int endIndex = Math.min(toIndex, this.strings.size());
+    	if (fromIndex < endIndex) {
+    		strings.subList(fromIndex, endIndex).clear();
     	}
+    	// END KGU#909 2026-10-19
     }
     // END KGU 2017-01-31
     